@@ -0,0 +1,170 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.pizzaordering.ingredient.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Configuration of the primary database and its read replicas.
+ * 
+ * Read-only transactions go to the replicas listed on datasource.replicas.urls, everything else to the database of
+ * spring.datasource.url. With no replica listed every connection comes from the primary database.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Configuration
+public class DataSourceConfiguration {
+	
+	/**
+	 * Prefix of pool settings, shared by primary and replica pools.
+	 */
+	private static final String HIKARI_PREFIX = "spring.datasource.hikari";
+	
+	/**
+	 * Properties of primary database.
+	 */
+	@Autowired
+	DataSourceProperties dataSourceProperties;
+	
+	/**
+	 * Environment, source of pool settings.
+	 */
+	@Autowired
+	Environment environment;
+	
+	/**
+	 * Meter registry, fed by every pool.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * JDBC URLs of read replicas.
+	 */
+	@Value("${datasource.replicas.urls:}")
+	private String[] replicaUrls;
+	
+	/**
+	 * User of read replicas.
+	 */
+	@Value("${datasource.replicas.username:${spring.datasource.username:}}")
+	private String replicaUsername;
+	
+	/**
+	 * Password of read replicas.
+	 */
+	@Value("${datasource.replicas.password:${spring.datasource.password:}}")
+	private String replicaPassword;
+	
+	/**
+	 * Interval between health checks of read replicas in milliseconds.
+	 */
+	@Value("${datasource.replicas.health-check-ms:5000}")
+	private long healthCheckMillis;
+	
+	/**
+	 * Timeout of health check of a read replica in seconds.
+	 */
+	@Value("${datasource.replicas.health-check-timeout-seconds:1}")
+	private int healthCheckTimeoutSeconds;
+	
+	/**
+	 * Routing between primary database and read replicas, owning their pools.
+	 */
+	private ReplicaRoutingDataSource replicaRoutingDataSource;
+	
+	/**
+	 * Data source of the application, routing between primary database and read replicas. Connections are fetched
+	 * on first statement, so routing sees the read-only flag of the transaction already begun.
+	 * 
+	 * @return Data source.
+	 */
+	@Bean
+	@Primary
+	public DataSource dataSource() {
+		HikariDataSource primary = pool(dataSourceProperties.getUrl(), dataSourceProperties.getUsername(),
+				dataSourceProperties.getPassword());
+		List<DataSource> replicas = new ArrayList<DataSource>();
+		HikariDataSource replica = null;
+		
+		primary.setPoolName("primary");
+		
+		for (String replicaUrl : replicaUrls) {
+			if (replicaUrl.trim().isEmpty()) {
+				continue;
+			}
+			
+			replica = pool(replicaUrl.trim(), replicaUsername, replicaPassword);
+			replica.setPoolName(ReplicaRoutingDataSource.REPLICA + replicas.size());
+			replica.setReadOnly(true);
+			replicas.add(replica);
+		}
+		
+		replicaRoutingDataSource = new ReplicaRoutingDataSource(primary, replicas, healthCheckMillis,
+				healthCheckTimeoutSeconds);
+		
+		return new LazyConnectionDataSourceProxy(replicaRoutingDataSource);
+	}
+	
+	/**
+	 * Stop health checks and close connection pools.
+	 * 
+	 * @throws IOException When a pool can not be closed.
+	 */
+	@PreDestroy
+	public void destroy() throws IOException {
+		if (replicaRoutingDataSource != null) {
+			replicaRoutingDataSource.close();
+		}
+	}
+	
+	/**
+	 * Build connection pool with the pool settings of the primary database.
+	 * 
+	 * @param url JDBC URL.
+	 * @param username User.
+	 * @param password Password.
+	 * @return Connection pool.
+	 */
+	private HikariDataSource pool(String url, String username, String password) {
+		HikariDataSource pool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class)
+				.url(url).username(username).password(password).build();
+		
+		Binder.get(environment).bind(HIKARI_PREFIX, Bindable.ofInstance(pool));
+		pool.setMetricRegistry(meterRegistry);
+		
+		return pool;
+	}
+}
\ No newline at end of file
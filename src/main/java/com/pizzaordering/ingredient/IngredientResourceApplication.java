@@ -13,7 +13,10 @@
 package com.pizzaordering.ingredient;
 
 import org.springframework.boot.SpringApplication;
+import org.springframework.boot.WebApplicationType;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
 
 /**
  * Starter class of application.
@@ -23,6 +26,11 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
  */
 @SpringBootApplication
 public class IngredientResourceApplication {
+	
+	/**
+	 * Profile serving the non-blocking stack instead of the servlet one.
+	 */
+	public static final String REACTIVE_PROFILE = "reactive";
 
 	/**
 	 * Starter method of application.
@@ -30,6 +38,27 @@ public class IngredientResourceApplication {
 	 * @param args Input arguments.
 	 */
 	public static void main(String[] args) {
-		SpringApplication.run(IngredientResourceApplication.class, args);
+		SpringApplication application = new SpringApplication(IngredientResourceApplication.class);
+		
+		if (isReactiveProfileActive(args)) {
+			// Stack is picked before profile properties are read, servlet being deduced while both are on classpath.
+			application.setWebApplicationType(WebApplicationType.REACTIVE);
+		}
+		
+		application.run(args);
+	}
+	
+	/**
+	 * Check whether reactive profile is activated by command line, system property or environment variable.
+	 * 
+	 * @param args Input arguments.
+	 * @return Whether reactive profile is active.
+	 */
+	private static boolean isReactiveProfileActive(String[] args) {
+		StandardEnvironment environment = new StandardEnvironment();
+		
+		environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+		
+		return environment.acceptsProfiles(REACTIVE_PROFILE);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Configuration of the non-blocking stack, active under the reactive profile.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Configuration
+@Profile("reactive")
+public class ReactiveConfiguration {
+	
+	/**
+	 * Serve the reactive stack on Netty event loops, rather than on Tomcat that is on classpath for the servlet stack.
+	 * 
+	 * @return Netty web server factory.
+	 */
+	@Bean
+	public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+		return new NettyReactiveWebServerFactory();
+	}
+}
\ No newline at end of file
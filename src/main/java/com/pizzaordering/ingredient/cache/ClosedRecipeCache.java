@@ -0,0 +1,317 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.cache;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * In-process cache of closed recipes.
+ * 
+ * Entries live until their time to live expires or the closed recipe resource invalidates them. An invalidated entry
+ * keeps being served while a background refetch runs, so readers never wait on an invalidation. A closed recipe the
+ * resource no longer knows is evicted, and the cache holds at most a maximum number of entries.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ClosedRecipeCache {
+	
+	/**
+	 * Logger.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(ClosedRecipeCache.class);
+	
+	/**
+	 * Cached closed recipes by id.
+	 */
+	private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<Integer, Entry>();
+	
+	/**
+	 * Ids of closed recipes being refetched in background.
+	 */
+	private final Set<Integer> refreshing = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Number of invalidations so far, used to detect an invalidation racing with a fetch.
+	 */
+	private final AtomicLong invalidationEpoch = new AtomicLong();
+	
+	/**
+	 * Loader of closed recipe from closed recipe resource.
+	 */
+	private final Function<Integer, ClosedRecipe> loader;
+	
+	/**
+	 * Listener notified with the id of each invalidated closed recipe once its refetch is cached.
+	 */
+	private final Consumer<Integer> refreshListener;
+	
+	/**
+	 * Maximum number of entries.
+	 */
+	private final int maxSize;
+	
+	/**
+	 * Time to live of entries in nanoseconds.
+	 */
+	private final long timeToLiveNanos;
+	
+	/**
+	 * Executor of background refetches.
+	 */
+	private final Executor refreshExecutor;
+	
+	/**
+	 * Counter of failed background refetches, closed recipes no longer known excluded.
+	 */
+	private final Counter refreshFailureCounter;
+	
+	/**
+	 * Counter of entries evicted because closed recipe resource no longer knows them.
+	 */
+	private final Counter notFoundEvictionCounter;
+	
+	/**
+	 * Counter of entries evicted to keep the cache within its maximum size.
+	 */
+	private final Counter sizeEvictionCounter;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param loader Loader of closed recipe from closed recipe resource.
+	 * @param refreshListener Listener notified once an invalidated closed recipe is refetched or evicted as unknown.
+	 * @param timeToLiveMillis Time to live of entries in milliseconds.
+	 * @param maxSize Maximum number of entries.
+	 * @param refreshExecutor Executor of background refetches.
+	 * @param meterRegistry Registry of refetch failure and eviction metrics.
+	 */
+	public ClosedRecipeCache(Function<Integer, ClosedRecipe> loader, Consumer<Integer> refreshListener,
+			long timeToLiveMillis, int maxSize, Executor refreshExecutor, MeterRegistry meterRegistry) {
+		this.loader = loader;
+		this.refreshListener = refreshListener;
+		this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+		this.maxSize = maxSize;
+		this.refreshExecutor = refreshExecutor;
+		this.refreshFailureCounter = Counter.builder("closedrecipe.cache.refresh.failures")
+				.description("Background refetches of closed recipes failed").register(meterRegistry);
+		this.notFoundEvictionCounter = Counter.builder("closedrecipe.cache.evictions").tag("cause", "not-found")
+				.description("Closed recipes evicted from cache").register(meterRegistry);
+		this.sizeEvictionCounter = Counter.builder("closedrecipe.cache.evictions").tag("cause", "size")
+				.description("Closed recipes evicted from cache").register(meterRegistry);
+	}
+	
+	/**
+	 * Get closed recipe, loading it when absent or expired.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Closed recipe, possibly stale while its refetch is running.
+	 */
+	public ClosedRecipe get(Integer closedRecipeId) {
+		Entry entry = entries.get(closedRecipeId);
+		
+		if (entry == null || System.nanoTime() - entry.loadedAt > timeToLiveNanos) {
+			return load(closedRecipeId);
+		}
+		
+		if (entry.stale) {
+			refresh(closedRecipeId);
+		}
+		
+		return entry.closedRecipe;
+	}
+	
+	/**
+	 * Invalidate closed recipe, refetching it in background.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Whether closed recipe was cached.
+	 */
+	public boolean invalidate(Integer closedRecipeId) {
+		Entry entry = null;
+		
+		invalidationEpoch.incrementAndGet();
+		
+		entry = entries.computeIfPresent(closedRecipeId,
+				(id, current) -> new Entry(current.closedRecipe, current.loadedAt, true));
+		
+		if (entry != null) {
+			refresh(closedRecipeId);
+		} else {
+			// Nothing stale to be served, derived data can be dropped right away.
+			refreshListener.accept(closedRecipeId);
+		}
+		
+		return entry != null;
+	}
+	
+	/**
+	 * Get number of cached closed recipes.
+	 * 
+	 * @return Number of cached closed recipes.
+	 */
+	public int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * Load closed recipe on caller thread and cache it, evicting it when closed recipe resource no longer knows it.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Closed recipe loaded.
+	 */
+	private ClosedRecipe load(Integer closedRecipeId) {
+		long epoch = invalidationEpoch.get();
+		ClosedRecipe closedRecipe = null;
+		
+		try {
+			closedRecipe = loader.apply(closedRecipeId);
+		} catch (HttpClientErrorException e) {
+			if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+				evictNotFound(closedRecipeId);
+			}
+			
+			throw e;
+		}
+		
+		if (!entries.containsKey(closedRecipeId)) {
+			evictForSize();
+		}
+		
+		// An invalidation during the fetch may mean the answer is already old, keep it marked for refetch.
+		entries.put(closedRecipeId, new Entry(closedRecipe, System.nanoTime(), epoch != invalidationEpoch.get()));
+		
+		return closedRecipe;
+	}
+	
+	/**
+	 * Evict closed recipe no longer known by closed recipe resource, so derived data is dropped too.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 */
+	private void evictNotFound(Integer closedRecipeId) {
+		if (entries.remove(closedRecipeId) != null) {
+			notFoundEvictionCounter.increment();
+			LOGGER.info("Closed recipe {} no longer found, evicted from cache", closedRecipeId);
+		}
+		
+		refreshListener.accept(closedRecipeId);
+	}
+	
+	/**
+	 * Evict entries until there is room for a new one. Concurrent loads may briefly overshoot the maximum size.
+	 */
+	private void evictForSize() {
+		Iterator<Integer> iterator = entries.keySet().iterator();
+		
+		// Any entry goes, an evicted closed recipe is loaded again on next read.
+		while (entries.size() >= maxSize && iterator.hasNext()) {
+			iterator.next();
+			iterator.remove();
+			sizeEvictionCounter.increment();
+		}
+	}
+	
+	/**
+	 * Refetch closed recipe in background, once at a time per id.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 */
+	private void refresh(Integer closedRecipeId) {
+		if (!refreshing.add(closedRecipeId)) {
+			return;
+		}
+		
+		try {
+			refreshExecutor.execute(() -> {
+				try {
+					load(closedRecipeId);
+					refreshListener.accept(closedRecipeId);
+				} catch (HttpClientErrorException e) {
+					if (e.getStatusCode() != HttpStatus.NOT_FOUND) {
+						onRefreshFailure(closedRecipeId, e);
+					}
+				} catch (RuntimeException e) {
+					onRefreshFailure(closedRecipeId, e);
+				} finally {
+					refreshing.remove(closedRecipeId);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			refreshing.remove(closedRecipeId);
+		}
+	}
+	
+	/**
+	 * Report failed background refetch, stale entry keeps being served and next read retries the refetch.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param e Failure of refetch.
+	 */
+	private void onRefreshFailure(Integer closedRecipeId, RuntimeException e) {
+		refreshFailureCounter.increment();
+		LOGGER.warn("Failed to refetch closed recipe {}, serving stale entry", closedRecipeId, e);
+	}
+	
+	/**
+	 * Cached closed recipe.
+	 */
+	private static class Entry {
+		
+		/**
+		 * Closed recipe.
+		 */
+		private final ClosedRecipe closedRecipe;
+		
+		/**
+		 * Moment closed recipe was loaded, in nanoseconds.
+		 */
+		private final long loadedAt;
+		
+		/**
+		 * Whether closed recipe was invalidated and must be refetched.
+		 */
+		private final boolean stale;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param closedRecipe Closed recipe.
+		 * @param loadedAt Moment closed recipe was loaded, in nanoseconds.
+		 * @param stale Whether closed recipe was invalidated and must be refetched.
+		 */
+		private Entry(ClosedRecipe closedRecipe, long loadedAt, boolean stale) {
+			this.closedRecipe = closedRecipe;
+			this.loadedAt = loadedAt;
+			this.stale = stale;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.cache;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published once an invalidated closed recipe is refetched, so data derived from it can be invalidated along.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ClosedRecipeRefreshedEvent extends ApplicationEvent {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of closed recipe refetched.
+	 */
+	private final Integer closedRecipeId;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param source Publisher of event.
+	 * @param closedRecipeId Id of closed recipe refetched.
+	 */
+	public ClosedRecipeRefreshedEvent(Object source, Integer closedRecipeId) {
+		super(source);
+		this.closedRecipeId = closedRecipeId;
+	}
+	
+	/**
+	 * Get id of closed recipe invalidated.
+	 * 
+	 * @return Id of closed recipe refetched.
+	 */
+	public Integer getClosedRecipeId() {
+		return closedRecipeId;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.cache;
+
+import java.util.Set;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Event published once a new catalog of effective discounts is swapped in, so data priced with the previous one can be
+ * repriced along.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class EffectiveDiscountsChangedEvent extends ApplicationEvent {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Ids of ingredients whose effective discount changed.
+	 */
+	private final Set<Long> ingredientIds;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param source Publisher of event.
+	 * @param ingredientIds Ids of ingredients whose effective discount changed.
+	 */
+	public EffectiveDiscountsChangedEvent(Object source, Set<Long> ingredientIds) {
+		super(source);
+		this.ingredientIds = ingredientIds;
+	}
+	
+	/**
+	 * Get ids of ingredients whose effective discount changed.
+	 * 
+	 * @return Ids of ingredients whose effective discount changed.
+	 */
+	public Set<Long> getIngredientIds() {
+		return ingredientIds;
+	}
+}
\ No newline at end of file
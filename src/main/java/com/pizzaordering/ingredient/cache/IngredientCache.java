@@ -0,0 +1,135 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.cache;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * In-process cache of ingredients, kept up to date by the service writing them and bounded in size and time.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientCache {
+	
+	/**
+	 * Cached ingredients by id.
+	 */
+	private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<Long, Entry>();
+	
+	/**
+	 * Time to live of entries in nanoseconds.
+	 */
+	private final long timeToLiveNanos;
+	
+	/**
+	 * Maximum number of cached ingredients.
+	 */
+	private final int maxSize;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param timeToLiveMillis Time to live of entries in milliseconds.
+	 * @param maxSize Maximum number of cached ingredients.
+	 */
+	public IngredientCache(long timeToLiveMillis, int maxSize) {
+		this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+		this.maxSize = maxSize;
+	}
+	
+	/**
+	 * Get cached ingredient.
+	 * 
+	 * @param id Id of ingredient.
+	 * @return Cached ingredient, or null when absent or expired.
+	 */
+	public Ingredient get(Long id) {
+		Entry entry = entries.get(id);
+		
+		if (entry == null) {
+			return null;
+		}
+		
+		if (System.nanoTime() - entry.loadedAt > timeToLiveNanos) {
+			entries.remove(id, entry);
+			
+			return null;
+		}
+		
+		return entry.ingredient;
+	}
+	
+	/**
+	 * Cache ingredient, skipped when cache is full and ingredient is not cached yet.
+	 * 
+	 * @param ingredient Ingredient loaded or saved, ignored when null.
+	 */
+	public void put(Ingredient ingredient) {
+		if (ingredient == null || ingredient.getId() == null) {
+			return;
+		}
+		
+		if (entries.size() >= maxSize && !entries.containsKey(ingredient.getId())) {
+			return;
+		}
+		
+		entries.put(ingredient.getId(), new Entry(ingredient, System.nanoTime()));
+	}
+	
+	/**
+	 * Evict cached ingredient.
+	 * 
+	 * @param id Id of ingredient.
+	 */
+	public void evict(Long id) {
+		entries.remove(id);
+	}
+	
+	/**
+	 * Evict every cached ingredient.
+	 */
+	public void clear() {
+		entries.clear();
+	}
+	
+	/**
+	 * Cached ingredient.
+	 */
+	private static class Entry {
+		
+		/**
+		 * Ingredient.
+		 */
+		private final Ingredient ingredient;
+		
+		/**
+		 * Moment ingredient was cached, in nanoseconds.
+		 */
+		private final long loadedAt;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param ingredient Ingredient.
+		 * @param loadedAt Moment ingredient was cached, in nanoseconds.
+		 */
+		private Entry(Ingredient ingredient, long loadedAt) {
+			this.ingredient = ingredient;
+			this.loadedAt = loadedAt;
+		}
+	}
+}
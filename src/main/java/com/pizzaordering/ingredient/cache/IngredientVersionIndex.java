@@ -0,0 +1,210 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.cache;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import com.pizzaordering.ingredient.domain.IngredientVersion;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * In-memory index of ingredient versions, answering conditional reads without touching the database.
+ * 
+ * Versions are derived from the content of the ingredient rather than counted, so every replica computes the same
+ * ETag for the same row. Entries expire like cached ingredients, bounding how long a change made by another replica
+ * can go unnoticed.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientVersionIndex {
+	
+	/**
+	 * FNV-1a 64 bit offset basis.
+	 */
+	private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+	
+	/**
+	 * FNV-1a 64 bit prime.
+	 */
+	private static final long FNV_PRIME = 0x100000001b3L;
+	
+	/**
+	 * Indexed versions by id of ingredient.
+	 */
+	private final ConcurrentHashMap<Long, Entry> entries = new ConcurrentHashMap<Long, Entry>();
+	
+	/**
+	 * Time to live of entries in nanoseconds.
+	 */
+	private final long timeToLiveNanos;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param timeToLiveMillis Time to live of entries in milliseconds.
+	 */
+	public IngredientVersionIndex(long timeToLiveMillis) {
+		this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+	}
+	
+	/**
+	 * Get indexed version of ingredient.
+	 * 
+	 * @param id Id of ingredient.
+	 * @return Version of ingredient, or null when absent or expired.
+	 */
+	public IngredientVersion get(Long id) {
+		Entry entry = entries.get(id);
+		
+		if (entry == null) {
+			return null;
+		}
+		
+		if (System.nanoTime() - entry.indexedAt > timeToLiveNanos) {
+			entries.remove(id, entry);
+			
+			return null;
+		}
+		
+		return entry.ingredientVersion;
+	}
+	
+	/**
+	 * Index version of ingredient loaded or saved. Last modification moment is kept when content did not change.
+	 * 
+	 * @param ingredient Ingredient loaded or saved, ignored when null.
+	 * @return Version of ingredient, or null when ingredient was ignored.
+	 */
+	public IngredientVersion record(Ingredient ingredient) {
+		Entry entry = null;
+		
+		if (ingredient == null || ingredient.getId() == null) {
+			return null;
+		}
+		
+		entry = entries.compute(ingredient.getId(), (id, current) -> {
+			String eTag = eTagOf(ingredient);
+			long lastModified = current != null && current.ingredientVersion.getETag().equals(eTag)
+					? current.ingredientVersion.getLastModified() : System.currentTimeMillis();
+			
+			return new Entry(new IngredientVersion(id, eTag, lastModified), System.nanoTime());
+		});
+		
+		return entry.ingredientVersion;
+	}
+	
+	/**
+	 * Remove version of ingredient deleted.
+	 * 
+	 * @param id Id of ingredient.
+	 */
+	public void remove(Long id) {
+		entries.remove(id);
+	}
+	
+	/**
+	 * Combine versions of several ingredients into the version of the collection holding them, in order.
+	 * 
+	 * @param ingredientVersions Versions of ingredients, null elements standing for ingredients not found.
+	 * @param discriminator Extra state of the collection, such as keyset of next page, or null.
+	 * @return Version of collection, without id.
+	 */
+	public static IngredientVersion combine(List<IngredientVersion> ingredientVersions, String discriminator) {
+		StringBuilder builder = new StringBuilder();
+		long lastModified = 0;
+		
+		for (IngredientVersion ingredientVersion : ingredientVersions) {
+			if (ingredientVersion != null) {
+				builder.append(ingredientVersion.getETag());
+				lastModified = Math.max(lastModified, ingredientVersion.getLastModified());
+			}
+			
+			builder.append('|');
+		}
+		
+		builder.append(discriminator);
+		
+		return new IngredientVersion(null, hash(builder.toString()), lastModified);
+	}
+	
+	/**
+	 * Derive ETag from content of ingredient, prices normalized so 3 and 3.00 share an ETag.
+	 * 
+	 * @param ingredient Ingredient.
+	 * @return ETag of ingredient.
+	 */
+	private static String eTagOf(Ingredient ingredient) {
+		return hash(ingredient.getId() + "|" + ingredient.getDescription() + "|" + ingredient.getType() + "|"
+				+ ingredient.getPortionQuantity() + "|" + normalize(ingredient.getPortionPrice()) + "|"
+				+ normalize(ingredient.getPercentageDiscount()) + "|" + ingredient.getReorderThreshold());
+	}
+	
+	/**
+	 * Normalize scale of decimal.
+	 * 
+	 * @param value Decimal, or null.
+	 * @return Plain representation without trailing zeros, or null.
+	 */
+	private static String normalize(BigDecimal value) {
+		return value == null ? null : value.stripTrailingZeros().toPlainString();
+	}
+	
+	/**
+	 * Hash text with FNV-1a 64 bit.
+	 * 
+	 * @param text Text.
+	 * @return Hash in hexadecimal.
+	 */
+	private static String hash(String text) {
+		long hash = FNV_OFFSET_BASIS;
+		
+		for (byte b : text.getBytes(StandardCharsets.UTF_8)) {
+			hash ^= b & 0xff;
+			hash *= FNV_PRIME;
+		}
+		
+		return Long.toHexString(hash);
+	}
+	
+	/**
+	 * Indexed version.
+	 */
+	private static class Entry {
+		
+		/**
+		 * Version of ingredient.
+		 */
+		private final IngredientVersion ingredientVersion;
+		
+		/**
+		 * Moment version was indexed, in nanoseconds.
+		 */
+		private final long indexedAt;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param ingredientVersion Version of ingredient.
+		 * @param indexedAt Moment version was indexed, in nanoseconds.
+		 */
+		private Entry(IngredientVersion ingredientVersion, long indexedAt) {
+			this.ingredientVersion = ingredientVersion;
+			this.indexedAt = indexedAt;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,414 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.cache;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.domain.LongKeyedMap;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * In-memory index of the cost of closed recipes in every pizza size, summed over their portions priced with discounts.
+ * 
+ * Costs are built on first read and then kept up to date incrementally: a reverse index from ingredient to the closed
+ * recipes containing it lets a price or discount change adjust only the costs it affects, by the difference of its
+ * portion price. Reads never lock, writers are serialized on the index, and entries expire after their time to live
+ * so changes made by other instances are picked up eventually.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class RecipeCostIndex {
+	
+	/**
+	 * Indexed costs by id of closed recipe.
+	 */
+	private final ConcurrentHashMap<Integer, RecipeCost> entries = new ConcurrentHashMap<Integer, RecipeCost>();
+	
+	/**
+	 * Ids of indexed closed recipes by id of ingredient they contain, guarded by the index.
+	 */
+	private final Map<Long, Set<Integer>> closedRecipeIdsByIngredient = new HashMap<Long, Set<Integer>>();
+	
+	/**
+	 * Latest pricing columns of ingredients of indexed closed recipes, guarded by the index.
+	 */
+	private final Map<Long, IngredientPrice> ingredientPrices = new HashMap<Long, IngredientPrice>();
+	
+	/**
+	 * Number of updates so far, used to detect an update racing with a build.
+	 */
+	private volatile long updateEpoch;
+	
+	/**
+	 * Loader of closed recipe.
+	 */
+	private final Function<Integer, ClosedRecipe> closedRecipeLoader;
+	
+	/**
+	 * Loader of pricing columns of ingredients by id.
+	 */
+	private final Function<Set<Long>, Map<Long, IngredientPrice>> ingredientPriceLoader;
+	
+	/**
+	 * Pricer of a portion of ingredient with the effective discount of active deals.
+	 */
+	private final Function<IngredientPrice, BigDecimal> portionPricer;
+	
+	/**
+	 * Time to live of entries in nanoseconds.
+	 */
+	private final long timeToLiveNanos;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param closedRecipeLoader Loader of closed recipe.
+	 * @param ingredientPriceLoader Loader of pricing columns of ingredients by id.
+	 * @param portionPricer Pricer of a portion of ingredient with discounts.
+	 * @param timeToLiveMillis Time to live of entries in milliseconds.
+	 */
+	public RecipeCostIndex(Function<Integer, ClosedRecipe> closedRecipeLoader,
+			Function<Set<Long>, Map<Long, IngredientPrice>> ingredientPriceLoader,
+			Function<IngredientPrice, BigDecimal> portionPricer, long timeToLiveMillis) {
+		this.closedRecipeLoader = closedRecipeLoader;
+		this.ingredientPriceLoader = ingredientPriceLoader;
+		this.portionPricer = portionPricer;
+		this.timeToLiveNanos = TimeUnit.MILLISECONDS.toNanos(timeToLiveMillis);
+	}
+	
+	/**
+	 * Get cost of closed recipe, building it when absent or expired.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Cost of closed recipe.
+	 * @throws NoSuchElementException When an ingredient of closed recipe does not exist.
+	 */
+	public RecipeCost get(Integer closedRecipeId) {
+		RecipeCost recipeCost = entries.get(closedRecipeId);
+		
+		if (recipeCost == null || System.nanoTime() - recipeCost.builtAt > timeToLiveNanos) {
+			return build(closedRecipeId);
+		}
+		
+		return recipeCost;
+	}
+	
+	/**
+	 * Update pricing columns of an ingredient, adjusting the cost of indexed closed recipes containing it.
+	 * 
+	 * @param ingredientPrice Pricing columns of ingredient saved.
+	 */
+	public synchronized void updateIngredientPrice(IngredientPrice ingredientPrice) {
+		updateEpoch++;
+		
+		if (closedRecipeIdsByIngredient.containsKey(ingredientPrice.getId())) {
+			ingredientPrices.put(ingredientPrice.getId(), ingredientPrice);
+			
+			reprice(ingredientPrice.getId());
+		}
+	}
+	
+	/**
+	 * Reprice ingredients whose effective discount changed, adjusting the cost of indexed closed recipes containing
+	 * them.
+	 * 
+	 * @param ingredientIds Ids of ingredients.
+	 */
+	public synchronized void repriceIngredients(Collection<Long> ingredientIds) {
+		updateEpoch++;
+		
+		for (Long ingredientId : ingredientIds) {
+			if (ingredientPrices.containsKey(ingredientId)) {
+				reprice(ingredientId);
+			}
+		}
+	}
+	
+	/**
+	 * Evict indexed closed recipes containing an ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient deleted.
+	 */
+	public synchronized void evictIngredient(Long ingredientId) {
+		Set<Integer> closedRecipeIds = closedRecipeIdsByIngredient.get(ingredientId);
+		
+		updateEpoch++;
+		
+		if (closedRecipeIds != null) {
+			for (Integer closedRecipeId : new ArrayList<Integer>(closedRecipeIds)) {
+				remove(closedRecipeId);
+			}
+		}
+	}
+	
+	/**
+	 * Evict closed recipe, its cost being rebuilt on next read.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 */
+	public synchronized void evictClosedRecipe(Integer closedRecipeId) {
+		updateEpoch++;
+		
+		remove(closedRecipeId);
+	}
+	
+	/**
+	 * Get number of indexed closed recipes.
+	 * 
+	 * @return Number of indexed closed recipes.
+	 */
+	public int size() {
+		return entries.size();
+	}
+	
+	/**
+	 * Build cost of closed recipe on caller thread and index it.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Cost of closed recipe built.
+	 */
+	private RecipeCost build(Integer closedRecipeId) {
+		long epoch = updateEpoch;
+		ClosedRecipe closedRecipe = closedRecipeLoader.apply(closedRecipeId);
+		Set<Long> ingredientIds = closedRecipe.getClosedRecipeIngredientMap() != null
+				? closedRecipe.getClosedRecipeIngredientMap().keySet() : Collections.<Long>emptySet();
+		Map<Long, IngredientPrice> loadedPrices = ingredientPriceLoader.apply(ingredientIds);
+		LongKeyedMap<BigDecimal> portionPrices = new LongKeyedMap<BigDecimal>(ingredientIds.size());
+		IngredientPrice ingredientPrice = null;
+		RecipeCost recipeCost = null;
+		
+		for (Long ingredientId : ingredientIds) {
+			ingredientPrice = loadedPrices.get(ingredientId);
+			
+			if (ingredientPrice == null) {
+				throw new NoSuchElementException("Ingredient " + ingredientId + " not found.");
+			}
+			
+			portionPrices.put(ingredientId.longValue(), portionPricer.apply(ingredientPrice));
+		}
+		
+		recipeCost = new RecipeCost(closedRecipe, portionPrices, System.nanoTime());
+		
+		store(recipeCost, loadedPrices, epoch);
+		
+		return recipeCost;
+	}
+	
+	/**
+	 * Index cost of closed recipe built, unless an update ran during the build.
+	 * 
+	 * @param recipeCost Cost of closed recipe built.
+	 * @param loadedPrices Pricing columns of its ingredients.
+	 * @param epoch Update epoch when the build started.
+	 */
+	private synchronized void store(RecipeCost recipeCost, Map<Long, IngredientPrice> loadedPrices, long epoch) {
+		Integer closedRecipeId = recipeCost.getClosedRecipe().getId();
+		
+		// A price or discount change during the build may mean the cost is already old, serve it this once only.
+		if (epoch != updateEpoch) {
+			return;
+		}
+		
+		remove(closedRecipeId);
+		
+		entries.put(closedRecipeId, recipeCost);
+		
+		for (Long ingredientId : recipeCost.portionPrices.keySet()) {
+			closedRecipeIdsByIngredient.computeIfAbsent(ingredientId, id -> new HashSet<Integer>()).add(closedRecipeId);
+			ingredientPrices.put(ingredientId, loadedPrices.get(ingredientId));
+		}
+	}
+	
+	/**
+	 * Reprice an ingredient in every indexed closed recipe containing it, called holding the index.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 */
+	private void reprice(Long ingredientId) {
+		BigDecimal portionPrice = portionPricer.apply(ingredientPrices.get(ingredientId));
+		
+		for (Integer closedRecipeId : closedRecipeIdsByIngredient.get(ingredientId)) {
+			entries.computeIfPresent(closedRecipeId,
+					(id, recipeCost) -> recipeCost.withPortionPrice(ingredientId, portionPrice));
+		}
+	}
+	
+	/**
+	 * Remove indexed closed recipe along with its reverse index entries, called holding the index.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 */
+	private void remove(Integer closedRecipeId) {
+		RecipeCost recipeCost = entries.remove(closedRecipeId);
+		Set<Integer> closedRecipeIds = null;
+		
+		if (recipeCost == null) {
+			return;
+		}
+		
+		for (Long ingredientId : recipeCost.portionPrices.keySet()) {
+			closedRecipeIds = closedRecipeIdsByIngredient.get(ingredientId);
+			
+			if (closedRecipeIds != null && closedRecipeIds.remove(closedRecipeId) && closedRecipeIds.isEmpty()) {
+				closedRecipeIdsByIngredient.remove(ingredientId);
+				ingredientPrices.remove(ingredientId);
+			}
+		}
+	}
+	
+	/**
+	 * Cost of a closed recipe, never mutated once indexed.
+	 */
+	public static class RecipeCost {
+		
+		/**
+		 * Closed recipe priced.
+		 */
+		private final ClosedRecipe closedRecipe;
+		
+		/**
+		 * Price of a portion of each ingredient of closed recipe, with discounts.
+		 */
+		private final LongKeyedMap<BigDecimal> portionPrices;
+		
+		/**
+		 * Cost of closed recipe in the smallest size, whose multiply factor is one.
+		 */
+		private final BigDecimal baseCost;
+		
+		/**
+		 * Cost of closed recipe by ordinal of pizza size.
+		 */
+		private final BigDecimal[] costs;
+		
+		/**
+		 * Moment cost was built, in nanoseconds.
+		 */
+		private final long builtAt;
+		
+		/**
+		 * Constructor, summing cost over portions of closed recipe.
+		 * 
+		 * @param closedRecipe Closed recipe priced.
+		 * @param portionPrices Price of a portion of each ingredient of closed recipe.
+		 * @param builtAt Moment cost was built, in nanoseconds.
+		 */
+		private RecipeCost(ClosedRecipe closedRecipe, LongKeyedMap<BigDecimal> portionPrices, long builtAt) {
+			this(closedRecipe, portionPrices, sumCost(closedRecipe, portionPrices), builtAt);
+		}
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param closedRecipe Closed recipe priced.
+		 * @param portionPrices Price of a portion of each ingredient of closed recipe.
+		 * @param baseCost Cost of closed recipe in the smallest size.
+		 * @param builtAt Moment cost was built, in nanoseconds.
+		 */
+		private RecipeCost(ClosedRecipe closedRecipe, LongKeyedMap<BigDecimal> portionPrices, BigDecimal baseCost,
+				long builtAt) {
+			PizzaSizeMultiplyFactorEnum[] sizes = PizzaSizeMultiplyFactorEnum.values();
+			
+			this.closedRecipe = closedRecipe;
+			this.portionPrices = portionPrices;
+			this.baseCost = baseCost;
+			this.costs = new BigDecimal[sizes.length];
+			this.builtAt = builtAt;
+			
+			for (PizzaSizeMultiplyFactorEnum size : sizes) {
+				costs[size.ordinal()] = baseCost.multiply(BigDecimal.valueOf(size.getMultiplyFactor()));
+			}
+		}
+		
+		/**
+		 * Get closed recipe priced.
+		 * 
+		 * @return Closed recipe priced.
+		 */
+		public ClosedRecipe getClosedRecipe() {
+			return closedRecipe;
+		}
+		
+		/**
+		 * Get cost of closed recipe in a pizza size, without customized ingredients.
+		 * 
+		 * @param size Size of pizza.
+		 * @return Cost of closed recipe.
+		 */
+		public BigDecimal getCost(PizzaSizeMultiplyFactorEnum size) {
+			return costs[size.ordinal()];
+		}
+		
+		/**
+		 * Get price of a portion of an ingredient of closed recipe, with discounts.
+		 * 
+		 * @param ingredientId Id of ingredient.
+		 * @return Price of a portion of ingredient, null when closed recipe does not contain it.
+		 */
+		public BigDecimal getPortionPrice(long ingredientId) {
+			return portionPrices.get(ingredientId);
+		}
+		
+		/**
+		 * Copy cost with a new price of a portion of ingredient, adjusting it by the difference only.
+		 * 
+		 * @param ingredientId Id of ingredient.
+		 * @param portionPrice New price of a portion of ingredient.
+		 * @return Cost adjusted.
+		 */
+		private RecipeCost withPortionPrice(Long ingredientId, BigDecimal portionPrice) {
+			LongKeyedMap<BigDecimal> adjustedPortionPrices = new LongKeyedMap<BigDecimal>(portionPrices);
+			BigDecimal previousPortionPrice = adjustedPortionPrices.put(ingredientId, portionPrice);
+			BigDecimal portionQuantity = BigDecimal.valueOf(
+					closedRecipe.getClosedRecipeIngredientMap().get(ingredientId).getPortionQuantity());
+			
+			return new RecipeCost(closedRecipe, adjustedPortionPrices,
+					baseCost.add(portionPrice.subtract(previousPortionPrice).multiply(portionQuantity)), builtAt);
+		}
+		
+		/**
+		 * Sum cost of closed recipe in the smallest size.
+		 * 
+		 * @param closedRecipe Closed recipe.
+		 * @param portionPrices Price of a portion of each ingredient of closed recipe.
+		 * @return Cost of closed recipe in the smallest size.
+		 */
+		private static BigDecimal sumCost(ClosedRecipe closedRecipe, LongKeyedMap<BigDecimal> portionPrices) {
+			BigDecimal cost = BigDecimal.ZERO;
+			ClosedRecipeIngredient closedRecipeIngredient = null;
+			
+			for (int position = 0; position < portionPrices.size(); position++) {
+				closedRecipeIngredient = closedRecipe.getClosedRecipeIngredientMap().get(portionPrices.keyAt(position));
+				cost = cost.add(portionPrices.valueAt(position).multiply(
+						BigDecimal.valueOf(closedRecipeIngredient.getPortionQuantity())));
+			}
+			
+			return cost;
+		}
+	}
+}
\ No newline at end of file
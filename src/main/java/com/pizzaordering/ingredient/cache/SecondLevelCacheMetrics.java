@@ -0,0 +1,100 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.cache;
+
+import javax.annotation.PostConstruct;
+import javax.cache.Cache;
+import javax.cache.Caching;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+
+/**
+ * Metrics of the second-level cache of ingredients: hits, misses, puts, evictions and size of its region, along with
+ * its hit ratio and the overall Hibernate statistics.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+public class SecondLevelCacheMetrics {
+	
+	/**
+	 * Name of entity manager factory on Hibernate metrics.
+	 */
+	private static final String ENTITY_MANAGER_FACTORY_NAME = "entityManagerFactory";
+	
+	/**
+	 * Entity manager factory.
+	 */
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Bind metrics of second-level cache, once the session factory has built its regions.
+	 */
+	@PostConstruct
+	public void init() {
+		SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+		SecondLevelCacheStatistics ingredientStatistics = sessionFactory.getStatistics()
+				.getSecondLevelCacheStatistics(Ingredient.CACHE_REGION);
+		Cache<Object, Object> ingredientCache = null;
+		
+		HibernateMetrics.monitor(meterRegistry, entityManagerFactory, ENTITY_MANAGER_FACTORY_NAME);
+		
+		// Same default cache manager the region factory of Hibernate resolves, regions being its caches.
+		ingredientCache = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager()
+				.getCache(Ingredient.CACHE_REGION);
+		
+		if (ingredientCache != null) {
+			JCacheMetrics.monitor(meterRegistry, ingredientCache, Tags.empty());
+		}
+		
+		if (ingredientStatistics != null) {
+			Gauge.builder("hibernate.second.level.cache.hit.ratio", ingredientStatistics, this::hitRatio)
+					.tag("region", Ingredient.CACHE_REGION)
+					.description("Share of second-level cache lookups served without reaching the database")
+					.register(meterRegistry);
+		}
+	}
+	
+	/**
+	 * Compute hit ratio of a region.
+	 * 
+	 * @param statistics Statistics of region.
+	 * @return Hit ratio, zero before any lookup.
+	 */
+	private double hitRatio(SecondLevelCacheStatistics statistics) {
+		long hitCount = statistics.getHitCount();
+		long requestCount = hitCount + statistics.getMissCount();
+		
+		return requestCount == 0 ? 0 : (double) hitCount / requestCount;
+	}
+}
\ No newline at end of file
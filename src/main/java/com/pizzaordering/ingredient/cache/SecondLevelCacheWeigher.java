@@ -0,0 +1,123 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.cache;
+
+import java.io.Serializable;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+
+import org.hibernate.cache.spi.entry.CacheEntry;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+
+/**
+ * Weigher of second-level cache entries, approximating their heap footprint in bytes so a region is bounded by memory
+ * rather than by number of rows.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class SecondLevelCacheWeigher implements Weigher<Object, Object> {
+	
+	/**
+	 * Weight of an entry without its state: key, cache entry, read-write item and map node.
+	 */
+	private static final int ENTRY_WEIGHT = 160;
+	
+	/**
+	 * Weight of a string without its characters.
+	 */
+	private static final int STRING_WEIGHT = 40;
+	
+	/**
+	 * Weight of a big decimal, scale and unscaled value included.
+	 */
+	private static final int BIG_DECIMAL_WEIGHT = 40;
+	
+	/**
+	 * Weight of a boxed primitive or any other value.
+	 */
+	private static final int VALUE_WEIGHT = 16;
+	
+	/**
+	 * Name of the wrapper of read-write entries, an item or the lock of a row being updated, nested in a class that is
+	 * not public.
+	 */
+	private static final String LOCKABLE_CLASS_NAME =
+			"org.hibernate.cache.jcache.access.AbstractReadWriteRegionAccessStrategy$Lockable";
+	
+	/**
+	 * Wrapper of read-write entries.
+	 */
+	private final Class<?> lockableClass;
+	
+	/**
+	 * Accessor of the cache entry of a read-write wrapper, null for a lock.
+	 */
+	private final Method lockableValue;
+	
+	/**
+	 * Constructor, resolving the read-write wrapper once.
+	 * 
+	 * @throws ReflectiveOperationException When Hibernate JCache is not on classpath.
+	 */
+	public SecondLevelCacheWeigher() throws ReflectiveOperationException {
+		lockableClass = Class.forName(LOCKABLE_CLASS_NAME);
+		lockableValue = lockableClass.getMethod("getValue");
+		
+		lockableValue.setAccessible(true);
+	}
+	
+	/*
+	 * Weigh entry by its disassembled state, a lock of a row being updated weighing as an empty entry.
+	 */
+	@Override
+	public int weigh(Object key, Object value) {
+		Object cached = value;
+		int weight = ENTRY_WEIGHT;
+		
+		if (lockableClass.isInstance(value)) {
+			try {
+				cached = lockableValue.invoke(value);
+			} catch (IllegalAccessException | InvocationTargetException e) {
+				return weight;
+			}
+		}
+		
+		if (cached instanceof CacheEntry) {
+			for (Serializable field : ((CacheEntry) cached).getDisassembledState()) {
+				weight += weigh(field);
+			}
+		}
+		
+		return weight;
+	}
+	
+	/**
+	 * Weigh a field of disassembled state.
+	 * 
+	 * @param field Field, possibly null.
+	 * @return Weight of field.
+	 */
+	private int weigh(Serializable field) {
+		if (field == null) {
+			return 0;
+		} else if (field instanceof String) {
+			return STRING_WEIGHT + 2 * ((String) field).length();
+		} else if (field instanceof BigDecimal) {
+			return BIG_DECIMAL_WEIGHT;
+		}
+		
+		return VALUE_WEIGHT;
+	}
+}
\ No newline at end of file
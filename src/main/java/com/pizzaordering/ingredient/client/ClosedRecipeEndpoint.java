@@ -0,0 +1,117 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.client;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Replica of closed recipe resource with its load statistics.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ClosedRecipeEndpoint {
+	
+	/**
+	 * Weight of newest latency sample on exponentially weighted moving average.
+	 */
+	private static final double EWMA_ALPHA = 0.2;
+	
+	/**
+	 * URI of closed recipe resource replica.
+	 */
+	private final String uri;
+	
+	/**
+	 * Number of calls in flight against this replica.
+	 */
+	private final AtomicInteger inFlight = new AtomicInteger();
+	
+	/**
+	 * Exponentially weighted moving average of latency in nanoseconds, stored as double bits.
+	 */
+	private final AtomicLong ewmaLatencyBits = new AtomicLong(Double.doubleToLongBits(0));
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param uri URI of closed recipe resource replica.
+	 */
+	public ClosedRecipeEndpoint(String uri) {
+		this.uri = uri;
+	}
+	
+	/**
+	 * Get URI of closed recipe resource replica.
+	 * 
+	 * @return URI of closed recipe resource replica.
+	 */
+	public String getUri() {
+		return uri;
+	}
+	
+	/**
+	 * Get number of calls in flight.
+	 * 
+	 * @return Number of calls in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+	
+	/**
+	 * Get moving average of latency.
+	 * 
+	 * @return Moving average of latency in nanoseconds.
+	 */
+	public double getEwmaLatency() {
+		return Double.longBitsToDouble(ewmaLatencyBits.get());
+	}
+	
+	/**
+	 * Get load score, lower is better. Combines latency with calls in flight so a replica in a GC pause
+	 * gets penalized before its first slow response comes back.
+	 * 
+	 * @return Load score.
+	 */
+	public double getScore() {
+		return (getEwmaLatency() + 1) * (getInFlight() + 1);
+	}
+	
+	/**
+	 * Mark a call as started.
+	 */
+	public void callStarted() {
+		inFlight.incrementAndGet();
+	}
+	
+	/**
+	 * Mark a call as finished, feeding its latency to the moving average.
+	 * 
+	 * @param latencyNanos Latency of call in nanoseconds.
+	 */
+	public void callFinished(long latencyNanos) {
+		long previousBits = 0;
+		double previous = 0;
+		double next = 0;
+		
+		inFlight.decrementAndGet();
+		
+		do {
+			previousBits = ewmaLatencyBits.get();
+			previous = Double.longBitsToDouble(previousBits);
+			next = previous == 0 ? latencyNanos : previous + EWMA_ALPHA * (latencyNanos - previous);
+		} while (!ewmaLatencyBits.compareAndSet(previousBits, Double.doubleToLongBits(next)));
+	}
+}
\ No newline at end of file
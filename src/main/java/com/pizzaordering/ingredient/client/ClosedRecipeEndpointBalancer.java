@@ -0,0 +1,109 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.client;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Client side load balancer of closed recipe resource replicas using power of two choices.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ClosedRecipeEndpointBalancer {
+	
+	/**
+	 * Replicas of closed recipe resource.
+	 */
+	private final List<ClosedRecipeEndpoint> endpoints;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param uris URIs of closed recipe resource replicas.
+	 */
+	public ClosedRecipeEndpointBalancer(List<String> uris) {
+		List<ClosedRecipeEndpoint> endpoints = new ArrayList<ClosedRecipeEndpoint>();
+		
+		for (String uri : uris) {
+			endpoints.add(new ClosedRecipeEndpoint(uri.trim()));
+		}
+		
+		if (endpoints.isEmpty()) {
+			throw new IllegalArgumentException("At least one closed recipe resource URI is required.");
+		}
+		
+		this.endpoints = Collections.unmodifiableList(endpoints);
+	}
+	
+	/**
+	 * Get replicas of closed recipe resource.
+	 * 
+	 * @return Replicas of closed recipe resource.
+	 */
+	public List<ClosedRecipeEndpoint> getEndpoints() {
+		return endpoints;
+	}
+	
+	/**
+	 * Choose a replica: sample two distinct candidates at random and keep the one with lower load score.
+	 * 
+	 * @param excluded Replica already used by the call, or null.
+	 * @return Chosen replica, or null when there is no replica left besides the excluded one.
+	 */
+	public ClosedRecipeEndpoint choose(ClosedRecipeEndpoint excluded) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		int excludedIndex = excluded == null ? -1 : endpoints.indexOf(excluded);
+		int size = excludedIndex < 0 ? endpoints.size() : endpoints.size() - 1;
+		int firstIndex = 0;
+		int secondIndex = 0;
+		ClosedRecipeEndpoint first = null;
+		ClosedRecipeEndpoint second = null;
+		
+		if (size <= 0) {
+			return null;
+		}
+		
+		firstIndex = random.nextInt(size);
+		first = candidate(firstIndex, excludedIndex);
+		
+		if (size == 1) {
+			return first;
+		}
+		
+		// Second candidate drawn among the remaining positions, so both are always distinct.
+		secondIndex = random.nextInt(size - 1);
+		
+		if (secondIndex >= firstIndex) {
+			secondIndex++;
+		}
+		
+		second = candidate(secondIndex, excludedIndex);
+		
+		return first.getScore() <= second.getScore() ? first : second;
+	}
+	
+	/**
+	 * Get replica by position among the ones not excluded.
+	 * 
+	 * @param index Position of replica among the ones not excluded.
+	 * @param excludedIndex Position of excluded replica, or -1.
+	 * @return Replica on position.
+	 */
+	private ClosedRecipeEndpoint candidate(int index, int excludedIndex) {
+		return endpoints.get(excludedIndex >= 0 && index >= excludedIndex ? index + 1 : index);
+	}
+}
\ No newline at end of file
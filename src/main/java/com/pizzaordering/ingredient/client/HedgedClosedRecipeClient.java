@@ -0,0 +1,456 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.client;
+
+import java.io.IOException;
+import java.net.HttpURLConnection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.scheduling.VirtualThreads;
+
+/**
+ * Closed recipe resource client balancing calls across replicas and hedging slow calls.
+ * 
+ * When the chosen replica does not answer within the 95th percentile of recent latencies, a second call is fired
+ * against another replica. The first successful answer wins and the other call is cancelled by closing its connection.
+ * Only I/O errors and 5xx answers are retried on another replica, a 4xx answer is the same on every replica.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class HedgedClosedRecipeClient {
+	
+	/**
+	 * Percentile of recent latencies used as delay before hedging a call.
+	 */
+	private static final double HEDGE_PERCENTILE = 0.95;
+	
+	/**
+	 * Number of most recent latencies used to derive the hedge delay.
+	 */
+	private static final int LATENCY_WINDOW_SIZE = 512;
+	
+	/**
+	 * Prefix of names of threads running call attempts.
+	 */
+	public static final String THREAD_NAME = "closed-recipe-client";
+	
+	/**
+	 * Call attempt running on current thread, used to bind its HTTP connection for cancellation.
+	 */
+	private static final ThreadLocal<Attempt> CURRENT_ATTEMPT = new ThreadLocal<Attempt>();
+	
+	/**
+	 * Load balancer of closed recipe resource replicas.
+	 */
+	private final ClosedRecipeEndpointBalancer balancer;
+	
+	/**
+	 * Latencies of successful calls.
+	 */
+	private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_WINDOW_SIZE);
+	
+	/**
+	 * Lower bound of hedge delay in milliseconds.
+	 */
+	private final long minHedgeDelayMillis;
+	
+	/**
+	 * Upper bound of hedge delay in milliseconds, also used while there is no latency sample yet.
+	 */
+	private final long maxHedgeDelayMillis;
+	
+	/**
+	 * Executor of call attempts.
+	 */
+	private final ThreadPoolExecutor executor;
+	
+	/**
+	 * Spring implementation for HTTP RESTful resources consummation.
+	 */
+	private final RestTemplate restTemplate;
+	
+	/**
+	 * Number of hedged calls fired.
+	 */
+	private final AtomicInteger hedgeCount = new AtomicInteger();
+	
+	/**
+	 * Constructor, running call attempts on platform threads.
+	 * 
+	 * @param uris URIs of closed recipe resource replicas.
+	 * @param minHedgeDelayMillis Lower bound of hedge delay in milliseconds.
+	 * @param maxHedgeDelayMillis Upper bound of hedge delay in milliseconds.
+	 * @param threads Number of threads running call attempts.
+	 * @param timeoutMillis Connect and read timeout of each call attempt in milliseconds.
+	 */
+	public HedgedClosedRecipeClient(List<String> uris, long minHedgeDelayMillis, long maxHedgeDelayMillis, int threads,
+			int timeoutMillis) {
+		this(uris, minHedgeDelayMillis, maxHedgeDelayMillis, threads, timeoutMillis,
+				VirtualThreads.newThreadFactory(THREAD_NAME, false));
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param uris URIs of closed recipe resource replicas.
+	 * @param minHedgeDelayMillis Lower bound of hedge delay in milliseconds.
+	 * @param maxHedgeDelayMillis Upper bound of hedge delay in milliseconds.
+	 * @param threads Number of threads running call attempts, still bounding concurrent calls on virtual threads.
+	 * @param timeoutMillis Connect and read timeout of each call attempt in milliseconds.
+	 * @param threadFactory Factory of threads running call attempts.
+	 */
+	public HedgedClosedRecipeClient(List<String> uris, long minHedgeDelayMillis, long maxHedgeDelayMillis, int threads,
+			int timeoutMillis, ThreadFactory threadFactory) {
+		SimpleClientHttpRequestFactory requestFactory = new CancellableRequestFactory();
+		
+		requestFactory.setConnectTimeout(timeoutMillis);
+		requestFactory.setReadTimeout(timeoutMillis);
+		
+		this.balancer = new ClosedRecipeEndpointBalancer(uris);
+		this.minHedgeDelayMillis = minHedgeDelayMillis;
+		this.maxHedgeDelayMillis = maxHedgeDelayMillis;
+		this.restTemplate = new RestTemplate(requestFactory);
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new LinkedBlockingQueue<Runnable>(threads * 4), threadFactory);
+	}
+	
+	/**
+	 * Get closed recipe from the least loaded replica, hedging the call on another replica when it is slow.
+	 * 
+	 * @param closedRecipeId Id of closed recipe to be gotten from service.
+	 * @return Closed recipe gotten from service.
+	 */
+	public ClosedRecipe getClosedRecipe(Integer closedRecipeId) {
+		ClosedRecipeEndpoint primaryEndpoint = balancer.choose(null);
+		ClosedRecipeEndpoint secondaryEndpoint = null;
+		Attempt primary = null;
+		Attempt secondary = null;
+		
+		try {
+			primary = launch(primaryEndpoint, closedRecipeId);
+		} catch (RejectedExecutionException e) {
+			// Saturated executor, call on request thread without hedging.
+			return call(new Attempt(primaryEndpoint), closedRecipeId);
+		}
+		
+		try {
+			return primary.result.get(getHedgeDelayMillis(), TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			secondaryEndpoint = balancer.choose(primaryEndpoint);
+		} catch (ExecutionException e) {
+			// Failed fast, retry once on another replica unless the answer would be the same there.
+			secondaryEndpoint = isRetryable(e.getCause()) ? balancer.choose(primaryEndpoint) : null;
+			
+			if (secondaryEndpoint == null) {
+				throw unwrap(e);
+			}
+			
+			return call(new Attempt(secondaryEndpoint), closedRecipeId);
+		} catch (InterruptedException e) {
+			primary.cancel();
+			Thread.currentThread().interrupt();
+			throw new RestClientException("Interrupted while getting closed recipe " + closedRecipeId, e);
+		}
+		
+		if (secondaryEndpoint != null) {
+			try {
+				secondary = launch(secondaryEndpoint, closedRecipeId);
+				hedgeCount.incrementAndGet();
+			} catch (RejectedExecutionException e) {
+				secondary = null;
+			}
+		}
+		
+		try {
+			return firstSuccessful(primary, secondary).get();
+		} catch (ExecutionException e) {
+			throw unwrap(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new RestClientException("Interrupted while getting closed recipe " + closedRecipeId, e);
+		} finally {
+			primary.cancel();
+			
+			if (secondary != null) {
+				secondary.cancel();
+			}
+		}
+	}
+	
+	/**
+	 * Get current hedge delay derived from recent latencies.
+	 * 
+	 * @return Hedge delay in milliseconds.
+	 */
+	public long getHedgeDelayMillis() {
+		long percentileNanos = latencyTracker.getPercentile(HEDGE_PERCENTILE);
+		
+		if (percentileNanos < 0) {
+			return maxHedgeDelayMillis;
+		}
+		
+		return Math.max(minHedgeDelayMillis,
+				Math.min(maxHedgeDelayMillis, TimeUnit.NANOSECONDS.toMillis(percentileNanos)));
+	}
+	
+	/**
+	 * Get number of hedged calls fired.
+	 * 
+	 * @return Number of hedged calls fired.
+	 */
+	public int getHedgeCount() {
+		return hedgeCount.get();
+	}
+	
+	/**
+	 * Get replicas of closed recipe resource.
+	 * 
+	 * @return Replicas of closed recipe resource.
+	 */
+	public List<ClosedRecipeEndpoint> getEndpoints() {
+		return balancer.getEndpoints();
+	}
+	
+	/**
+	 * Stop executor of call attempts.
+	 */
+	public void shutdown() {
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Launch call attempt on executor.
+	 * 
+	 * @param endpoint Replica to be called.
+	 * @param closedRecipeId Id of closed recipe to be gotten from service.
+	 * @return Call attempt launched.
+	 */
+	private Attempt launch(ClosedRecipeEndpoint endpoint, Integer closedRecipeId) {
+		Attempt attempt = new Attempt(endpoint);
+		
+		attempt.task = executor.submit(() -> {
+			try {
+				call(attempt, closedRecipeId);
+			} catch (RuntimeException e) {
+				// Already reported on attempt result.
+			}
+		});
+		
+		return attempt;
+	}
+	
+	/**
+	 * Call replica, recording its latency and completing attempt result.
+	 * 
+	 * @param attempt Call attempt.
+	 * @param closedRecipeId Id of closed recipe to be gotten from service.
+	 * @return Closed recipe gotten from service.
+	 */
+	private ClosedRecipe call(Attempt attempt, Integer closedRecipeId) {
+		ClosedRecipeEndpoint endpoint = attempt.endpoint;
+		ClosedRecipe closedRecipe = null;
+		long start = System.nanoTime();
+		long latency = 0;
+		
+		CURRENT_ATTEMPT.set(attempt);
+		endpoint.callStarted();
+		
+		try {
+			closedRecipe = restTemplate.getForObject(endpoint.getUri() + "/" + closedRecipeId, ClosedRecipe.class);
+			latency = System.nanoTime() - start;
+			
+			latencyTracker.record(latency);
+			attempt.result.complete(closedRecipe);
+			
+			return closedRecipe;
+		} catch (RuntimeException e) {
+			latency = System.nanoTime() - start;
+			
+			attempt.result.completeExceptionally(e);
+			
+			throw e;
+		} finally {
+			// Cancelled attempts still count their elapsed time, penalizing the slow replica.
+			endpoint.callFinished(latency);
+			CURRENT_ATTEMPT.remove();
+		}
+	}
+	
+	/**
+	 * Combine call attempts into a result completed by the first success, by the first failure not worth retrying, or
+	 * by the last failure.
+	 * 
+	 * @param primary First call attempt.
+	 * @param secondary Hedged call attempt, or null.
+	 * @return Combined result.
+	 */
+	private CompletableFuture<ClosedRecipe> firstSuccessful(Attempt primary, Attempt secondary) {
+		CompletableFuture<ClosedRecipe> winner = null;
+		AtomicInteger pending = null;
+		
+		if (secondary == null) {
+			return primary.result;
+		}
+		
+		winner = new CompletableFuture<ClosedRecipe>();
+		pending = new AtomicInteger(2);
+		
+		for (Attempt attempt : new Attempt[] { primary, secondary }) {
+			final AtomicInteger attemptsPending = pending;
+			final CompletableFuture<ClosedRecipe> attemptsWinner = winner;
+			
+			attempt.result.whenComplete((closedRecipe, throwable) -> {
+				if (throwable == null) {
+					attemptsWinner.complete(closedRecipe);
+				} else if (attemptsPending.decrementAndGet() == 0 || !isRetryable(throwable)) {
+					attemptsWinner.completeExceptionally(throwable);
+				}
+			});
+		}
+		
+		return winner;
+	}
+	
+	/**
+	 * Check whether failure of a call attempt may not happen on another replica: I/O errors and 5xx answers.
+	 * 
+	 * @param failure Failure of a call attempt.
+	 * @return Whether call is worth retrying on another replica.
+	 */
+	private static boolean isRetryable(Throwable failure) {
+		return failure instanceof ResourceAccessException || failure instanceof HttpServerErrorException;
+	}
+	
+	/**
+	 * Unwrap failure of a call attempt.
+	 * 
+	 * @param e Failure of a call attempt.
+	 * @return Runtime exception to be thrown.
+	 */
+	private RuntimeException unwrap(ExecutionException e) {
+		if (e.getCause() instanceof RuntimeException) {
+			return (RuntimeException) e.getCause();
+		}
+		
+		return new RestClientException("Failed to get closed recipe", e.getCause());
+	}
+	
+	/**
+	 * Call attempt against a replica.
+	 */
+	private static class Attempt {
+		
+		/**
+		 * Replica called.
+		 */
+		private final ClosedRecipeEndpoint endpoint;
+		
+		/**
+		 * Result of call.
+		 */
+		private final CompletableFuture<ClosedRecipe> result = new CompletableFuture<ClosedRecipe>();
+		
+		/**
+		 * Task running the call on executor.
+		 */
+		private volatile Future<?> task;
+		
+		/**
+		 * HTTP connection of call.
+		 */
+		private volatile HttpURLConnection connection;
+		
+		/**
+		 * Whether the call was cancelled.
+		 */
+		private volatile boolean cancelled;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param endpoint Replica called.
+		 */
+		private Attempt(ClosedRecipeEndpoint endpoint) {
+			this.endpoint = endpoint;
+		}
+		
+		/**
+		 * Bind HTTP connection of call, closing it right away when the call was already cancelled.
+		 * 
+		 * @param connection HTTP connection of call.
+		 */
+		private void bind(HttpURLConnection connection) {
+			this.connection = connection;
+			
+			if (cancelled) {
+				connection.disconnect();
+			}
+		}
+		
+		/**
+		 * Cancel call when still running, closing its connection to unblock the thread reading the response.
+		 */
+		private void cancel() {
+			HttpURLConnection connection = this.connection;
+			
+			if (result.isDone()) {
+				return;
+			}
+			
+			cancelled = true;
+			
+			if (task != null) {
+				task.cancel(true);
+			}
+			
+			if (connection != null) {
+				connection.disconnect();
+			}
+		}
+	}
+	
+	/**
+	 * Request factory binding each HTTP connection to the call attempt running on current thread.
+	 */
+	private static class CancellableRequestFactory extends SimpleClientHttpRequestFactory {
+		
+		@Override
+		protected void prepareConnection(HttpURLConnection connection, String httpMethod) throws IOException {
+			Attempt attempt = CURRENT_ATTEMPT.get();
+			
+			super.prepareConnection(connection, httpMethod);
+			
+			if (attempt != null) {
+				attempt.bind(connection);
+			}
+		}
+	}
+}
\ No newline at end of file
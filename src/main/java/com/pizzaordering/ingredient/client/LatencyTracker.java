@@ -0,0 +1,102 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.client;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sliding window of the most recent call latencies, used to derive percentiles.
+ * 
+ * Guarded by a ReentrantLock rather than a monitor, so contended callers on virtual threads do not pin their carrier.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class LatencyTracker {
+	
+	/**
+	 * Lock guarding ring buffer.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	/**
+	 * Ring buffer of latencies in nanoseconds.
+	 */
+	private final long[] samples;
+	
+	/**
+	 * Next position to be written on ring buffer.
+	 */
+	private int position;
+	
+	/**
+	 * Number of samples recorded, limited to ring buffer size.
+	 */
+	private int count;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param windowSize Number of most recent latencies kept on window.
+	 */
+	public LatencyTracker(int windowSize) {
+		this.samples = new long[windowSize];
+	}
+	
+	/**
+	 * Record latency of a call.
+	 * 
+	 * @param latencyNanos Latency in nanoseconds.
+	 */
+	public void record(long latencyNanos) {
+		lock.lock();
+		
+		try {
+			samples[position] = latencyNanos;
+			position = (position + 1) % samples.length;
+			
+			if (count < samples.length) {
+				count++;
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Get percentile of latencies on window.
+	 * 
+	 * @param percentile Percentile between 0 and 1.
+	 * @return Latency in nanoseconds of percentile, or -1 when there is no sample yet.
+	 */
+	public long getPercentile(double percentile) {
+		long[] snapshot = null;
+		
+		lock.lock();
+		
+		try {
+			if (count == 0) {
+				return -1;
+			}
+			
+			snapshot = Arrays.copyOf(samples, count);
+		} finally {
+			lock.unlock();
+		}
+		
+		Arrays.sort(snapshot);
+		
+		return snapshot[Math.min(snapshot.length - 1, (int) Math.ceil(percentile * snapshot.length) - 1)];
+	}
+}
\ No newline at end of file
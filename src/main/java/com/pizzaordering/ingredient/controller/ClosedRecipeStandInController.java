@@ -0,0 +1,61 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.pizzaordering.ingredient.data.PerfDataSeeder;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+
+/**
+ * Local stand-in of the closed recipe resource under the perf profile, serving synthetic closed recipes on both stacks
+ * so the full pricing path, closed recipe client included, runs offline.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@RestController
+@RequestMapping("/perf/closedrecipes")
+@Profile("perf")
+public class ClosedRecipeStandInController {
+	
+	/**
+	 * Seeder of synthetic data.
+	 */
+	@Autowired
+	PerfDataSeeder perfDataSeeder;
+	
+	/**
+	 * Operation for getting a synthetic closed recipe, as the closed recipe resource does.
+	 * 
+	 * @param id Id of closed recipe.
+	 * @return Closed recipe.
+	 */
+	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
+	public ClosedRecipe getClosedRecipe(@PathVariable Integer id) {
+		ClosedRecipe closedRecipe = perfDataSeeder.getClosedRecipe(id);
+		
+		if (closedRecipe == null) {
+			throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Closed recipe not found.");
+		}
+		
+		return closedRecipe;
+	}
+}
\ No newline at end of file
@@ -12,28 +12,80 @@
 
 package com.pizzaordering.ingredient.controller;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
 
-import com.pizzaordering.ingredient.domain.Deal;
-import com.pizzaordering.ingredient.domain.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.DealBatch;
+import com.pizzaordering.ingredient.domain.IngredientImportReport;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.IngredientPage;
+import com.pizzaordering.ingredient.domain.IngredientVersion;
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.domain.RecipePrice;
+import com.pizzaordering.ingredient.limiter.ConcurrencyLimitExceededException;
+import com.pizzaordering.ingredient.scheduling.WriteExpiredException;
 import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.IngredientImportService;
 import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.service.InvalidDealException;
+import com.pizzaordering.ingredient.service.InventoryMovementService;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.service.PricingAdmissionService;
+import com.pizzaordering.ingredient.service.RecipeAvailabilityService;
+import com.pizzaordering.ingredient.util.IngredientImportFormatEnum;
+import com.pizzaordering.ingredient.util.IngredientSortEnum;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+import com.pizzaordering.ingredient.util.PricingPriorityEnum;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
 /**
- * Resource to expose ingredient operations and handle ingredient requests.
+ * Resource to expose ingredient operations and handle ingredient requests, unless the reactive profile is active.
  * 
  * @author Rafael Lima Costa
  *
  */
 @RestController
 @RequestMapping("/ingredients")
+@Profile("!reactive")
 public class IngredientController {
 	
 	/**
@@ -42,6 +94,91 @@ public class IngredientController {
 	@Autowired
 	IngredientService ingredientService;
 	
+	/**
+	 * Interface of closed recipe client service layer.
+	 */
+	@Autowired
+	ClosedRecipeClientService closedRecipeClientService;
+	
+	/**
+	 * Interface of ingredient import service layer.
+	 */
+	@Autowired
+	IngredientImportService ingredientImportService;
+	
+	/**
+	 * Interface of pricing admission service layer.
+	 */
+	@Autowired
+	PricingAdmissionService pricingAdmissionService;
+	
+	/**
+	 * Interface of inventory movement service layer.
+	 */
+	@Autowired
+	InventoryMovementService inventoryMovementService;
+	
+	/**
+	 * Interface of outbox service layer.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Interface of low stock service layer.
+	 */
+	@Autowired
+	LowStockService lowStockService;
+	
+	/**
+	 * Interface of recipe availability service layer.
+	 */
+	@Autowired
+	RecipeAvailabilityService recipeAvailabilityService;
+	
+	/**
+	 * Deadline of a pricing request, in milliseconds.
+	 */
+	@Value("${pricing.deadline-ms:2000}")
+	private long pricingDeadlineMillis;
+	
+	/**
+	 * Deadline for an inventory request to start, in milliseconds. A write that started is awaited to its end, so its
+	 * caller always learns whether it was applied.
+	 */
+	@Value("${inventory.deadline-ms:5000}")
+	private long inventoryDeadlineMillis;
+	
+	/**
+	 * Maximum number of ids on a multi-get.
+	 */
+	@Value("${ingredient.multiget.max-ids:100}")
+	private int multiGetMaxIds;
+	
+	/**
+	 * Maximum number of time buckets per ingredient on a movement query.
+	 */
+	@Value("${inventory.movement.max-buckets:10000}")
+	private int movementMaxBuckets;
+	
+	/**
+	 * Time a change stream stays open before the client is made to reconnect, in milliseconds.
+	 */
+	@Value("${outbox.stream.timeout-ms:300000}")
+	private long streamTimeoutMillis;
+	
+	/**
+	 * Maximum size of a page of ingredients.
+	 */
+	@Value("${ingredient.listing.max-limit:500}")
+	private int listingMaxLimit;
+	
+	/**
+	 * JSON mapper of ingredients exported.
+	 */
+	@Autowired
+	ObjectMapper objectMapper;
+	
 	/**
 	 * Operation for adding an ingredient.
 	 * 
@@ -54,14 +191,123 @@ public class IngredientController {
 	}
 	
 	/**
-	 * Operation for getting an ingredient.
+	 * Operation for importing ingredients in bulk from newline delimited JSON or CSV, request body being streamed.
+	 * 
+	 * @param request Request whose body holds the rows of ingredients.
+	 * @return Report with number of rows imported and errors of rows rejected.
+	 * @throws IOException When request body can not be read.
+	 */
+	@RequestMapping(value = "/import", method = RequestMethod.POST, consumes = { "application/x-ndjson", "text/csv" })
+	public IngredientImportReport importIngredients(HttpServletRequest request) throws IOException {
+		return ingredientImportService.importIngredients(request.getInputStream(),
+				IngredientImportFormatEnum.fromContentType(request.getContentType()));
+	}
+	
+	/**
+	 * Operation for getting an ingredient. Answers 304 from the version index when If-None-Match still matches.
 	 * 
 	 * @param id Id of ingredient to be gotten from database.
-	 * @return Ingredient gotten from database.
+	 * @param webRequest Request checked for conditional headers.
+	 * @return Ingredient gotten from database, or null when not modified.
 	 */
 	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
-	public Ingredient getIngredient(@PathVariable Long id) {
-		return ingredientService.getIngredient(id);
+	public Ingredient getIngredient(@PathVariable Long id, WebRequest webRequest) {
+		Ingredient ingredient = null;
+		
+		if (isNotModified(webRequest, ingredientService.getIngredientVersion(id))) {
+			return null;
+		}
+		
+		ingredient = ingredientService.getIngredient(id);
+		
+		return isNotModified(webRequest, ingredientService.getIngredientVersion(id)) ? null : ingredient;
+	}
+	
+	/**
+	 * Operation for getting several ingredients at once. Answers 304 from the version index when If-None-Match still
+	 * matches.
+	 * 
+	 * @param ids Ids of ingredients to be gotten.
+	 * @param webRequest Request checked for conditional headers.
+	 * @return Lookup of each id, in request order, marking ids not found, or null when not modified.
+	 */
+	@RequestMapping(method = RequestMethod.GET, params = "ids")
+	public List<IngredientLookup> getIngredients(@RequestParam List<Long> ids, WebRequest webRequest) {
+		List<IngredientLookup> ingredientLookups = null;
+		
+		if (ids.size() > multiGetMaxIds) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + multiGetMaxIds + " ids are allowed on a multi-get.");
+		}
+		
+		if (isNotModified(webRequest, ingredientService.getIngredientsVersion(ids))) {
+			return null;
+		}
+		
+		ingredientLookups = ingredientService.getIngredients(ids);
+		
+		return isNotModified(webRequest, ingredientService.getIngredientsVersion(ids)) ? null : ingredientLookups;
+	}
+	
+	/**
+	 * Operation for listing a page of ingredients. Next page is requested with the keyset returned by this one.
+	 * 
+	 * @param type Type of ingredients, or all of them when absent.
+	 * @param sort Sort of listing, by id or by stock level.
+	 * @param afterId Id of last row of previous page.
+	 * @param afterPortionQuantity Quantity of portion of last row of previous page when sorted by stock level, absent
+	 * while rows without stock level, listed first, are being paged.
+	 * @param limit Size of page.
+	 * @param webRequest Request checked for conditional headers.
+	 * @return Page of ingredients with keyset of next page, or null when not modified.
+	 */
+	@RequestMapping(method = RequestMethod.GET, params = "!ids")
+	public IngredientPage getIngredientPage(@RequestParam(required = false) Character type,
+			@RequestParam(defaultValue = "ID") IngredientSortEnum sort, @RequestParam(required = false) Long afterId,
+			@RequestParam(required = false) Integer afterPortionQuantity,
+			@RequestParam(defaultValue = "100") int limit, WebRequest webRequest) {
+		IngredientPage ingredientPage = null;
+		
+		if (limit < 1 || limit > listingMaxLimit) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"Limit must be between 1 and " + listingMaxLimit + ".");
+		}
+		
+		ingredientPage = ingredientService.getIngredientPage(type, sort, afterId, afterPortionQuantity, limit);
+		
+		// Membership of a page is only known by querying, a match saves serialization and transfer.
+		return isNotModified(webRequest, ingredientService.getIngredientPageVersion(ingredientPage)) ? null
+				: ingredientPage;
+	}
+	
+	/**
+	 * Operation for exporting ingredients as newline delimited JSON, streamed row by row from database.
+	 * 
+	 * @param type Type of ingredients, or all of them when absent.
+	 * @param response Response the ingredients are written to.
+	 * @throws IOException When response can not be written.
+	 */
+	@RequestMapping(value = "/export", method = RequestMethod.GET)
+	public void exportIngredients(@RequestParam(required = false) Character type, HttpServletResponse response)
+			throws IOException {
+		OutputStream outputStream = response.getOutputStream();
+		
+		response.setContentType("application/x-ndjson");
+		
+		try {
+			ingredientService.exportIngredients(type, ingredient -> {
+				try {
+					outputStream.write(objectMapper.writeValueAsBytes(ingredient));
+					outputStream.write('\n');
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			});
+		} catch (UncheckedIOException e) {
+			throw e.getCause();
+		}
+		
+		outputStream.flush();
 	}
 	
 	/**
@@ -88,22 +334,47 @@ public class IngredientController {
 	/**
 	 * Operation for calculating the price of an order with customized ingredients.
 	 * 
+	 * Runs on the pricing executor, off the request threads serving the other operations. Inventory is decremented, so
+	 * the order is skipped when its deadline passes before it starts and awaited to its end once it started.
+	 * 
 	 * @param order Order with customized ingredients to be calculated.
-	 * @return Price of the order with customized ingredients.
+	 * @return Future of price of the order with customized ingredients.
 	 */
 	@RequestMapping(value = "/calculateOrderPrice", method = RequestMethod.POST)
-	public BigDecimal calculateOrderPrice(@RequestBody Order order) {
-		return ingredientService.calculateOrderPrice(order);
+	public CompletableFuture<BigDecimal> calculateOrderPrice(@RequestBody OrderPayload order) {
+		return pricingAdmissionService.submitWrite(PricingPriorityEnum.CHECKOUT,
+				() -> ingredientService.calculateOrderPrice(order), inventoryDeadlineMillis);
+	}
+	
+	/**
+	 * Operation for quoting the price of an order with customized ingredients, leaving inventory untouched.
+	 * 
+	 * Runs on the pricing executor, and is shed before checkout pricing under load.
+	 * 
+	 * @param order Order with customized ingredients to be quoted.
+	 * @return Future of price of the order with customized ingredients.
+	 */
+	@RequestMapping(value = "/quoteOrderPrice", method = RequestMethod.POST)
+	public CompletableFuture<BigDecimal> quoteOrderPrice(@RequestBody OrderPayload order) {
+		return pricingAdmissionService.submit(PricingPriorityEnum.QUOTE, () -> ingredientService.quoteOrderPrice(order),
+				pricingDeadlineMillis);
 	}
 	
 	/**
 	 * Operation for reversing ingredients from inventory of a canceled order with customized ingredients.
 	 * 
+	 * Runs on the pricing executor, off the request threads serving the other operations.
+	 * 
 	 * @param order Order with customized ingredients to be reversed.
+	 * @return Future completed once ingredients are reversed.
 	 */
 	@RequestMapping(value = "/reverseOrderIngredients", method = RequestMethod.PUT)
-	public void reverseOrderIngredients(@RequestBody Order order) {
-		ingredientService.reverseOrderIngredients(order);
+	public CompletableFuture<Void> reverseOrderIngredients(@RequestBody OrderPayload order) {
+		return pricingAdmissionService.submitWrite(PricingPriorityEnum.CHECKOUT, () -> {
+			ingredientService.reverseOrderIngredients(order);
+			
+			return null;
+		}, inventoryDeadlineMillis);
 	}
 	
 	/**
@@ -112,7 +383,7 @@ public class IngredientController {
 	 * @param deal Deal with discount ingredients to be added.
 	 */
 	@RequestMapping(value = "/addIngredientDiscount", method = RequestMethod.PUT)
-	public void addIngredientDiscount(@RequestBody Deal deal) {
+	public void addIngredientDiscount(@RequestBody DealPayload deal) {
 		ingredientService.addIngredientDiscount(deal);
 	}
 	
@@ -122,7 +393,278 @@ public class IngredientController {
 	 * @param deal Deal with discount ingredients to be deleted.
 	 */
 	@RequestMapping(value = "/deleteIngredientDiscount", method = RequestMethod.PUT)
-	public void deleteIngredientDiscount(@RequestBody Deal deal) {
+	public void deleteIngredientDiscount(@RequestBody DealPayload deal) {
 		ingredientService.deleteIngredientDiscount(deal);
 	}
+	
+	/**
+	 * Operation for adding and deleting ingredients discount of several deals at once, all or nothing.
+	 * 
+	 * @param dealBatch Deals with discount ingredients to be added and ids of deals to be deleted.
+	 */
+	@RequestMapping(value = "/applyIngredientDiscounts", method = RequestMethod.PUT)
+	public void applyIngredientDiscounts(@RequestBody DealBatch dealBatch) {
+		ingredientService.applyIngredientDiscounts(dealBatch);
+	}
+	
+	/**
+	 * Operation for invalidating a cached closed recipe, called by closed recipe resource on change.
+	 * 
+	 * @param id Id of closed recipe to be invalidated.
+	 */
+	@RequestMapping(value = "/recipes/{id}/invalidate", method = RequestMethod.POST)
+	public void invalidateClosedRecipe(@PathVariable Integer id) {
+		closedRecipeClientService.invalidateClosedRecipe(id);
+	}
+	
+	/**
+	 * Operation for invalidating cached closed recipes, called by closed recipe resource on change.
+	 * 
+	 * @param ids Ids of closed recipes to be invalidated.
+	 */
+	@RequestMapping(value = "/recipes/invalidate", method = RequestMethod.POST)
+	public void invalidateClosedRecipes(@RequestBody List<Integer> ids) {
+		closedRecipeClientService.invalidateClosedRecipes(ids);
+	}
+	
+	/**
+	 * Operation for calculating how many pizzas of a closed recipe in a size can be made from inventory, so the menu
+	 * can hide the ones out of stock.
+	 * 
+	 * @param id Id of closed recipe.
+	 * @param size Size of pizza.
+	 * @return Availability of closed recipe in size.
+	 */
+	@RequestMapping(value = "/recipes/{id}/availability", method = RequestMethod.GET)
+	public RecipeAvailability getRecipeAvailability(@PathVariable Integer id, @RequestParam Character size) {
+		return recipeAvailabilityService.getRecipeAvailability(id, toPizzaSize(size));
+	}
+	
+	/**
+	 * Operation for calculating availability of several closed recipes, such as a whole menu, at once.
+	 * 
+	 * @param ids Ids of closed recipes.
+	 * @param size Size of pizza, or every size when absent.
+	 * @return Availability of each closed recipe in each size, in request then size order.
+	 */
+	@RequestMapping(value = "/recipes/availability", method = RequestMethod.GET)
+	public List<RecipeAvailability> getRecipeAvailabilities(@RequestParam List<Integer> ids,
+			@RequestParam(required = false) Character size) {
+		if (ids.size() > multiGetMaxIds) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + multiGetMaxIds + " closed recipes are allowed per request.");
+		}
+		
+		return recipeAvailabilityService.getRecipeAvailabilities(ids, size != null ? toPizzaSize(size) : null);
+	}
+	
+	/**
+	 * Operation for listing the price of several closed recipes without customized ingredients, such as a whole menu,
+	 * served from the cost index of closed recipes.
+	 * 
+	 * @param ids Ids of closed recipes.
+	 * @param size Size of pizza, or every size when absent.
+	 * @return Price of each closed recipe in each size, in request then size order.
+	 */
+	@RequestMapping(value = "/recipes/prices", method = RequestMethod.GET)
+	public List<RecipePrice> getRecipePrices(@RequestParam List<Integer> ids,
+			@RequestParam(required = false) Character size) {
+		if (ids.size() > multiGetMaxIds) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + multiGetMaxIds + " closed recipes are allowed per request.");
+		}
+		
+		return ingredientService.getRecipePrices(ids, size != null ? toPizzaSize(size) : null);
+	}
+	
+	/**
+	 * Operation for streaming inventory, price and discount changes as server-sent events, instead of polling. Events
+	 * are relayed from the outbox, named by the code of their type and identified by their outbox id. A reconnecting
+	 * client resumes after its last event while it is still on the replay window, and gets live events only past it.
+	 * 
+	 * @param lastEventId Id of last event got before reconnecting.
+	 * @return Emitter of changes, completed on timeout so the client reconnects.
+	 */
+	@RequestMapping(value = "/changes", method = RequestMethod.GET, produces = "text/event-stream")
+	public SseEmitter streamChanges(@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		return toEmitter(outboxService.streamEvents(lastEventId), outboxEvent -> SseEmitter.event()
+				.id(String.valueOf(outboxEvent.getId())).name(outboxEvent.getType()).data(outboxEvent));
+	}
+	
+	/**
+	 * Operation for getting alerts of ingredients currently low on stock.
+	 * 
+	 * @return Alerts of ingredients low on stock, in ingredient order.
+	 */
+	@RequestMapping(value = "/lowStock", method = RequestMethod.GET)
+	public List<LowStockAlert> getLowStockAlerts() {
+		return lowStockService.getLowStockAlerts();
+	}
+	
+	/**
+	 * Operation for streaming low stock alerts to kitchen dashboards as server-sent events: ingredients currently low
+	 * on stock, then each crossing of a reorder threshold, named low or restocked.
+	 * 
+	 * @return Emitter of alerts, completed on timeout so the client reconnects.
+	 */
+	@RequestMapping(value = "/lowStock/alerts", method = RequestMethod.GET, produces = "text/event-stream")
+	public SseEmitter streamLowStockAlerts() {
+		return toEmitter(lowStockService.streamAlerts(), lowStockAlert -> SseEmitter.event()
+				.name(lowStockAlert.getLow() ? "low" : "restocked").data(lowStockAlert));
+	}
+	
+	/**
+	 * Operation for adding up inventory movements of all ingredients per time bucket.
+	 * 
+	 * @param ingredientId Id of ingredient, or all of them when absent.
+	 * @param from Start of period, inclusive, in milliseconds since epoch, a day before its end when absent.
+	 * @param to End of period, exclusive, in milliseconds since epoch, now when absent.
+	 * @param bucket Time bucket.
+	 * @return Buckets with movements, in ingredient then time order.
+	 */
+	@RequestMapping(value = "/movements", method = RequestMethod.GET)
+	public List<InventoryMovementBucket> getMovementBuckets(@RequestParam(required = false) Long ingredientId,
+			@RequestParam(required = false) Long from, @RequestParam(required = false) Long to,
+			@RequestParam(defaultValue = "HOUR") InventoryMovementBucketEnum bucket) {
+		long periodEnd = to != null ? to : System.currentTimeMillis();
+		long periodStart = from != null ? from : periodEnd - InventoryMovementBucketEnum.DAY.getMillis();
+		
+		if (periodStart >= periodEnd) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period must start before it ends.");
+		}
+		
+		if ((periodEnd - periodStart) / bucket.getMillis() > movementMaxBuckets) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + movementMaxBuckets + " buckets are allowed per ingredient.");
+		}
+		
+		return inventoryMovementService.getMovementBuckets(ingredientId, periodStart, periodEnd, bucket);
+	}
+	
+	/**
+	 * Operation for adding up inventory movements of an ingredient per time bucket.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param from Start of period, inclusive, in milliseconds since epoch, a day before its end when absent.
+	 * @param to End of period, exclusive, in milliseconds since epoch, now when absent.
+	 * @param bucket Time bucket.
+	 * @return Buckets with movements, in time order.
+	 */
+	@RequestMapping(value = "/{id}/movements", method = RequestMethod.GET)
+	public List<InventoryMovementBucket> getIngredientMovementBuckets(@PathVariable Long id,
+			@RequestParam(required = false) Long from, @RequestParam(required = false) Long to,
+			@RequestParam(defaultValue = "HOUR") InventoryMovementBucketEnum bucket) {
+		return getMovementBuckets(id, from, to, bucket);
+	}
+	
+	/**
+	 * Send a stream as server-sent events, cancelling its subscription once the emitter completes or times out.
+	 * 
+	 * @param <T> Type of elements.
+	 * @param stream Stream of elements, never completing.
+	 * @param toEvent Builder of the event of an element.
+	 * @return Emitter of events.
+	 */
+	private <T> SseEmitter toEmitter(Flux<T> stream, Function<T, SseEventBuilder> toEvent) {
+		SseEmitter emitter = new SseEmitter(streamTimeoutMillis);
+		Disposable subscription = stream.subscribe(element -> {
+			try {
+				emitter.send(toEvent.apply(element));
+			} catch (IOException e) {
+				// Client gone, cancelling the subscription.
+				throw new UncheckedIOException(e);
+			}
+		}, emitter::completeWithError);
+		
+		emitter.onCompletion(subscription::dispose);
+		emitter.onTimeout(subscription::dispose);
+		
+		return emitter;
+	}
+	
+	/**
+	 * Handler of requests shed by the pricing concurrency limiter.
+	 * 
+	 * @param response Response told when to retry.
+	 */
+	@ExceptionHandler(ConcurrencyLimitExceededException.class)
+	@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many pricing requests, retry later.")
+	public void handleConcurrencyLimitExceeded(HttpServletResponse response) {
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(pricingAdmissionService.getRetryAfterSeconds()));
+	}
+	
+	/**
+	 * Handler of requests rejected because the pricing executor queue is full.
+	 * 
+	 * @param response Response told when to retry.
+	 */
+	@ExceptionHandler(RejectedExecutionException.class)
+	@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many pricing requests, retry later.")
+	public void handleRejectedExecution(HttpServletResponse response) {
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(pricingAdmissionService.getRetryAfterSeconds()));
+	}
+	
+	/**
+	 * Handler of inventory requests whose deadline passed before they started. No retry is suggested: checkout is not
+	 * idempotent, so the client decides whether to send the order again.
+	 */
+	@ExceptionHandler(WriteExpiredException.class)
+	@ResponseStatus(value = HttpStatus.GATEWAY_TIMEOUT,
+			reason = "Request deadline exceeded before the order was applied, nothing was written.")
+	public void handleWriteExpired() {
+	}
+	
+	/**
+	 * Handler of requests whose deadline passed.
+	 * 
+	 * @param response Response told when to retry.
+	 */
+	@ExceptionHandler(TimeoutException.class)
+	@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Request deadline exceeded, retry later.")
+	public void handleTimeout(HttpServletResponse response) {
+		response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(pricingAdmissionService.getRetryAfterSeconds()));
+	}
+	
+	/**
+	 * Handler of deals refused as invalid.
+	 * 
+	 * @param e Exception telling why deal was refused.
+	 * @param response Response told why deal was refused.
+	 * @throws IOException When error can not be sent.
+	 */
+	@ExceptionHandler(InvalidDealException.class)
+	public void handleInvalidDeal(InvalidDealException e, HttpServletResponse response) throws IOException {
+		response.sendError(HttpStatus.BAD_REQUEST.value(), e.getMessage());
+	}
+	
+	/**
+	 * Check conditional headers of request against a version, setting ETag and Last-Modified on the response.
+	 * 
+	 * @param webRequest Request checked for conditional headers.
+	 * @param ingredientVersion Version of requested content, or null when not known.
+	 * @return Whether content was not modified, response being turned into a 304.
+	 */
+	private boolean isNotModified(WebRequest webRequest, IngredientVersion ingredientVersion) {
+		if (ingredientVersion == null) {
+			return false;
+		}
+		
+		return webRequest.checkNotModified(ingredientVersion.getETag(), ingredientVersion.getLastModified());
+	}
+	
+	/**
+	 * Get pizza size of a request.
+	 * 
+	 * @param size Short description of pizza size.
+	 * @return Pizza size.
+	 */
+	private PizzaSizeMultiplyFactorEnum toPizzaSize(Character size) {
+		PizzaSizeMultiplyFactorEnum pizzaSize = PizzaSizeMultiplyFactorEnum.fromShortDescription(size);
+		
+		if (pizzaSize == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown pizza size " + size + ".");
+		}
+		
+		return pizzaSize;
+	}
 }
\ No newline at end of file
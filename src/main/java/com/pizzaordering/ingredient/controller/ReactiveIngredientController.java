@@ -0,0 +1,482 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.controller;
+
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseStatus;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.DealBatch;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.domain.RecipePrice;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+import com.pizzaordering.ingredient.service.InvalidDealException;
+import com.pizzaordering.ingredient.service.ReactiveClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.ReactiveIngredientService;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking resource to expose ingredient operations, served instead of the servlet one under the reactive profile.
+ * 
+ * Mirrors the operations of the servlet resource, except bulk import, keyset listing and conditional reads, which
+ * stay on the servlet stack. Requests are shed with a 503 when the bounded blocking scheduler is full or their
+ * deadline passes.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@RestController
+@RequestMapping("/ingredients")
+@Profile("reactive")
+public class ReactiveIngredientController {
+	
+	/**
+	 * Interface of reactive ingredient service layer.
+	 */
+	@Autowired
+	ReactiveIngredientService reactiveIngredientService;
+	
+	/**
+	 * Interface of reactive closed recipe client service layer.
+	 */
+	@Autowired
+	ReactiveClosedRecipeClientService reactiveClosedRecipeClientService;
+	
+	/**
+	 * JSON mapper of ingredients exported.
+	 */
+	@Autowired
+	ObjectMapper objectMapper;
+	
+	/**
+	 * Deadline of a pricing request, in milliseconds.
+	 */
+	@Value("${pricing.deadline-ms:2000}")
+	private long pricingDeadlineMillis;
+	
+	/**
+	 * Maximum number of ids on a multi-get.
+	 */
+	@Value("${ingredient.multiget.max-ids:100}")
+	private int multiGetMaxIds;
+	
+	/**
+	 * Maximum number of time buckets per ingredient on a movement query.
+	 */
+	@Value("${inventory.movement.max-buckets:10000}")
+	private int movementMaxBuckets;
+	
+	/**
+	 * Seconds a shed client is told to wait before retrying.
+	 */
+	@Value("${pricing.limiter.retry-after-seconds:1}")
+	private long retryAfterSeconds;
+	
+	/**
+	 * Operation for adding an ingredient.
+	 * 
+	 * @param ingredient Ingredient to be added on database.
+	 * @return Ingredient added on database.
+	 */
+	@RequestMapping(method = RequestMethod.POST)
+	public Mono<Ingredient> addIngredient(@RequestBody Ingredient ingredient) {
+		return reactiveIngredientService.addIngredient(ingredient);
+	}
+	
+	/**
+	 * Operation for getting an ingredient.
+	 * 
+	 * @param id Id of ingredient to be gotten from database.
+	 * @return Ingredient gotten from database, answering 404 when not found.
+	 */
+	@RequestMapping(value = "/{id}", method = RequestMethod.GET)
+	public Mono<Ingredient> getIngredient(@PathVariable Long id) {
+		return reactiveIngredientService.getIngredient(id)
+				.switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Ingredient not found.")));
+	}
+	
+	/**
+	 * Operation for getting several ingredients at once.
+	 * 
+	 * @param ids Ids of ingredients to be gotten.
+	 * @return Lookup of each id, in request order, marking ids not found.
+	 */
+	@RequestMapping(method = RequestMethod.GET, params = "ids")
+	public Mono<List<IngredientLookup>> getIngredients(@RequestParam List<Long> ids) {
+		if (ids.size() > multiGetMaxIds) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + multiGetMaxIds + " ids are allowed on a multi-get.");
+		}
+		
+		return reactiveIngredientService.getIngredients(ids);
+	}
+	
+	/**
+	 * Operation for exporting ingredients as newline delimited JSON, read from database as the client consumes them.
+	 * 
+	 * @param type Type of ingredients, or all of them when absent.
+	 * @return Lines of ingredients.
+	 */
+	@RequestMapping(value = "/export", method = RequestMethod.GET, produces = "application/x-ndjson")
+	public Flux<String> exportIngredients(@RequestParam(required = false) Character type) {
+		return reactiveIngredientService.exportIngredients(type).map(ingredient -> {
+			try {
+				return objectMapper.writeValueAsString(ingredient) + "\n";
+			} catch (JsonProcessingException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+	
+	/**
+	 * Operation for updating an ingredient.
+	 * 
+	 * @param ingredient Ingredient to be updated on database.
+	 * @return Ingredient updated on database.
+	 */
+	@RequestMapping(method = RequestMethod.PUT)
+	public Mono<Ingredient> updateIngredient(@RequestBody Ingredient ingredient) {
+		return reactiveIngredientService.updateIngredient(ingredient);
+	}
+	
+	/**
+	 * Operation for deleting an ingredient.
+	 * 
+	 * @param id Id of ingredient to be deleted from database.
+	 * @return Completion of deletion.
+	 */
+	@RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
+	public Mono<Void> deleteIngredient(@PathVariable Long id) {
+		return reactiveIngredientService.deleteIngredient(id);
+	}
+	
+	/**
+	 * Operation for calculating the price of an order with customized ingredients.
+	 * 
+	 * Inventory is decremented from the start, so the order is awaited to its end instead of being failed at a
+	 * deadline while it keeps writing.
+	 * 
+	 * @param order Order with customized ingredients to be calculated.
+	 * @return Price of the order with customized ingredients.
+	 */
+	@RequestMapping(value = "/calculateOrderPrice", method = RequestMethod.POST)
+	public Mono<BigDecimal> calculateOrderPrice(@RequestBody OrderPayload order) {
+		return detached(reactiveIngredientService.calculateOrderPrice(order));
+	}
+	
+	/**
+	 * Operation for quoting the price of an order with customized ingredients, leaving inventory untouched.
+	 * 
+	 * @param order Order with customized ingredients to be quoted.
+	 * @return Price of the order with customized ingredients.
+	 */
+	@RequestMapping(value = "/quoteOrderPrice", method = RequestMethod.POST)
+	public Mono<BigDecimal> quoteOrderPrice(@RequestBody OrderPayload order) {
+		// Nothing is written, so the quote is simply cancelled at its deadline.
+		return reactiveIngredientService.quoteOrderPrice(order).timeout(Duration.ofMillis(pricingDeadlineMillis));
+	}
+	
+	/**
+	 * Operation for reversing ingredients from inventory of a canceled order with customized ingredients.
+	 * 
+	 * @param order Order with customized ingredients to be reversed.
+	 * @return Completion of reversal.
+	 */
+	@RequestMapping(value = "/reverseOrderIngredients", method = RequestMethod.PUT)
+	public Mono<Void> reverseOrderIngredients(@RequestBody OrderPayload order) {
+		return detached(reactiveIngredientService.reverseOrderIngredients(order));
+	}
+	
+	/**
+	 * Operation for adding ingredients discount of a deal.
+	 * 
+	 * @param deal Deal with discount ingredients to be added.
+	 * @return Completion of addition.
+	 */
+	@RequestMapping(value = "/addIngredientDiscount", method = RequestMethod.PUT)
+	public Mono<Void> addIngredientDiscount(@RequestBody DealPayload deal) {
+		return reactiveIngredientService.addIngredientDiscount(deal);
+	}
+	
+	/**
+	 * Operation for deleting ingredients discount of a deal.
+	 * 
+	 * @param deal Deal with discount ingredients to be deleted.
+	 * @return Completion of deletion.
+	 */
+	@RequestMapping(value = "/deleteIngredientDiscount", method = RequestMethod.PUT)
+	public Mono<Void> deleteIngredientDiscount(@RequestBody DealPayload deal) {
+		return reactiveIngredientService.deleteIngredientDiscount(deal);
+	}
+	
+	/**
+	 * Operation for adding and deleting ingredients discount of several deals at once, all or nothing.
+	 * 
+	 * @param dealBatch Deals with discount ingredients to be added and ids of deals to be deleted.
+	 * @return Completion of batch.
+	 */
+	@RequestMapping(value = "/applyIngredientDiscounts", method = RequestMethod.PUT)
+	public Mono<Void> applyIngredientDiscounts(@RequestBody DealBatch dealBatch) {
+		return reactiveIngredientService.applyIngredientDiscounts(dealBatch);
+	}
+	
+	/**
+	 * Operation for invalidating a cached closed recipe, called by closed recipe resource on change.
+	 * 
+	 * @param id Id of closed recipe to be invalidated.
+	 */
+	@RequestMapping(value = "/recipes/{id}/invalidate", method = RequestMethod.POST)
+	public void invalidateClosedRecipe(@PathVariable Integer id) {
+		reactiveClosedRecipeClientService.invalidateClosedRecipe(id);
+	}
+	
+	/**
+	 * Operation for invalidating cached closed recipes, called by closed recipe resource on change.
+	 * 
+	 * @param ids Ids of closed recipes to be invalidated.
+	 */
+	@RequestMapping(value = "/recipes/invalidate", method = RequestMethod.POST)
+	public void invalidateClosedRecipes(@RequestBody List<Integer> ids) {
+		reactiveClosedRecipeClientService.invalidateClosedRecipes(ids);
+	}
+	
+	/**
+	 * Operation for calculating how many pizzas of a closed recipe in a size can be made from inventory, so the menu
+	 * can hide the ones out of stock.
+	 * 
+	 * @param id Id of closed recipe.
+	 * @param size Size of pizza.
+	 * @return Availability of closed recipe in size.
+	 */
+	@RequestMapping(value = "/recipes/{id}/availability", method = RequestMethod.GET)
+	public Mono<RecipeAvailability> getRecipeAvailability(@PathVariable Integer id, @RequestParam Character size) {
+		return reactiveIngredientService.getRecipeAvailability(id, toPizzaSize(size));
+	}
+	
+	/**
+	 * Operation for calculating availability of several closed recipes, such as a whole menu, at once.
+	 * 
+	 * @param ids Ids of closed recipes.
+	 * @param size Size of pizza, or every size when absent.
+	 * @return Availability of each closed recipe in each size, in request then size order.
+	 */
+	@RequestMapping(value = "/recipes/availability", method = RequestMethod.GET)
+	public Mono<List<RecipeAvailability>> getRecipeAvailabilities(@RequestParam List<Integer> ids,
+			@RequestParam(required = false) Character size) {
+		if (ids.size() > multiGetMaxIds) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + multiGetMaxIds + " closed recipes are allowed per request.");
+		}
+		
+		return reactiveIngredientService.getRecipeAvailabilities(ids, size != null ? toPizzaSize(size) : null);
+	}
+	
+	/**
+	 * Operation for listing the price of several closed recipes without customized ingredients, such as a whole menu,
+	 * served from the cost index of closed recipes.
+	 * 
+	 * @param ids Ids of closed recipes.
+	 * @param size Size of pizza, or every size when absent.
+	 * @return Price of each closed recipe in each size, in request then size order.
+	 */
+	@RequestMapping(value = "/recipes/prices", method = RequestMethod.GET)
+	public Mono<List<RecipePrice>> getRecipePrices(@RequestParam List<Integer> ids,
+			@RequestParam(required = false) Character size) {
+		if (ids.size() > multiGetMaxIds) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + multiGetMaxIds + " closed recipes are allowed per request.");
+		}
+		
+		return reactiveIngredientService.getRecipePrices(ids, size != null ? toPizzaSize(size) : null);
+	}
+	
+	/**
+	 * Operation for streaming inventory, price and discount changes as server-sent events, instead of polling. Events
+	 * are relayed from the outbox, named by the code of their type and identified by their outbox id. A reconnecting
+	 * client resumes after its last event while it is still on the replay window, and gets live events only past it.
+	 * 
+	 * @param lastEventId Id of last event got before reconnecting.
+	 * @return Stream of changes, never completing.
+	 */
+	@RequestMapping(value = "/changes", method = RequestMethod.GET, produces = "text/event-stream")
+	public Flux<ServerSentEvent<OutboxEvent>> streamChanges(
+			@RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+		return reactiveIngredientService.streamChanges(lastEventId).map(outboxEvent -> ServerSentEvent
+				.builder(outboxEvent).id(String.valueOf(outboxEvent.getId())).event(outboxEvent.getType()).build());
+	}
+	
+	/**
+	 * Operation for getting alerts of ingredients currently low on stock.
+	 * 
+	 * @return Alerts of ingredients low on stock, in ingredient order.
+	 */
+	@RequestMapping(value = "/lowStock", method = RequestMethod.GET)
+	public Mono<List<LowStockAlert>> getLowStockAlerts() {
+		return reactiveIngredientService.getLowStockAlerts();
+	}
+	
+	/**
+	 * Operation for streaming low stock alerts to kitchen dashboards as server-sent events: ingredients currently low
+	 * on stock, then each crossing of a reorder threshold, named low or restocked.
+	 * 
+	 * @return Stream of alerts, never completing.
+	 */
+	@RequestMapping(value = "/lowStock/alerts", method = RequestMethod.GET, produces = "text/event-stream")
+	public Flux<ServerSentEvent<LowStockAlert>> streamLowStockAlerts() {
+		return reactiveIngredientService.streamLowStockAlerts().map(lowStockAlert -> ServerSentEvent
+				.builder(lowStockAlert).event(lowStockAlert.getLow() ? "low" : "restocked").build());
+	}
+	
+	/**
+	 * Operation for adding up inventory movements of all ingredients per time bucket.
+	 * 
+	 * @param ingredientId Id of ingredient, or all of them when absent.
+	 * @param from Start of period, inclusive, in milliseconds since epoch, a day before its end when absent.
+	 * @param to End of period, exclusive, in milliseconds since epoch, now when absent.
+	 * @param bucket Time bucket.
+	 * @return Buckets with movements, in ingredient then time order.
+	 */
+	@RequestMapping(value = "/movements", method = RequestMethod.GET)
+	public Mono<List<InventoryMovementBucket>> getMovementBuckets(@RequestParam(required = false) Long ingredientId,
+			@RequestParam(required = false) Long from, @RequestParam(required = false) Long to,
+			@RequestParam(defaultValue = "HOUR") InventoryMovementBucketEnum bucket) {
+		long periodEnd = to != null ? to : System.currentTimeMillis();
+		long periodStart = from != null ? from : periodEnd - InventoryMovementBucketEnum.DAY.getMillis();
+		
+		if (periodStart >= periodEnd) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Period must start before it ends.");
+		}
+		
+		if ((periodEnd - periodStart) / bucket.getMillis() > movementMaxBuckets) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+					"At most " + movementMaxBuckets + " buckets are allowed per ingredient.");
+		}
+		
+		return reactiveIngredientService.getMovementBuckets(ingredientId, periodStart, periodEnd, bucket);
+	}
+	
+	/**
+	 * Operation for adding up inventory movements of an ingredient per time bucket.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param from Start of period, inclusive, in milliseconds since epoch, a day before its end when absent.
+	 * @param to End of period, exclusive, in milliseconds since epoch, now when absent.
+	 * @param bucket Time bucket.
+	 * @return Buckets with movements, in time order.
+	 */
+	@RequestMapping(value = "/{id}/movements", method = RequestMethod.GET)
+	public Mono<List<InventoryMovementBucket>> getIngredientMovementBuckets(@PathVariable Long id,
+			@RequestParam(required = false) Long from, @RequestParam(required = false) Long to,
+			@RequestParam(defaultValue = "HOUR") InventoryMovementBucketEnum bucket) {
+		return getMovementBuckets(id, from, to, bucket);
+	}
+	
+	/**
+	 * Handler of requests rejected because the blocking scheduler queue is full.
+	 * 
+	 * @param response Response told when to retry.
+	 */
+	@ExceptionHandler(RejectedExecutionException.class)
+	@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many requests, retry later.")
+	public void handleRejectedExecution(ServerHttpResponse response) {
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+	}
+	
+	/**
+	 * Handler of requests whose deadline passed.
+	 * 
+	 * @param response Response told when to retry.
+	 */
+	@ExceptionHandler(TimeoutException.class)
+	@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Request deadline exceeded, retry later.")
+	public void handleTimeout(ServerHttpResponse response) {
+		response.getHeaders().set(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+	}
+	
+	/**
+	 * Handler of deals refused as invalid.
+	 * 
+	 * @param e Exception telling why deal was refused.
+	 * @return Error of a bad request telling why deal was refused.
+	 */
+	@ExceptionHandler(InvalidDealException.class)
+	public Mono<Void> handleInvalidDeal(InvalidDealException e) {
+		return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e));
+	}
+	
+	/**
+	 * Run inventory work to the end whatever its caller does, so inventory of an order is never left half updated by
+	 * a cancellation and the caller is never told a write failed when it was applied.
+	 * 
+	 * @param work Inventory work.
+	 * @return Result of work.
+	 */
+	private <T> Mono<T> detached(Mono<T> work) {
+		Mono<T> detachedWork = work.cache();
+		
+		detachedWork.subscribe(result -> {
+		}, e -> {
+			// Reported to the caller through the returned result.
+		});
+		
+		return detachedWork;
+	}
+	
+	/**
+	 * Get pizza size of a request.
+	 * 
+	 * @param size Short description of pizza size.
+	 * @return Pizza size.
+	 */
+	private PizzaSizeMultiplyFactorEnum toPizzaSize(Character size) {
+		PizzaSizeMultiplyFactorEnum pizzaSize = PizzaSizeMultiplyFactorEnum.fromShortDescription(size);
+		
+		if (pizzaSize == null) {
+			throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown pizza size " + size + ".");
+		}
+		
+		return pizzaSize;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,26 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.data;
+
+import org.springframework.data.repository.CrudRepository;
+
+import com.pizzaordering.ingredient.entity.ActiveDeal;
+
+/**
+ * Interface of active deal repository layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface ActiveDealRepository extends CrudRepository<ActiveDeal, Integer> {
+}
@@ -0,0 +1,117 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.data;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Repository streaming ingredients through a forward-only JDBC cursor.
+ * 
+ * Rows are mapped and handed over one at a time, never entering a persistence context, so memory stays constant
+ * whatever the size of the catalog.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Repository
+public class IngredientExportRepository {
+	
+	/**
+	 * Query of all ingredients in id order.
+	 */
+	private static final String SELECT_INGREDIENTS = "select id, description, type, portion_quantity, portion_price, "
+			+ "percentage_discount, reorder_threshold from igd_ingredient order by id";
+	
+	/**
+	 * Query of ingredients of a type in id order.
+	 */
+	private static final String SELECT_INGREDIENTS_BY_TYPE = "select id, description, type, portion_quantity, "
+			+ "portion_price, percentage_discount, reorder_threshold from igd_ingredient where type = ? order by id";
+	
+	/**
+	 * Fetch size making MySQL driver stream rows one at a time, rejected by other drivers.
+	 */
+	private static final int MYSQL_STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+	
+	/**
+	 * JDBC template.
+	 */
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Fetch size of cursor on drivers other than MySQL. MySQL driver only streams row by row with Integer.MIN_VALUE,
+	 * any other value buffering the whole result set, so it always gets that one instead.
+	 */
+	@Value("${ingredient.export.fetch-size:500}")
+	private int fetchSize;
+	
+	/**
+	 * Stream ingredients in id order, on a read-only transaction so the scan is served by a read replica.
+	 * 
+	 * @param type Type of ingredients, or null for all of them.
+	 * @param consumer Consumer of each ingredient, called while the cursor is open.
+	 */
+	@Transactional(readOnly = true)
+	public void forEachIngredient(Character type, Consumer<Ingredient> consumer) {
+		jdbcTemplate.query(connection -> {
+			PreparedStatement preparedStatement = connection.prepareStatement(
+					type == null ? SELECT_INGREDIENTS : SELECT_INGREDIENTS_BY_TYPE, ResultSet.TYPE_FORWARD_ONLY,
+					ResultSet.CONCUR_READ_ONLY);
+			
+			preparedStatement.setFetchSize("MySQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName())
+					? MYSQL_STREAMING_FETCH_SIZE : fetchSize);
+			
+			if (type != null) {
+				preparedStatement.setString(1, String.valueOf(type));
+			}
+			
+			return preparedStatement;
+		}, resultSet -> {
+			consumer.accept(toIngredient(resultSet));
+		});
+	}
+	
+	/**
+	 * Map current row to ingredient.
+	 * 
+	 * @param resultSet Result set positioned on a row.
+	 * @return Ingredient.
+	 * @throws SQLException When a column can not be read.
+	 */
+	private Ingredient toIngredient(ResultSet resultSet) throws SQLException {
+		Ingredient ingredient = new Ingredient();
+		String type = resultSet.getString("type");
+		
+		ingredient.setId(resultSet.getObject("id", Long.class));
+		ingredient.setDescription(resultSet.getString("description"));
+		ingredient.setType(type == null || type.isEmpty() ? null : type.charAt(0));
+		ingredient.setPortionQuantity(resultSet.getObject("portion_quantity", Integer.class));
+		ingredient.setPortionPrice(resultSet.getBigDecimal("portion_price"));
+		ingredient.setPercentageDiscount(resultSet.getBigDecimal("percentage_discount"));
+		ingredient.setReorderThreshold(resultSet.getObject("reorder_threshold", Integer.class));
+		
+		return ingredient;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,106 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.data;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Types;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Repository inserting ingredients in JDBC batches, bypassing the persistence context.
+ * 
+ * On MySQL a batch only becomes a single multi-row insert with rewriteBatchedStatements enabled on the connection.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Repository
+public class IngredientImportRepository {
+	
+	/**
+	 * Insert of an ingredient, id being generated.
+	 */
+	private static final String INSERT_INGREDIENT = "insert into igd_ingredient (description, type, portion_quantity, "
+			+ "portion_price, percentage_discount, reorder_threshold) values (?, ?, ?, ?, ?, ?)";
+	
+	/**
+	 * JDBC template.
+	 */
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Insert ingredients as a single JDBC batch, setting the id generated for each of them.
+	 * 
+	 * @param ingredients Ingredients to be inserted.
+	 */
+	public void insertIngredients(List<Ingredient> ingredients) {
+		PreparedStatementCreator insertCreator = connection -> connection.prepareStatement(INSERT_INGREDIENT,
+				Statement.RETURN_GENERATED_KEYS);
+		
+		jdbcTemplate.execute(insertCreator, (PreparedStatement preparedStatement) -> {
+			int position = 0;
+			
+			for (Ingredient ingredient : ingredients) {
+				setValues(preparedStatement, ingredient);
+				preparedStatement.addBatch();
+			}
+			
+			preparedStatement.executeBatch();
+			
+			try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+				while (generatedKeys.next() && position < ingredients.size()) {
+					ingredients.get(position++).setId(generatedKeys.getLong(1));
+				}
+			}
+			
+			return null;
+		});
+	}
+	
+	/**
+	 * Set values of insert of an ingredient.
+	 * 
+	 * @param preparedStatement Insert of an ingredient.
+	 * @param ingredient Ingredient to be inserted.
+	 * @throws SQLException When a value can not be set.
+	 */
+	private void setValues(PreparedStatement preparedStatement, Ingredient ingredient) throws SQLException {
+		preparedStatement.setString(1, ingredient.getDescription());
+		preparedStatement.setString(2, String.valueOf(ingredient.getType()));
+		preparedStatement.setInt(3, ingredient.getPortionQuantity());
+		preparedStatement.setBigDecimal(4, ingredient.getPortionPrice());
+		
+		if (ingredient.getPercentageDiscount() != null) {
+			preparedStatement.setBigDecimal(5, ingredient.getPercentageDiscount());
+		} else {
+			preparedStatement.setNull(5, Types.DECIMAL);
+		}
+		
+		if (ingredient.getReorderThreshold() != null) {
+			preparedStatement.setInt(6, ingredient.getReorderThreshold());
+		} else {
+			preparedStatement.setNull(6, Types.INTEGER);
+		}
+	}
+}
\ No newline at end of file
@@ -12,8 +12,20 @@
 
 package com.pizzaordering.ingredient.data;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.pizzaordering.ingredient.domain.IngredientPrice;
 import com.pizzaordering.ingredient.entity.Ingredient;
 
 /**
@@ -23,4 +35,105 @@ import com.pizzaordering.ingredient.entity.Ingredient;
  *
  */
 public interface IngredientRepository extends CrudRepository<Ingredient, Long> {
+	
+	/**
+	 * Get current row of ingredient from database, bypassing the second-level cache, before updating its inventory.
+	 * Read on a read-write transaction, so it is served by the primary database rather than by a lagging replica, and
+	 * locked until that transaction ends, so concurrent inventory updates of the same ingredient never overwrite each
+	 * other when read and saved in the same transaction.
+	 * 
+	 * @param id Id of ingredient.
+	 * @return Ingredient, empty when not found.
+	 */
+	@Transactional
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select i from Ingredient i where i.id = :id")
+	public Optional<Ingredient> findCurrentById(@Param("id") Long id);
+	
+	/**
+	 * Get pricing columns of ingredients in a single query, without loading them as managed entities.
+	 * 
+	 * @param ids Ids of ingredients.
+	 * @return Prices of ingredients found, in no particular order.
+	 */
+	@Query("select new com.pizzaordering.ingredient.domain.IngredientPrice(i.id, i.portionPrice) "
+			+ "from Ingredient i where i.id in :ids")
+	public List<IngredientPrice> findPricesByIdIn(@Param("ids") Collection<Long> ids);
+	
+	/**
+	 * Get ingredients at or below their reorder threshold.
+	 * 
+	 * @return Ingredients low on stock.
+	 */
+	@Query("select i from Ingredient i where i.portionQuantity <= i.reorderThreshold")
+	public List<Ingredient> findLowStock();
+	
+	/**
+	 * Get page of ingredients sorted by id, seeking past the last id of previous page.
+	 * 
+	 * @param afterId Last id of previous page.
+	 * @param pageable Size of page, first page only.
+	 * @return Page of ingredients.
+	 */
+	public List<Ingredient> findByIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+	
+	/**
+	 * Get page of ingredients of a type sorted by id, seeking past the last id of previous page.
+	 * 
+	 * @param type Type of ingredients.
+	 * @param afterId Last id of previous page.
+	 * @param pageable Size of page, first page only.
+	 * @return Page of ingredients.
+	 */
+	public List<Ingredient> findByTypeAndIdGreaterThanOrderByIdAsc(Character type, Long afterId, Pageable pageable);
+	
+	/**
+	 * Get page of ingredients without stock level sorted by id, seeking past the last id of previous page. These rows
+	 * come before any stock level when sorted by it.
+	 * 
+	 * @param afterId Last id of previous page.
+	 * @param pageable Size of page, first page only.
+	 * @return Page of ingredients.
+	 */
+	public List<Ingredient> findByPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc(Long afterId, Pageable pageable);
+	
+	/**
+	 * Get page of ingredients of a type without stock level sorted by id, seeking past the last id of previous page.
+	 * These rows come before any stock level when sorted by it.
+	 * 
+	 * @param type Type of ingredients.
+	 * @param afterId Last id of previous page.
+	 * @param pageable Size of page, first page only.
+	 * @return Page of ingredients.
+	 */
+	public List<Ingredient> findByTypeAndPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc(Character type, Long afterId,
+			Pageable pageable);
+	
+	/**
+	 * Get page of ingredients sorted by stock level then id, seeking past the last row of previous page.
+	 * 
+	 * @param afterPortionQuantity Quantity of portion of last row of previous page.
+	 * @param afterId Id of last row of previous page.
+	 * @param pageable Size of page, first page only.
+	 * @return Page of ingredients.
+	 */
+	@Query("select i from Ingredient i where i.portionQuantity > :afterPortionQuantity "
+			+ "or (i.portionQuantity = :afterPortionQuantity and i.id > :afterId) order by i.portionQuantity, i.id")
+	public List<Ingredient> findPageOrderByPortionQuantity(@Param("afterPortionQuantity") Integer afterPortionQuantity,
+			@Param("afterId") Long afterId, Pageable pageable);
+	
+	/**
+	 * Get page of ingredients of a type sorted by stock level then id, seeking past the last row of previous page.
+	 * 
+	 * @param type Type of ingredients.
+	 * @param afterPortionQuantity Quantity of portion of last row of previous page.
+	 * @param afterId Id of last row of previous page.
+	 * @param pageable Size of page, first page only.
+	 * @return Page of ingredients.
+	 */
+	@Query("select i from Ingredient i where i.type = :type and (i.portionQuantity > :afterPortionQuantity "
+			+ "or (i.portionQuantity = :afterPortionQuantity and i.id > :afterId)) order by i.portionQuantity, i.id")
+	public List<Ingredient> findPageByTypeOrderByPortionQuantity(@Param("type") Character type,
+			@Param("afterPortionQuantity") Integer afterPortionQuantity, @Param("afterId") Long afterId,
+			Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,130 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.data;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.entity.InventoryMovement;
+
+/**
+ * Repository appending inventory movements in JDBC batches and adding them up per ingredient and time bucket.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Repository
+public class InventoryMovementRepository {
+	
+	/**
+	 * Insert of an inventory movement, id being generated.
+	 */
+	private static final String INSERT_MOVEMENT = "insert into igd_inventory_movement (ingredient_id, delta, reason, "
+			+ "order_id, moved_at) values (?, ?, ?, ?, ?)";
+	
+	/**
+	 * Aggregation of movements per ingredient and time bucket, bucket start being moved_at truncated to bucket length.
+	 */
+	private static final String SELECT_BUCKETS = "select ingredient_id, moved_at - mod(moved_at, ?) as bucket_start, "
+			+ "count(*) as movements, sum(case when delta > 0 then delta else 0 end) as portions_in, "
+			+ "sum(case when delta < 0 then -delta else 0 end) as portions_out, sum(delta) as net_delta "
+			+ "from igd_inventory_movement where moved_at >= ? and moved_at < ?";
+	
+	/**
+	 * Grouping and order of aggregation of movements.
+	 */
+	private static final String GROUP_BUCKETS = " group by ingredient_id, bucket_start order by ingredient_id, "
+			+ "bucket_start";
+	
+	/**
+	 * JDBC template.
+	 */
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Insert inventory movements as a single JDBC batch.
+	 * 
+	 * @param inventoryMovements Inventory movements to be inserted.
+	 */
+	public void insertMovements(List<InventoryMovement> inventoryMovements) {
+		jdbcTemplate.batchUpdate(INSERT_MOVEMENT, new BatchPreparedStatementSetter() {
+			
+			@Override
+			public void setValues(PreparedStatement preparedStatement, int i) throws SQLException {
+				InventoryMovement inventoryMovement = inventoryMovements.get(i);
+				
+				preparedStatement.setLong(1, inventoryMovement.getIngredientId());
+				preparedStatement.setInt(2, inventoryMovement.getDelta());
+				preparedStatement.setString(3, inventoryMovement.getReason());
+				
+				if (inventoryMovement.getOrderId() != null) {
+					preparedStatement.setLong(4, inventoryMovement.getOrderId());
+				} else {
+					preparedStatement.setNull(4, Types.BIGINT);
+				}
+				
+				preparedStatement.setLong(5, inventoryMovement.getMovedAt());
+			}
+			
+			@Override
+			public int getBatchSize() {
+				return inventoryMovements.size();
+			}
+		});
+	}
+	
+	/**
+	 * Add up inventory movements per ingredient and time bucket.
+	 * 
+	 * @param ingredientId Id of ingredient, or null for all of them.
+	 * @param from Start of period, inclusive, in milliseconds since epoch.
+	 * @param to End of period, exclusive, in milliseconds since epoch.
+	 * @param bucketMillis Length of time bucket in milliseconds.
+	 * @return Buckets with movements, in ingredient then time order.
+	 */
+	public List<InventoryMovementBucket> findBuckets(Long ingredientId, long from, long to, long bucketMillis) {
+		List<Object> args = new ArrayList<Object>();
+		
+		args.add(bucketMillis);
+		args.add(from);
+		args.add(to);
+		
+		if (ingredientId != null) {
+			args.add(ingredientId);
+		}
+		
+		return jdbcTemplate.query(SELECT_BUCKETS + (ingredientId != null ? " and ingredient_id = ?" : "")
+				+ GROUP_BUCKETS, args.toArray(), (resultSet, rowNum) -> {
+					InventoryMovementBucket inventoryMovementBucket = new InventoryMovementBucket();
+					
+					inventoryMovementBucket.setIngredientId(resultSet.getLong("ingredient_id"));
+					inventoryMovementBucket.setBucketStart(resultSet.getLong("bucket_start"));
+					inventoryMovementBucket.setMovements(resultSet.getLong("movements"));
+					inventoryMovementBucket.setPortionsIn(resultSet.getLong("portions_in"));
+					inventoryMovementBucket.setPortionsOut(resultSet.getLong("portions_out"));
+					inventoryMovementBucket.setNetDelta(resultSet.getLong("net_delta"));
+					
+					return inventoryMovementBucket;
+				});
+	}
+}
\ No newline at end of file
@@ -0,0 +1,54 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.data;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+
+/**
+ * Interface of outbox event repository layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface OutboxEventRepository extends CrudRepository<OutboxEvent, Long> {
+	
+	/**
+	 * Find oldest outbox events, always on primary database so the relay never waits on replica lag.
+	 * 
+	 * @param pageable Size of batch.
+	 * @return Outbox events in id order.
+	 */
+	@Transactional
+	public List<OutboxEvent> findAllByOrderByIdAsc(Pageable pageable);
+	
+	/**
+	 * Delete relayed outbox events in a single statement.
+	 * 
+	 * @param ids Ids of outbox events.
+	 * @return Number of outbox events deleted.
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from OutboxEvent e where e.id in :ids")
+	public int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.data;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredientId;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Seeder of synthetic data of the perf profile, so the service can be load tested on an embedded database without
+ * MySQL nor a closed recipe resource.
+ * 
+ * Ingredients of import.sql are topped up with synthetic ones, and synthetic closed recipes are derived from their id
+ * alone, each one always made of the same ingredients, so they need no storage and any replica of the closed recipe
+ * stand-in serves the same ones.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+@Profile("perf")
+public class PerfDataSeeder {
+	
+	/**
+	 * Types of synthetic ingredients, in turn.
+	 */
+	private static final char[] TYPES = { 'C', 'S', 'V', 'P' };
+	
+	/**
+	 * Entity manager factory, injected so schema is created and import.sql is run before seeding.
+	 */
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	/**
+	 * Repository of bulk ingredient inserts.
+	 */
+	@Autowired
+	IngredientImportRepository ingredientImportRepository;
+	
+	/**
+	 * JDBC template.
+	 */
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Number of synthetic ingredients added to the ones of import.sql.
+	 */
+	@Value("${perf.seed.ingredients:10000}")
+	private int ingredients;
+	
+	/**
+	 * Number of synthetic closed recipes, ids from 1 to this number.
+	 */
+	@Value("${perf.seed.recipes:1000}")
+	private int recipes;
+	
+	/**
+	 * Number of ingredients of each synthetic closed recipe.
+	 */
+	@Value("${perf.seed.ingredients-per-recipe:6}")
+	private int ingredientsPerRecipe;
+	
+	/**
+	 * Inventory of each synthetic ingredient, large enough for a load test not to run out of it.
+	 */
+	@Value("${perf.seed.portion-quantity:1000000}")
+	private int portionQuantity;
+	
+	/**
+	 * Number of rows per JDBC batch.
+	 */
+	@Value("${ingredient.import.batch-size:1000}")
+	private int batchSize;
+	
+	/**
+	 * Greatest id of ingredients before seeding, closed recipes being made of synthetic ingredients only, from the
+	 * next id on, so the low stock ones of import.sql are never drawn.
+	 */
+	private long minIngredientId;
+	
+	/**
+	 * Greatest id of ingredients once seeded, closed recipes being made of ingredients up to this id.
+	 */
+	private long maxIngredientId;
+	
+	/**
+	 * Insert synthetic ingredients in batches.
+	 */
+	@PostConstruct
+	public void init() {
+		List<Ingredient> batch = new ArrayList<Ingredient>(batchSize);
+		Ingredient ingredient = null;
+		
+		minIngredientId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from igd_ingredient", Long.class);
+		
+		for (int i = 1; i <= ingredients; i++) {
+			ingredient = new Ingredient();
+			ingredient.setDescription("Synthetic Ingredient " + i);
+			ingredient.setType(TYPES[i % TYPES.length]);
+			ingredient.setPortionQuantity(portionQuantity);
+			ingredient.setPortionPrice(BigDecimal.valueOf(100 + (i % 50) * 10, 2));
+			batch.add(ingredient);
+			
+			if (batch.size() == batchSize) {
+				ingredientImportRepository.insertIngredients(batch);
+				batch.clear();
+			}
+		}
+		
+		if (!batch.isEmpty()) {
+			ingredientImportRepository.insertIngredients(batch);
+		}
+		
+		maxIngredientId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from igd_ingredient", Long.class);
+	}
+	
+	/**
+	 * Get synthetic closed recipe.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Closed recipe, null when there is no such synthetic closed recipe.
+	 */
+	public ClosedRecipe getClosedRecipe(Integer closedRecipeId) {
+		ClosedRecipe closedRecipe = null;
+		Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap = new HashMap<Long, ClosedRecipeIngredient>();
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		ClosedRecipeIngredientId closedRecipeIngredientId = null;
+		Random random = null;
+		Long ingredientId = null;
+		
+		if (closedRecipeId == null || closedRecipeId < 1 || closedRecipeId > recipes
+				|| maxIngredientId == minIngredientId) {
+			return null;
+		}
+		
+		// Seeded with the id, a closed recipe is made of the same ingredients on every call.
+		random = new Random(closedRecipeId);
+		
+		while (closedRecipeIngredientMap.size() < Math.min(ingredientsPerRecipe, maxIngredientId - minIngredientId)) {
+			ingredientId = minIngredientId + 1 + (long) (random.nextDouble() * (maxIngredientId - minIngredientId));
+			
+			if (!closedRecipeIngredientMap.containsKey(ingredientId)) {
+				closedRecipeIngredientId = new ClosedRecipeIngredientId();
+				closedRecipeIngredientId.setIngredientId(ingredientId);
+				
+				closedRecipeIngredient = new ClosedRecipeIngredient();
+				closedRecipeIngredient.setClosedRecipeIngredientId(closedRecipeIngredientId);
+				closedRecipeIngredient.setPortionQuantity(1 + random.nextInt(3));
+				
+				closedRecipeIngredientMap.put(ingredientId, closedRecipeIngredient);
+			}
+		}
+		
+		closedRecipe = new ClosedRecipe();
+		closedRecipe.setId(closedRecipeId);
+		closedRecipe.setDescription("Synthetic Closed Recipe " + closedRecipeId);
+		closedRecipe.setClosedRecipeIngredientMap(closedRecipeIngredientMap);
+		
+		return closedRecipe;
+	}
+	
+	/**
+	 * Get greatest id of ingredients once seeded.
+	 * 
+	 * @return Greatest id of ingredients.
+	 */
+	public long getMaxIngredientId() {
+		return maxIngredientId;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,136 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.data;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.scheduling.BlockingScheduler;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Reactive repository of ingredients.
+ * 
+ * There is no non-blocking MySQL driver to back a reactive Spring Data repository, so queries run through the JPA
+ * repository on the bounded blocking scheduler: the event loop never blocks, and at most as many queries as pooled
+ * connections are in flight, the others waiting on a bounded queue.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Repository
+@Profile("reactive")
+public class ReactiveIngredientRepository {
+	
+	/**
+	 * Interface of ingredient repository layer.
+	 */
+	@Autowired
+	IngredientRepository ingredientRepository;
+	
+	/**
+	 * Scheduler of blocking calls.
+	 */
+	@Autowired
+	BlockingScheduler blockingScheduler;
+	
+	/**
+	 * Interface of outbox service layer.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Manager of transactions, each inventory change being committed with its outbox event.
+	 */
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	/**
+	 * Find ingredient by id.
+	 * 
+	 * @param id Id of ingredient.
+	 * @return Ingredient, empty when not found.
+	 */
+	public Mono<Ingredient> findById(Long id) {
+		return blockingScheduler.call(() -> ingredientRepository.findById(id).orElse(null));
+	}
+	
+	/**
+	 * Find ingredients by id in a single query.
+	 * 
+	 * @param ids Ids of ingredients.
+	 * @return Ingredients found, in no particular order.
+	 */
+	public Flux<Ingredient> findAllById(Collection<Long> ids) {
+		return blockingScheduler.callMany(() -> ingredientRepository.findAllById(ids));
+	}
+	
+	/**
+	 * Find pricing columns of ingredients by id in a single projection query.
+	 * 
+	 * @param ids Ids of ingredients.
+	 * @return Prices of ingredients found, in no particular order.
+	 */
+	public Flux<IngredientPrice> findPricesById(Collection<Long> ids) {
+		return blockingScheduler.callMany(() -> ingredientRepository.findPricesByIdIn(ids));
+	}
+	
+	/**
+	 * Find a page of ingredients after an id, in id order.
+	 * 
+	 * @param type Type of ingredients, or all of them when null.
+	 * @param afterId Id of last ingredient of previous page.
+	 * @param size Size of page.
+	 * @return Page of ingredients.
+	 */
+	public Mono<List<Ingredient>> findPageAfter(Character type, Long afterId, int size) {
+		return blockingScheduler.call(() -> type == null
+				? ingredientRepository.findByIdGreaterThanOrderByIdAsc(afterId, PageRequest.of(0, size))
+				: ingredientRepository.findByTypeAndIdGreaterThanOrderByIdAsc(type, afterId, PageRequest.of(0, size)));
+	}
+	
+	/**
+	 * Add to quantity of portion of ingredient, reading its current row locked and saving it with its inventory outbox
+	 * event in one blocking call and one transaction.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionQuantityDelta Quantity of portion added, negative to decrement inventory.
+	 * @return Ingredient saved, failing with NoSuchElementException when not found.
+	 */
+	public Mono<Ingredient> addPortionQuantity(Long id, int portionQuantityDelta) {
+		return blockingScheduler.call(() -> new TransactionTemplate(transactionManager).execute(status -> {
+			Ingredient ingredient = ingredientRepository.findCurrentById(id).get();
+			Ingredient savedIngredient = null;
+			
+			ingredient.setPortionQuantity(ingredient.getPortionQuantity() + portionQuantityDelta);
+			
+			savedIngredient = ingredientRepository.save(ingredient);
+			outboxService.appendIngredientEvent(OutboxEventTypeEnum.INVENTORY, ingredient);
+			
+			return savedIngredient;
+		}));
+	}
+}
\ No newline at end of file
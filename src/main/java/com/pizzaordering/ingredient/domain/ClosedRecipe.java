@@ -15,6 +15,8 @@ package com.pizzaordering.ingredient.domain;
 import java.io.Serializable;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 /**
  * Closed recipe domain.
  * 
@@ -41,7 +43,8 @@ public class ClosedRecipe implements Serializable {
 	/**
 	 * Map of closed recipe ingredients, using ingredient id as key and closed recipe ingredient as value.
 	 */
-	private Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap;
+	@JsonDeserialize(using = LongKeyedMap.Deserializer.class)
+	private LongKeyedMap<ClosedRecipeIngredient> closedRecipeIngredientMap;
 	
 	/**
 	 * Constructor.
@@ -90,17 +93,17 @@ public class ClosedRecipe implements Serializable {
 	 * 
 	 * @return Map of closed recipe ingredient.
 	 */
-	public Map<Long, ClosedRecipeIngredient> getClosedRecipeIngredientMap() {
+	public LongKeyedMap<ClosedRecipeIngredient> getClosedRecipeIngredientMap() {
 		return closedRecipeIngredientMap;
 	}
 
 	/**
-	 * Set map of closed recipe ingredient.
+	 * Set map of closed recipe ingredient, copied into a map keyed by primitive ids unless it already is one.
 	 * 
 	 * @param closedRecipeIngredientMap Map of closed recipe ingredient.
 	 */
 	public void setClosedRecipeIngredientMap(Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap) {
-		this.closedRecipeIngredientMap = closedRecipeIngredientMap;
+		this.closedRecipeIngredientMap = LongKeyedMap.of(closedRecipeIngredientMap);
 	}
 
 	@Override
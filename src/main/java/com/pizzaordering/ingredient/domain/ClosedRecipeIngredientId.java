@@ -13,6 +13,7 @@
 package com.pizzaordering.ingredient.domain;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Closed recipe ingredient composite id.
@@ -83,7 +84,8 @@ public class ClosedRecipeIngredientId implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((closedRecipe == null) ? 0 : closedRecipe.hashCode());
+		// Closed recipe taken by id only, its ingredient map holds this very id.
+		result = prime * result + ((closedRecipe == null || closedRecipe.getId() == null) ? 0 : closedRecipe.getId().hashCode());
 		result = prime * result + ((ingredientId == null) ? 0 : ingredientId.hashCode());
 		return result;
 	}
@@ -100,7 +102,7 @@ public class ClosedRecipeIngredientId implements Serializable {
 		if (closedRecipe == null) {
 			if (other.closedRecipe != null)
 				return false;
-		} else if (!closedRecipe.equals(other.closedRecipe))
+		} else if (other.closedRecipe == null || !Objects.equals(closedRecipe.getId(), other.closedRecipe.getId()))
 			return false;
 		if (ingredientId == null) {
 			if (other.ingredientId != null)
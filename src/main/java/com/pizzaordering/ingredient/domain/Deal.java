@@ -13,8 +13,11 @@
 package com.pizzaordering.ingredient.domain;
 
 import java.io.Serializable;
+import java.time.Instant;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 /**
  * Deal domain.
  * 
@@ -38,10 +41,21 @@ public class Deal implements Serializable {
 	 */
 	private String description;
 	
+	/**
+	 * Moment deal starts, or null when it starts right away.
+	 */
+	private Instant startTime;
+	
+	/**
+	 * Moment deal ends, or null when it lasts until deleted.
+	 */
+	private Instant endTime;
+	
 	/**
 	 * Map of deal ingredients, using ingredient id as key and deal ingredient as value.
 	 */
-	private Map<Long, DealIngredient> dealIngredientMap;
+	@JsonDeserialize(using = LongKeyedMap.Deserializer.class)
+	private LongKeyedMap<DealIngredient> dealIngredientMap;
 	
 	/**
 	 * Constructor.
@@ -85,22 +99,58 @@ public class Deal implements Serializable {
 		this.description = description;
 	}
 
+	/**
+	 * Get moment deal starts.
+	 * 
+	 * @return Moment deal starts, or null when it starts right away.
+	 */
+	public Instant getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Set moment deal starts.
+	 * 
+	 * @param startTime Moment deal starts, or null when it starts right away.
+	 */
+	public void setStartTime(Instant startTime) {
+		this.startTime = startTime;
+	}
+
+	/**
+	 * Get moment deal ends.
+	 * 
+	 * @return Moment deal ends, or null when it lasts until deleted.
+	 */
+	public Instant getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Set moment deal ends.
+	 * 
+	 * @param endTime Moment deal ends, or null when it lasts until deleted.
+	 */
+	public void setEndTime(Instant endTime) {
+		this.endTime = endTime;
+	}
+
 	/**
 	 * Get map of deal ingredient.
 	 * 
 	 * @return Map of deal ingredient.
 	 */
-	public Map<Long, DealIngredient> getDealIngredientMap() {
+	public LongKeyedMap<DealIngredient> getDealIngredientMap() {
 		return dealIngredientMap;
 	}
 
 	/**
-	 * Set map of deal ingredient.
+	 * Set map of deal ingredient, copied into a map keyed by primitive ids unless it already is one.
 	 * 
 	 * @param dealIngredientMap Map of deal ingredient.
 	 */
 	public void setDealIngredientMap(Map<Long, DealIngredient> dealIngredientMap) {
-		this.dealIngredientMap = dealIngredientMap;
+		this.dealIngredientMap = LongKeyedMap.of(dealIngredientMap);
 	}
 
 	@Override
@@ -108,7 +158,9 @@ public class Deal implements Serializable {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((description == null) ? 0 : description.hashCode());
+		result = prime * result + ((endTime == null) ? 0 : endTime.hashCode());
 		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		result = prime * result + ((startTime == null) ? 0 : startTime.hashCode());
 		return result;
 	}
 
@@ -126,11 +178,21 @@ public class Deal implements Serializable {
 				return false;
 		} else if (!description.equals(other.description))
 			return false;
+		if (endTime == null) {
+			if (other.endTime != null)
+				return false;
+		} else if (!endTime.equals(other.endTime))
+			return false;
 		if (id == null) {
 			if (other.id != null)
 				return false;
 		} else if (!id.equals(other.id))
 			return false;
+		if (startTime == null) {
+			if (other.startTime != null)
+				return false;
+		} else if (!startTime.equals(other.startTime))
+			return false;
 		return true;
 	}
 }
\ No newline at end of file
@@ -0,0 +1,113 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Deal batch domain, a set of deals starting and ending together such as a promotion rollover.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class DealBatch implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Deals to be added.
+	 */
+	private List<DealPayload> addedDeals;
+	
+	/**
+	 * Ids of deals to be removed.
+	 */
+	private List<Integer> removedDealIds;
+	
+	/**
+	 * Constructor.
+	 */
+	public DealBatch() {
+	}
+
+	/**
+	 * Get deals to be added.
+	 * 
+	 * @return Deals to be added.
+	 */
+	public List<DealPayload> getAddedDeals() {
+		return addedDeals;
+	}
+
+	/**
+	 * Set deals to be added.
+	 * 
+	 * @param addedDeals Deals to be added.
+	 */
+	public void setAddedDeals(List<DealPayload> addedDeals) {
+		this.addedDeals = addedDeals;
+	}
+
+	/**
+	 * Get ids of deals to be removed.
+	 * 
+	 * @return Ids of deals to be removed.
+	 */
+	public List<Integer> getRemovedDealIds() {
+		return removedDealIds;
+	}
+
+	/**
+	 * Set ids of deals to be removed.
+	 * 
+	 * @param removedDealIds Ids of deals to be removed.
+	 */
+	public void setRemovedDealIds(List<Integer> removedDealIds) {
+		this.removedDealIds = removedDealIds;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((addedDeals == null) ? 0 : addedDeals.hashCode());
+		result = prime * result + ((removedDealIds == null) ? 0 : removedDealIds.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		DealBatch other = (DealBatch) obj;
+		if (addedDeals == null) {
+			if (other.addedDeals != null)
+				return false;
+		} else if (!addedDeals.equals(other.addedDeals))
+			return false;
+		if (removedDealIds == null) {
+			if (other.removedDealIds != null)
+				return false;
+		} else if (!removedDealIds.equals(other.removedDealIds))
+			return false;
+		return true;
+	}
+}
@@ -13,6 +13,7 @@
 package com.pizzaordering.ingredient.domain;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Deal ingredient composite id.
@@ -83,7 +84,7 @@ public class DealIngredientId implements Serializable {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + ((deal == null) ? 0 : deal.hashCode());
+		result = prime * result + ((deal == null || deal.getId() == null) ? 0 : deal.getId().hashCode());
 		result = prime * result + ((ingredientId == null) ? 0 : ingredientId.hashCode());
 		return result;
 	}
@@ -100,7 +101,7 @@ public class DealIngredientId implements Serializable {
 		if (deal == null) {
 			if (other.deal != null)
 				return false;
-		} else if (!deal.equals(other.deal))
+		} else if (other.deal == null || !Objects.equals(deal.getId(), other.deal.getId()))
 			return false;
 		if (ingredientId == null) {
 			if (other.ingredientId != null)
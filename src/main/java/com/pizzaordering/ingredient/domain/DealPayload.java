@@ -0,0 +1,381 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+
+/**
+ * Deal payload, the immutable wire form of a deal being added or deleted.
+ * 
+ * Discounts are flattened into arrays by position, keyed by primitive ingredient id, with no deal ingredient object
+ * nor composite id pointing back at the deal. Hash code is computed once, as no field ever changes.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@JsonDeserialize(using = DealPayload.Deserializer.class)
+public final class DealPayload implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of deal.
+	 */
+	private final Integer id;
+	
+	/**
+	 * Description of deal.
+	 */
+	private final String description;
+	
+	/**
+	 * Moment deal starts, null when it starts right away.
+	 */
+	private final Instant startTime;
+	
+	/**
+	 * Moment deal ends, null when it never ends.
+	 */
+	private final Instant endTime;
+	
+	/**
+	 * Ids of discounted ingredients, in request order.
+	 */
+	private final long[] ingredientIds;
+	
+	/**
+	 * Discount percentages by position, null when absent.
+	 */
+	private final BigDecimal[] discountPercentages;
+	
+	/**
+	 * Hash code, computed once.
+	 */
+	private final int hashCode;
+	
+	/**
+	 * Constructor, taking ownership of the arrays.
+	 * 
+	 * @param id Id of deal.
+	 * @param description Description of deal.
+	 * @param startTime Moment deal starts.
+	 * @param endTime Moment deal ends.
+	 * @param ingredientIds Ids of discounted ingredients.
+	 * @param discountPercentages Discount percentages by position.
+	 */
+	private DealPayload(Integer id, String description, Instant startTime, Instant endTime, long[] ingredientIds,
+			BigDecimal[] discountPercentages) {
+		int result = 1;
+		
+		this.id = id;
+		this.description = description;
+		this.startTime = startTime;
+		this.endTime = endTime;
+		this.ingredientIds = ingredientIds;
+		this.discountPercentages = discountPercentages;
+		
+		result = 31 * result + Objects.hashCode(id);
+		result = 31 * result + Objects.hashCode(description);
+		result = 31 * result + Objects.hashCode(startTime);
+		result = 31 * result + Objects.hashCode(endTime);
+		result = 31 * result + Arrays.hashCode(ingredientIds);
+		result = 31 * result + Arrays.hashCode(discountPercentages);
+		
+		this.hashCode = result;
+	}
+	
+	/**
+	 * Build payload of a deal.
+	 * 
+	 * @param deal Deal with discount ingredients.
+	 * @return Payload of deal, null when deal is null.
+	 */
+	public static DealPayload of(Deal deal) {
+		LongKeyedMap<DealIngredient> dealIngredientMap = null;
+		int count = 0;
+		long[] ingredientIds = null;
+		BigDecimal[] discountPercentages = null;
+		
+		if (deal == null) {
+			return null;
+		}
+		
+		dealIngredientMap = deal.getDealIngredientMap();
+		count = dealIngredientMap != null ? dealIngredientMap.size() : 0;
+		ingredientIds = new long[count];
+		discountPercentages = new BigDecimal[count];
+		
+		for (int position = 0; position < count; position++) {
+			ingredientIds[position] = dealIngredientMap.keyAt(position);
+			discountPercentages[position] = dealIngredientMap.valueAt(position) != null
+					? dealIngredientMap.valueAt(position).getDiscountPercentage() : null;
+		}
+		
+		return new DealPayload(deal.getId(), deal.getDescription(), deal.getStartTime(), deal.getEndTime(),
+				ingredientIds, discountPercentages);
+	}
+	
+	/**
+	 * Get id of deal.
+	 * 
+	 * @return Id of deal.
+	 */
+	public Integer getId() {
+		return id;
+	}
+	
+	/**
+	 * Get description of deal.
+	 * 
+	 * @return Description of deal.
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/**
+	 * Get moment deal starts.
+	 * 
+	 * @return Moment deal starts, null when it starts right away.
+	 */
+	public Instant getStartTime() {
+		return startTime;
+	}
+	
+	/**
+	 * Get moment deal ends.
+	 * 
+	 * @return Moment deal ends, null when it never ends.
+	 */
+	public Instant getEndTime() {
+		return endTime;
+	}
+	
+	/**
+	 * Get number of discounted ingredients.
+	 * 
+	 * @return Number of discounted ingredients.
+	 */
+	public int getIngredientCount() {
+		return ingredientIds.length;
+	}
+	
+	/**
+	 * Get id of discounted ingredient at a position.
+	 * 
+	 * @param position Position of discounted ingredient, in request order.
+	 * @return Id of discounted ingredient.
+	 */
+	public long getIngredientId(int position) {
+		return ingredientIds[position];
+	}
+	
+	/**
+	 * Get discount percentage at a position.
+	 * 
+	 * @param position Position of discounted ingredient, in request order.
+	 * @return Discount percentage, null when absent.
+	 */
+	public BigDecimal getDiscountPercentage(int position) {
+		return discountPercentages[position];
+	}
+	
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		DealPayload other = null;
+		
+		if (this == obj) {
+			return true;
+		}
+		
+		if (!(obj instanceof DealPayload)) {
+			return false;
+		}
+		
+		other = (DealPayload) obj;
+		
+		return hashCode == other.hashCode && Objects.equals(id, other.id)
+				&& Objects.equals(description, other.description) && Objects.equals(startTime, other.startTime)
+				&& Objects.equals(endTime, other.endTime) && Arrays.equals(ingredientIds, other.ingredientIds)
+				&& Arrays.equals(discountPercentages, other.discountPercentages);
+	}
+	
+	/**
+	 * Deserializer streaming a deal straight into a payload, with the same JSON shape as the deal domain.
+	 */
+	public static class Deserializer extends StdDeserializer<DealPayload> {
+		
+		/**
+		 * Serial version UID for serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Constructor.
+		 */
+		public Deserializer() {
+			super(DealPayload.class);
+		}
+		
+		@Override
+		public DealPayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			Integer id = null;
+			String description = null;
+			Instant startTime = null;
+			Instant endTime = null;
+			long[] ingredientIds = new long[0];
+			BigDecimal[] discountPercentages = new BigDecimal[0];
+			int count = 0;
+			int position = 0;
+			long ingredientId = 0;
+			String name = null;
+			
+			if (token == JsonToken.START_OBJECT) {
+				token = parser.nextToken();
+			} else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+				return (DealPayload) context.handleUnexpectedToken(DealPayload.class, parser);
+			}
+			
+			for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+				name = parser.getCurrentName();
+				token = parser.nextToken();
+				
+				if (token == JsonToken.VALUE_NULL) {
+					continue;
+				}
+				
+				switch (name) {
+				case "id":
+					id = context.readValue(parser, Integer.class);
+					break;
+				case "description":
+					description = context.readValue(parser, String.class);
+					break;
+				case "startTime":
+					startTime = context.readValue(parser, Instant.class);
+					break;
+				case "endTime":
+					endTime = context.readValue(parser, Instant.class);
+					break;
+				case "dealIngredientMap":
+					if (token != JsonToken.START_OBJECT) {
+						return (DealPayload) context.handleUnexpectedToken(DealPayload.class, parser);
+					}
+					
+					for (token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+						ingredientId = LongKeyedMap.parseKey(parser, context);
+						
+						// A repeated ingredient overrides the previous one, as on a map.
+						position = indexOf(ingredientIds, count, ingredientId);
+						
+						if (position < 0) {
+							position = count++;
+						}
+						
+						if (position == ingredientIds.length) {
+							ingredientIds = Arrays.copyOf(ingredientIds, Math.max(4, position * 2));
+							discountPercentages = Arrays.copyOf(discountPercentages, ingredientIds.length);
+						}
+						
+						ingredientIds[position] = ingredientId;
+						
+						parser.nextToken();
+						discountPercentages[position] = readDiscountPercentage(parser, context);
+					}
+					break;
+				default:
+					parser.skipChildren();
+				}
+			}
+			
+			if (count != ingredientIds.length) {
+				ingredientIds = Arrays.copyOf(ingredientIds, count);
+				discountPercentages = Arrays.copyOf(discountPercentages, count);
+			}
+			
+			return new DealPayload(id, description, startTime, endTime, ingredientIds, discountPercentages);
+		}
+		
+		/**
+		 * Read discount percentage out of value of a deal ingredient, skipping its other fields.
+		 * 
+		 * @param parser Parser positioned on value of deal ingredient.
+		 * @param context Deserialization context.
+		 * @return Discount percentage, null when absent.
+		 * @throws IOException When value of deal ingredient is malformed.
+		 */
+		private BigDecimal readDiscountPercentage(JsonParser parser, DeserializationContext context)
+				throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			String name = null;
+			BigDecimal discountPercentage = null;
+			
+			if (token != JsonToken.START_OBJECT) {
+				parser.skipChildren();
+				
+				return null;
+			}
+			
+			for (token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+				name = parser.getCurrentName();
+				token = parser.nextToken();
+				
+				if ("discountPercentage".equals(name) && token != JsonToken.VALUE_NULL) {
+					discountPercentage = context.readValue(parser, BigDecimal.class);
+				} else {
+					parser.skipChildren();
+				}
+			}
+			
+			return discountPercentage;
+		}
+		
+		/**
+		 * Find position of an id among the ids read so far.
+		 * 
+		 * @param ids Ids read so far.
+		 * @param count Number of ids read so far.
+		 * @param id Id to be found.
+		 * @return Position of id, -1 when absent.
+		 */
+		private int indexOf(long[] ids, int count, long id) {
+			for (int position = 0; position < count; position++) {
+				if (ids[position] == id) {
+					return position;
+				}
+			}
+			
+			return -1;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,123 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+
+/**
+ * Ingredient import error domain, a row rejected by a bulk import.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientImportError implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Number of row, starting at 1.
+	 */
+	private Long rowNumber;
+	
+	/**
+	 * Reason row was rejected.
+	 */
+	private String message;
+	
+	/**
+	 * Constructor.
+	 */
+	public IngredientImportError() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param rowNumber Number of row, starting at 1.
+	 * @param message Reason row was rejected.
+	 */
+	public IngredientImportError(Long rowNumber, String message) {
+		this.rowNumber = rowNumber;
+		this.message = message;
+	}
+
+	/**
+	 * Get number of row.
+	 * 
+	 * @return Number of row, starting at 1.
+	 */
+	public Long getRowNumber() {
+		return rowNumber;
+	}
+
+	/**
+	 * Set number of row.
+	 * 
+	 * @param rowNumber Number of row, starting at 1.
+	 */
+	public void setRowNumber(Long rowNumber) {
+		this.rowNumber = rowNumber;
+	}
+
+	/**
+	 * Get reason row was rejected.
+	 * 
+	 * @return Reason row was rejected.
+	 */
+	public String getMessage() {
+		return message;
+	}
+
+	/**
+	 * Set reason row was rejected.
+	 * 
+	 * @param message Reason row was rejected.
+	 */
+	public void setMessage(String message) {
+		this.message = message;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((message == null) ? 0 : message.hashCode());
+		result = prime * result + ((rowNumber == null) ? 0 : rowNumber.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IngredientImportError other = (IngredientImportError) obj;
+		if (message == null) {
+			if (other.message != null)
+				return false;
+		} else if (!message.equals(other.message))
+			return false;
+		if (rowNumber == null) {
+			if (other.rowNumber != null)
+				return false;
+		} else if (!rowNumber.equals(other.rowNumber))
+			return false;
+		return true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,142 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+import java.util.List;
+
+/**
+ * Ingredient import report domain, outcome of a bulk import.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientImportReport implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Number of rows imported.
+	 */
+	private Long importedCount;
+	
+	/**
+	 * Number of rows rejected.
+	 */
+	private Long failedCount;
+	
+	/**
+	 * Errors of rejected rows, up to the configured maximum.
+	 */
+	private List<IngredientImportError> errors;
+	
+	/**
+	 * Constructor.
+	 */
+	public IngredientImportReport() {
+	}
+
+	/**
+	 * Get number of rows imported.
+	 * 
+	 * @return Number of rows imported.
+	 */
+	public Long getImportedCount() {
+		return importedCount;
+	}
+
+	/**
+	 * Set number of rows imported.
+	 * 
+	 * @param importedCount Number of rows imported.
+	 */
+	public void setImportedCount(Long importedCount) {
+		this.importedCount = importedCount;
+	}
+
+	/**
+	 * Get number of rows rejected.
+	 * 
+	 * @return Number of rows rejected.
+	 */
+	public Long getFailedCount() {
+		return failedCount;
+	}
+
+	/**
+	 * Set number of rows rejected.
+	 * 
+	 * @param failedCount Number of rows rejected.
+	 */
+	public void setFailedCount(Long failedCount) {
+		this.failedCount = failedCount;
+	}
+
+	/**
+	 * Get errors of rejected rows.
+	 * 
+	 * @return Errors of rejected rows, up to the configured maximum.
+	 */
+	public List<IngredientImportError> getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Set errors of rejected rows.
+	 * 
+	 * @param errors Errors of rejected rows, up to the configured maximum.
+	 */
+	public void setErrors(List<IngredientImportError> errors) {
+		this.errors = errors;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((errors == null) ? 0 : errors.hashCode());
+		result = prime * result + ((failedCount == null) ? 0 : failedCount.hashCode());
+		result = prime * result + ((importedCount == null) ? 0 : importedCount.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IngredientImportReport other = (IngredientImportReport) obj;
+		if (errors == null) {
+			if (other.errors != null)
+				return false;
+		} else if (!errors.equals(other.errors))
+			return false;
+		if (failedCount == null) {
+			if (other.failedCount != null)
+				return false;
+		} else if (!failedCount.equals(other.failedCount))
+			return false;
+		if (importedCount == null) {
+			if (other.importedCount != null)
+				return false;
+		} else if (!importedCount.equals(other.importedCount))
+			return false;
+		return true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,155 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Ingredient lookup domain, result of looking up one id of a multi-get.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientLookup implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of ingredient looked up.
+	 */
+	private Long id;
+	
+	/**
+	 * Whether ingredient was found.
+	 */
+	private Boolean found;
+	
+	/**
+	 * Ingredient found, or null.
+	 */
+	private Ingredient ingredient;
+	
+	/**
+	 * Constructor.
+	 */
+	public IngredientLookup() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param id Id of ingredient looked up.
+	 * @param ingredient Ingredient found, or null.
+	 */
+	public IngredientLookup(Long id, Ingredient ingredient) {
+		this.id = id;
+		this.found = ingredient != null;
+		this.ingredient = ingredient;
+	}
+
+	/**
+	 * Get id of ingredient looked up.
+	 * 
+	 * @return Id of ingredient looked up.
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Set id of ingredient looked up.
+	 * 
+	 * @param id Id of ingredient looked up.
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Get whether ingredient was found.
+	 * 
+	 * @return Whether ingredient was found.
+	 */
+	public Boolean getFound() {
+		return found;
+	}
+
+	/**
+	 * Set whether ingredient was found.
+	 * 
+	 * @param found Whether ingredient was found.
+	 */
+	public void setFound(Boolean found) {
+		this.found = found;
+	}
+
+	/**
+	 * Get ingredient found.
+	 * 
+	 * @return Ingredient found, or null.
+	 */
+	public Ingredient getIngredient() {
+		return ingredient;
+	}
+
+	/**
+	 * Set ingredient found.
+	 * 
+	 * @param ingredient Ingredient found, or null.
+	 */
+	public void setIngredient(Ingredient ingredient) {
+		this.ingredient = ingredient;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((found == null) ? 0 : found.hashCode());
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		result = prime * result + ((ingredient == null) ? 0 : ingredient.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IngredientLookup other = (IngredientLookup) obj;
+		if (found == null) {
+			if (other.found != null)
+				return false;
+		} else if (!found.equals(other.found))
+			return false;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		if (ingredient == null) {
+			if (other.ingredient != null)
+				return false;
+		} else if (!ingredient.equals(other.ingredient))
+			return false;
+		return true;
+	}
+}
@@ -0,0 +1,145 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+import java.util.List;
+
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Ingredient page domain, a page of a keyset-paginated listing with the keyset of its next page.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientPage implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Ingredients of page.
+	 */
+	private List<Ingredient> ingredients;
+	
+	/**
+	 * Id to seek past for next page, or null on last page.
+	 */
+	private Long nextAfterId;
+	
+	/**
+	 * Quantity of portion to seek past for next page when sorted by stock level, or null while rows without stock
+	 * level, listed first, are being paged.
+	 */
+	private Integer nextAfterPortionQuantity;
+	
+	/**
+	 * Constructor.
+	 */
+	public IngredientPage() {
+	}
+
+	/**
+	 * Get ingredients of page.
+	 * 
+	 * @return Ingredients of page.
+	 */
+	public List<Ingredient> getIngredients() {
+		return ingredients;
+	}
+
+	/**
+	 * Set ingredients of page.
+	 * 
+	 * @param ingredients Ingredients of page.
+	 */
+	public void setIngredients(List<Ingredient> ingredients) {
+		this.ingredients = ingredients;
+	}
+
+	/**
+	 * Get id to seek past for next page.
+	 * 
+	 * @return Id to seek past for next page, or null on last page.
+	 */
+	public Long getNextAfterId() {
+		return nextAfterId;
+	}
+
+	/**
+	 * Set id to seek past for next page.
+	 * 
+	 * @param nextAfterId Id to seek past for next page, or null on last page.
+	 */
+	public void setNextAfterId(Long nextAfterId) {
+		this.nextAfterId = nextAfterId;
+	}
+
+	/**
+	 * Get quantity of portion to seek past for next page.
+	 * 
+	 * @return Quantity of portion to seek past for next page when sorted by stock level, or null.
+	 */
+	public Integer getNextAfterPortionQuantity() {
+		return nextAfterPortionQuantity;
+	}
+
+	/**
+	 * Set quantity of portion to seek past for next page.
+	 * 
+	 * @param nextAfterPortionQuantity Quantity of portion to seek past for next page when sorted by stock level, or null.
+	 */
+	public void setNextAfterPortionQuantity(Integer nextAfterPortionQuantity) {
+		this.nextAfterPortionQuantity = nextAfterPortionQuantity;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((ingredients == null) ? 0 : ingredients.hashCode());
+		result = prime * result + ((nextAfterId == null) ? 0 : nextAfterId.hashCode());
+		result = prime * result + ((nextAfterPortionQuantity == null) ? 0 : nextAfterPortionQuantity.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IngredientPage other = (IngredientPage) obj;
+		if (ingredients == null) {
+			if (other.ingredients != null)
+				return false;
+		} else if (!ingredients.equals(other.ingredients))
+			return false;
+		if (nextAfterId == null) {
+			if (other.nextAfterId != null)
+				return false;
+		} else if (!nextAfterId.equals(other.nextAfterId))
+			return false;
+		if (nextAfterPortionQuantity == null) {
+			if (other.nextAfterPortionQuantity != null)
+				return false;
+		} else if (!nextAfterPortionQuantity.equals(other.nextAfterPortionQuantity))
+			return false;
+		return true;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,83 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Ingredient price domain, the pricing columns of an ingredient read by a constructor projection query.
+ * 
+ * Rows are built straight from the result set, never entering the persistence context, so pricing-only reads skip
+ * entity hydration, dirty-checking snapshots and the columns pricing does not need.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientPrice implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of ingredient.
+	 */
+	private final Long id;
+	
+	/**
+	 * Price of a portion of ingredient.
+	 */
+	private final BigDecimal portionPrice;
+	
+	/**
+	 * Constructor, called by projection queries.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionPrice Price of a portion of ingredient.
+	 */
+	public IngredientPrice(Long id, BigDecimal portionPrice) {
+		this.id = id;
+		this.portionPrice = portionPrice;
+	}
+	
+	/**
+	 * Constructor, from an ingredient already loaded.
+	 * 
+	 * @param ingredient Ingredient.
+	 */
+	public IngredientPrice(Ingredient ingredient) {
+		this(ingredient.getId(), ingredient.getPortionPrice());
+	}
+	
+	/**
+	 * Get id of ingredient.
+	 * 
+	 * @return Id of ingredient.
+	 */
+	public Long getId() {
+		return id;
+	}
+	
+	/**
+	 * Get price of a portion of ingredient.
+	 * 
+	 * @return Price of a portion of ingredient.
+	 */
+	public BigDecimal getPortionPrice() {
+		return portionPrice;
+	}
+}
\ No newline at end of file
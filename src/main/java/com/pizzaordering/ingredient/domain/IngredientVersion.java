@@ -0,0 +1,154 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+
+/**
+ * Ingredient version domain, what a conditional read of an ingredient or a collection of ingredients is checked against.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientVersion implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of ingredient, or null for a collection of ingredients.
+	 */
+	private Long id;
+	
+	/**
+	 * ETag, without quotes.
+	 */
+	private String eTag;
+	
+	/**
+	 * Moment of last modification, in milliseconds since epoch.
+	 */
+	private Long lastModified;
+	
+	/**
+	 * Constructor.
+	 */
+	public IngredientVersion() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param id Id of ingredient, or null for a collection of ingredients.
+	 * @param eTag ETag, without quotes.
+	 * @param lastModified Moment of last modification, in milliseconds since epoch.
+	 */
+	public IngredientVersion(Long id, String eTag, Long lastModified) {
+		this.id = id;
+		this.eTag = eTag;
+		this.lastModified = lastModified;
+	}
+
+	/**
+	 * Get id of ingredient.
+	 * 
+	 * @return Id of ingredient, or null for a collection of ingredients.
+	 */
+	public Long getId() {
+		return id;
+	}
+
+	/**
+	 * Set id of ingredient.
+	 * 
+	 * @param id Id of ingredient, or null for a collection of ingredients.
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+
+	/**
+	 * Get ETag.
+	 * 
+	 * @return ETag, without quotes.
+	 */
+	public String getETag() {
+		return eTag;
+	}
+
+	/**
+	 * Set ETag.
+	 * 
+	 * @param eTag ETag, without quotes.
+	 */
+	public void setETag(String eTag) {
+		this.eTag = eTag;
+	}
+
+	/**
+	 * Get moment of last modification.
+	 * 
+	 * @return Moment of last modification, in milliseconds since epoch.
+	 */
+	public Long getLastModified() {
+		return lastModified;
+	}
+
+	/**
+	 * Set moment of last modification.
+	 * 
+	 * @param lastModified Moment of last modification, in milliseconds since epoch.
+	 */
+	public void setLastModified(Long lastModified) {
+		this.lastModified = lastModified;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((eTag == null) ? 0 : eTag.hashCode());
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		result = prime * result + ((lastModified == null) ? 0 : lastModified.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		IngredientVersion other = (IngredientVersion) obj;
+		if (eTag == null) {
+			if (other.eTag != null)
+				return false;
+		} else if (!eTag.equals(other.eTag))
+			return false;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		if (lastModified == null) {
+			if (other.lastModified != null)
+				return false;
+		} else if (!lastModified.equals(other.lastModified))
+			return false;
+		return true;
+	}
+}
\ No newline at end of file
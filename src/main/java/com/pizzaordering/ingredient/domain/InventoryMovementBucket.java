@@ -0,0 +1,173 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+
+/**
+ * Inventory movement bucket domain, the movements of an ingredient during a time bucket added up.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class InventoryMovementBucket implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of ingredient.
+	 */
+	private Long ingredientId;
+	
+	/**
+	 * Start of bucket, in milliseconds since epoch.
+	 */
+	private Long bucketStart;
+	
+	/**
+	 * Number of movements.
+	 */
+	private Long movements;
+	
+	/**
+	 * Portions added to inventory.
+	 */
+	private Long portionsIn;
+	
+	/**
+	 * Portions taken from inventory.
+	 */
+	private Long portionsOut;
+	
+	/**
+	 * Net change of quantity of portion.
+	 */
+	private Long netDelta;
+	
+	/**
+	 * Constructor.
+	 */
+	public InventoryMovementBucket() {
+	}
+	
+	/**
+	 * Get id of ingredient.
+	 * 
+	 * @return Id of ingredient.
+	 */
+	public Long getIngredientId() {
+		return ingredientId;
+	}
+	
+	/**
+	 * Set id of ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 */
+	public void setIngredientId(Long ingredientId) {
+		this.ingredientId = ingredientId;
+	}
+	
+	/**
+	 * Get start of bucket.
+	 * 
+	 * @return Start of bucket, in milliseconds since epoch.
+	 */
+	public Long getBucketStart() {
+		return bucketStart;
+	}
+	
+	/**
+	 * Set start of bucket.
+	 * 
+	 * @param bucketStart Start of bucket, in milliseconds since epoch.
+	 */
+	public void setBucketStart(Long bucketStart) {
+		this.bucketStart = bucketStart;
+	}
+	
+	/**
+	 * Get number of movements.
+	 * 
+	 * @return Number of movements.
+	 */
+	public Long getMovements() {
+		return movements;
+	}
+	
+	/**
+	 * Set number of movements.
+	 * 
+	 * @param movements Number of movements.
+	 */
+	public void setMovements(Long movements) {
+		this.movements = movements;
+	}
+	
+	/**
+	 * Get portions added to inventory.
+	 * 
+	 * @return Portions added to inventory.
+	 */
+	public Long getPortionsIn() {
+		return portionsIn;
+	}
+	
+	/**
+	 * Set portions added to inventory.
+	 * 
+	 * @param portionsIn Portions added to inventory.
+	 */
+	public void setPortionsIn(Long portionsIn) {
+		this.portionsIn = portionsIn;
+	}
+	
+	/**
+	 * Get portions taken from inventory.
+	 * 
+	 * @return Portions taken from inventory.
+	 */
+	public Long getPortionsOut() {
+		return portionsOut;
+	}
+	
+	/**
+	 * Set portions taken from inventory.
+	 * 
+	 * @param portionsOut Portions taken from inventory.
+	 */
+	public void setPortionsOut(Long portionsOut) {
+		this.portionsOut = portionsOut;
+	}
+	
+	/**
+	 * Get net change of quantity of portion.
+	 * 
+	 * @return Net change of quantity of portion.
+	 */
+	public Long getNetDelta() {
+		return netDelta;
+	}
+	
+	/**
+	 * Set net change of quantity of portion.
+	 * 
+	 * @param netDelta Net change of quantity of portion.
+	 */
+	public void setNetDelta(Long netDelta) {
+		this.netDelta = netDelta;
+	}
+}
\ No newline at end of file
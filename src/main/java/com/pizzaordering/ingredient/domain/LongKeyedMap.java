@@ -0,0 +1,555 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.deser.ContextualDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+/**
+ * Map keyed by primitive ingredient ids, for the small ingredient maps of orders, closed recipes and deals.
+ * 
+ * Entries are kept in insertion order in dense key and value arrays, found through an open addressing table of their
+ * positions, so lookups by a primitive key never box it and a loop over positions iterates without any allocation.
+ * Removal shifts later entries to keep insertion order, these maps being small and rarely shrunk. Being a map of
+ * boxed keys as well, it can be handed to code written against the map interface.
+ * 
+ * @author Rafael Lima Costa
+ * 
+ * @param <V> Type of values.
+ */
+@JsonSerialize(using = LongKeyedMap.Serializer.class)
+@JsonDeserialize(using = LongKeyedMap.Deserializer.class)
+public class LongKeyedMap<V> extends AbstractMap<Long, V> implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Initial capacity of entries.
+	 */
+	private static final int DEFAULT_CAPACITY = 8;
+	
+	/**
+	 * Keys in insertion order.
+	 */
+	private long[] keys;
+	
+	/**
+	 * Values in insertion order.
+	 */
+	private Object[] values;
+	
+	/**
+	 * Open addressing table of positions of entries plus one, zero for a free slot, at most half full.
+	 */
+	private int[] slots;
+	
+	/**
+	 * Number of entries.
+	 */
+	private int size;
+	
+	/**
+	 * Constructor.
+	 */
+	public LongKeyedMap() {
+		this(DEFAULT_CAPACITY);
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param expectedSize Number of entries expected.
+	 */
+	public LongKeyedMap(int expectedSize) {
+		int capacity = Math.max(DEFAULT_CAPACITY, expectedSize);
+		
+		this.keys = new long[capacity];
+		this.values = new Object[capacity];
+		this.slots = new int[Integer.highestOneBit(capacity - 1) << 2];
+	}
+	
+	/**
+	 * Constructor, copying entries of a map in its iteration order.
+	 * 
+	 * @param map Map to be copied.
+	 */
+	public LongKeyedMap(Map<Long, ? extends V> map) {
+		this(map.size());
+		
+		LongKeyedMap<? extends V> longKeyedMap = null;
+		
+		if (map instanceof LongKeyedMap) {
+			longKeyedMap = (LongKeyedMap<? extends V>) map;
+			
+			// Same keys, so the same table of positions.
+			System.arraycopy(longKeyedMap.keys, 0, keys, 0, longKeyedMap.size);
+			System.arraycopy(longKeyedMap.values, 0, values, 0, longKeyedMap.size);
+			
+			size = longKeyedMap.size;
+			
+			rehash(slots.length);
+		} else {
+			putAll(map);
+		}
+	}
+	
+	/**
+	 * Get map keyed by primitive ids with the entries of a map, the map itself when it already is one.
+	 * 
+	 * @param map Map, possibly null.
+	 * @param <V> Type of values.
+	 * @return Map keyed by primitive ids, null when map is null.
+	 */
+	@SuppressWarnings("unchecked")
+	public static <V> LongKeyedMap<V> of(Map<Long, V> map) {
+		if (map == null || map instanceof LongKeyedMap) {
+			return (LongKeyedMap<V>) map;
+		}
+		
+		return new LongKeyedMap<V>(map);
+	}
+	
+	/**
+	 * Get value of a key.
+	 * 
+	 * @param key Key.
+	 * @return Value, null when absent.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int position = find(key);
+		
+		return position < 0 ? null : (V) values[position];
+	}
+	
+	/**
+	 * Get whether there is an entry of a key.
+	 * 
+	 * @param key Key.
+	 * @return Whether there is an entry of key.
+	 */
+	public boolean containsKey(long key) {
+		return find(key) >= 0;
+	}
+	
+	/**
+	 * Put value of a key, appending a new key at the end of insertion order.
+	 * 
+	 * @param key Key.
+	 * @param value Value.
+	 * @return Previous value, null when absent.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		int position = find(key);
+		V previousValue = null;
+		
+		if (position >= 0) {
+			previousValue = (V) values[position];
+			values[position] = value;
+			
+			return previousValue;
+		}
+		
+		if (size == keys.length) {
+			keys = Arrays.copyOf(keys, size << 1);
+			values = Arrays.copyOf(values, size << 1);
+		}
+		
+		keys[size] = key;
+		values[size] = value;
+		size++;
+		
+		if (size << 1 > slots.length) {
+			rehash(slots.length << 1);
+		} else {
+			insertSlot(key, size);
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Remove entry of a key.
+	 * 
+	 * @param key Key.
+	 * @return Value removed, null when absent.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int position = find(key);
+		V previousValue = null;
+		
+		if (position < 0) {
+			return null;
+		}
+		
+		previousValue = (V) values[position];
+		
+		System.arraycopy(keys, position + 1, keys, position, size - position - 1);
+		System.arraycopy(values, position + 1, values, position, size - position - 1);
+		
+		values[--size] = null;
+		
+		rehash(slots.length);
+		
+		return previousValue;
+	}
+	
+	/**
+	 * Get key at a position of insertion order.
+	 * 
+	 * @param position Position, from zero to size excluded.
+	 * @return Key.
+	 */
+	public long keyAt(int position) {
+		checkPosition(position);
+		
+		return keys[position];
+	}
+	
+	/**
+	 * Get value at a position of insertion order.
+	 * 
+	 * @param position Position, from zero to size excluded.
+	 * @return Value.
+	 */
+	@SuppressWarnings("unchecked")
+	public V valueAt(int position) {
+		checkPosition(position);
+		
+		return (V) values[position];
+	}
+	
+	@Override
+	public int size() {
+		return size;
+	}
+	
+	@Override
+	public V get(Object key) {
+		return key instanceof Long ? get(((Long) key).longValue()) : null;
+	}
+	
+	@Override
+	public boolean containsKey(Object key) {
+		return key instanceof Long && containsKey(((Long) key).longValue());
+	}
+	
+	@Override
+	public V put(Long key, V value) {
+		return put(key.longValue(), value);
+	}
+	
+	@Override
+	public V remove(Object key) {
+		return key instanceof Long ? remove(((Long) key).longValue()) : null;
+	}
+	
+	@Override
+	public void clear() {
+		Arrays.fill(values, 0, size, null);
+		Arrays.fill(slots, 0);
+		
+		size = 0;
+	}
+	
+	@Override
+	@SuppressWarnings("unchecked")
+	public void forEach(BiConsumer<? super Long, ? super V> action) {
+		for (int position = 0; position < size; position++) {
+			action.accept(keys[position], (V) values[position]);
+		}
+	}
+	
+	@Override
+	public Set<Map.Entry<Long, V>> entrySet() {
+		return new AbstractSet<Map.Entry<Long, V>>() {
+			
+			@Override
+			public int size() {
+				return size;
+			}
+			
+			@Override
+			public Iterator<Map.Entry<Long, V>> iterator() {
+				return new EntryIterator();
+			}
+		};
+	}
+	
+	/**
+	 * Find position of a key.
+	 * 
+	 * @param key Key.
+	 * @return Position of key, negative when absent.
+	 */
+	private int find(long key) {
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		int position = 0;
+		
+		while ((position = slots[slot]) != 0) {
+			if (keys[position - 1] == key) {
+				return position - 1;
+			}
+			
+			slot = (slot + 1) & mask;
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Insert position of a key absent from table on the first free slot of its probe sequence.
+	 * 
+	 * @param key Key.
+	 * @param positionPlusOne Position of key plus one.
+	 */
+	private void insertSlot(long key, int positionPlusOne) {
+		int mask = slots.length - 1;
+		int slot = hash(key) & mask;
+		
+		while (slots[slot] != 0) {
+			slot = (slot + 1) & mask;
+		}
+		
+		slots[slot] = positionPlusOne;
+	}
+	
+	/**
+	 * Rebuild table of positions.
+	 * 
+	 * @param tableSize Size of table, a power of two.
+	 */
+	private void rehash(int tableSize) {
+		slots = new int[tableSize];
+		
+		for (int position = 0; position < size; position++) {
+			insertSlot(keys[position], position + 1);
+		}
+	}
+	
+	/**
+	 * Check position is within entries.
+	 * 
+	 * @param position Position.
+	 */
+	private void checkPosition(int position) {
+		if (position < 0 || position >= size) {
+			throw new IndexOutOfBoundsException("Position " + position + " of " + size + " entries.");
+		}
+	}
+	
+	/**
+	 * Spread bits of a key, ids being sequential.
+	 * 
+	 * @param key Key.
+	 * @return Hash of key.
+	 */
+	private static int hash(long key) {
+		return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32);
+	}
+	
+	/**
+	 * Iterator of entries in insertion order, boxing keys, for code written against the map interface.
+	 */
+	private class EntryIterator implements Iterator<Map.Entry<Long, V>> {
+		
+		/**
+		 * Position of next entry.
+		 */
+		private int next;
+		
+		/**
+		 * Position of last entry returned, negative when none or removed.
+		 */
+		private int last = -1;
+		
+		@Override
+		public boolean hasNext() {
+			return next < size;
+		}
+		
+		@Override
+		public Map.Entry<Long, V> next() {
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+			
+			last = next++;
+			
+			return new AbstractMap.SimpleImmutableEntry<Long, V>(keys[last], valueAt(last));
+		}
+		
+		@Override
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			
+			LongKeyedMap.this.remove(keys[last]);
+			
+			next = last;
+			last = -1;
+		}
+	}
+	
+	/**
+	 * Parse current field name of a JSON object whose field names are ids, straight to a primitive.
+	 * 
+	 * @param parser Parser positioned on field name.
+	 * @param context Deserialization context.
+	 * @return Id parsed from field name.
+	 * @throws IOException When field name is not a valid id.
+	 */
+	static long parseKey(JsonParser parser, DeserializationContext context) throws IOException {
+		String name = parser.getCurrentName();
+		
+		try {
+			return Long.parseLong(name);
+		} catch (NumberFormatException e) {
+			throw context.weirdKeyException(Long.class, name, "not a valid id");
+		}
+	}
+	
+	/**
+	 * Serializer writing a map keyed by primitive ids as an object whose field names are the ids.
+	 */
+	public static class Serializer extends StdSerializer<LongKeyedMap<?>> {
+		
+		/**
+		 * Serial version UID for serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Constructor.
+		 */
+		public Serializer() {
+			super(LongKeyedMap.class, false);
+		}
+		
+		@Override
+		public boolean isEmpty(SerializerProvider provider, LongKeyedMap<?> map) {
+			return map.isEmpty();
+		}
+		
+		@Override
+		public void serialize(LongKeyedMap<?> map, JsonGenerator generator, SerializerProvider provider)
+				throws IOException {
+			generator.writeStartObject(map);
+			
+			for (int position = 0; position < map.size; position++) {
+				generator.writeFieldId(map.keys[position]);
+				provider.defaultSerializeValue(map.values[position], generator);
+			}
+			
+			generator.writeEndObject();
+		}
+	}
+	
+	/**
+	 * Deserializer reading an object whose field names are ids into a map keyed by primitive ids, parsing each field
+	 * name straight to a primitive instead of a boxed key.
+	 */
+	public static class Deserializer extends StdDeserializer<LongKeyedMap<Object>> implements ContextualDeserializer {
+		
+		/**
+		 * Serial version UID for serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Deserializer of values, resolved from the declared type of the map.
+		 */
+		private final JsonDeserializer<Object> valueDeserializer;
+		
+		/**
+		 * Constructor, resolved into a contextual deserializer before use.
+		 */
+		public Deserializer() {
+			this(null);
+		}
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param valueDeserializer Deserializer of values.
+		 */
+		private Deserializer(JsonDeserializer<Object> valueDeserializer) {
+			super(LongKeyedMap.class);
+			this.valueDeserializer = valueDeserializer;
+		}
+		
+		@Override
+		public JsonDeserializer<?> createContextual(DeserializationContext context, BeanProperty property)
+				throws JsonMappingException {
+			JavaType type = property != null ? property.getType() : context.getContextualType();
+			JavaType valueType = type != null && type.getContentType() != null ? type.getContentType()
+					: context.constructType(Object.class);
+			
+			return new Deserializer(context.findContextualValueDeserializer(valueType, property));
+		}
+		
+		@Override
+		@SuppressWarnings("unchecked")
+		public LongKeyedMap<Object> deserialize(JsonParser parser, DeserializationContext context)
+				throws IOException {
+			LongKeyedMap<Object> map = new LongKeyedMap<Object>();
+			JsonToken token = parser.getCurrentToken();
+			long key = 0;
+			
+			if (token == JsonToken.START_OBJECT) {
+				token = parser.nextToken();
+			} else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+				return (LongKeyedMap<Object>) context.handleUnexpectedToken(LongKeyedMap.class, parser);
+			}
+			
+			for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+				key = parseKey(parser, context);
+				token = parser.nextToken();
+				
+				map.put(key, token == JsonToken.VALUE_NULL ? null : valueDeserializer.deserialize(parser, context));
+			}
+			
+			return map;
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,173 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+
+/**
+ * Low stock alert domain, an ingredient crossing its reorder threshold downwards or getting restocked.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class LowStockAlert implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of ingredient.
+	 */
+	private Long ingredientId;
+	
+	/**
+	 * Description of ingredient.
+	 */
+	private String description;
+	
+	/**
+	 * Quantity of portion when the alert was raised.
+	 */
+	private Integer portionQuantity;
+	
+	/**
+	 * Quantity of portion at or below which the ingredient is low on stock.
+	 */
+	private Integer reorderThreshold;
+	
+	/**
+	 * Whether the ingredient is low on stock, false when restocked.
+	 */
+	private Boolean low;
+	
+	/**
+	 * Moment the alert was raised, in milliseconds since epoch.
+	 */
+	private Long alertedAt;
+	
+	/**
+	 * Constructor.
+	 */
+	public LowStockAlert() {
+	}
+	
+	/**
+	 * Get id of ingredient.
+	 * 
+	 * @return Id of ingredient.
+	 */
+	public Long getIngredientId() {
+		return ingredientId;
+	}
+	
+	/**
+	 * Set id of ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 */
+	public void setIngredientId(Long ingredientId) {
+		this.ingredientId = ingredientId;
+	}
+	
+	/**
+	 * Get description of ingredient.
+	 * 
+	 * @return Description of ingredient.
+	 */
+	public String getDescription() {
+		return description;
+	}
+	
+	/**
+	 * Set description of ingredient.
+	 * 
+	 * @param description Description of ingredient.
+	 */
+	public void setDescription(String description) {
+		this.description = description;
+	}
+	
+	/**
+	 * Get quantity of portion when the alert was raised.
+	 * 
+	 * @return Quantity of portion.
+	 */
+	public Integer getPortionQuantity() {
+		return portionQuantity;
+	}
+	
+	/**
+	 * Set quantity of portion when the alert was raised.
+	 * 
+	 * @param portionQuantity Quantity of portion.
+	 */
+	public void setPortionQuantity(Integer portionQuantity) {
+		this.portionQuantity = portionQuantity;
+	}
+	
+	/**
+	 * Get quantity of portion at or below which the ingredient is low on stock.
+	 * 
+	 * @return Reorder threshold.
+	 */
+	public Integer getReorderThreshold() {
+		return reorderThreshold;
+	}
+	
+	/**
+	 * Set quantity of portion at or below which the ingredient is low on stock.
+	 * 
+	 * @param reorderThreshold Reorder threshold.
+	 */
+	public void setReorderThreshold(Integer reorderThreshold) {
+		this.reorderThreshold = reorderThreshold;
+	}
+	
+	/**
+	 * Get whether the ingredient is low on stock.
+	 * 
+	 * @return Whether the ingredient is low on stock, false when restocked.
+	 */
+	public Boolean getLow() {
+		return low;
+	}
+	
+	/**
+	 * Set whether the ingredient is low on stock.
+	 * 
+	 * @param low Whether the ingredient is low on stock, false when restocked.
+	 */
+	public void setLow(Boolean low) {
+		this.low = low;
+	}
+	
+	/**
+	 * Get moment the alert was raised.
+	 * 
+	 * @return Moment the alert was raised, in milliseconds since epoch.
+	 */
+	public Long getAlertedAt() {
+		return alertedAt;
+	}
+	
+	/**
+	 * Set moment the alert was raised.
+	 * 
+	 * @param alertedAt Moment the alert was raised, in milliseconds since epoch.
+	 */
+	public void setAlertedAt(Long alertedAt) {
+		this.alertedAt = alertedAt;
+	}
+}
\ No newline at end of file
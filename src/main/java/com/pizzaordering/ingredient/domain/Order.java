@@ -16,6 +16,8 @@ import java.io.Serializable;
 import java.math.BigDecimal;
 import java.util.Map;
 
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+
 /**
  * Order domain.
  * 
@@ -57,7 +59,8 @@ public class Order implements Serializable {
 	/**
 	 * Map of order customization ingredients, using ingredient id as key and orderCustomization as value.
 	 */
-	private Map<Long, OrderCustomization> orderCustomizationMap;
+	@JsonDeserialize(using = LongKeyedMap.Deserializer.class)
+	private LongKeyedMap<OrderCustomization> orderCustomizationMap;
 	
 	/**
 	 * Constructor.
@@ -160,17 +163,17 @@ public class Order implements Serializable {
 	 * 
 	 * @return Map of order customization.
 	 */
-	public Map<Long, OrderCustomization> getOrderCustomizationMap() {
+	public LongKeyedMap<OrderCustomization> getOrderCustomizationMap() {
 		return orderCustomizationMap;
 	}
 
 	/**
-	 * Set map of order customization.
+	 * Set map of order customization, copied into a map keyed by primitive ids unless it already is one.
 	 * 
 	 * @param orderCustomizationMap Map of order customization.
 	 */
 	public void setOrderCustomizationMap(Map<Long, OrderCustomization> orderCustomizationMap) {
-		this.orderCustomizationMap = orderCustomizationMap;
+		this.orderCustomizationMap = LongKeyedMap.of(orderCustomizationMap);
 	}
 
 	@Override
@@ -13,6 +13,7 @@
 package com.pizzaordering.ingredient.domain;
 
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * Order customization composite id.
@@ -84,7 +85,8 @@ public class OrderCustomizationId implements Serializable {
 		final int prime = 31;
 		int result = 1;
 		result = prime * result + ((ingredientId == null) ? 0 : ingredientId.hashCode());
-		result = prime * result + ((order == null) ? 0 : order.hashCode());
+		// Order taken by id only, its price is set while it is being priced.
+		result = prime * result + ((order == null || order.getId() == null) ? 0 : order.getId().hashCode());
 		return result;
 	}
 
@@ -105,7 +107,7 @@ public class OrderCustomizationId implements Serializable {
 		if (order == null) {
 			if (other.order != null)
 				return false;
-		} else if (!order.equals(other.order))
+		} else if (other.order == null || !Objects.equals(order.getId(), other.order.getId()))
 			return false;
 		return true;
 	}
@@ -0,0 +1,512 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.pizzaordering.ingredient.util.OrderCustomizationTypeEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Order payload, the immutable wire form of an order being priced or reversed.
+ * 
+ * Customizations are flattened into arrays by position, keyed by primitive ingredient id, with no customization
+ * object nor composite id pointing back at the order. Hash code is computed once, as no field ever changes.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@JsonDeserialize(using = OrderPayload.Deserializer.class)
+public final class OrderPayload implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of order.
+	 */
+	private final Long id;
+	
+	/**
+	 * Id of closed recipe.
+	 */
+	private final Integer closedRecipeId;
+	
+	/**
+	 * Size of pizza.
+	 */
+	private final Character size;
+	
+	/**
+	 * Pizza size resolved from size once, null when unknown.
+	 */
+	private final PizzaSizeMultiplyFactorEnum pizzaSize;
+	
+	/**
+	 * Thickness of bread.
+	 */
+	private final Character breadThickness;
+	
+	/**
+	 * Ids of customized ingredients, in request order.
+	 */
+	private final long[] customizationIngredientIds;
+	
+	/**
+	 * Types of customizations by position, null when unknown.
+	 */
+	private final OrderCustomizationTypeEnum[] customizationTypes;
+	
+	/**
+	 * Quantities of portion of customizations by position, regardless of pizza size.
+	 */
+	private final int[] customizationPortionQuantities;
+	
+	/**
+	 * Hash code, computed once.
+	 */
+	private final int hashCode;
+	
+	/**
+	 * Constructor, taking ownership of the arrays.
+	 * 
+	 * @param id Id of order.
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param size Size of pizza.
+	 * @param breadThickness Thickness of bread.
+	 * @param customizationIngredientIds Ids of customized ingredients.
+	 * @param customizationTypes Types of customizations by position.
+	 * @param customizationPortionQuantities Quantities of portion of customizations by position.
+	 */
+	private OrderPayload(Long id, Integer closedRecipeId, Character size, Character breadThickness,
+			long[] customizationIngredientIds, OrderCustomizationTypeEnum[] customizationTypes,
+			int[] customizationPortionQuantities) {
+		int result = 1;
+		
+		this.id = id;
+		this.closedRecipeId = closedRecipeId;
+		this.size = size;
+		this.pizzaSize = PizzaSizeMultiplyFactorEnum.fromShortDescription(size);
+		this.breadThickness = breadThickness;
+		this.customizationIngredientIds = customizationIngredientIds;
+		this.customizationTypes = customizationTypes;
+		this.customizationPortionQuantities = customizationPortionQuantities;
+		
+		result = 31 * result + Objects.hashCode(id);
+		result = 31 * result + Objects.hashCode(closedRecipeId);
+		result = 31 * result + Objects.hashCode(size);
+		result = 31 * result + Objects.hashCode(breadThickness);
+		result = 31 * result + Arrays.hashCode(customizationIngredientIds);
+		result = 31 * result + Arrays.hashCode(customizationTypes);
+		result = 31 * result + Arrays.hashCode(customizationPortionQuantities);
+		
+		this.hashCode = result;
+	}
+	
+	/**
+	 * Build payload of an order.
+	 * 
+	 * @param order Order with customized ingredients.
+	 * @return Payload of order, null when order is null.
+	 */
+	public static OrderPayload of(Order order) {
+		LongKeyedMap<OrderCustomization> orderCustomizationMap = null;
+		int count = 0;
+		long[] customizationIngredientIds = null;
+		OrderCustomizationTypeEnum[] customizationTypes = null;
+		int[] customizationPortionQuantities = null;
+		OrderCustomization orderCustomization = null;
+		
+		if (order == null) {
+			return null;
+		}
+		
+		orderCustomizationMap = order.getOrderCustomizationMap();
+		count = orderCustomizationMap != null ? orderCustomizationMap.size() : 0;
+		customizationIngredientIds = new long[count];
+		customizationTypes = new OrderCustomizationTypeEnum[count];
+		customizationPortionQuantities = new int[count];
+		
+		for (int position = 0; position < count; position++) {
+			orderCustomization = orderCustomizationMap.valueAt(position);
+			
+			customizationIngredientIds[position] = orderCustomizationMap.keyAt(position);
+			
+			if (orderCustomization != null) {
+				customizationTypes[position] = OrderCustomizationTypeEnum.fromType(orderCustomization.getType());
+				customizationPortionQuantities[position] = orderCustomization.getPortionQuantity() != null
+						? orderCustomization.getPortionQuantity() : 0;
+			}
+		}
+		
+		return new OrderPayload(order.getId(), order.getClosedRecipeId(), order.getSize(), order.getBreadThickness(),
+				customizationIngredientIds, customizationTypes, customizationPortionQuantities);
+	}
+	
+	/**
+	 * Get id of order.
+	 * 
+	 * @return Id of order.
+	 */
+	public Long getId() {
+		return id;
+	}
+	
+	/**
+	 * Get id of closed recipe.
+	 * 
+	 * @return Id of closed recipe.
+	 */
+	public Integer getClosedRecipeId() {
+		return closedRecipeId;
+	}
+	
+	/**
+	 * Get size of pizza.
+	 * 
+	 * @return Size of pizza.
+	 */
+	public Character getSize() {
+		return size;
+	}
+	
+	/**
+	 * Get pizza size resolved from size.
+	 * 
+	 * @return Pizza size, null when unknown.
+	 */
+	public PizzaSizeMultiplyFactorEnum getPizzaSize() {
+		return pizzaSize;
+	}
+	
+	/**
+	 * Get thickness of bread.
+	 * 
+	 * @return Thickness of bread.
+	 */
+	public Character getBreadThickness() {
+		return breadThickness;
+	}
+	
+	/**
+	 * Get number of customizations.
+	 * 
+	 * @return Number of customizations.
+	 */
+	public int getCustomizationCount() {
+		return customizationIngredientIds.length;
+	}
+	
+	/**
+	 * Get id of customized ingredient at a position.
+	 * 
+	 * @param position Position of customization, in request order.
+	 * @return Id of customized ingredient.
+	 */
+	public long getCustomizationIngredientId(int position) {
+		return customizationIngredientIds[position];
+	}
+	
+	/**
+	 * Get type of customization at a position.
+	 * 
+	 * @param position Position of customization, in request order.
+	 * @return Type of customization, null when unknown.
+	 */
+	public OrderCustomizationTypeEnum getCustomizationType(int position) {
+		return customizationTypes[position];
+	}
+	
+	/**
+	 * Get quantity of portion of customization at a position, proportional to pizza size.
+	 * 
+	 * @param position Position of customization, in request order.
+	 * @return Quantity of portion proportional to pizza size.
+	 * @throws NoSuchElementException When pizza size is unknown.
+	 */
+	public int getCustomizationPortionQuantity(int position) {
+		if (pizzaSize == null) {
+			throw new NoSuchElementException("Pizza size " + size + " not found.");
+		}
+		
+		return customizationPortionQuantities[position] * pizzaSize.getMultiplyFactor();
+	}
+	
+	/**
+	 * Find position of customization of an ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @return Position of customization, -1 when ingredient is not customized.
+	 */
+	public int indexOfCustomization(long ingredientId) {
+		// Customizations of a pizza are few, a scan beats hashing them.
+		for (int position = 0; position < customizationIngredientIds.length; position++) {
+			if (customizationIngredientIds[position] == ingredientId) {
+				return position;
+			}
+		}
+		
+		return -1;
+	}
+	
+	@Override
+	public int hashCode() {
+		return hashCode;
+	}
+	
+	@Override
+	public boolean equals(Object obj) {
+		OrderPayload other = null;
+		
+		if (this == obj) {
+			return true;
+		}
+		
+		if (!(obj instanceof OrderPayload)) {
+			return false;
+		}
+		
+		other = (OrderPayload) obj;
+		
+		return hashCode == other.hashCode && Objects.equals(id, other.id)
+				&& Objects.equals(closedRecipeId, other.closedRecipeId) && Objects.equals(size, other.size)
+				&& Objects.equals(breadThickness, other.breadThickness)
+				&& Arrays.equals(customizationIngredientIds, other.customizationIngredientIds)
+				&& Arrays.equals(customizationTypes, other.customizationTypes)
+				&& Arrays.equals(customizationPortionQuantities, other.customizationPortionQuantities);
+	}
+	
+	/**
+	 * Deserializer streaming an order straight into a payload, with the same JSON shape as the order domain.
+	 * 
+	 * Fields not needed for pricing, as the price and the observation of customizations, are skipped.
+	 */
+	public static class Deserializer extends StdDeserializer<OrderPayload> {
+		
+		/**
+		 * Serial version UID for serialization.
+		 */
+		private static final long serialVersionUID = 1L;
+		
+		/**
+		 * Initial capacity of customizations, enough for most pizzas.
+		 */
+		private static final int INITIAL_CUSTOMIZATIONS = 8;
+		
+		/**
+		 * Constructor.
+		 */
+		public Deserializer() {
+			super(OrderPayload.class);
+		}
+		
+		@Override
+		public OrderPayload deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			Long id = null;
+			Integer closedRecipeId = null;
+			Character size = null;
+			Character breadThickness = null;
+			long[] customizationIngredientIds = new long[INITIAL_CUSTOMIZATIONS];
+			OrderCustomizationTypeEnum[] customizationTypes = new OrderCustomizationTypeEnum[INITIAL_CUSTOMIZATIONS];
+			int[] customizationPortionQuantities = new int[INITIAL_CUSTOMIZATIONS];
+			int count = 0;
+			int position = 0;
+			long ingredientId = 0;
+			String name = null;
+			
+			if (token == JsonToken.START_OBJECT) {
+				token = parser.nextToken();
+			} else if (token != JsonToken.FIELD_NAME && token != JsonToken.END_OBJECT) {
+				return (OrderPayload) context.handleUnexpectedToken(OrderPayload.class, parser);
+			}
+			
+			for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+				name = parser.getCurrentName();
+				
+				token = parser.nextToken();
+				
+				if (token == JsonToken.VALUE_NULL) {
+					continue;
+				}
+				
+				switch (name) {
+				case "id":
+					id = readLong(parser, context);
+					break;
+				case "closedRecipeId":
+					closedRecipeId = readInteger(parser, context);
+					break;
+				case "size":
+					size = readCharacter(parser, context);
+					break;
+				case "breadThickness":
+					breadThickness = readCharacter(parser, context);
+					break;
+				case "orderCustomizationMap":
+					if (token != JsonToken.START_OBJECT) {
+						return (OrderPayload) context.handleUnexpectedToken(OrderPayload.class, parser);
+					}
+					
+					for (token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+						ingredientId = LongKeyedMap.parseKey(parser, context);
+						
+						// A repeated ingredient overrides the previous one, as on a map.
+						position = indexOf(customizationIngredientIds, count, ingredientId);
+						
+						if (position < 0) {
+							position = count++;
+						}
+						
+						if (position == customizationIngredientIds.length) {
+							customizationIngredientIds = Arrays.copyOf(customizationIngredientIds, position * 2);
+							customizationTypes = Arrays.copyOf(customizationTypes, customizationIngredientIds.length);
+							customizationPortionQuantities = Arrays.copyOf(customizationPortionQuantities,
+									customizationIngredientIds.length);
+						}
+						
+						customizationIngredientIds[position] = ingredientId;
+						
+						parser.nextToken();
+						readCustomization(parser, context, customizationTypes, customizationPortionQuantities,
+								position);
+					}
+					break;
+				default:
+					parser.skipChildren();
+				}
+			}
+			
+			if (count != customizationIngredientIds.length) {
+				customizationIngredientIds = Arrays.copyOf(customizationIngredientIds, count);
+				customizationTypes = Arrays.copyOf(customizationTypes, count);
+				customizationPortionQuantities = Arrays.copyOf(customizationPortionQuantities, count);
+			}
+			
+			return new OrderPayload(id, closedRecipeId, size, breadThickness, customizationIngredientIds,
+					customizationTypes, customizationPortionQuantities);
+		}
+		
+		/**
+		 * Read value of a customization into its position, skipping fields not needed for pricing.
+		 * 
+		 * @param parser Parser positioned on value of customization.
+		 * @param context Deserialization context.
+		 * @param customizationTypes Types of customizations by position.
+		 * @param customizationPortionQuantities Quantities of portion of customizations by position.
+		 * @param position Position of customization.
+		 * @throws IOException When value of customization is malformed.
+		 */
+		private void readCustomization(JsonParser parser, DeserializationContext context,
+				OrderCustomizationTypeEnum[] customizationTypes, int[] customizationPortionQuantities, int position)
+				throws IOException {
+			JsonToken token = parser.getCurrentToken();
+			String name = null;
+			
+			customizationTypes[position] = null;
+			customizationPortionQuantities[position] = 0;
+			
+			if (token != JsonToken.START_OBJECT) {
+				parser.skipChildren();
+				
+				return;
+			}
+			
+			for (token = parser.nextToken(); token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+				name = parser.getCurrentName();
+				token = parser.nextToken();
+				
+				if (token == JsonToken.VALUE_NULL) {
+					continue;
+				}
+				
+				if ("type".equals(name)) {
+					customizationTypes[position] = OrderCustomizationTypeEnum.fromType(readCharacter(parser, context));
+				} else if ("portionQuantity".equals(name)) {
+					customizationPortionQuantities[position] = _parseIntPrimitive(parser, context);
+				} else {
+					parser.skipChildren();
+				}
+			}
+		}
+		
+		/**
+		 * Read current value as a long, straight from the parser when it is an integer number.
+		 * 
+		 * @param parser Parser positioned on value.
+		 * @param context Deserialization context.
+		 * @return Value read.
+		 * @throws IOException When value is not a long.
+		 */
+		private Long readLong(JsonParser parser, DeserializationContext context) throws IOException {
+			return parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT ? Long.valueOf(parser.getLongValue())
+					: context.readValue(parser, Long.class);
+		}
+		
+		/**
+		 * Read current value as an integer, straight from the parser when it is an integer number.
+		 * 
+		 * @param parser Parser positioned on value.
+		 * @param context Deserialization context.
+		 * @return Value read.
+		 * @throws IOException When value is not an integer.
+		 */
+		private Integer readInteger(JsonParser parser, DeserializationContext context) throws IOException {
+			return parser.getCurrentToken() == JsonToken.VALUE_NUMBER_INT ? Integer.valueOf(parser.getIntValue())
+					: context.readValue(parser, Integer.class);
+		}
+		
+		/**
+		 * Read current value as a character, straight from the parser buffer when it is a one character string.
+		 * 
+		 * @param parser Parser positioned on value.
+		 * @param context Deserialization context.
+		 * @return Value read.
+		 * @throws IOException When value is not a character.
+		 */
+		private Character readCharacter(JsonParser parser, DeserializationContext context) throws IOException {
+			return parser.getCurrentToken() == JsonToken.VALUE_STRING && parser.getTextLength() == 1
+					? Character.valueOf(parser.getTextCharacters()[parser.getTextOffset()])
+					: context.readValue(parser, Character.class);
+		}
+		
+		/**
+		 * Find position of an id among the ids read so far.
+		 * 
+		 * @param ids Ids read so far.
+		 * @param count Number of ids read so far.
+		 * @param id Id to be found.
+		 * @return Position of id, -1 when absent.
+		 */
+		private int indexOf(long[] ids, int count, long id) {
+			for (int position = 0; position < count; position++) {
+				if (ids[position] == id) {
+					return position;
+				}
+			}
+			
+			return -1;
+		}
+	}
+}
\ No newline at end of file
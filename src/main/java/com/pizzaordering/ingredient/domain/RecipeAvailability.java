@@ -0,0 +1,168 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+
+/**
+ * Recipe availability domain, how many pizzas of a closed recipe in a size the inventory allows.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class RecipeAvailability implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of closed recipe.
+	 */
+	private Integer closedRecipeId;
+	
+	/**
+	 * Whether closed recipe was found.
+	 */
+	private Boolean found;
+	
+	/**
+	 * Size of pizza.
+	 */
+	private Character size;
+	
+	/**
+	 * Number of pizzas that can be made from inventory, zero when closed recipe was not found.
+	 */
+	private Integer makeableCount;
+	
+	/**
+	 * Id of ingredient running out first, or null.
+	 */
+	private Long limitingIngredientId;
+	
+	/**
+	 * Constructor.
+	 */
+	public RecipeAvailability() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param found Whether closed recipe was found.
+	 * @param size Size of pizza.
+	 * @param makeableCount Number of pizzas that can be made from inventory.
+	 * @param limitingIngredientId Id of ingredient running out first, or null.
+	 */
+	public RecipeAvailability(Integer closedRecipeId, Boolean found, Character size, Integer makeableCount,
+			Long limitingIngredientId) {
+		this.closedRecipeId = closedRecipeId;
+		this.found = found;
+		this.size = size;
+		this.makeableCount = makeableCount;
+		this.limitingIngredientId = limitingIngredientId;
+	}
+	
+	/**
+	 * Get id of closed recipe.
+	 * 
+	 * @return Id of closed recipe.
+	 */
+	public Integer getClosedRecipeId() {
+		return closedRecipeId;
+	}
+	
+	/**
+	 * Set id of closed recipe.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 */
+	public void setClosedRecipeId(Integer closedRecipeId) {
+		this.closedRecipeId = closedRecipeId;
+	}
+	
+	/**
+	 * Get whether closed recipe was found.
+	 * 
+	 * @return Whether closed recipe was found.
+	 */
+	public Boolean getFound() {
+		return found;
+	}
+	
+	/**
+	 * Set whether closed recipe was found.
+	 * 
+	 * @param found Whether closed recipe was found.
+	 */
+	public void setFound(Boolean found) {
+		this.found = found;
+	}
+	
+	/**
+	 * Get size of pizza.
+	 * 
+	 * @return Size of pizza.
+	 */
+	public Character getSize() {
+		return size;
+	}
+	
+	/**
+	 * Set size of pizza.
+	 * 
+	 * @param size Size of pizza.
+	 */
+	public void setSize(Character size) {
+		this.size = size;
+	}
+	
+	/**
+	 * Get number of pizzas that can be made from inventory.
+	 * 
+	 * @return Number of pizzas that can be made from inventory.
+	 */
+	public Integer getMakeableCount() {
+		return makeableCount;
+	}
+	
+	/**
+	 * Set number of pizzas that can be made from inventory.
+	 * 
+	 * @param makeableCount Number of pizzas that can be made from inventory.
+	 */
+	public void setMakeableCount(Integer makeableCount) {
+		this.makeableCount = makeableCount;
+	}
+	
+	/**
+	 * Get id of ingredient running out first.
+	 * 
+	 * @return Id of ingredient running out first, or null.
+	 */
+	public Long getLimitingIngredientId() {
+		return limitingIngredientId;
+	}
+	
+	/**
+	 * Set id of ingredient running out first.
+	 * 
+	 * @param limitingIngredientId Id of ingredient running out first, or null.
+	 */
+	public void setLimitingIngredientId(Long limitingIngredientId) {
+		this.limitingIngredientId = limitingIngredientId;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,143 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.domain;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+/**
+ * Recipe price domain, the price of a closed recipe in a size without customized ingredients, as listed on the menu.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class RecipePrice implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id of closed recipe.
+	 */
+	private Integer closedRecipeId;
+	
+	/**
+	 * Whether closed recipe was found and every ingredient of it exists.
+	 */
+	private Boolean found;
+	
+	/**
+	 * Size of pizza.
+	 */
+	private Character size;
+	
+	/**
+	 * Price of closed recipe in size, null when closed recipe was not found.
+	 */
+	private BigDecimal price;
+	
+	/**
+	 * Constructor.
+	 */
+	public RecipePrice() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param found Whether closed recipe was found and every ingredient of it exists.
+	 * @param size Size of pizza.
+	 * @param price Price of closed recipe in size, null when closed recipe was not found.
+	 */
+	public RecipePrice(Integer closedRecipeId, Boolean found, Character size, BigDecimal price) {
+		this.closedRecipeId = closedRecipeId;
+		this.found = found;
+		this.size = size;
+		this.price = price;
+	}
+	
+	/**
+	 * Get id of closed recipe.
+	 * 
+	 * @return Id of closed recipe.
+	 */
+	public Integer getClosedRecipeId() {
+		return closedRecipeId;
+	}
+	
+	/**
+	 * Set id of closed recipe.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 */
+	public void setClosedRecipeId(Integer closedRecipeId) {
+		this.closedRecipeId = closedRecipeId;
+	}
+	
+	/**
+	 * Get whether closed recipe was found and every ingredient of it exists.
+	 * 
+	 * @return Whether closed recipe was found and every ingredient of it exists.
+	 */
+	public Boolean getFound() {
+		return found;
+	}
+	
+	/**
+	 * Set whether closed recipe was found and every ingredient of it exists.
+	 * 
+	 * @param found Whether closed recipe was found and every ingredient of it exists.
+	 */
+	public void setFound(Boolean found) {
+		this.found = found;
+	}
+	
+	/**
+	 * Get size of pizza.
+	 * 
+	 * @return Size of pizza.
+	 */
+	public Character getSize() {
+		return size;
+	}
+	
+	/**
+	 * Set size of pizza.
+	 * 
+	 * @param size Size of pizza.
+	 */
+	public void setSize(Character size) {
+		this.size = size;
+	}
+	
+	/**
+	 * Get price of closed recipe in size.
+	 * 
+	 * @return Price of closed recipe in size, null when closed recipe was not found.
+	 */
+	public BigDecimal getPrice() {
+		return price;
+	}
+	
+	/**
+	 * Set price of closed recipe in size.
+	 * 
+	 * @param price Price of closed recipe in size, null when closed recipe was not found.
+	 */
+	public void setPrice(BigDecimal price) {
+		this.price = price;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,213 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Map;
+
+import javax.persistence.CollectionTable;
+import javax.persistence.Column;
+import javax.persistence.ElementCollection;
+import javax.persistence.Entity;
+import javax.persistence.FetchType;
+import javax.persistence.Id;
+import javax.persistence.JoinColumn;
+import javax.persistence.MapKeyColumn;
+import javax.persistence.Table;
+
+/**
+ * Active deal entity, persisted once per deal with the discount of each of its ingredients.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Entity
+@Table(name = "igd_active_deal")
+public class ActiveDeal implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id, same as id of deal.
+	 */
+	@Id
+	private Integer id;
+	
+	/**
+	 * Description.
+	 */
+	private String description;
+	
+	/**
+	 * Moment deal starts, or null when it starts right away.
+	 */
+	private Instant startTime;
+	
+	/**
+	 * Moment deal ends, or null when it lasts until deleted.
+	 */
+	private Instant endTime;
+	
+	/**
+	 * Map of percentage of discount, using ingredient id as key.
+	 */
+	@ElementCollection(fetch = FetchType.EAGER)
+	@CollectionTable(name = "igd_active_deal_ingredient", joinColumns = @JoinColumn(name = "deal_id"))
+	@MapKeyColumn(name = "ingredient_id")
+	@Column(name = "percentage_discount")
+	private Map<Long, BigDecimal> percentageDiscountMap;
+	
+	/**
+	 * Constructor.
+	 */
+	public ActiveDeal() {
+	}
+
+	/**
+	 * Get id of active deal.
+	 * 
+	 * @return Id of active deal.
+	 */
+	public Integer getId() {
+		return id;
+	}
+
+	/**
+	 * Set id of active deal.
+	 * 
+	 * @param id Id of active deal.
+	 */
+	public void setId(Integer id) {
+		this.id = id;
+	}
+
+	/**
+	 * Get description.
+	 * 
+	 * @return Description.
+	 */
+	public String getDescription() {
+		return description;
+	}
+
+	/**
+	 * Set description.
+	 * 
+	 * @param description Description.
+	 */
+	public void setDescription(String description) {
+		this.description = description;
+	}
+
+	/**
+	 * Get moment deal starts.
+	 * 
+	 * @return Moment deal starts, or null when it starts right away.
+	 */
+	public Instant getStartTime() {
+		return startTime;
+	}
+
+	/**
+	 * Set moment deal starts.
+	 * 
+	 * @param startTime Moment deal starts, or null when it starts right away.
+	 */
+	public void setStartTime(Instant startTime) {
+		this.startTime = startTime;
+	}
+
+	/**
+	 * Get moment deal ends.
+	 * 
+	 * @return Moment deal ends, or null when it lasts until deleted.
+	 */
+	public Instant getEndTime() {
+		return endTime;
+	}
+
+	/**
+	 * Set moment deal ends.
+	 * 
+	 * @param endTime Moment deal ends, or null when it lasts until deleted.
+	 */
+	public void setEndTime(Instant endTime) {
+		this.endTime = endTime;
+	}
+
+	/**
+	 * Get map of percentage of discount.
+	 * 
+	 * @return Map of percentage of discount.
+	 */
+	public Map<Long, BigDecimal> getPercentageDiscountMap() {
+		return percentageDiscountMap;
+	}
+
+	/**
+	 * Set map of percentage of discount.
+	 * 
+	 * @param percentageDiscountMap Map of percentage of discount.
+	 */
+	public void setPercentageDiscountMap(Map<Long, BigDecimal> percentageDiscountMap) {
+		this.percentageDiscountMap = percentageDiscountMap;
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = 1;
+		result = prime * result + ((description == null) ? 0 : description.hashCode());
+		result = prime * result + ((endTime == null) ? 0 : endTime.hashCode());
+		result = prime * result + ((id == null) ? 0 : id.hashCode());
+		result = prime * result + ((startTime == null) ? 0 : startTime.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj)
+			return true;
+		if (obj == null)
+			return false;
+		if (getClass() != obj.getClass())
+			return false;
+		ActiveDeal other = (ActiveDeal) obj;
+		if (description == null) {
+			if (other.description != null)
+				return false;
+		} else if (!description.equals(other.description))
+			return false;
+		if (endTime == null) {
+			if (other.endTime != null)
+				return false;
+		} else if (!endTime.equals(other.endTime))
+			return false;
+		if (id == null) {
+			if (other.id != null)
+				return false;
+		} else if (!id.equals(other.id))
+			return false;
+		if (startTime == null) {
+			if (other.startTime != null)
+				return false;
+		} else if (!startTime.equals(other.startTime))
+			return false;
+		return true;
+	}
+}
@@ -15,20 +15,32 @@ package com.pizzaordering.ingredient.entity;
 import java.io.Serializable;
 import java.math.BigDecimal;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.Index;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Ingredient entity.
  * 
+ * Kept on the second-level cache, read-write so a row being updated is never served stale by this instance.
+ * 
  * @author Rafael Lima Costa
  *
  */
 @Entity
-@Table(name = "igd_ingredient")
+@Table(name = "igd_ingredient", indexes = {
+		@Index(name = "idx_igd_ingredient_type_id", columnList = "type, id"),
+		@Index(name = "idx_igd_ingredient_portion_quantity_id", columnList = "portionQuantity, id"),
+		@Index(name = "idx_igd_ingredient_type_portion_quantity_id", columnList = "type, portionQuantity, id") })
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = Ingredient.CACHE_REGION)
 public class Ingredient implements Serializable {
 	
 	/**
@@ -36,6 +48,11 @@ public class Ingredient implements Serializable {
 	 */
 	private static final long serialVersionUID = 1L;
 	
+	/**
+	 * Region of second-level cache, bounded on caffeine.jcache.ingredient of application.conf.
+	 */
+	public static final String CACHE_REGION = "ingredient";
+	
 	/**
 	 * Id.
 	 */
@@ -64,10 +81,16 @@ public class Ingredient implements Serializable {
 	private BigDecimal portionPrice;
 	
 	/**
-	 * Percentage of discount.
+	 * Percentage of discount, formerly the sum of active deals. Kept for reads only, prices taking discounts from
+	 * the deal registry.
 	 */
 	private BigDecimal percentageDiscount;
 	
+	/**
+	 * Quantity of portion at or below which the ingredient is low on stock, not monitored when null.
+	 */
+	private Integer reorderThreshold;
+	
 	/**
 	 * Constructor.
 	 */
@@ -182,6 +205,24 @@ public class Ingredient implements Serializable {
 		this.percentageDiscount = percentageDiscount;
 	}
 
+	/**
+	 * Get quantity of portion at or below which the ingredient is low on stock.
+	 * 
+	 * @return Reorder threshold, null when not monitored.
+	 */
+	public Integer getReorderThreshold() {
+		return reorderThreshold;
+	}
+
+	/**
+	 * Set quantity of portion at or below which the ingredient is low on stock.
+	 * 
+	 * @param reorderThreshold Reorder threshold, null when not monitored.
+	 */
+	public void setReorderThreshold(Integer reorderThreshold) {
+		this.reorderThreshold = reorderThreshold;
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -191,6 +232,7 @@ public class Ingredient implements Serializable {
 		result = prime * result + ((percentageDiscount == null) ? 0 : percentageDiscount.hashCode());
 		result = prime * result + ((portionPrice == null) ? 0 : portionPrice.hashCode());
 		result = prime * result + ((portionQuantity == null) ? 0 : portionQuantity.hashCode());
+		result = prime * result + ((reorderThreshold == null) ? 0 : reorderThreshold.hashCode());
 		result = prime * result + ((type == null) ? 0 : type.hashCode());
 		return result;
 	}
@@ -229,6 +271,11 @@ public class Ingredient implements Serializable {
 				return false;
 		} else if (!portionQuantity.equals(other.portionQuantity))
 			return false;
+		if (reorderThreshold == null) {
+			if (other.reorderThreshold != null)
+				return false;
+		} else if (!reorderThreshold.equals(other.reorderThreshold))
+			return false;
 		if (type == null) {
 			if (other.type != null)
 				return false;
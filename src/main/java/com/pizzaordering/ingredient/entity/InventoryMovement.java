@@ -0,0 +1,211 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.entity;
+
+import java.io.Serializable;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+/**
+ * Inventory movement entity, an append-only record of a change of quantity of portion of an ingredient.
+ * 
+ * Rows are inserted in JDBC batches by the inventory movement writer and never updated, the entity only declaring the
+ * table.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Entity
+@Table(name = "igd_inventory_movement", indexes = {
+		@Index(name = "idx_igd_inventory_movement_ingredient_id_moved_at", columnList = "ingredientId, movedAt"),
+		@Index(name = "idx_igd_inventory_movement_moved_at", columnList = "movedAt") })
+public class InventoryMovement implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id.
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	/**
+	 * Id of ingredient.
+	 */
+	@Column(nullable = false)
+	private Long ingredientId;
+	
+	/**
+	 * Change of quantity of portion, negative when taken from inventory.
+	 */
+	@Column(nullable = false)
+	private Integer delta;
+	
+	/**
+	 * Code of reason of movement.
+	 */
+	@Column(nullable = false, length = 1)
+	private String reason;
+	
+	/**
+	 * Id of order, null when not moved by an order.
+	 */
+	private Long orderId;
+	
+	/**
+	 * Moment of movement, in milliseconds since epoch.
+	 */
+	@Column(nullable = false)
+	private Long movedAt;
+	
+	/**
+	 * Constructor.
+	 */
+	public InventoryMovement() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @param delta Change of quantity of portion, negative when taken from inventory.
+	 * @param reason Code of reason of movement.
+	 * @param orderId Id of order, null when not moved by an order.
+	 * @param movedAt Moment of movement, in milliseconds since epoch.
+	 */
+	public InventoryMovement(Long ingredientId, Integer delta, String reason, Long orderId, Long movedAt) {
+		this.ingredientId = ingredientId;
+		this.delta = delta;
+		this.reason = reason;
+		this.orderId = orderId;
+		this.movedAt = movedAt;
+	}
+	
+	/**
+	 * Get id of movement.
+	 * 
+	 * @return Id of movement.
+	 */
+	public Long getId() {
+		return id;
+	}
+	
+	/**
+	 * Set id of movement.
+	 * 
+	 * @param id Id of movement.
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+	
+	/**
+	 * Get id of ingredient.
+	 * 
+	 * @return Id of ingredient.
+	 */
+	public Long getIngredientId() {
+		return ingredientId;
+	}
+	
+	/**
+	 * Set id of ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 */
+	public void setIngredientId(Long ingredientId) {
+		this.ingredientId = ingredientId;
+	}
+	
+	/**
+	 * Get change of quantity of portion.
+	 * 
+	 * @return Change of quantity of portion, negative when taken from inventory.
+	 */
+	public Integer getDelta() {
+		return delta;
+	}
+	
+	/**
+	 * Set change of quantity of portion.
+	 * 
+	 * @param delta Change of quantity of portion, negative when taken from inventory.
+	 */
+	public void setDelta(Integer delta) {
+		this.delta = delta;
+	}
+	
+	/**
+	 * Get code of reason of movement.
+	 * 
+	 * @return Code of reason of movement.
+	 */
+	public String getReason() {
+		return reason;
+	}
+	
+	/**
+	 * Set code of reason of movement.
+	 * 
+	 * @param reason Code of reason of movement.
+	 */
+	public void setReason(String reason) {
+		this.reason = reason;
+	}
+	
+	/**
+	 * Get id of order.
+	 * 
+	 * @return Id of order, null when not moved by an order.
+	 */
+	public Long getOrderId() {
+		return orderId;
+	}
+	
+	/**
+	 * Set id of order.
+	 * 
+	 * @param orderId Id of order, null when not moved by an order.
+	 */
+	public void setOrderId(Long orderId) {
+		this.orderId = orderId;
+	}
+	
+	/**
+	 * Get moment of movement.
+	 * 
+	 * @return Moment of movement, in milliseconds since epoch.
+	 */
+	public Long getMovedAt() {
+		return movedAt;
+	}
+	
+	/**
+	 * Set moment of movement.
+	 * 
+	 * @param movedAt Moment of movement, in milliseconds since epoch.
+	 */
+	public void setMovedAt(Long movedAt) {
+		this.movedAt = movedAt;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,296 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.entity;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+
+/**
+ * Outbox event entity, a compact record of a change of inventory, price or discount written in the transaction of the
+ * change and deleted once relayed.
+ * 
+ * Its id gives the relay order: a row is inserted after the change it records is flushed, so two events of the same
+ * ingredient are numbered in the order their row locks were taken.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Entity
+@Table(name = "igd_outbox_event")
+public class OutboxEvent implements Serializable {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Id.
+	 */
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long id;
+	
+	/**
+	 * Code of type of event.
+	 */
+	@Column(nullable = false, length = 1)
+	private String type;
+	
+	/**
+	 * Id of ingredient, null on events of removed deals.
+	 */
+	private Long ingredientId;
+	
+	/**
+	 * Quantity of portion, set on inventory events.
+	 */
+	private Integer portionQuantity;
+	
+	/**
+	 * Price of portion, set on price events.
+	 */
+	private BigDecimal portionPrice;
+	
+	/**
+	 * Percentage of discount of deal on added deal events.
+	 */
+	private BigDecimal percentageDiscount;
+	
+	/**
+	 * Id of deal, set on deal events.
+	 */
+	private Integer dealId;
+	
+	/**
+	 * Moment deal starts, in milliseconds since epoch, null when it starts right away.
+	 */
+	private Long dealStartTime;
+	
+	/**
+	 * Moment deal ends, in milliseconds since epoch, null when it lasts until removed.
+	 */
+	private Long dealEndTime;
+	
+	/**
+	 * Moment of event, in milliseconds since epoch.
+	 */
+	@Column(nullable = false)
+	private Long createdAt;
+	
+	/**
+	 * Constructor.
+	 */
+	public OutboxEvent() {
+	}
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param type Code of type of event.
+	 * @param ingredientId Id of ingredient, null on events of removed deals.
+	 * @param createdAt Moment of event, in milliseconds since epoch.
+	 */
+	public OutboxEvent(String type, Long ingredientId, Long createdAt) {
+		this.type = type;
+		this.ingredientId = ingredientId;
+		this.createdAt = createdAt;
+	}
+	
+	/**
+	 * Get id of event.
+	 * 
+	 * @return Id of event.
+	 */
+	public Long getId() {
+		return id;
+	}
+	
+	/**
+	 * Set id of event.
+	 * 
+	 * @param id Id of event.
+	 */
+	public void setId(Long id) {
+		this.id = id;
+	}
+	
+	/**
+	 * Get code of type of event.
+	 * 
+	 * @return Code of type of event.
+	 */
+	public String getType() {
+		return type;
+	}
+	
+	/**
+	 * Set code of type of event.
+	 * 
+	 * @param type Code of type of event.
+	 */
+	public void setType(String type) {
+		this.type = type;
+	}
+	
+	/**
+	 * Get id of ingredient.
+	 * 
+	 * @return Id of ingredient, null on events of removed deals.
+	 */
+	public Long getIngredientId() {
+		return ingredientId;
+	}
+	
+	/**
+	 * Set id of ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient, null on events of removed deals.
+	 */
+	public void setIngredientId(Long ingredientId) {
+		this.ingredientId = ingredientId;
+	}
+	
+	/**
+	 * Get quantity of portion.
+	 * 
+	 * @return Quantity of portion, set on inventory events.
+	 */
+	public Integer getPortionQuantity() {
+		return portionQuantity;
+	}
+	
+	/**
+	 * Set quantity of portion.
+	 * 
+	 * @param portionQuantity Quantity of portion, set on inventory events.
+	 */
+	public void setPortionQuantity(Integer portionQuantity) {
+		this.portionQuantity = portionQuantity;
+	}
+	
+	/**
+	 * Get price of portion.
+	 * 
+	 * @return Price of portion, set on price events.
+	 */
+	public BigDecimal getPortionPrice() {
+		return portionPrice;
+	}
+	
+	/**
+	 * Set price of portion.
+	 * 
+	 * @param portionPrice Price of portion, set on price events.
+	 */
+	public void setPortionPrice(BigDecimal portionPrice) {
+		this.portionPrice = portionPrice;
+	}
+	
+	/**
+	 * Get percentage of discount.
+	 * 
+	 * @return Percentage of discount of deal on added deal events.
+	 */
+	public BigDecimal getPercentageDiscount() {
+		return percentageDiscount;
+	}
+	
+	/**
+	 * Set percentage of discount.
+	 * 
+	 * @param percentageDiscount Percentage of discount of deal on added deal events.
+	 */
+	public void setPercentageDiscount(BigDecimal percentageDiscount) {
+		this.percentageDiscount = percentageDiscount;
+	}
+	
+	/**
+	 * Get id of deal.
+	 * 
+	 * @return Id of deal, set on deal events.
+	 */
+	public Integer getDealId() {
+		return dealId;
+	}
+	
+	/**
+	 * Set id of deal.
+	 * 
+	 * @param dealId Id of deal, set on deal events.
+	 */
+	public void setDealId(Integer dealId) {
+		this.dealId = dealId;
+	}
+	
+	/**
+	 * Get moment deal starts.
+	 * 
+	 * @return Moment deal starts, in milliseconds since epoch, null when it starts right away.
+	 */
+	public Long getDealStartTime() {
+		return dealStartTime;
+	}
+	
+	/**
+	 * Set moment deal starts.
+	 * 
+	 * @param dealStartTime Moment deal starts, in milliseconds since epoch, null when it starts right away.
+	 */
+	public void setDealStartTime(Long dealStartTime) {
+		this.dealStartTime = dealStartTime;
+	}
+	
+	/**
+	 * Get moment deal ends.
+	 * 
+	 * @return Moment deal ends, in milliseconds since epoch, null when it lasts until removed.
+	 */
+	public Long getDealEndTime() {
+		return dealEndTime;
+	}
+	
+	/**
+	 * Set moment deal ends.
+	 * 
+	 * @param dealEndTime Moment deal ends, in milliseconds since epoch, null when it lasts until removed.
+	 */
+	public void setDealEndTime(Long dealEndTime) {
+		this.dealEndTime = dealEndTime;
+	}
+	
+	/**
+	 * Get moment of event.
+	 * 
+	 * @return Moment of event, in milliseconds since epoch.
+	 */
+	public Long getCreatedAt() {
+		return createdAt;
+	}
+	
+	/**
+	 * Set moment of event.
+	 * 
+	 * @param createdAt Moment of event, in milliseconds since epoch.
+	 */
+	public void setCreatedAt(Long createdAt) {
+		this.createdAt = createdAt;
+	}
+}
\ No newline at end of file
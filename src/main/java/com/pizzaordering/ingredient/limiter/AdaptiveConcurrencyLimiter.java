@@ -0,0 +1,263 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.limiter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limiter adapting its limit to observed latency, in the spirit of TCP Vegas and gradient limiters.
+ * 
+ * The limit follows the gradient between the long term latency, taken as the latency without queueing, and the short
+ * term latency: it grows while both stay close and shrinks as soon as requests start queueing somewhere downstream.
+ * Dropped requests, such as timeouts, cut the limit multiplicatively. Sheddable requests are only admitted under a
+ * share of the limit, so they are rejected first when load rises.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class AdaptiveConcurrencyLimiter {
+	
+	/**
+	 * Weight of newest sample on short term latency.
+	 */
+	private static final double SHORT_RTT_ALPHA = 0.2;
+	
+	/**
+	 * Number of samples the long term latency averages over.
+	 */
+	private static final double LONG_RTT_WINDOW = 600;
+	
+	/**
+	 * Latency increase tolerated before limit shrinks.
+	 */
+	private static final double TOLERANCE = 1.5;
+	
+	/**
+	 * Weight of newly computed limit on limit.
+	 */
+	private static final double SMOOTHING = 0.2;
+	
+	/**
+	 * Factor applied to limit on a dropped request.
+	 */
+	private static final double BACKOFF_RATIO = 0.9;
+	
+	/**
+	 * Lower bound of limit.
+	 */
+	private final int minLimit;
+	
+	/**
+	 * Upper bound of limit.
+	 */
+	private final int maxLimit;
+	
+	/**
+	 * Share of limit sheddable requests are admitted under.
+	 */
+	private final double sheddableShare;
+	
+	/**
+	 * Lock guarding latencies and limit updates, not a monitor so virtual threads releasing permits never pin.
+	 */
+	private final ReentrantLock lock = new ReentrantLock();
+	
+	/**
+	 * Requests in flight.
+	 */
+	private final AtomicInteger inFlight = new AtomicInteger();
+	
+	/**
+	 * Current limit, written under lock of this limiter.
+	 */
+	private volatile double limit;
+	
+	/**
+	 * Short term latency in nanoseconds, guarded by lock of this limiter.
+	 */
+	private double shortRtt;
+	
+	/**
+	 * Long term latency in nanoseconds, guarded by lock of this limiter.
+	 */
+	private double longRtt;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param initialLimit Initial limit.
+	 * @param minLimit Lower bound of limit.
+	 * @param maxLimit Upper bound of limit.
+	 * @param sheddableShare Share of limit sheddable requests are admitted under, between 0 and 1.
+	 */
+	public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double sheddableShare) {
+		this.minLimit = minLimit;
+		this.maxLimit = maxLimit;
+		this.sheddableShare = sheddableShare;
+		this.limit = Math.max(minLimit, Math.min(maxLimit, initialLimit));
+	}
+	
+	/**
+	 * Try to admit a request, never waiting.
+	 * 
+	 * @param sheddable Whether request is shed before the others.
+	 * @return Permit to be released once request completes, or null when rejected.
+	 */
+	public Permit tryAcquire(boolean sheddable) {
+		int allowed = (int) (sheddable ? limit * sheddableShare : limit);
+		int current = 0;
+		
+		do {
+			current = inFlight.get();
+			
+			if (current >= allowed) {
+				return null;
+			}
+		} while (!inFlight.compareAndSet(current, current + 1));
+		
+		return new Permit(current + 1);
+	}
+	
+	/**
+	 * Get current limit.
+	 * 
+	 * @return Current limit.
+	 */
+	public int getLimit() {
+		return (int) limit;
+	}
+	
+	/**
+	 * Get number of requests in flight.
+	 * 
+	 * @return Number of requests in flight.
+	 */
+	public int getInFlight() {
+		return inFlight.get();
+	}
+	
+	/**
+	 * Cut limit on a dropped request.
+	 */
+	private void onDrop() {
+		lock.lock();
+		
+		try {
+			limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Update limit with a completed request.
+	 * 
+	 * @param rttNanos Latency of request in nanoseconds.
+	 * @param inFlightAtStart Requests in flight when request was admitted, itself included.
+	 */
+	private void onSample(long rttNanos, int inFlightAtStart) {
+		double gradient = 0;
+		double newLimit = 0;
+		
+		lock.lock();
+		
+		try {
+			shortRtt = shortRtt == 0 ? rttNanos : shortRtt + SHORT_RTT_ALPHA * (rttNanos - shortRtt);
+			longRtt = longRtt == 0 ? rttNanos : longRtt + (rttNanos - longRtt) / LONG_RTT_WINDOW;
+			
+			// Long term latency lagging far above recovered short term latency would keep limit from growing back.
+			if (longRtt > 2 * shortRtt) {
+				longRtt = longRtt * 0.95;
+			}
+			
+			// An idle limiter learns nothing about how much concurrency downstream can take.
+			if (inFlightAtStart < limit / 2) {
+				return;
+			}
+			
+			gradient = Math.max(0.5, Math.min(1.0, TOLERANCE * longRtt / shortRtt));
+			newLimit = limit * gradient + Math.sqrt(limit);
+			limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + newLimit * SMOOTHING));
+		} finally {
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Admission of a request, released once the request completes.
+	 * 
+	 * A request can be dropped before it is released, such as when its caller stops waiting while it still runs: the
+	 * limit is cut right away, while the request keeps counting as in flight until released.
+	 */
+	public class Permit {
+		
+		/**
+		 * Moment request was admitted, in nanoseconds.
+		 */
+		private final long startTime = System.nanoTime();
+		
+		/**
+		 * Requests in flight when request was admitted, itself included.
+		 */
+		private final int inFlightAtStart;
+		
+		/**
+		 * Whether permit was released.
+		 */
+		private final AtomicBoolean released = new AtomicBoolean();
+		
+		/**
+		 * Whether request was dropped.
+		 */
+		private final AtomicBoolean dropped = new AtomicBoolean();
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param inFlightAtStart Requests in flight when request was admitted, itself included.
+		 */
+		private Permit(int inFlightAtStart) {
+			this.inFlightAtStart = inFlightAtStart;
+		}
+		
+		/**
+		 * Record request as dropped, cutting the limit once. Request keeps counting as in flight until released.
+		 */
+		public void drop() {
+			if (dropped.compareAndSet(false, true)) {
+				onDrop();
+			}
+		}
+		
+		/**
+		 * Release permit, feeding latency of request to the limit unless it was dropped. Later calls are ignored.
+		 * 
+		 * @param dropped Whether request was dropped, such as on a timeout.
+		 */
+		public void release(boolean dropped) {
+			if (!released.compareAndSet(false, true)) {
+				return;
+			}
+			
+			inFlight.decrementAndGet();
+			
+			if (dropped) {
+				drop();
+			} else if (!this.dropped.get()) {
+				onSample(System.nanoTime() - startTime, inFlightAtStart);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.limiter;
+
+/**
+ * Exception of a request rejected by a concurrency limiter.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ConcurrencyLimitExceededException extends RuntimeException {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param message Reason request was rejected.
+	 */
+	public ConcurrencyLimitExceededException(String message) {
+		super(message);
+	}
+}
\ No newline at end of file
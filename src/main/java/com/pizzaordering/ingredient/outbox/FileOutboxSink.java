@@ -0,0 +1,83 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.outbox;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+
+/**
+ * Sink appending outbox events to a local file as newline delimited JSON, only created when outbox.sink.file.path is
+ * set. Meant for tests and local runs, a broker sink taking its place in production.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+@ConditionalOnProperty("outbox.sink.file.path")
+public class FileOutboxSink implements OutboxSink {
+	
+	/**
+	 * JSON mapper of outbox events.
+	 */
+	@Autowired
+	ObjectMapper objectMapper;
+	
+	/**
+	 * Path of file outbox events are appended to.
+	 */
+	@Value("${outbox.sink.file.path}")
+	private String filePath;
+	
+	/**
+	 * Path of file, resolved once.
+	 */
+	private Path path;
+	
+	/**
+	 * Resolve path of file.
+	 */
+	@PostConstruct
+	public void init() {
+		path = Paths.get(filePath);
+	}
+	
+	/*
+	 * Append outbox events, one line each, syncing the file once per batch.
+	 */
+	@Override
+	public void deliver(List<OutboxEvent> outboxEvents) throws IOException {
+		try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND, StandardOpenOption.DSYNC)) {
+			for (OutboxEvent outboxEvent : outboxEvents) {
+				writer.write(objectMapper.writeValueAsString(outboxEvent));
+				writer.newLine();
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,36 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.outbox;
+
+import java.io.IOException;
+import java.util.List;
+
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+
+/**
+ * Destination of outbox events relayed from database. Every sink bean gets every batch.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface OutboxSink {
+	
+	/**
+	 * Operation for delivering a batch of outbox events. A failure leaves the batch on the outbox, so it is delivered
+	 * again to every sink: delivery is at least once.
+	 * 
+	 * @param outboxEvents Outbox events in id order.
+	 * @throws IOException When outbox events can not be delivered.
+	 */
+	public void deliver(List<OutboxEvent> outboxEvents) throws IOException;
+}
\ No newline at end of file
@@ -0,0 +1,191 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.outbox;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.Disposable;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.FluxSink.OverflowStrategy;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * In-process sink broadcasting outbox events to the subscribers of the change stream.
+ * 
+ * Subscribers get events relayed while subscribed. The last events relayed are kept in a bounded replay window, so a
+ * subscriber reconnecting with the id of the last event it got resumes right after it. The stream is best-effort past
+ * that window: events are deleted from the outbox once delivered, so a subscriber whose last event left the window, or
+ * an instance restarted since, gets live events only and must reload what it tracks. Each subscriber is served on its
+ * own worker from a bounded buffer, a slow subscriber losing its oldest events rather than holding back the relay or
+ * the other subscribers.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+public class StreamOutboxSink implements OutboxSink {
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Maximum number of outbox events buffered per subscriber.
+	 */
+	@Value("${outbox.stream.buffer-size:1000}")
+	private int bufferSize;
+	
+	/**
+	 * Maximum number of last outbox events kept to resume a subscriber.
+	 */
+	@Value("${outbox.stream.replay-size:1000}")
+	private int replaySize;
+	
+	/**
+	 * Lock guarding the replay window, so a resuming subscriber gets its missed events before any new one.
+	 */
+	private final ReentrantLock replayLock = new ReentrantLock();
+	
+	/**
+	 * Last outbox events relayed, oldest first.
+	 */
+	private final Deque<OutboxEvent> replayEvents = new ArrayDeque<OutboxEvent>();
+	
+	/**
+	 * Processor broadcasting outbox events to subscribers, dropping them when there is none.
+	 */
+	private final DirectProcessor<OutboxEvent> processor = DirectProcessor.create();
+	
+	/**
+	 * Sink of processor, serializing emissions.
+	 */
+	private final FluxSink<OutboxEvent> sink = processor.sink();
+	
+	/**
+	 * Outbox events dropped from the buffer of a slow subscriber.
+	 */
+	private Counter droppedCounter;
+	
+	/**
+	 * Register metrics.
+	 */
+	@PostConstruct
+	public void init() {
+		droppedCounter = Counter.builder("outbox.stream.dropped")
+				.description("Outbox events dropped from the buffer of a slow stream subscriber")
+				.register(meterRegistry);
+	}
+	
+	/*
+	 * Keep outbox events on the replay window and broadcast them to current subscribers.
+	 */
+	@Override
+	public void deliver(List<OutboxEvent> outboxEvents) {
+		replayLock.lock();
+		
+		try {
+			for (OutboxEvent outboxEvent : outboxEvents) {
+				if (replayEvents.size() == replaySize) {
+					replayEvents.removeFirst();
+				}
+				
+				replayEvents.addLast(outboxEvent);
+				
+				sink.next(outboxEvent);
+			}
+		} finally {
+			replayLock.unlock();
+		}
+	}
+	
+	/**
+	 * Subscribe to outbox events relayed from now on, after the ones relayed since the last event of a reconnecting
+	 * subscriber when it is still on the replay window.
+	 * 
+	 * @param lastEventId Id of last outbox event got, or null.
+	 * @return Stream of outbox events, never completing.
+	 */
+	public Flux<OutboxEvent> stream(Long lastEventId) {
+		return Flux.<OutboxEvent>create(emitter -> {
+			Disposable subscription = null;
+			
+			// Missed events are emitted before the relay can deliver a new one.
+			replayLock.lock();
+			
+			try {
+				subscription = processor.subscribe(emitter::next);
+				
+				for (OutboxEvent outboxEvent : getEventsAfter(lastEventId)) {
+					emitter.next(outboxEvent);
+				}
+			} finally {
+				replayLock.unlock();
+			}
+			
+			emitter.onDispose(subscription);
+		}, OverflowStrategy.BUFFER).onBackpressureBuffer(bufferSize, outboxEvent -> droppedCounter.increment(),
+				BufferOverflowStrategy.DROP_OLDEST).publishOn(Schedulers.elastic());
+	}
+	
+	/**
+	 * Get outbox events relayed after an event still on the replay window, guarded by the replay lock.
+	 * 
+	 * @param lastEventId Id of last outbox event got, or null.
+	 * @return Outbox events relayed after it, in relay order, empty when it is not on the window.
+	 */
+	private List<OutboxEvent> getEventsAfter(Long lastEventId) {
+		List<OutboxEvent> outboxEvents = new ArrayList<OutboxEvent>();
+		Iterator<OutboxEvent> iterator = replayEvents.descendingIterator();
+		OutboxEvent outboxEvent = null;
+		
+		if (lastEventId == null) {
+			return outboxEvents;
+		}
+		
+		while (iterator.hasNext()) {
+			outboxEvent = iterator.next();
+			
+			if (outboxEvent.getId().equals(lastEventId)) {
+				// Collected newest first.
+				Collections.reverse(outboxEvents);
+				
+				return outboxEvents;
+			}
+			
+			outboxEvents.add(outboxEvent);
+		}
+		
+		return Collections.emptyList();
+	}
+}
\ No newline at end of file
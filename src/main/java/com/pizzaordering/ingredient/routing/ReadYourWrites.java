@@ -0,0 +1,85 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Read-your-writes flag of work running on current thread.
+ * 
+ * While set, read-only transactions are routed to the primary database as well, so a client reading right after a
+ * write never sees a replica that has not applied it yet.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public final class ReadYourWrites {
+	
+	/**
+	 * Flag of current thread.
+	 */
+	private static final ThreadLocal<Boolean> ENABLED = new ThreadLocal<Boolean>();
+	
+	/**
+	 * Not instantiable.
+	 */
+	private ReadYourWrites() {
+	}
+	
+	/**
+	 * Get whether reads of current thread must be served by the primary database.
+	 * 
+	 * @return Whether read-your-writes is enabled.
+	 */
+	public static boolean isEnabled() {
+		return Boolean.TRUE.equals(ENABLED.get());
+	}
+	
+	/**
+	 * Set flag of current thread.
+	 * 
+	 * @param enabled Whether read-your-writes is enabled.
+	 * @return Previous flag, to be restored once work is done.
+	 */
+	public static boolean set(boolean enabled) {
+		boolean previous = isEnabled();
+		
+		if (enabled) {
+			ENABLED.set(Boolean.TRUE);
+		} else {
+			ENABLED.remove();
+		}
+		
+		return previous;
+	}
+	
+	/**
+	 * Carry flag of current thread over to work run on another thread.
+	 * 
+	 * @param task Work to be run.
+	 * @return Work running under flag of current thread, restoring the flag of its own thread when done.
+	 */
+	public static <T> Supplier<T> propagate(Supplier<T> task) {
+		boolean enabled = isEnabled();
+		
+		return () -> {
+			boolean previous = set(enabled);
+			
+			try {
+				return task.get();
+			} finally {
+				set(previous);
+			}
+		};
+	}
+}
\ No newline at end of file
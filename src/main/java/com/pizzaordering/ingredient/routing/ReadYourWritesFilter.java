@@ -0,0 +1,52 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.routing;
+
+import java.io.IOException;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Filter enabling read-your-writes for requests asking for it through a header.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+@Profile("!reactive")
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+	
+	/**
+	 * Header asking reads of a request to be served by the primary database.
+	 */
+	public static final String HEADER = "X-Read-Your-Writes";
+	
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		boolean previous = ReadYourWrites.set(Boolean.parseBoolean(request.getHeader(HEADER)));
+		
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			ReadYourWrites.set(previous);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,215 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.routing;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source routing read-only transactions to read replicas and everything else to the primary database.
+ * 
+ * Replicas are picked round robin among the ones passing their last health check, falling back to the primary when
+ * none does. The routing decision reads the transaction read-only flag, so connections must be fetched lazily, once
+ * the transaction began, behind a lazy connection proxy.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements Closeable {
+	
+	/**
+	 * Lookup key of primary database.
+	 */
+	public static final String PRIMARY = "primary";
+	
+	/**
+	 * Prefix of lookup keys of replicas, followed by their index.
+	 */
+	public static final String REPLICA = "replica-";
+	
+	/**
+	 * Primary database.
+	 */
+	private final DataSource primary;
+	
+	/**
+	 * Read replicas.
+	 */
+	private final List<DataSource> replicas;
+	
+	/**
+	 * Health of each replica on its last check, replaced as a whole by each check.
+	 */
+	private volatile boolean[] healthy;
+	
+	/**
+	 * Counter of replica picks, for round robin.
+	 */
+	private final AtomicInteger nextReplica = new AtomicInteger();
+	
+	/**
+	 * Timeout of health check of a replica in seconds.
+	 */
+	private final int healthCheckTimeoutSeconds;
+	
+	/**
+	 * Scheduler of health checks, null when there is no replica.
+	 */
+	private final ScheduledExecutorService healthChecker;
+	
+	/**
+	 * Constructor, checking replicas right away and then periodically.
+	 * 
+	 * @param primary Primary database.
+	 * @param replicas Read replicas, possibly empty.
+	 * @param healthCheckMillis Interval between health checks in milliseconds.
+	 * @param healthCheckTimeoutSeconds Timeout of health check of a replica in seconds.
+	 */
+	public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas, long healthCheckMillis,
+			int healthCheckTimeoutSeconds) {
+		Map<Object, Object> targetDataSources = new HashMap<Object, Object>();
+		
+		this.primary = primary;
+		this.replicas = replicas;
+		this.healthCheckTimeoutSeconds = healthCheckTimeoutSeconds;
+		
+		targetDataSources.put(PRIMARY, primary);
+		
+		for (int i = 0; i < replicas.size(); i++) {
+			targetDataSources.put(REPLICA + i, replicas.get(i));
+		}
+		
+		setTargetDataSources(targetDataSources);
+		setDefaultTargetDataSource(primary);
+		setLenientFallback(false);
+		afterPropertiesSet();
+		
+		checkReplicas();
+		
+		if (replicas.isEmpty()) {
+			this.healthChecker = null;
+		} else {
+			this.healthChecker = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, "datasource-health-check");
+				
+				thread.setDaemon(true);
+				
+				return thread;
+			});
+			this.healthChecker.scheduleWithFixedDelay(this::checkReplicas, healthCheckMillis, healthCheckMillis,
+					TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Check health of every replica.
+	 */
+	public void checkReplicas() {
+		boolean[] checked = new boolean[replicas.size()];
+		
+		for (int i = 0; i < replicas.size(); i++) {
+			checked[i] = isValid(replicas.get(i));
+		}
+		
+		healthy = checked;
+	}
+	
+	/**
+	 * Get whether a replica passed its last health check.
+	 * 
+	 * @param index Index of replica.
+	 * @return Whether replica is healthy.
+	 */
+	public boolean isHealthy(int index) {
+		return healthy[index];
+	}
+	
+	/**
+	 * Stop health checks and close primary and replica pools.
+	 * 
+	 * @throws IOException When a pool can not be closed.
+	 */
+	@Override
+	public void close() throws IOException {
+		if (healthChecker != null) {
+			healthChecker.shutdownNow();
+		}
+		
+		for (DataSource replica : replicas) {
+			if (replica instanceof Closeable) {
+				((Closeable) replica).close();
+			}
+		}
+		
+		if (primary instanceof Closeable) {
+			((Closeable) primary).close();
+		}
+	}
+	
+	/*
+	 * Determine database of connection being fetched:
+	 * > Primary when out of a read-only transaction or when read-your-writes is enabled.
+	 * > Next healthy replica otherwise, primary when none is healthy.
+	 */
+	@Override
+	protected Object determineCurrentLookupKey() {
+		boolean[] health = healthy;
+		int start = 0;
+		int index = 0;
+		
+		if (replicas.isEmpty() || ReadYourWrites.isEnabled()
+				|| !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+			return PRIMARY;
+		}
+		
+		start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+		
+		for (int i = 0; i < replicas.size(); i++) {
+			index = (start + i) % replicas.size();
+			
+			if (health[index]) {
+				return REPLICA + index;
+			}
+		}
+		
+		return PRIMARY;
+	}
+	
+	/**
+	 * Check whether a database answers.
+	 * 
+	 * @param dataSource Database.
+	 * @return Whether a valid connection could be fetched in time.
+	 */
+	private boolean isValid(DataSource dataSource) {
+		try (Connection connection = dataSource.getConnection()) {
+			return connection.isValid(healthCheckTimeoutSeconds);
+		} catch (SQLException e) {
+			return false;
+		}
+	}
+}
\ No newline at end of file
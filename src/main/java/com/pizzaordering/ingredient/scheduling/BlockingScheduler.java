@@ -0,0 +1,117 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.scheduling;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Bounded scheduler of blocking calls made from reactive pipelines, such as JPA queries, keeping them off the event
+ * loop.
+ * 
+ * Sized to the database connection pool, since more threads would only wait for a connection. Calls beyond the queue
+ * capacity fail right away with a RejectedExecutionException instead of piling up, which is how the reactive stack
+ * sheds load.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+@Profile("reactive")
+public class BlockingScheduler {
+	
+	/**
+	 * Number of threads running blocking calls.
+	 */
+	@Value("${reactive.blocking.threads:10}")
+	private int threads;
+	
+	/**
+	 * Maximum number of blocking calls waiting for a thread, further calls being rejected.
+	 */
+	@Value("${reactive.blocking.queue-capacity:1000}")
+	private int queueCapacity;
+	
+	/**
+	 * Whether blocking calls run on virtual threads.
+	 */
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreadsEnabled;
+	
+	/**
+	 * Scheduler of blocking calls.
+	 */
+	private Scheduler scheduler;
+	
+	/**
+	 * Build bounded executor and its scheduler.
+	 */
+	@PostConstruct
+	public void init() {
+		scheduler = Schedulers.fromExecutorService(new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity),
+				VirtualThreads.newThreadFactory("reactive-blocking", virtualThreadsEnabled),
+				new ThreadPoolExecutor.AbortPolicy()));
+	}
+	
+	/**
+	 * Stop scheduler.
+	 */
+	@PreDestroy
+	public void destroy() {
+		scheduler.dispose();
+	}
+	
+	/**
+	 * Run blocking call on scheduler once subscribed.
+	 * 
+	 * @param callable Blocking call, empty when it returns null.
+	 * @return Result of call.
+	 */
+	public <T> Mono<T> call(Callable<T> callable) {
+		return Mono.fromCallable(callable).subscribeOn(scheduler);
+	}
+	
+	/**
+	 * Run blocking call returning several elements on scheduler once subscribed.
+	 * 
+	 * @param callable Blocking call.
+	 * @return Elements returned by call.
+	 */
+	public <T> Flux<T> callMany(Callable<? extends Iterable<T>> callable) {
+		return call(callable).flatMapIterable(elements -> elements);
+	}
+	
+	/**
+	 * Run blocking action on scheduler once subscribed.
+	 * 
+	 * @param runnable Blocking action.
+	 * @return Completion of action.
+	 */
+	public Mono<Void> run(Runnable runnable) {
+		return Mono.fromRunnable(runnable).subscribeOn(scheduler).then();
+	}
+}
\ No newline at end of file
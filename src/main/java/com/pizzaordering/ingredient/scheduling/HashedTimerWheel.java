@@ -0,0 +1,250 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.scheduling;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timer wheel running tasks at a deadline with tick precision.
+ * 
+ * Scheduling and cancelling are O(1) and lock free for callers: new timeouts are queued and moved to their bucket by
+ * the single worker thread, which on every tick only visits the bucket of the current tick.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class HashedTimerWheel {
+	
+	/**
+	 * Duration of a tick in nanoseconds.
+	 */
+	private final long tickNanos;
+	
+	/**
+	 * Buckets of timeouts, one per tick of a wheel round.
+	 */
+	private final List<LinkedList<Timeout>> wheel;
+	
+	/**
+	 * Mask to map a tick to its bucket, wheel size being a power of two.
+	 */
+	private final int mask;
+	
+	/**
+	 * Timeouts scheduled and not yet moved to their bucket.
+	 */
+	private final Queue<Timeout> pendingTimeouts = new ConcurrentLinkedQueue<Timeout>();
+	
+	/**
+	 * Worker thread advancing the wheel.
+	 */
+	private final Thread worker;
+	
+	/**
+	 * Moment the wheel started, in nanoseconds.
+	 */
+	private final long startTime;
+	
+	/**
+	 * Whether the wheel is running.
+	 */
+	private volatile boolean running = true;
+	
+	/**
+	 * Current tick, accessed by worker thread only.
+	 */
+	private long tick;
+	
+	/**
+	 * Constructor, starting the worker thread.
+	 * 
+	 * @param name Name of worker thread.
+	 * @param tickMillis Duration of a tick in milliseconds.
+	 * @param ticksPerWheel Number of buckets, rounded up to a power of two.
+	 */
+	public HashedTimerWheel(String name, long tickMillis, int ticksPerWheel) {
+		int wheelSize = Integer.highestOneBit(Math.max(1, ticksPerWheel - 1)) << 1;
+		
+		this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+		this.wheel = new ArrayList<LinkedList<Timeout>>(wheelSize);
+		this.mask = wheelSize - 1;
+		
+		for (int i = 0; i < wheelSize; i++) {
+			wheel.add(new LinkedList<Timeout>());
+		}
+		
+		this.startTime = System.nanoTime();
+		this.worker = new Thread(this::run, name);
+		this.worker.setDaemon(true);
+		this.worker.start();
+	}
+	
+	/**
+	 * Schedule task to run after a delay.
+	 * 
+	 * @param task Task to be run on worker thread, must be short.
+	 * @param delayMillis Delay in milliseconds, run on next tick when not positive.
+	 * @return Timeout that can be cancelled.
+	 */
+	public Timeout schedule(Runnable task, long delayMillis) {
+		Timeout timeout = new Timeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(0, delayMillis)));
+		
+		pendingTimeouts.add(timeout);
+		
+		return timeout;
+	}
+	
+	/**
+	 * Stop worker thread, dropping timeouts not yet run.
+	 */
+	public void stop() {
+		running = false;
+		worker.interrupt();
+	}
+	
+	/**
+	 * Loop of worker thread.
+	 */
+	private void run() {
+		while (running) {
+			if (!waitForNextTick()) {
+				return;
+			}
+			
+			transferPendingTimeouts();
+			expireTimeouts(wheel.get((int) (tick & mask)));
+			
+			tick++;
+		}
+	}
+	
+	/**
+	 * Sleep until the end of current tick.
+	 * 
+	 * @return Whether the wheel is still running.
+	 */
+	private boolean waitForNextTick() {
+		long deadline = startTime + (tick + 1) * tickNanos;
+		long sleepNanos = 0;
+		
+		while ((sleepNanos = deadline - System.nanoTime()) > 0) {
+			try {
+				TimeUnit.NANOSECONDS.sleep(sleepNanos);
+			} catch (InterruptedException e) {
+				if (!running) {
+					return false;
+				}
+			}
+		}
+		
+		return running;
+	}
+	
+	/**
+	 * Move scheduled timeouts to their bucket.
+	 */
+	private void transferPendingTimeouts() {
+		Timeout timeout = null;
+		long deadlineTick = 0;
+		
+		while ((timeout = pendingTimeouts.poll()) != null) {
+			if (timeout.cancelled) {
+				continue;
+			}
+			
+			// Bucket of tick t is expired once t + 1 ticks elapsed, so pick the first tick ending after the deadline.
+			deadlineTick = Math.max(tick, (timeout.deadline - startTime + tickNanos - 1) / tickNanos - 1);
+			timeout.remainingRounds = (deadlineTick - tick) / wheel.size();
+			
+			wheel.get((int) (deadlineTick & mask)).add(timeout);
+		}
+	}
+	
+	/**
+	 * Run timeouts of bucket due on this round, counting down the others.
+	 * 
+	 * @param bucket Bucket of current tick.
+	 */
+	private void expireTimeouts(LinkedList<Timeout> bucket) {
+		Iterator<Timeout> iterator = bucket.iterator();
+		Timeout timeout = null;
+		
+		while (iterator.hasNext()) {
+			timeout = iterator.next();
+			
+			if (timeout.cancelled) {
+				iterator.remove();
+			} else if (timeout.remainingRounds <= 0) {
+				iterator.remove();
+				
+				try {
+					timeout.task.run();
+				} catch (RuntimeException e) {
+					// A failing task must not stop the wheel.
+				}
+			} else {
+				timeout.remainingRounds--;
+			}
+		}
+	}
+	
+	/**
+	 * Task scheduled on wheel.
+	 */
+	public static class Timeout {
+		
+		/**
+		 * Task to be run.
+		 */
+		private final Runnable task;
+		
+		/**
+		 * Deadline in nanoseconds.
+		 */
+		private final long deadline;
+		
+		/**
+		 * Wheel rounds left before deadline, accessed by worker thread only.
+		 */
+		private long remainingRounds;
+		
+		/**
+		 * Whether the timeout was cancelled.
+		 */
+		private volatile boolean cancelled;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param task Task to be run.
+		 * @param deadline Deadline in nanoseconds.
+		 */
+		private Timeout(Runnable task, long deadline) {
+			this.task = task;
+			this.deadline = deadline;
+		}
+		
+		/**
+		 * Cancel timeout, removed from its bucket on the next visit of the worker thread.
+		 */
+		public void cancel() {
+			cancelled = true;
+		}
+	}
+}
\ No newline at end of file
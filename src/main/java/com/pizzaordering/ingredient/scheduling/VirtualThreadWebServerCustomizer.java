@@ -0,0 +1,94 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.scheduling;
+
+import java.util.concurrent.ExecutorService;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.coyote.AbstractProtocol;
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatServletWebServerFactory;
+import org.springframework.boot.web.server.WebServerFactoryCustomizer;
+import org.springframework.stereotype.Component;
+
+/**
+ * Customizer of embedded Tomcat running request handling on virtual threads when virtual threads are enabled.
+ * 
+ * The connector executor is replaced by one starting a virtual thread per request, so a request blocked on database or
+ * closed recipe resource no longer holds one of the 200 platform threads; concurrent connections stay bounded by the
+ * connector maximum number of connections.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Component
+public class VirtualThreadWebServerCustomizer implements WebServerFactoryCustomizer<TomcatServletWebServerFactory> {
+	
+	/**
+	 * Whether request handling, closed recipe client and pricing work run on virtual threads.
+	 */
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreadsEnabled;
+	
+	/**
+	 * Executor of requests, null when virtual threads are disabled.
+	 */
+	private ExecutorService requestExecutor;
+	
+	/**
+	 * Build executor of requests, failing startup when virtual threads are enabled on a JVM without them.
+	 */
+	@PostConstruct
+	public void init() {
+		if (!virtualThreadsEnabled) {
+			return;
+		}
+		
+		if (!VirtualThreads.isSupported()) {
+			throw new IllegalStateException("Virtual threads are enabled but require a Java 21 runtime, running "
+					+ System.getProperty("java.version") + ".");
+		}
+		
+		requestExecutor = VirtualThreads.newVirtualThreadPerTaskExecutor("http-request");
+	}
+	
+	/**
+	 * Stop executor of requests.
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (requestExecutor != null) {
+			requestExecutor.shutdown();
+		}
+	}
+	
+	/*
+	 * Set executor of requests on Tomcat connectors.
+	 */
+	@Override
+	public void customize(TomcatServletWebServerFactory factory) {
+		if (requestExecutor == null) {
+			return;
+		}
+		
+		factory.addConnectorCustomizers(connector -> {
+			ProtocolHandler protocolHandler = connector.getProtocolHandler();
+			
+			if (protocolHandler instanceof AbstractProtocol) {
+				((AbstractProtocol<?>) protocolHandler).setExecutor(requestExecutor);
+			}
+		});
+	}
+}
\ No newline at end of file
@@ -0,0 +1,149 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.scheduling;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Factory of threads for blocking work, virtual when asked for and supported by the running JVM.
+ * 
+ * Sources are built for Java 8, so virtual threads are reached by reflection and only exist on a Java 21 runtime.
+ * Code run on them must not block while holding a monitor, since a virtual thread blocked inside a synchronized block
+ * pins its carrier thread; such paths guard their state with a ReentrantLock instead.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public final class VirtualThreads {
+	
+	/**
+	 * Thread.ofVirtual(), or null when the running JVM has no virtual threads.
+	 */
+	private static final Method OF_VIRTUAL = findMethod(Thread.class, "ofVirtual");
+	
+	/**
+	 * Executors.newThreadPerTaskExecutor(ThreadFactory), or null when the running JVM has no virtual threads.
+	 */
+	private static final Method NEW_THREAD_PER_TASK_EXECUTOR = findMethod(Executors.class,
+			"newThreadPerTaskExecutor", ThreadFactory.class);
+	
+	/**
+	 * Not instantiable.
+	 */
+	private VirtualThreads() {
+	}
+	
+	/**
+	 * Check whether the running JVM supports virtual threads.
+	 * 
+	 * @return Whether virtual threads are supported.
+	 */
+	public static boolean isSupported() {
+		return OF_VIRTUAL != null && NEW_THREAD_PER_TASK_EXECUTOR != null;
+	}
+	
+	/**
+	 * Build factory of threads named after a prefix and numbered from 1.
+	 * 
+	 * @param name Prefix of thread names.
+	 * @param virtual Whether threads must be virtual, falling back to platform daemon threads when not supported.
+	 * @return Factory of threads.
+	 */
+	public static ThreadFactory newThreadFactory(String name, boolean virtual) {
+		AtomicInteger threadNumber = new AtomicInteger();
+		
+		if (virtual && isSupported()) {
+			return newVirtualThreadFactory(name);
+		}
+		
+		return runnable -> {
+			Thread thread = new Thread(runnable, name + "-" + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+	
+	/**
+	 * Build executor starting a new virtual thread per task, with no pooling nor queueing.
+	 * 
+	 * @param name Prefix of thread names.
+	 * @return Executor of virtual threads.
+	 * @throws UnsupportedOperationException When the running JVM has no virtual threads.
+	 */
+	public static ExecutorService newVirtualThreadPerTaskExecutor(String name) {
+		if (!isSupported()) {
+			throw new UnsupportedOperationException("Virtual threads require a Java 21 runtime.");
+		}
+		
+		return (ExecutorService) invoke(NEW_THREAD_PER_TASK_EXECUTOR, null, newVirtualThreadFactory(name));
+	}
+	
+	/**
+	 * Build factory of virtual threads: Thread.ofVirtual().name(name + "-", 1).factory().
+	 * 
+	 * @param name Prefix of thread names.
+	 * @return Factory of virtual threads.
+	 */
+	private static ThreadFactory newVirtualThreadFactory(String name) {
+		Object builder = invoke(OF_VIRTUAL, null);
+		Class<?> builderClass = null;
+		
+		try {
+			builderClass = Class.forName("java.lang.Thread$Builder");
+			
+			builder = invoke(builderClass.getMethod("name", String.class, long.class), builder, name + "-", 1L);
+			
+			return (ThreadFactory) invoke(builderClass.getMethod("factory"), builder);
+		} catch (ClassNotFoundException | NoSuchMethodException e) {
+			throw new IllegalStateException("Virtual thread builder is not available.", e);
+		}
+	}
+	
+	/**
+	 * Find public method of a JDK class.
+	 * 
+	 * @param type Class declaring the method.
+	 * @param name Name of method.
+	 * @param parameterTypes Types of parameters of method.
+	 * @return Method, or null when the running JVM does not have it.
+	 */
+	private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+		try {
+			return type.getMethod(name, parameterTypes);
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Invoke method reached by reflection.
+	 * 
+	 * @param method Method.
+	 * @param target Target of method, null when static.
+	 * @param arguments Arguments of method.
+	 * @return Result of method.
+	 */
+	private static Object invoke(Method method, Object target, Object... arguments) {
+		try {
+			return method.invoke(target, arguments);
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Method " + method.getName() + " is not accessible.", e);
+		} catch (InvocationTargetException e) {
+			throw new IllegalStateException("Method " + method.getName() + " failed.", e.getCause());
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,38 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.scheduling;
+
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Exception of write work skipped because its deadline passed before it started, so nothing was written.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class WriteExpiredException extends TimeoutException {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param message Reason work was skipped.
+	 */
+	public WriteExpiredException(String message) {
+		super(message);
+	}
+}
\ No newline at end of file
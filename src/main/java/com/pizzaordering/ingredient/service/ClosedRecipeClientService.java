@@ -12,6 +12,8 @@
 
 package com.pizzaordering.ingredient.service;
 
+import java.util.List;
+
 import com.pizzaordering.ingredient.domain.ClosedRecipe;
 
 /**
@@ -29,4 +31,18 @@ public interface ClosedRecipeClientService {
 	 * @return Closed recipe gotten from service.
 	 */
 	public ClosedRecipe getClosedRecipe(Integer closedRecipeId);
+	
+	/**
+	 * Operation for invalidating a cached closed recipe, which keeps being served until its refetch completes.
+	 * 
+	 * @param closedRecipeId Id of closed recipe to be invalidated.
+	 */
+	public void invalidateClosedRecipe(Integer closedRecipeId);
+	
+	/**
+	 * Operation for invalidating cached closed recipes, which keep being served until their refetch completes.
+	 * 
+	 * @param closedRecipeIds Ids of closed recipes to be invalidated.
+	 */
+	public void invalidateClosedRecipes(List<Integer> closedRecipeIds);
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import com.pizzaordering.ingredient.domain.DealPayload;
+
+/**
+ * Interface of deal registry service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface DealRegistryService {
+	
+	/**
+	 * Operation for registering a deal, adding its discounts to the effective discount of its ingredients right away
+	 * or at its start time, and subtracting them at its end time.
+	 * 
+	 * @param deal Deal with discount ingredients to be registered.
+	 * @return Whether deal was registered, false when it was already registered.
+	 */
+	public boolean registerDeal(DealPayload deal);
+	
+	/**
+	 * Operation for unregistering an active deal, subtracting its discounts from the effective discount of its
+	 * ingredients.
+	 * 
+	 * @param dealId Id of deal to be unregistered.
+	 * @return Whether deal was unregistered, false when it was not registered.
+	 */
+	public boolean unregisterDeal(Integer dealId);
+	
+	/**
+	 * Operation for registering and unregistering a batch of deals, such as a promotion rollover. Deal changes are
+	 * persisted in a single transaction and take effect together in a single catalog swap, or not at all.
+	 * 
+	 * @param addedDeals Deals with discount ingredients to be registered.
+	 * @param removedDealIds Ids of deals to be unregistered.
+	 */
+	public void applyDeals(List<DealPayload> addedDeals, List<Integer> removedDealIds);
+	
+	/**
+	 * Operation for refreshing the registry from the deals persisted on database, picking up the ones registered,
+	 * changed or unregistered by other instances. Run periodically, and on demand.
+	 */
+	public void refreshDeals();
+	
+	/**
+	 * Operation for getting the effective percentage of discount of an ingredient summed over active deals.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @return Effective percentage of discount, zero when no active deal applies.
+	 */
+	public BigDecimal getEffectiveDiscount(Long ingredientId);
+	
+	/**
+	 * Operation for getting the catalog of effective percentage of discount by ingredient id. The catalog is an
+	 * immutable snapshot, so a whole order can be priced against the same set of active deals.
+	 * 
+	 * @return Catalog of effective percentage of discount by ingredient id.
+	 */
+	public Map<Long, BigDecimal> getEffectiveDiscounts();
+}
\ No newline at end of file
@@ -0,0 +1,39 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import com.pizzaordering.ingredient.domain.IngredientImportReport;
+import com.pizzaordering.ingredient.util.IngredientImportFormatEnum;
+
+/**
+ * Interface of ingredient import service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface IngredientImportService {
+	
+	/**
+	 * Operation for importing ingredients in bulk, reading one row at a time and inserting them in batches.
+	 * 
+	 * @param inputStream Rows of ingredients.
+	 * @param format Format of rows.
+	 * @return Report with number of rows imported and errors of rows rejected.
+	 * @throws IOException When rows can not be read.
+	 */
+	public IngredientImportReport importIngredients(InputStream inputStream, IngredientImportFormatEnum format)
+			throws IOException;
+}
\ No newline at end of file
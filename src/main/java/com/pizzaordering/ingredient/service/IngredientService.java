@@ -13,10 +13,19 @@
 package com.pizzaordering.ingredient.service;
 
 import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Consumer;
 
-import com.pizzaordering.ingredient.domain.Deal;
-import com.pizzaordering.ingredient.domain.Order;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.DealBatch;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.IngredientPage;
+import com.pizzaordering.ingredient.domain.IngredientVersion;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.domain.RecipePrice;
 import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.util.IngredientSortEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
 
 /**
  * Interface of ingredient service layer.
@@ -42,6 +51,60 @@ public interface IngredientService {
 	 */
 	public Ingredient getIngredient(Long id);
 	
+	/**
+	 * Operation for getting version of an ingredient without touching the database.
+	 * 
+	 * @param id Id of ingredient.
+	 * @return Version of ingredient, or null when not known yet.
+	 */
+	public IngredientVersion getIngredientVersion(Long id);
+	
+	/**
+	 * Operation for getting version of several ingredients at once without touching the database.
+	 * 
+	 * @param ids Ids of ingredients, in request order.
+	 * @return Version of ingredients, or null when one of them is not known yet.
+	 */
+	public IngredientVersion getIngredientsVersion(List<Long> ids);
+	
+	/**
+	 * Operation for getting version of a page of ingredients.
+	 * 
+	 * @param ingredientPage Page of ingredients.
+	 * @return Version of page.
+	 */
+	public IngredientVersion getIngredientPageVersion(IngredientPage ingredientPage);
+	
+	/**
+	 * Operation for getting several ingredients at once.
+	 * 
+	 * @param ids Ids of ingredients to be gotten.
+	 * @return Lookup of each id, in request order, marking ids not found.
+	 */
+	public List<IngredientLookup> getIngredients(List<Long> ids);
+	
+	/**
+	 * Operation for listing a page of ingredients, seeking past the keyset of previous page.
+	 * 
+	 * @param type Type of ingredients, or null for all of them.
+	 * @param sort Sort of listing.
+	 * @param afterId Id of last row of previous page, or null on first page.
+	 * @param afterPortionQuantity Quantity of portion of last row of previous page when sorted by stock level, or null
+	 * while rows without stock level, listed first, are being paged.
+	 * @param limit Size of page.
+	 * @return Page of ingredients with keyset of next page.
+	 */
+	public IngredientPage getIngredientPage(Character type, IngredientSortEnum sort, Long afterId,
+			Integer afterPortionQuantity, int limit);
+	
+	/**
+	 * Operation for exporting ingredients in id order with constant memory.
+	 * 
+	 * @param type Type of ingredients, or null for all of them.
+	 * @param consumer Consumer of each ingredient.
+	 */
+	public void exportIngredients(Character type, Consumer<Ingredient> consumer);
+	
 	/**
 	 * Operation for updating an ingredient.
 	 * 
@@ -50,6 +113,14 @@ public interface IngredientService {
 	 */
 	public Ingredient updateIngredient(Ingredient ingredient);
 	
+	/**
+	 * Operation for caching an ingredient saved outside this service layer, such as by the reactive inventory path, so
+	 * lookups and versions served from cache, and the availability read from them, stay current.
+	 * 
+	 * @param ingredient Ingredient as saved.
+	 */
+	public void cacheIngredient(Ingredient ingredient);
+	
 	/**
 	 * Operation for deleting an ingredient.
 	 * 
@@ -63,26 +134,50 @@ public interface IngredientService {
 	 * @param order Order with customized ingredients to be calculated.
 	 * @return Price of the order with customized ingredients.
 	 */
-	public BigDecimal calculateOrderPrice(Order order);
+	public BigDecimal calculateOrderPrice(OrderPayload order);
+	
+	/**
+	 * Operation for quoting the price of an order with customized ingredients, leaving inventory untouched.
+	 * 
+	 * @param order Order with customized ingredients to be quoted.
+	 * @return Price of the order with customized ingredients.
+	 */
+	public BigDecimal quoteOrderPrice(OrderPayload order);
+	
+	/**
+	 * Operation for listing the price of several closed recipes without customized ingredients, such as a whole menu.
+	 * 
+	 * @param closedRecipeIds Ids of closed recipes.
+	 * @param size Size of pizza, or null for every size.
+	 * @return Price of each closed recipe in each size, in request then size order.
+	 */
+	public List<RecipePrice> getRecipePrices(List<Integer> closedRecipeIds, PizzaSizeMultiplyFactorEnum size);
 	
 	/**
 	 * Operation for reversing ingredients from inventory of a canceled order with customized ingredients.
 	 * 
 	 * @param order Order with customized ingredients to be reversed.
 	 */
-	public void reverseOrderIngredients(Order order);
+	public void reverseOrderIngredients(OrderPayload order);
 	
 	/**
 	 * Operation for adding ingredients discount of a deal.
 	 * 
 	 * @param deal Deal with discount ingredients to be added.
 	 */
-	public void addIngredientDiscount(Deal deal);
+	public void addIngredientDiscount(DealPayload deal);
 	
 	/**
 	 * Operation for deleting ingredients discount of a deal.
 	 * 
 	 * @param deal Deal with discount ingredients to be deleted.
 	 */
-	public void deleteIngredientDiscount(Deal deal);
+	public void deleteIngredientDiscount(DealPayload deal);
+	
+	/**
+	 * Operation for adding and deleting ingredients discount of several deals at once, all or nothing.
+	 * 
+	 * @param dealBatch Deals with discount ingredients to be added and ids of deals to be deleted.
+	 */
+	public void applyIngredientDiscounts(DealBatch dealBatch);
 }
\ No newline at end of file
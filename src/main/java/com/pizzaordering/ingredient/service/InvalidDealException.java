@@ -0,0 +1,36 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+/**
+ * Exception of a deal refused as invalid, such as one already ended, on unknown ingredients or repeated on a batch.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class InvalidDealException extends IllegalArgumentException {
+	
+	/**
+	 * Serial version UID for serialization.
+	 */
+	private static final long serialVersionUID = 1L;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param message Reason deal was refused.
+	 */
+	public InvalidDealException(String message) {
+		super(message);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,51 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.util.List;
+
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.InventoryMovementReasonEnum;
+
+/**
+ * Interface of inventory movement service layer, keeping the history of changes of inventory of ingredients.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface InventoryMovementService {
+	
+	/**
+	 * Operation for recording an inventory movement. Never blocks: the movement is queued and written later in a
+	 * batch, and dropped when the queue is full.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @param delta Change of quantity of portion, negative when taken from inventory.
+	 * @param reason Reason of movement.
+	 * @param orderId Id of order, null when not moved by an order.
+	 */
+	public void recordMovement(Long ingredientId, int delta, InventoryMovementReasonEnum reason, Long orderId);
+	
+	/**
+	 * Operation for adding up inventory movements written so far per ingredient and time bucket.
+	 * 
+	 * @param ingredientId Id of ingredient, or null for all of them.
+	 * @param from Start of period, inclusive, in milliseconds since epoch.
+	 * @param to End of period, exclusive, in milliseconds since epoch.
+	 * @param bucket Time bucket.
+	 * @return Buckets with movements, in ingredient then time order.
+	 */
+	public List<InventoryMovementBucket> getMovementBuckets(Long ingredientId, long from, long to,
+			InventoryMovementBucketEnum bucket);
+}
\ No newline at end of file
@@ -0,0 +1,57 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.util.List;
+
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Interface of low stock service layer, raising alerts as ingredients cross their reorder threshold.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface LowStockService {
+	
+	/**
+	 * Operation for checking the stock of an ingredient just saved against its reorder threshold, in constant time.
+	 * 
+	 * @param ingredient Ingredient as saved, ignored when null.
+	 */
+	public void checkStock(Ingredient ingredient);
+	
+	/**
+	 * Operation for forgetting the stock state of a deleted ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 */
+	public void forgetIngredient(Long ingredientId);
+	
+	/**
+	 * Operation for getting alerts of ingredients currently low on stock.
+	 * 
+	 * @return Alerts of ingredients low on stock, in ingredient order.
+	 */
+	public List<LowStockAlert> getLowStockAlerts();
+	
+	/**
+	 * Operation for subscribing to alerts: ingredients currently low on stock, then each threshold crossing.
+	 * 
+	 * @return Stream of alerts, never completing.
+	 */
+	public Flux<LowStockAlert> streamAlerts();
+}
\ No newline at end of file
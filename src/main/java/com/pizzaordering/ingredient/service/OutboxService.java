@@ -0,0 +1,76 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import com.pizzaordering.ingredient.entity.ActiveDeal;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Interface of outbox service layer, writing change events in the transaction of the change and relaying them to the
+ * outbox sinks.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface OutboxService {
+	
+	/**
+	 * Operation for appending an event of an ingredient, within the transaction that changed it.
+	 * 
+	 * @param type Type of event: inventory or price.
+	 * @param ingredient Ingredient as changed.
+	 */
+	public void appendIngredientEvent(OutboxEventTypeEnum type, Ingredient ingredient);
+	
+	/**
+	 * Operation for appending the event of a deleted ingredient, within the transaction that deleted it.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 */
+	public void appendIngredientDeletedEvent(Long ingredientId);
+	
+	/**
+	 * Operation for appending an event per ingredient of a registered deal, within the transaction that persisted it.
+	 * 
+	 * @param activeDeal Active deal persisted.
+	 */
+	public void appendDealAddedEvents(ActiveDeal activeDeal);
+	
+	/**
+	 * Operation for appending the event of an unregistered deal, within the transaction that deleted it.
+	 * 
+	 * @param dealId Id of deal.
+	 */
+	public void appendDealRemovedEvent(Integer dealId);
+	
+	/**
+	 * Operation for relaying the oldest batch of events to every sink, deleting it once delivered.
+	 * 
+	 * @return Number of events relayed.
+	 */
+	public int relayEvents();
+	
+	/**
+	 * Operation for streaming events relayed from now on, resuming after the last event of a reconnecting subscriber
+	 * while it is still on the replay window. Best-effort past that window, a subscriber must then reload what it
+	 * tracks.
+	 * 
+	 * @param lastEventId Id of last event got, or null.
+	 * @return Stream of events, never completing.
+	 */
+	public Flux<OutboxEvent> streamEvents(Long lastEventId);
+}
\ No newline at end of file
@@ -0,0 +1,59 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import com.pizzaordering.ingredient.util.PricingPriorityEnum;
+
+/**
+ * Interface of pricing admission service layer, shedding pricing and inventory requests beyond an adaptive limit.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface PricingAdmissionService {
+	
+	/**
+	 * Operation for admitting pricing or inventory work and submitting it to the pricing executor.
+	 * 
+	 * Future completes exceptionally with ConcurrencyLimitExceededException right away when the request is shed.
+	 * 
+	 * @param priority Priority of request.
+	 * @param task Work to be run.
+	 * @param deadlineMillis Deadline of request, in milliseconds from now.
+	 * @return Future of result of work.
+	 */
+	public <T> CompletableFuture<T> submit(PricingPriorityEnum priority, Supplier<T> task, long deadlineMillis);
+	
+	/**
+	 * Operation for admitting work that writes, such as an inventory update, and submitting it to the pricing
+	 * executor, its deadline only bounding the wait for a thread.
+	 * 
+	 * Future completes exceptionally with ConcurrencyLimitExceededException right away when the request is shed.
+	 * 
+	 * @param priority Priority of request.
+	 * @param task Work to be run.
+	 * @param deadlineMillis Deadline for work to start, in milliseconds from now.
+	 * @return Future of result of work.
+	 */
+	public <T> CompletableFuture<T> submitWrite(PricingPriorityEnum priority, Supplier<T> task, long deadlineMillis);
+	
+	/**
+	 * Operation for getting how long a shed client should wait before retrying.
+	 * 
+	 * @return Delay before retrying, in seconds.
+	 */
+	public int getRetryAfterSeconds();
+}
\ No newline at end of file
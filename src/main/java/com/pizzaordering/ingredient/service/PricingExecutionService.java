@@ -0,0 +1,57 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Interface of pricing execution service layer, running pricing and inventory work off the request threads.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface PricingExecutionService {
+	
+	/**
+	 * Operation for submitting pricing or inventory work to the bounded pricing executor.
+	 * 
+	 * Future completes exceptionally with RejectedExecutionException right away when the queue is full, and with
+	 * TimeoutException once the deadline passes. Work still queued at its deadline is skipped, work already running
+	 * is let finish.
+	 * 
+	 * @param task Work to be run.
+	 * @param deadlineMillis Deadline of request, in milliseconds from now.
+	 * @param onFinished Callback told once whether work ran, when it finished running or was skipped or rejected,
+	 * null when none.
+	 * @return Future of result of work.
+	 */
+	public <T> CompletableFuture<T> submit(Supplier<T> task, long deadlineMillis, Consumer<Boolean> onFinished);
+	
+	/**
+	 * Operation for submitting work that writes, such as an inventory update, to the bounded pricing executor.
+	 * 
+	 * Future completes exceptionally with RejectedExecutionException right away when the queue is full, and with
+	 * WriteExpiredException when the deadline passes while work is still queued, work being skipped. Work that
+	 * started is never abandoned at its deadline: its future completes with its outcome, so the caller is never told a
+	 * write failed when it was applied.
+	 * 
+	 * @param task Work to be run.
+	 * @param deadlineMillis Deadline for work to start, in milliseconds from now.
+	 * @param onFinished Callback told once whether work ran, when it finished running or was skipped or rejected,
+	 * null when none.
+	 * @return Future of result of work.
+	 */
+	public <T> CompletableFuture<T> submitWrite(Supplier<T> task, long deadlineMillis, Consumer<Boolean> onFinished);
+}
\ No newline at end of file
@@ -0,0 +1,49 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.service;
+
+import java.util.List;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface of reactive closed recipe client service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface ReactiveClosedRecipeClientService {
+	
+	/**
+	 * Operation for getting closed recipe consuming closed recipe resource via HTTP REST, without blocking.
+	 * 
+	 * @param closedRecipeId Id of closed recipe to be gotten from service.
+	 * @return Closed recipe gotten from service.
+	 */
+	public Mono<ClosedRecipe> getClosedRecipe(Integer closedRecipeId);
+	
+	/**
+	 * Operation for invalidating a cached closed recipe, which keeps being served until its refetch completes.
+	 * 
+	 * @param closedRecipeId Id of closed recipe to be invalidated.
+	 */
+	public void invalidateClosedRecipe(Integer closedRecipeId);
+	
+	/**
+	 * Operation for invalidating cached closed recipes, which keep being served until their refetch completes.
+	 * 
+	 * @param closedRecipeIds Ids of closed recipes to be invalidated.
+	 */
+	public void invalidateClosedRecipes(List<Integer> closedRecipeIds);
+}
\ No newline at end of file
@@ -0,0 +1,199 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.DealBatch;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.domain.RecipePrice;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Interface of reactive ingredient service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface ReactiveIngredientService {
+	
+	/**
+	 * Operation for adding an ingredient.
+	 * 
+	 * @param ingredient Ingredient to be added on database.
+	 * @return Ingredient added on database.
+	 */
+	public Mono<Ingredient> addIngredient(Ingredient ingredient);
+	
+	/**
+	 * Operation for getting an ingredient.
+	 * 
+	 * @param id Id of ingredient to be gotten from database.
+	 * @return Ingredient gotten from database, empty when not found.
+	 */
+	public Mono<Ingredient> getIngredient(Long id);
+	
+	/**
+	 * Operation for getting several ingredients at once.
+	 * 
+	 * @param ids Ids of ingredients to be gotten.
+	 * @return Lookup of each id, in request order, marking ids not found.
+	 */
+	public Mono<List<IngredientLookup>> getIngredients(List<Long> ids);
+	
+	/**
+	 * Operation for exporting ingredients in id order, read from database as they are consumed.
+	 * 
+	 * @param type Type of ingredients, or all of them when null.
+	 * @return Ingredients.
+	 */
+	public Flux<Ingredient> exportIngredients(Character type);
+	
+	/**
+	 * Operation for updating an ingredient.
+	 * 
+	 * @param ingredient Ingredient to be updated on database.
+	 * @return Ingredient updated on database.
+	 */
+	public Mono<Ingredient> updateIngredient(Ingredient ingredient);
+	
+	/**
+	 * Operation for deleting an ingredient.
+	 * 
+	 * @param id Id of ingredient to be deleted from database.
+	 * @return Completion of deletion.
+	 */
+	public Mono<Void> deleteIngredient(Long id);
+	
+	/**
+	 * Operation for calculating the price of an order with customized ingredients.
+	 * 
+	 * @param order Order with customized ingredients to be calculated.
+	 * @return Price of the order with customized ingredients.
+	 */
+	public Mono<BigDecimal> calculateOrderPrice(OrderPayload order);
+	
+	/**
+	 * Operation for quoting the price of an order with customized ingredients, leaving inventory untouched.
+	 * 
+	 * @param order Order with customized ingredients to be quoted.
+	 * @return Price of the order with customized ingredients.
+	 */
+	public Mono<BigDecimal> quoteOrderPrice(OrderPayload order);
+	
+	/**
+	 * Operation for reversing ingredients from inventory of a canceled order with customized ingredients.
+	 * 
+	 * @param order Order with customized ingredients to be reversed.
+	 * @return Completion of reversal.
+	 */
+	public Mono<Void> reverseOrderIngredients(OrderPayload order);
+	
+	/**
+	 * Operation for adding ingredients discount of a deal.
+	 * 
+	 * @param deal Deal with discount ingredients to be added.
+	 * @return Completion of addition.
+	 */
+	public Mono<Void> addIngredientDiscount(DealPayload deal);
+	
+	/**
+	 * Operation for deleting ingredients discount of a deal.
+	 * 
+	 * @param deal Deal with discount ingredients to be deleted.
+	 * @return Completion of deletion.
+	 */
+	public Mono<Void> deleteIngredientDiscount(DealPayload deal);
+	
+	/**
+	 * Operation for adding and deleting ingredients discount of several deals at once, all or nothing.
+	 * 
+	 * @param dealBatch Deals with discount ingredients to be added and ids of deals to be deleted.
+	 * @return Completion of batch.
+	 */
+	public Mono<Void> applyIngredientDiscounts(DealBatch dealBatch);
+	
+	/**
+	 * Operation for adding up inventory movements per ingredient and time bucket.
+	 * 
+	 * @param ingredientId Id of ingredient, or null for all of them.
+	 * @param from Start of period, inclusive, in milliseconds since epoch.
+	 * @param to End of period, exclusive, in milliseconds since epoch.
+	 * @param bucket Time bucket.
+	 * @return Buckets with movements, in ingredient then time order.
+	 */
+	public Mono<List<InventoryMovementBucket>> getMovementBuckets(Long ingredientId, long from, long to,
+			InventoryMovementBucketEnum bucket);
+	
+	/**
+	 * Operation for streaming inventory, price and discount changes relayed from now on, resuming after the last
+	 * change of a reconnecting subscriber while it is still on the replay window.
+	 * 
+	 * @param lastEventId Id of last change got, or null.
+	 * @return Stream of changes, never completing.
+	 */
+	public Flux<OutboxEvent> streamChanges(Long lastEventId);
+	
+	/**
+	 * Operation for getting alerts of ingredients currently low on stock.
+	 * 
+	 * @return Alerts of ingredients low on stock, in ingredient order.
+	 */
+	public Mono<List<LowStockAlert>> getLowStockAlerts();
+	
+	/**
+	 * Operation for streaming low stock alerts: ingredients currently low on stock, then each threshold crossing.
+	 * 
+	 * @return Stream of alerts, never completing.
+	 */
+	public Flux<LowStockAlert> streamLowStockAlerts();
+	
+	/**
+	 * Operation for calculating how many pizzas of a closed recipe in a size can be made from inventory.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param size Size of pizza.
+	 * @return Availability of closed recipe in size.
+	 */
+	public Mono<RecipeAvailability> getRecipeAvailability(Integer closedRecipeId, PizzaSizeMultiplyFactorEnum size);
+	
+	/**
+	 * Operation for calculating availability of several closed recipes, such as a whole menu, at once.
+	 * 
+	 * @param closedRecipeIds Ids of closed recipes.
+	 * @param size Size of pizza, or null for every size.
+	 * @return Availability of each closed recipe in each size, in request then size order.
+	 */
+	public Mono<List<RecipeAvailability>> getRecipeAvailabilities(List<Integer> closedRecipeIds,
+			PizzaSizeMultiplyFactorEnum size);
+	
+	/**
+	 * Operation for listing the price of several closed recipes without customized ingredients, such as a whole menu.
+	 * 
+	 * @param closedRecipeIds Ids of closed recipes.
+	 * @param size Size of pizza, or null for every size.
+	 * @return Price of each closed recipe in each size, in request then size order.
+	 */
+	public Mono<List<RecipePrice>> getRecipePrices(List<Integer> closedRecipeIds, PizzaSizeMultiplyFactorEnum size);
+}
\ No newline at end of file
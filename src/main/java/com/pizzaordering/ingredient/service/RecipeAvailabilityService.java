@@ -0,0 +1,46 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.service;
+
+import java.util.List;
+
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Interface of recipe availability service layer, telling how many pizzas of each closed recipe can be made.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public interface RecipeAvailabilityService {
+	
+	/**
+	 * Operation for calculating how many pizzas of a closed recipe in a size can be made from inventory.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param size Size of pizza.
+	 * @return Availability of closed recipe in size.
+	 */
+	public RecipeAvailability getRecipeAvailability(Integer closedRecipeId, PizzaSizeMultiplyFactorEnum size);
+	
+	/**
+	 * Operation for calculating availability of several closed recipes, such as a whole menu, at once.
+	 * 
+	 * @param closedRecipeIds Ids of closed recipes.
+	 * @param size Size of pizza, or null for every size.
+	 * @return Availability of each closed recipe in each size, in request then size order.
+	 */
+	public List<RecipeAvailability> getRecipeAvailabilities(List<Integer> closedRecipeIds,
+			PizzaSizeMultiplyFactorEnum size);
+}
\ No newline at end of file
@@ -12,12 +12,28 @@
 
 package com.pizzaordering.ingredient.serviceImpl;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
+import com.pizzaordering.ingredient.cache.ClosedRecipeCache;
+import com.pizzaordering.ingredient.cache.ClosedRecipeRefreshedEvent;
+import com.pizzaordering.ingredient.client.HedgedClosedRecipeClient;
 import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.scheduling.VirtualThreads;
 import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 /**
  * Implementation of closed recipe client service layer interface.
  * 
@@ -28,23 +44,134 @@ import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
 public class ClosedRecipeClientServiceImpl implements ClosedRecipeClientService {
 	
 	/**
-	 * URI of closed recipe resource.
+	 * URIs of closed recipe resource replicas.
+	 */
+	@Value("${closedrecipe.resource.uris:http://localhost:8082/closedrecipes}")
+	private String[] closedRecipeResourceUris;
+	
+	/**
+	 * Lower bound of delay before hedging a slow call on another replica, in milliseconds.
+	 */
+	@Value("${closedrecipe.hedge.min-delay-ms:10}")
+	private long minHedgeDelayMillis;
+	
+	/**
+	 * Upper bound of delay before hedging a slow call on another replica, in milliseconds.
+	 */
+	@Value("${closedrecipe.hedge.max-delay-ms:200}")
+	private long maxHedgeDelayMillis;
+	
+	/**
+	 * Number of threads running calls to closed recipe resource.
+	 */
+	@Value("${closedrecipe.client.threads:32}")
+	private int threads;
+	
+	/**
+	 * Connect and read timeout of each call to closed recipe resource, in milliseconds.
+	 */
+	@Value("${closedrecipe.client.timeout-ms:2000}")
+	private int timeoutMillis;
+	
+	/**
+	 * Time to live of cached closed recipes, in milliseconds. Kept long since the closed recipe resource pushes
+	 * invalidations on change.
+	 */
+	@Value("${closedrecipe.cache.ttl-ms:86400000}")
+	private long cacheTimeToLiveMillis;
+	
+	/**
+	 * Maximum number of cached closed recipes.
+	 */
+	@Value("${closedrecipe.cache.max-size:10000}")
+	private int cacheMaxSize;
+	
+	/**
+	 * Whether calls to closed recipe resource run on virtual threads.
+	 */
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreadsEnabled;
+	
+	/**
+	 * Publisher of closed recipe refetch events.
+	 */
+	@Autowired
+	private ApplicationEventPublisher applicationEventPublisher;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	private MeterRegistry meterRegistry;
+	
+	/**
+	 * Client balancing and hedging calls across closed recipe resource replicas.
+	 */
+	private HedgedClosedRecipeClient hedgedClosedRecipeClient;
+	
+	/**
+	 * Executor of background refetches of invalidated closed recipes.
+	 */
+	private ExecutorService refreshExecutor;
+	
+	/**
+	 * In-process cache of closed recipes.
 	 */
-	private static final String URI_CLOSED_RECIPE_RESOURCE = "http://localhost:8082/closedrecipes";
+	private ClosedRecipeCache closedRecipeCache;
 	
 	/**
-	 * Spring implementation for HTTP RESTful resources consummation.
+	 * Build client and cache of closed recipe resource replicas.
 	 */
-	private RestTemplate restTemplate = new RestTemplate();
+	@PostConstruct
+	public void init() {
+		hedgedClosedRecipeClient = new HedgedClosedRecipeClient(Arrays.asList(closedRecipeResourceUris),
+				minHedgeDelayMillis, maxHedgeDelayMillis, threads, timeoutMillis,
+				VirtualThreads.newThreadFactory(HedgedClosedRecipeClient.THREAD_NAME, virtualThreadsEnabled));
+		
+		refreshExecutor = Executors.newSingleThreadExecutor(
+				VirtualThreads.newThreadFactory("closed-recipe-refresh", virtualThreadsEnabled));
+		
+		closedRecipeCache = new ClosedRecipeCache(hedgedClosedRecipeClient::getClosedRecipe,
+				closedRecipeId -> applicationEventPublisher.publishEvent(
+						new ClosedRecipeRefreshedEvent(this, closedRecipeId)),
+				cacheTimeToLiveMillis, cacheMaxSize, refreshExecutor, meterRegistry);
+	}
 	
 	/**
-	 * Consume closed recipe resource sending id of closed recipe to be gotten.
+	 * Stop client and cache of closed recipe resource replicas.
+	 */
+	@PreDestroy
+	public void destroy() {
+		refreshExecutor.shutdownNow();
+		hedgedClosedRecipeClient.shutdown();
+	}
+	
+	/**
+	 * Get closed recipe from cache, consuming closed recipe resource sending id of closed recipe when not cached.
 	 * 
 	 * @param closedRecipeId Id of closed recipe to be gotten from service.
 	 * @return Closed recipe gotten from service.
 	 */
 	@Override
 	public ClosedRecipe getClosedRecipe(Integer closedRecipeId) {
-		return restTemplate.getForObject(URI_CLOSED_RECIPE_RESOURCE + "/" + closedRecipeId, ClosedRecipe.class);
+		return closedRecipeCache.get(closedRecipeId);
+	}
+	
+	/*
+	 * Invalidate cached closed recipe.
+	 */
+	@Override
+	public void invalidateClosedRecipe(Integer closedRecipeId) {
+		closedRecipeCache.invalidate(closedRecipeId);
+	}
+	
+	/*
+	 * Invalidate cached closed recipes.
+	 */
+	@Override
+	public void invalidateClosedRecipes(List<Integer> closedRecipeIds) {
+		for (Integer closedRecipeId : closedRecipeIds) {
+			closedRecipeCache.invalidate(closedRecipeId);
+		}
 	}
 }
\ No newline at end of file
@@ -0,0 +1,780 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pizzaordering.ingredient.cache.EffectiveDiscountsChangedEvent;
+import com.pizzaordering.ingredient.data.ActiveDealRepository;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.entity.ActiveDeal;
+import com.pizzaordering.ingredient.scheduling.HashedTimerWheel;
+import com.pizzaordering.ingredient.service.DealRegistryService;
+import com.pizzaordering.ingredient.service.InvalidDealException;
+import com.pizzaordering.ingredient.service.OutboxService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Implementation of deal registry service layer interface.
+ * 
+ * Keeps registered deals by id and the effective discount of each ingredient in memory. Each deal is persisted once
+ * when registered; its activation and deactivation at start and end time are run in-process by a timer wheel and only
+ * swap the in-memory catalog of effective discounts, so no database write happens at the top of the hour. A deal is
+ * dropped from the registry once ended, so its id can be registered again for a next window. The registry is refreshed
+ * from database periodically, so deals registered, changed or unregistered by another instance take effect here too.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class DealRegistryServiceImpl implements DealRegistryService {
+	
+	/**
+	 * Logger of refresh failures.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(DealRegistryServiceImpl.class);
+	
+	/**
+	 * Name of refresh thread.
+	 */
+	private static final String REFRESH_NAME = "deal-registry-refresh";
+	
+	/**
+	 * Interface of active deal repository layer.
+	 */
+	@Autowired
+	ActiveDealRepository activeDealRepository;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Spring transaction manager, used to persist a batch of deal changes in one transaction.
+	 */
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	/**
+	 * Interface of outbox service layer.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Publisher of effective discounts changed events.
+	 */
+	@Autowired
+	ApplicationEventPublisher applicationEventPublisher;
+	
+	/**
+	 * Duration of a tick of deal scheduler, in milliseconds.
+	 */
+	@Value("${deal.scheduler.tick-ms:100}")
+	private long tickMillis;
+	
+	/**
+	 * Number of ticks per round of deal scheduler.
+	 */
+	@Value("${deal.scheduler.ticks-per-wheel:512}")
+	private int ticksPerWheel;
+	
+	/**
+	 * Time between refreshes of the registry from database, in milliseconds, none when not positive.
+	 */
+	@Value("${deal.registry.refresh-ms:30000}")
+	private long refreshMillis;
+	
+	/**
+	 * Lock guarding registered deals and catalog swaps. Held across database writes, so it is not a monitor: a virtual
+	 * thread blocked on JDBC while holding a monitor would pin its carrier thread.
+	 */
+	private final ReentrantLock registryLock = new ReentrantLock();
+	
+	/**
+	 * Registered deals by id. Only changed under the registry lock, concurrent so metrics can read its size.
+	 */
+	private final Map<Integer, RegisteredDeal> registeredDeals = new ConcurrentHashMap<Integer, RegisteredDeal>();
+	
+	/**
+	 * Catalog of effective percentage of discount by ingredient id, summed over active deals. Never mutated once
+	 * published, each deal change swaps in a new catalog.
+	 */
+	private volatile Map<Long, BigDecimal> effectiveDiscounts = Collections.emptyMap();
+	
+	/**
+	 * Scheduler of deal activation and deactivation.
+	 */
+	private HashedTimerWheel timerWheel;
+	
+	/**
+	 * Refresh thread, kept off the timer wheel so database reads never delay a transition.
+	 */
+	private ScheduledExecutorService refresher;
+	
+	/**
+	 * Lag between scheduled and actual activation of deals.
+	 */
+	private Timer activationLagTimer;
+	
+	/**
+	 * Lag between scheduled and actual deactivation of deals.
+	 */
+	private Timer deactivationLagTimer;
+	
+	/**
+	 * Start deal scheduler and reschedule deals persisted on database, purging the ones already ended.
+	 */
+	@PostConstruct
+	public void init() {
+		Iterable<ActiveDeal> persistedActiveDeals = activeDealRepository.findAll();
+		List<ActiveDeal> endedActiveDeals = new ArrayList<ActiveDeal>();
+		Map<Long, BigDecimal> discounts = new HashMap<Long, BigDecimal>();
+		Instant now = Instant.now();
+		
+		registryLock.lock();
+		
+		try {
+			timerWheel = new HashedTimerWheel("deal-scheduler", tickMillis, ticksPerWheel);
+			
+			activationLagTimer = Timer.builder("deal.activation.lag").tag("transition", "activation")
+					.description("Lag between scheduled and actual activation of deals").register(meterRegistry);
+			deactivationLagTimer = Timer.builder("deal.activation.lag").tag("transition", "deactivation")
+					.description("Lag between scheduled and actual deactivation of deals").register(meterRegistry);
+			
+			meterRegistry.gauge("deal.registry.registered", registeredDeals, Map::size);
+			
+			if (persistedActiveDeals != null) {
+				for (ActiveDeal activeDeal : persistedActiveDeals) {
+					if (activeDeal.getEndTime() != null && !activeDeal.getEndTime().isAfter(now)) {
+						endedActiveDeals.add(activeDeal);
+					} else {
+						schedule(activeDeal, now, discounts);
+					}
+				}
+			}
+			
+			publish(discounts);
+			
+			if (!endedActiveDeals.isEmpty()) {
+				activeDealRepository.deleteAll(endedActiveDeals);
+			}
+		} finally {
+			registryLock.unlock();
+		}
+		
+		if (refreshMillis > 0) {
+			refresher = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, REFRESH_NAME);
+				
+				thread.setDaemon(true);
+				
+				return thread;
+			});
+			refresher.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Stop deal scheduler and refresh thread.
+	 */
+	@PreDestroy
+	public void destroy() {
+		if (refresher != null) {
+			refresher.shutdownNow();
+		}
+		
+		timerWheel.stop();
+	}
+	
+	/*
+	 * Register deal, active right away or at its start time.
+	 */
+	@Override
+	public boolean registerDeal(DealPayload deal) {
+		ActiveDeal activeDeal = null;
+		Map<Long, BigDecimal> discounts = null;
+		Instant now = Instant.now();
+		
+		registryLock.lock();
+		
+		try {
+			validate(deal, now);
+			
+			if (registeredDeals.containsKey(deal.getId())) {
+				return false;
+			}
+			
+			activeDeal = toActiveDeal(deal);
+			
+			save(activeDeal);
+			
+			discounts = new HashMap<Long, BigDecimal>(effectiveDiscounts);
+			
+			schedule(activeDeal, now, discounts);
+			
+			publish(discounts);
+			
+			return true;
+		} finally {
+			registryLock.unlock();
+		}
+	}
+	
+	/*
+	 * Unregister deal, deactivating it when active.
+	 */
+	@Override
+	public boolean unregisterDeal(Integer dealId) {
+		RegisteredDeal registeredDeal = null;
+		Map<Long, BigDecimal> discounts = null;
+		
+		registryLock.lock();
+		
+		try {
+			registeredDeal = registeredDeals.get(dealId);
+			
+			if (registeredDeal == null) {
+				return false;
+			}
+			
+			delete(dealId);
+			
+			discounts = new HashMap<Long, BigDecimal>(effectiveDiscounts);
+			
+			unschedule(registeredDeal, discounts);
+			
+			publish(discounts);
+			
+			return true;
+		} finally {
+			registryLock.unlock();
+		}
+	}
+	
+	/*
+	 * Register and unregister a batch of deals, persisted in one transaction and published in one catalog swap.
+	 */
+	@Override
+	public void applyDeals(List<DealPayload> addedDeals, List<Integer> removedDealIds) {
+		List<ActiveDeal> addedActiveDeals = new ArrayList<ActiveDeal>();
+		List<RegisteredDeal> removedRegisteredDeals = new ArrayList<RegisteredDeal>();
+		List<ActiveDeal> removedActiveDeals = new ArrayList<ActiveDeal>();
+		Map<Long, BigDecimal> discounts = null;
+		RegisteredDeal registeredDeal = null;
+		Instant now = Instant.now();
+		
+		registryLock.lock();
+		
+		try {
+			for (Integer removedDealId : removedDealIds) {
+				registeredDeal = registeredDeals.get(removedDealId);
+				
+				if (registeredDeal != null && !removedRegisteredDeals.contains(registeredDeal)) {
+					removedRegisteredDeals.add(registeredDeal);
+					removedActiveDeals.add(registeredDeal.activeDeal);
+				}
+			}
+			
+			for (DealPayload deal : addedDeals) {
+				validate(deal, now);
+				
+				// Deals already registered are kept, unless rolled over on this same batch.
+				if (registeredDeals.containsKey(deal.getId()) && !removedDealIds.contains(deal.getId())) {
+					continue;
+				}
+				
+				for (ActiveDeal addedActiveDeal : addedActiveDeals) {
+					if (addedActiveDeal.getId().equals(deal.getId())) {
+						throw new InvalidDealException("Deal " + deal.getId() + " is repeated on batch.");
+					}
+				}
+				
+				addedActiveDeals.add(toActiveDeal(deal));
+			}
+			
+			// All or nothing on database, outbox events included, memory is only touched after commit.
+			new TransactionTemplate(transactionManager).execute(status -> {
+				if (!removedActiveDeals.isEmpty()) {
+					activeDealRepository.deleteAll(removedActiveDeals);
+					
+					for (ActiveDeal removedActiveDeal : removedActiveDeals) {
+						outboxService.appendDealRemovedEvent(removedActiveDeal.getId());
+					}
+				}
+				
+				if (!addedActiveDeals.isEmpty()) {
+					activeDealRepository.saveAll(addedActiveDeals);
+					
+					for (ActiveDeal addedActiveDeal : addedActiveDeals) {
+						outboxService.appendDealAddedEvents(addedActiveDeal);
+					}
+				}
+				
+				return null;
+			});
+			
+			discounts = new HashMap<Long, BigDecimal>(effectiveDiscounts);
+			
+			for (RegisteredDeal removedRegisteredDeal : removedRegisteredDeals) {
+				unschedule(removedRegisteredDeal, discounts);
+			}
+			
+			for (ActiveDeal addedActiveDeal : addedActiveDeals) {
+				schedule(addedActiveDeal, now, discounts);
+			}
+			
+			publish(discounts);
+		} finally {
+			registryLock.unlock();
+		}
+	}
+	
+	/*
+	 * Refresh registry from database, in one catalog swap:
+	 * > Register deals persisted and not ended that are not registered, or registered with another window or discounts.
+	 * > Unregister deals no longer persisted.
+	 * > Read under the registry lock, so a deal registered here meanwhile is never taken as removed.
+	 */
+	@Override
+	public void refreshDeals() {
+		Map<Integer, ActiveDeal> persistedActiveDeals = new HashMap<Integer, ActiveDeal>();
+		Map<Long, BigDecimal> discounts = null;
+		RegisteredDeal registeredDeal = null;
+		Instant now = Instant.now();
+		
+		registryLock.lock();
+		
+		try {
+			for (ActiveDeal activeDeal : activeDealRepository.findAll()) {
+				persistedActiveDeals.put(activeDeal.getId(), activeDeal);
+			}
+			
+			discounts = new HashMap<Long, BigDecimal>(effectiveDiscounts);
+			
+			for (RegisteredDeal removedRegisteredDeal : new ArrayList<RegisteredDeal>(registeredDeals.values())) {
+				if (!persistedActiveDeals.containsKey(removedRegisteredDeal.activeDeal.getId())) {
+					unschedule(removedRegisteredDeal, discounts);
+				}
+			}
+			
+			for (ActiveDeal activeDeal : persistedActiveDeals.values()) {
+				registeredDeal = registeredDeals.get(activeDeal.getId());
+				
+				if (registeredDeal != null && isSameDeal(registeredDeal.activeDeal, activeDeal)) {
+					continue;
+				}
+				
+				if (registeredDeal != null) {
+					unschedule(registeredDeal, discounts);
+				}
+				
+				// Ended deals are left to be purged on next startup.
+				if (activeDeal.getEndTime() == null || activeDeal.getEndTime().isAfter(now)) {
+					schedule(activeDeal, now, discounts);
+				}
+			}
+			
+			publish(discounts);
+		} finally {
+			registryLock.unlock();
+		}
+	}
+	
+	/*
+	 * Get effective discount of ingredient.
+	 */
+	@Override
+	public BigDecimal getEffectiveDiscount(Long ingredientId) {
+		return effectiveDiscounts.getOrDefault(ingredientId, BigDecimal.ZERO);
+	}
+	
+	/*
+	 * Get catalog of effective discounts.
+	 */
+	@Override
+	public Map<Long, BigDecimal> getEffectiveDiscounts() {
+		return effectiveDiscounts;
+	}
+	
+	/**
+	 * Save active deal with its outbox events in a single transaction.
+	 * 
+	 * @param activeDeal Active deal.
+	 */
+	private void save(ActiveDeal activeDeal) {
+		new TransactionTemplate(transactionManager).execute(status -> {
+			activeDealRepository.save(activeDeal);
+			outboxService.appendDealAddedEvents(activeDeal);
+			
+			return null;
+		});
+	}
+	
+	/**
+	 * Delete active deal with its outbox event in a single transaction.
+	 * 
+	 * @param dealId Id of deal.
+	 */
+	private void delete(Integer dealId) {
+		new TransactionTemplate(transactionManager).execute(status -> {
+			activeDealRepository.deleteById(dealId);
+			outboxService.appendDealRemovedEvent(dealId);
+			
+			return null;
+		});
+	}
+	
+	/**
+	 * Validate deal to be registered.
+	 * 
+	 * @param deal Deal with discount ingredients.
+	 * @param now Current moment.
+	 */
+	private void validate(DealPayload deal, Instant now) {
+		if (deal.getId() == null) {
+			throw new InvalidDealException("Deal id is required to register a deal.");
+		}
+		
+		if (deal.getEndTime() != null && !deal.getEndTime().isAfter(now)) {
+			throw new InvalidDealException("Deal " + deal.getId() + " already ended.");
+		}
+		
+		if (deal.getStartTime() != null && deal.getEndTime() != null && !deal.getStartTime().isBefore(deal.getEndTime())) {
+			throw new InvalidDealException("Deal " + deal.getId() + " must start before it ends.");
+		}
+	}
+	
+	/**
+	 * Register active deal, activating it now or scheduling its activation, and scheduling its deactivation.
+	 * 
+	 * @param activeDeal Active deal.
+	 * @param now Current moment.
+	 * @param discounts Catalog of effective discounts being built.
+	 */
+	private void schedule(ActiveDeal activeDeal, Instant now, Map<Long, BigDecimal> discounts) {
+		RegisteredDeal registeredDeal = new RegisteredDeal(activeDeal);
+		Integer dealId = activeDeal.getId();
+		Instant startTime = activeDeal.getStartTime();
+		Instant endTime = activeDeal.getEndTime();
+		
+		registeredDeals.put(dealId, registeredDeal);
+		
+		if (startTime == null || !startTime.isAfter(now)) {
+			registeredDeal.active = true;
+			
+			applyDiscounts(discounts, activeDeal, false);
+		} else {
+			registeredDeal.activationTimeout = timerWheel.schedule(() -> onActivation(registeredDeal, startTime),
+					Duration.between(now, startTime).toMillis());
+		}
+		
+		if (endTime != null) {
+			registeredDeal.deactivationTimeout = timerWheel.schedule(() -> onDeactivation(registeredDeal, endTime),
+					Duration.between(now, endTime).toMillis());
+		}
+	}
+	
+	/**
+	 * Unregister deal, cancelling its scheduled transitions and subtracting its discounts when active.
+	 * 
+	 * @param registeredDeal Registered deal.
+	 * @param discounts Catalog of effective discounts being built.
+	 */
+	private void unschedule(RegisteredDeal registeredDeal, Map<Long, BigDecimal> discounts) {
+		registeredDeals.remove(registeredDeal.activeDeal.getId());
+		
+		registeredDeal.cancelTimeouts();
+		
+		if (registeredDeal.active) {
+			registeredDeal.active = false;
+			
+			// Subtract discounts as registered, whatever the caller sends now.
+			applyDiscounts(discounts, registeredDeal.activeDeal, true);
+		}
+	}
+	
+	/**
+	 * Activate deal at its start time, called by deal scheduler.
+	 * 
+	 * @param registeredDeal Registered deal.
+	 * @param startTime Moment deal starts.
+	 */
+	private void onActivation(RegisteredDeal registeredDeal, Instant startTime) {
+		Map<Long, BigDecimal> discounts = null;
+		
+		registryLock.lock();
+		
+		try {
+			// Skip deals unregistered or replaced since scheduled.
+			if (registeredDeals.get(registeredDeal.activeDeal.getId()) != registeredDeal || registeredDeal.active) {
+				return;
+			}
+			
+			registeredDeal.active = true;
+			
+			discounts = new HashMap<Long, BigDecimal>(effectiveDiscounts);
+			
+			applyDiscounts(discounts, registeredDeal.activeDeal, false);
+			
+			publish(discounts);
+			
+			activationLagTimer.record(Duration.between(startTime, Instant.now()));
+		} finally {
+			registryLock.unlock();
+		}
+	}
+	
+	/**
+	 * Deactivate deal at its end time and drop it from the registry, called by deal scheduler. Its row is left on
+	 * database, overwritten when the deal is registered again and purged on next startup otherwise.
+	 * 
+	 * @param registeredDeal Registered deal.
+	 * @param endTime Moment deal ends.
+	 */
+	private void onDeactivation(RegisteredDeal registeredDeal, Instant endTime) {
+		Map<Long, BigDecimal> discounts = null;
+		
+		registryLock.lock();
+		
+		try {
+			// Skip deals unregistered or replaced since scheduled.
+			if (registeredDeals.get(registeredDeal.activeDeal.getId()) != registeredDeal) {
+				return;
+			}
+			
+			registeredDeals.remove(registeredDeal.activeDeal.getId());
+			
+			registeredDeal.cancelTimeouts();
+			
+			if (registeredDeal.active) {
+				registeredDeal.active = false;
+				
+				discounts = new HashMap<Long, BigDecimal>(effectiveDiscounts);
+				
+				applyDiscounts(discounts, registeredDeal.activeDeal, true);
+				
+				publish(discounts);
+			}
+			
+			deactivationLagTimer.record(Duration.between(endTime, Instant.now()));
+		} finally {
+			registryLock.unlock();
+		}
+	}
+	
+	/**
+	 * Refresh registry, called by refresh thread.
+	 */
+	private void refresh() {
+		try {
+			refreshDeals();
+		} catch (RuntimeException e) {
+			// An exception would cancel the schedule, the registry is refreshed again on next run.
+			LOGGER.warn("Deal registry refresh failed, retrying on next run.", e);
+		}
+	}
+	
+	/**
+	 * Compare window and discounts of two deals, ignoring scale of discounts and fractions of second of the window.
+	 * 
+	 * @param activeDeal Active deal.
+	 * @param otherActiveDeal Other active deal.
+	 * @return Whether both deals have the same window and discounts.
+	 */
+	private static boolean isSameDeal(ActiveDeal activeDeal, ActiveDeal otherActiveDeal) {
+		BigDecimal otherPercentageDiscount = null;
+		
+		if (!Objects.equals(truncate(activeDeal.getStartTime()), truncate(otherActiveDeal.getStartTime()))
+				|| !Objects.equals(truncate(activeDeal.getEndTime()), truncate(otherActiveDeal.getEndTime()))
+				|| activeDeal.getPercentageDiscountMap().size() != otherActiveDeal.getPercentageDiscountMap().size()) {
+			return false;
+		}
+		
+		for (Map.Entry<Long, BigDecimal> entry : activeDeal.getPercentageDiscountMap().entrySet()) {
+			otherPercentageDiscount = otherActiveDeal.getPercentageDiscountMap().get(entry.getKey());
+			
+			if (otherPercentageDiscount == null || otherPercentageDiscount.compareTo(entry.getValue()) != 0) {
+				return false;
+			}
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Truncate moment to seconds, the precision a database may keep it with.
+	 * 
+	 * @param moment Moment, or null.
+	 * @return Moment truncated to seconds, or null.
+	 */
+	private static Instant truncate(Instant moment) {
+		return moment == null ? null : moment.truncatedTo(ChronoUnit.SECONDS);
+	}
+	
+	/**
+	 * Add or subtract discounts of an active deal on a catalog of effective discounts being built.
+	 * 
+	 * @param discounts Catalog of effective discounts being built.
+	 * @param activeDeal Active deal.
+	 * @param subtract Whether discounts must be subtracted.
+	 */
+	private void applyDiscounts(Map<Long, BigDecimal> discounts, ActiveDeal activeDeal, boolean subtract) {
+		BigDecimal percentageDiscount = null;
+		
+		for (Map.Entry<Long, BigDecimal> entry : activeDeal.getPercentageDiscountMap().entrySet()) {
+			percentageDiscount = subtract ? entry.getValue().negate() : entry.getValue();
+			
+			discounts.merge(entry.getKey(), percentageDiscount, BigDecimal::add);
+			discounts.computeIfPresent(entry.getKey(),
+					(ingredientId, effectiveDiscount) -> effectiveDiscount.signum() == 0 ? null : effectiveDiscount);
+		}
+	}
+	
+	/**
+	 * Publish catalog of effective discounts, swapping the one read by pricing, and notify the ingredients whose
+	 * effective discount changed.
+	 * 
+	 * @param discounts Catalog of effective discounts built.
+	 */
+	private void publish(Map<Long, BigDecimal> discounts) {
+		Map<Long, BigDecimal> previousDiscounts = effectiveDiscounts;
+		Set<Long> changedIngredientIds = new HashSet<Long>();
+		BigDecimal previousDiscount = null;
+		
+		effectiveDiscounts = Collections.unmodifiableMap(discounts);
+		
+		for (Map.Entry<Long, BigDecimal> entry : discounts.entrySet()) {
+			previousDiscount = previousDiscounts.get(entry.getKey());
+			
+			if (previousDiscount == null || previousDiscount.compareTo(entry.getValue()) != 0) {
+				changedIngredientIds.add(entry.getKey());
+			}
+		}
+		
+		for (Long ingredientId : previousDiscounts.keySet()) {
+			if (!discounts.containsKey(ingredientId)) {
+				changedIngredientIds.add(ingredientId);
+			}
+		}
+		
+		if (!changedIngredientIds.isEmpty()) {
+			applicationEventPublisher.publishEvent(new EffectiveDiscountsChangedEvent(this, changedIngredientIds));
+		}
+	}
+	
+	/**
+	 * Convert deal to active deal.
+	 * 
+	 * @param deal Deal with discount ingredients.
+	 * @return Active deal.
+	 */
+	private ActiveDeal toActiveDeal(DealPayload deal) {
+		ActiveDeal activeDeal = new ActiveDeal();
+		Map<Long, BigDecimal> percentageDiscountMap = new HashMap<Long, BigDecimal>();
+		
+		for (int position = 0; position < deal.getIngredientCount(); position++) {
+			if (deal.getDiscountPercentage(position) != null) {
+				percentageDiscountMap.put(deal.getIngredientId(position), deal.getDiscountPercentage(position));
+			}
+		}
+		
+		activeDeal.setId(deal.getId());
+		activeDeal.setDescription(deal.getDescription());
+		activeDeal.setStartTime(deal.getStartTime());
+		activeDeal.setEndTime(deal.getEndTime());
+		activeDeal.setPercentageDiscountMap(percentageDiscountMap);
+		
+		return activeDeal;
+	}
+	
+	/**
+	 * Deal registered on registry, guarded by the registry lock.
+	 */
+	private static class RegisteredDeal {
+		
+		/**
+		 * Active deal persisted.
+		 */
+		private final ActiveDeal activeDeal;
+		
+		/**
+		 * Whether discounts of deal are on the catalog of effective discounts.
+		 */
+		private boolean active;
+		
+		/**
+		 * Scheduled activation, or null.
+		 */
+		private HashedTimerWheel.Timeout activationTimeout;
+		
+		/**
+		 * Scheduled deactivation, or null.
+		 */
+		private HashedTimerWheel.Timeout deactivationTimeout;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param activeDeal Active deal persisted.
+		 */
+		private RegisteredDeal(ActiveDeal activeDeal) {
+			this.activeDeal = activeDeal;
+		}
+		
+		/**
+		 * Cancel scheduled activation and deactivation.
+		 */
+		private void cancelTimeouts() {
+			if (activationTimeout != null) {
+				activationTimeout.cancel();
+			}
+			
+			if (deactivationTimeout != null) {
+				deactivationTimeout.cancel();
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,360 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.pizzaordering.ingredient.data.IngredientImportRepository;
+import com.pizzaordering.ingredient.domain.IngredientImportError;
+import com.pizzaordering.ingredient.domain.IngredientImportReport;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.service.IngredientImportService;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.util.IngredientImportFormatEnum;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+/**
+ * Implementation of ingredient import service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class IngredientImportServiceImpl implements IngredientImportService {
+	
+	/**
+	 * Maximum length of description, as the column holding it.
+	 */
+	private static final int DESCRIPTION_MAX_LENGTH = 255;
+	
+	/**
+	 * Repository inserting ingredients in JDBC batches.
+	 */
+	@Autowired
+	IngredientImportRepository ingredientImportRepository;
+	
+	/**
+	 * Interface of low stock service layer, checking every ingredient imported.
+	 */
+	@Autowired
+	LowStockService lowStockService;
+	
+	/**
+	 * Interface of outbox service layer, describing every ingredient imported.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Manager of transactions, one per batch.
+	 */
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	/**
+	 * JSON mapper of ingredients imported.
+	 */
+	@Autowired
+	ObjectMapper objectMapper;
+	
+	/**
+	 * Number of rows inserted per JDBC batch.
+	 */
+	@Value("${ingredient.import.batch-size:1000}")
+	private int batchSize;
+	
+	/**
+	 * Maximum number of errors listed on report, every error being counted anyway.
+	 */
+	@Value("${ingredient.import.max-reported-errors:1000}")
+	private int maxReportedErrors;
+	
+	/**
+	 * Reader of an ingredient from a JSON row.
+	 */
+	private ObjectReader jsonIngredientReader;
+	
+	/**
+	 * Reader of ingredients from CSV rows with a header.
+	 */
+	private ObjectReader csvIngredientReader;
+	
+	/**
+	 * Build readers of ingredients.
+	 */
+	@PostConstruct
+	public void init() {
+		jsonIngredientReader = objectMapper.readerFor(Ingredient.class);
+		csvIngredientReader = new CsvMapper().readerFor(Ingredient.class).with(CsvSchema.emptySchema().withHeader());
+	}
+	
+	/*
+	 * Import ingredients:
+	 * > Parse one row at a time, never holding more than a batch of ingredients.
+	 * > Reject invalid rows and keep going.
+	 * > Insert valid rows in JDBC batches, each batch committed on its own with an inventory and a price outbox event
+	 * per row, so change stream consumers learn about imported ingredients.
+	 * > Check stock of every ingredient of a committed batch, so one imported at or below its threshold is alerted.
+	 */
+	@Override
+	public IngredientImportReport importIngredients(InputStream inputStream, IngredientImportFormatEnum format)
+			throws IOException {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8));
+		ImportRun importRun = new ImportRun();
+		
+		if (format == IngredientImportFormatEnum.CSV) {
+			readCsv(reader, importRun);
+		} else {
+			readNdjson(reader, importRun);
+		}
+		
+		importRun.flush();
+		
+		return importRun.report;
+	}
+	
+	/**
+	 * Read newline delimited JSON rows, a malformed line only rejecting itself.
+	 * 
+	 * @param reader Reader of rows.
+	 * @param importRun Import being run.
+	 * @throws IOException When rows can not be read.
+	 */
+	private void readNdjson(BufferedReader reader, ImportRun importRun) throws IOException {
+		String line = null;
+		long rowNumber = 0;
+		
+		while ((line = reader.readLine()) != null) {
+			rowNumber++;
+			
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			
+			try {
+				importRun.accept(rowNumber, jsonIngredientReader.readValue(line));
+			} catch (JsonProcessingException e) {
+				importRun.reject(rowNumber, "Malformed row: " + e.getOriginalMessage());
+			}
+		}
+	}
+	
+	/**
+	 * Read CSV rows, header row naming ingredient properties and not being counted.
+	 * 
+	 * @param reader Reader of rows.
+	 * @param importRun Import being run.
+	 * @throws IOException When rows can not be read.
+	 */
+	private void readCsv(BufferedReader reader, ImportRun importRun) throws IOException {
+		MappingIterator<Ingredient> iterator = csvIngredientReader.readValues(reader);
+		long rowNumber = 0;
+		long offset = -1;
+		
+		while (true) {
+			rowNumber++;
+			
+			try {
+				if (!iterator.hasNextValue()) {
+					return;
+				}
+				
+				importRun.accept(rowNumber, iterator.nextValue());
+			} catch (JsonProcessingException e) {
+				importRun.reject(rowNumber, "Malformed row: " + e.getOriginalMessage());
+				
+				// Parser could not move past the bad row, nothing after it can be trusted.
+				if (iterator.getCurrentLocation().getCharOffset() == offset) {
+					importRun.reject(rowNumber, "Import stopped, rows after this one could not be read.");
+					
+					return;
+				}
+			}
+			
+			offset = iterator.getCurrentLocation().getCharOffset();
+		}
+	}
+	
+	/**
+	 * Validate row.
+	 * 
+	 * @param ingredient Ingredient of row.
+	 * @return Reason row is invalid, or null when valid.
+	 */
+	private String validate(Ingredient ingredient) {
+		if (ingredient == null) {
+			return "Row is empty.";
+		}
+		
+		if (ingredient.getId() != null) {
+			return "Id is generated and must not be sent.";
+		}
+		
+		if (ingredient.getDescription() == null || ingredient.getDescription().trim().isEmpty()) {
+			return "Description is required.";
+		}
+		
+		if (ingredient.getDescription().length() > DESCRIPTION_MAX_LENGTH) {
+			return "Description must have at most " + DESCRIPTION_MAX_LENGTH + " characters.";
+		}
+		
+		if (ingredient.getType() == null) {
+			return "Type is required.";
+		}
+		
+		if (ingredient.getPortionQuantity() == null || ingredient.getPortionQuantity() < 0) {
+			return "Portion quantity is required and must not be negative.";
+		}
+		
+		if (ingredient.getPortionPrice() == null || ingredient.getPortionPrice().signum() < 0) {
+			return "Portion price is required and must not be negative.";
+		}
+		
+		if (ingredient.getPercentageDiscount() != null && (ingredient.getPercentageDiscount().signum() < 0
+				|| ingredient.getPercentageDiscount().compareTo(BigDecimal.valueOf(100)) > 0)) {
+			return "Percentage discount must be between 0 and 100.";
+		}
+		
+		if (ingredient.getReorderThreshold() != null && ingredient.getReorderThreshold() < 0) {
+			return "Reorder threshold must not be negative.";
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * State of an import being run: current batch and report.
+	 */
+	private class ImportRun {
+		
+		/**
+		 * Report of import.
+		 */
+		private final IngredientImportReport report = new IngredientImportReport();
+		
+		/**
+		 * Ingredients of current batch.
+		 */
+		private final List<Ingredient> batch = new ArrayList<Ingredient>(batchSize);
+		
+		/**
+		 * Numbers of rows of current batch.
+		 */
+		private final List<Long> batchRowNumbers = new ArrayList<Long>(batchSize);
+		
+		/**
+		 * Constructor.
+		 */
+		private ImportRun() {
+			report.setImportedCount(0L);
+			report.setFailedCount(0L);
+			report.setErrors(new ArrayList<IngredientImportError>());
+		}
+		
+		/**
+		 * Validate row and add it to current batch, inserting the batch once full.
+		 * 
+		 * @param rowNumber Number of row.
+		 * @param ingredient Ingredient of row.
+		 */
+		private void accept(long rowNumber, Ingredient ingredient) {
+			String message = validate(ingredient);
+			
+			if (message != null) {
+				reject(rowNumber, message);
+				
+				return;
+			}
+			
+			batch.add(ingredient);
+			batchRowNumbers.add(rowNumber);
+			
+			if (batch.size() >= batchSize) {
+				flush();
+			}
+		}
+		
+		/**
+		 * Count row as rejected, listing it while under the maximum of reported errors.
+		 * 
+		 * @param rowNumber Number of row.
+		 * @param message Reason row was rejected.
+		 */
+		private void reject(long rowNumber, String message) {
+			report.setFailedCount(report.getFailedCount() + 1);
+			
+			if (report.getErrors().size() < maxReportedErrors) {
+				report.getErrors().add(new IngredientImportError(rowNumber, message));
+			}
+		}
+		
+		/**
+		 * Insert current batch with its outbox events in a single transaction and check stock of its ingredients,
+		 * rejecting all its rows when database refuses it.
+		 */
+		private void flush() {
+			if (batch.isEmpty()) {
+				return;
+			}
+			
+			try {
+				new TransactionTemplate(transactionManager).execute(status -> {
+					ingredientImportRepository.insertIngredients(batch);
+					
+					for (Ingredient ingredient : batch) {
+						outboxService.appendIngredientEvent(OutboxEventTypeEnum.INVENTORY, ingredient);
+						outboxService.appendIngredientEvent(OutboxEventTypeEnum.PRICE, ingredient);
+					}
+					
+					return null;
+				});
+				
+				report.setImportedCount(report.getImportedCount() + batch.size());
+				
+				for (Ingredient ingredient : batch) {
+					lowStockService.checkStock(ingredient);
+				}
+			} catch (DataAccessException e) {
+				for (Long rowNumber : batchRowNumbers) {
+					reject(rowNumber, "Rejected by database: " + e.getMostSpecificCause().getMessage());
+				}
+			}
+			
+			batch.clear();
+			batchRowNumbers.clear();
+		}
+	}
+}
\ No newline at end of file
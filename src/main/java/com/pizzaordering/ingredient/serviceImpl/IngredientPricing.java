@@ -0,0 +1,77 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Pricing rules shared by the servlet and reactive ingredient service layers.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+final class IngredientPricing {
+	
+	/**
+	 * Not instantiable.
+	 */
+	private IngredientPricing() {
+	}
+	
+	/**
+	 * Calculate price of a portion of ingredient, considering the effective discount of active deals.
+	 * 
+	 * @param ingredient Ingredient.
+	 * @param effectiveDiscounts Catalog of effective discounts of active deals, taken once per order.
+	 * @return Price of a portion of ingredient with discounts.
+	 */
+	static BigDecimal calculatePortionPrice(Ingredient ingredient, Map<Long, BigDecimal> effectiveDiscounts) {
+		return calculatePortionPrice(ingredient.getId(), ingredient.getPortionPrice(), effectiveDiscounts);
+	}
+	
+	/**
+	 * Calculate price of a portion of ingredient from its pricing columns, considering the effective discount of
+	 * active deals.
+	 * 
+	 * @param ingredientPrice Pricing columns of ingredient.
+	 * @param effectiveDiscounts Catalog of effective discounts of active deals, taken once per order.
+	 * @return Price of a portion of ingredient with discounts.
+	 */
+	static BigDecimal calculatePortionPrice(IngredientPrice ingredientPrice, Map<Long, BigDecimal> effectiveDiscounts) {
+		return calculatePortionPrice(ingredientPrice.getId(), ingredientPrice.getPortionPrice(), effectiveDiscounts);
+	}
+	
+	/**
+	 * Calculate price of a portion of ingredient. The percentage of discount column of ingredient is never read: it
+	 * used to hold the sum of deals, so it may still carry deals long ended.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionPrice Price of a portion of ingredient.
+	 * @param effectiveDiscounts Catalog of effective discounts of active deals, taken once per order.
+	 * @return Price of a portion of ingredient with discounts.
+	 */
+	private static BigDecimal calculatePortionPrice(Long id, BigDecimal portionPrice,
+			Map<Long, BigDecimal> effectiveDiscounts) {
+		BigDecimal percentageDiscount = effectiveDiscounts.getOrDefault(id, BigDecimal.ZERO);
+		
+		if (percentageDiscount.compareTo(BigDecimal.ZERO) > 0) {
+			return portionPrice.multiply(
+					BigDecimal.valueOf(100).subtract(percentageDiscount).divide(BigDecimal.valueOf(100)));
+		}
+		
+		return portionPrice;
+	}
+}
\ No newline at end of file
@@ -13,21 +13,65 @@
 package com.pizzaordering.ingredient.serviceImpl;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
 
+import com.pizzaordering.ingredient.cache.ClosedRecipeRefreshedEvent;
+import com.pizzaordering.ingredient.cache.EffectiveDiscountsChangedEvent;
+import com.pizzaordering.ingredient.cache.IngredientCache;
+import com.pizzaordering.ingredient.cache.IngredientVersionIndex;
+import com.pizzaordering.ingredient.cache.RecipeCostIndex;
+import com.pizzaordering.ingredient.cache.RecipeCostIndex.RecipeCost;
+import com.pizzaordering.ingredient.data.IngredientExportRepository;
 import com.pizzaordering.ingredient.data.IngredientRepository;
 import com.pizzaordering.ingredient.domain.ClosedRecipe;
 import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
-import com.pizzaordering.ingredient.domain.Deal;
-import com.pizzaordering.ingredient.domain.DealIngredient;
-import com.pizzaordering.ingredient.domain.Order;
-import com.pizzaordering.ingredient.domain.OrderCustomization;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.DealBatch;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.IngredientPage;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.domain.IngredientVersion;
+import com.pizzaordering.ingredient.domain.LongKeyedMap;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.domain.RecipePrice;
 import com.pizzaordering.ingredient.entity.Ingredient;
 import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.DealRegistryService;
 import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.service.InvalidDealException;
+import com.pizzaordering.ingredient.service.InventoryMovementService;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.util.IngredientSortEnum;
+import com.pizzaordering.ingredient.util.InventoryMovementReasonEnum;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
 import com.pizzaordering.ingredient.util.OrderCustomizationTypeEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
 
 /**
  * Implementation of ingredient service layer interface.
@@ -50,32 +94,453 @@ public class IngredientServiceImpl implements IngredientService {
 	@Autowired
 	IngredientRepository ingredientRepository;
 	
+	/**
+	 * Repository streaming ingredients through a JDBC cursor.
+	 */
+	@Autowired
+	IngredientExportRepository ingredientExportRepository;
+	
+	/**
+	 * Interface of deal registry service layer.
+	 */
+	@Autowired
+	DealRegistryService dealRegistryService;
+	
+	/**
+	 * Interface of inventory movement service layer.
+	 */
+	@Autowired
+	InventoryMovementService inventoryMovementService;
+	
+	/**
+	 * Interface of outbox service layer.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Interface of low stock service layer.
+	 */
+	@Autowired
+	LowStockService lowStockService;
+	
+	/**
+	 * Manager of transactions, each inventory or price change being committed with its outbox events.
+	 */
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	/**
+	 * Time to live of cached ingredients, in milliseconds.
+	 */
+	@Value("${ingredient.cache.ttl-ms:60000}")
+	private long cacheTimeToLiveMillis;
+	
+	/**
+	 * Maximum number of cached ingredients.
+	 */
+	@Value("${ingredient.cache.max-size:10000}")
+	private int cacheMaxSize;
+	
+	/**
+	 * In-process cache of ingredients, written through by every save of this service.
+	 */
+	private IngredientCache ingredientCache;
+	
+	/**
+	 * In-memory index of ingredient versions, written through along with the cache.
+	 */
+	private IngredientVersionIndex ingredientVersionIndex;
+	
+	/**
+	 * In-memory index of the cost of closed recipes, updated by every price change of this service and every change of
+	 * effective discounts.
+	 */
+	private RecipeCostIndex recipeCostIndex;
+	
+	/**
+	 * Build cache and version index of ingredients, and cost index of closed recipes.
+	 */
+	@PostConstruct
+	public void init() {
+		ingredientCache = new IngredientCache(cacheTimeToLiveMillis, cacheMaxSize);
+		ingredientVersionIndex = new IngredientVersionIndex(cacheTimeToLiveMillis);
+		recipeCostIndex = new RecipeCostIndex(closedRecipeClientService::getClosedRecipe, this::loadIngredientPrices,
+				ingredientPrice -> IngredientPricing.calculatePortionPrice(ingredientPrice,
+						dealRegistryService.getEffectiveDiscounts()),
+				cacheTimeToLiveMillis);
+	}
+	
+	/**
+	 * Drop cost of a refetched closed recipe, its portions may have changed.
+	 * 
+	 * @param event Closed recipe refreshed event.
+	 */
+	@EventListener
+	public void onClosedRecipeRefreshed(ClosedRecipeRefreshedEvent event) {
+		recipeCostIndex.evictClosedRecipe(event.getClosedRecipeId());
+	}
+	
+	/**
+	 * Reprice closed recipes containing ingredients whose effective discount changed.
+	 * 
+	 * @param event Effective discounts changed event.
+	 */
+	@EventListener
+	public void onEffectiveDiscountsChanged(EffectiveDiscountsChangedEvent event) {
+		recipeCostIndex.repriceIngredients(event.getIngredientIds());
+	}
+	
 	/*
-	 * Save ingredient on database.
+	 * Save ingredient on database with its inventory and price outbox events, recording its initial inventory.
 	 */
 	public Ingredient addIngredient(Ingredient ingredient) {
-		return ingredientRepository.save(ingredient);
+		Ingredient savedIngredient = saveIngredient(ingredient, OutboxEventTypeEnum.INVENTORY,
+				OutboxEventTypeEnum.PRICE);
+		
+		if (savedIngredient.getPortionQuantity() != null) {
+			inventoryMovementService.recordMovement(savedIngredient.getId(), savedIngredient.getPortionQuantity(),
+					InventoryMovementReasonEnum.CREATE, null);
+		}
+		
+		return savedIngredient;
 	}
 	
 	/*
-	 * Get ingredient from database.
+	 * Get ingredient from cache, or from database when not cached.
 	 */
 	public Ingredient getIngredient(Long id) {
-		return ingredientRepository.findById(id).get();
+		Ingredient ingredient = ingredientCache.get(id);
+		
+		if (ingredient == null) {
+			ingredient = ingredientRepository.findById(id).get();
+			
+			cacheIngredient(ingredient);
+		} else if (ingredientVersionIndex.get(id) == null) {
+			ingredientVersionIndex.record(ingredient);
+		}
+		
+		return ingredient;
+	}
+	
+	/*
+	 * Get version of ingredient from version index only.
+	 */
+	@Override
+	public IngredientVersion getIngredientVersion(Long id) {
+		return ingredientVersionIndex.get(id);
 	}
 	
 	/*
-	 * Update ingredient on database.
+	 * Get version of several ingredients from version index only, unknown as soon as one of them is not indexed.
+	 */
+	@Override
+	public IngredientVersion getIngredientsVersion(List<Long> ids) {
+		List<IngredientVersion> ingredientVersions = new ArrayList<IngredientVersion>(ids.size());
+		IngredientVersion ingredientVersion = null;
+		
+		for (Long id : ids) {
+			ingredientVersion = ingredientVersionIndex.get(id);
+			
+			if (ingredientVersion == null) {
+				return null;
+			}
+			
+			ingredientVersions.add(ingredientVersion);
+		}
+		
+		return IngredientVersionIndex.combine(ingredientVersions, null);
+	}
+	
+	/*
+	 * Get version of page of ingredients from its content and keyset of next page.
+	 */
+	@Override
+	public IngredientVersion getIngredientPageVersion(IngredientPage ingredientPage) {
+		List<IngredientVersion> ingredientVersions = new ArrayList<IngredientVersion>();
+		
+		for (Ingredient ingredient : ingredientPage.getIngredients()) {
+			ingredientVersions.add(ingredientVersionIndex.record(ingredient));
+		}
+		
+		return IngredientVersionIndex.combine(ingredientVersions,
+				ingredientPage.getNextAfterId() + "|" + ingredientPage.getNextAfterPortionQuantity());
+	}
+	
+	/*
+	 * Get ingredients in request order:
+	 * > Resolve ids from cache first.
+	 * > Load cache misses from database in a single query.
+	 * > Mark ids not found instead of failing the whole request.
+	 */
+	@Override
+	public List<IngredientLookup> getIngredients(List<Long> ids) {
+		Map<Long, Ingredient> ingredientMap = new HashMap<Long, Ingredient>();
+		Set<Long> missedIds = new LinkedHashSet<Long>();
+		List<IngredientLookup> ingredientLookups = new ArrayList<IngredientLookup>(ids.size());
+		Ingredient ingredient = null;
+		
+		for (Long id : ids) {
+			ingredient = ingredientCache.get(id);
+			
+			if (ingredient != null) {
+				ingredientMap.put(id, ingredient);
+			} else {
+				missedIds.add(id);
+			}
+		}
+		
+		if (!missedIds.isEmpty()) {
+			for (Ingredient loadedIngredient : ingredientRepository.findAllById(missedIds)) {
+				ingredientMap.put(loadedIngredient.getId(), loadedIngredient);
+				
+				cacheIngredient(loadedIngredient);
+			}
+		}
+		
+		for (Long id : ids) {
+			ingredientLookups.add(new IngredientLookup(id, ingredientMap.get(id)));
+		}
+		
+		return ingredientLookups;
+	}
+	
+	/*
+	 * List page of ingredients:
+	 * > Seek past keyset of previous page instead of skipping rows, so every page costs the same.
+	 * > Fetch one extra row to know whether there is a next page.
+	 * > Sorted by stock level, list rows without one first by id, a keyset without quantity of portion seeking among
+	 * them, then go on from the lowest stock level.
+	 */
+	@Override
+	public IngredientPage getIngredientPage(Character type, IngredientSortEnum sort, Long afterId,
+			Integer afterPortionQuantity, int limit) {
+		IngredientPage ingredientPage = new IngredientPage();
+		PageRequest pageRequest = PageRequest.of(0, limit + 1);
+		List<Ingredient> ingredients = null;
+		Ingredient lastIngredient = null;
+		long seekId = afterId == null ? 0 : afterId;
+		
+		if (sort == IngredientSortEnum.PORTION_QUANTITY && afterPortionQuantity == null) {
+			ingredients = type == null
+					? ingredientRepository.findByPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc(seekId, pageRequest)
+					: ingredientRepository.findByTypeAndPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc(type, seekId,
+							pageRequest);
+			
+			if (ingredients.size() <= limit) {
+				ingredients = new ArrayList<Ingredient>(ingredients);
+				ingredients.addAll(findPageOrderByPortionQuantity(type, Integer.MIN_VALUE, 0,
+						PageRequest.of(0, limit + 1 - ingredients.size())));
+			}
+		} else if (sort == IngredientSortEnum.PORTION_QUANTITY) {
+			ingredients = findPageOrderByPortionQuantity(type, afterPortionQuantity, seekId, pageRequest);
+		} else {
+			ingredients = type == null
+					? ingredientRepository.findByIdGreaterThanOrderByIdAsc(seekId, pageRequest)
+					: ingredientRepository.findByTypeAndIdGreaterThanOrderByIdAsc(type, seekId, pageRequest);
+		}
+		
+		if (ingredients.size() > limit) {
+			ingredients = new ArrayList<Ingredient>(ingredients.subList(0, limit));
+			lastIngredient = ingredients.get(limit - 1);
+			
+			ingredientPage.setNextAfterId(lastIngredient.getId());
+			
+			if (sort == IngredientSortEnum.PORTION_QUANTITY) {
+				ingredientPage.setNextAfterPortionQuantity(lastIngredient.getPortionQuantity());
+			}
+		}
+		
+		ingredientPage.setIngredients(ingredients);
+		
+		return ingredientPage;
+	}
+	
+	/*
+	 * Export ingredients through a forward-only cursor.
+	 */
+	@Override
+	public void exportIngredients(Character type, Consumer<Ingredient> consumer) {
+		ingredientExportRepository.forEachIngredient(type, consumer);
+	}
+	
+	/*
+	 * Update ingredient on database, comparing it against the current row locked in the same transaction:
+	 * > Write an inventory outbox event when its quantity of portion changed, and a price one when its price did.
+	 * > Record the change of its inventory once committed.
 	 */
 	public Ingredient updateIngredient(Ingredient ingredient) {
-		return ingredientRepository.save(ingredient);
+		List<OutboxEventTypeEnum> types = new ArrayList<OutboxEventTypeEnum>();
+		AtomicReference<Ingredient> previousIngredient = new AtomicReference<Ingredient>();
+		Ingredient savedIngredient = null;
+		
+		savedIngredient = new TransactionTemplate(transactionManager).execute(status -> {
+			if (ingredient.getId() != null) {
+				previousIngredient.set(ingredientRepository.findCurrentById(ingredient.getId()).orElse(null));
+			}
+			
+			if (previousIngredient.get() == null
+					|| !Objects.equals(previousIngredient.get().getPortionQuantity(),
+							ingredient.getPortionQuantity())) {
+				types.add(OutboxEventTypeEnum.INVENTORY);
+			}
+			
+			if (previousIngredient.get() == null
+					|| !isSameAmount(previousIngredient.get().getPortionPrice(), ingredient.getPortionPrice())) {
+				types.add(OutboxEventTypeEnum.PRICE);
+			}
+			
+			return persistIngredient(ingredient, types.toArray(new OutboxEventTypeEnum[types.size()]));
+		});
+		
+		onIngredientSaved(savedIngredient, types.toArray(new OutboxEventTypeEnum[types.size()]));
+		
+		if (savedIngredient.getPortionQuantity() != null) {
+			inventoryMovementService.recordMovement(savedIngredient.getId(), savedIngredient.getPortionQuantity()
+					- (previousIngredient.get() != null && previousIngredient.get().getPortionQuantity() != null
+							? previousIngredient.get().getPortionQuantity() : 0),
+					previousIngredient.get() != null ? InventoryMovementReasonEnum.UPDATE
+							: InventoryMovementReasonEnum.CREATE, null);
+		}
+		
+		return savedIngredient;
 	}
 	
 	/*
-	 * Delete ingredient from database.
+	 * Cache ingredient loaded or saved and index its version.
+	 */
+	@Override
+	public void cacheIngredient(Ingredient ingredient) {
+		ingredientCache.put(ingredient);
+		ingredientVersionIndex.record(ingredient);
+	}
+	
+	/*
+	 * Delete ingredient from database with its outbox event, forgetting its stock state.
 	 */
 	public void deleteIngredient(Long id) {
-		ingredientRepository.deleteById(id);
+		new TransactionTemplate(transactionManager).execute(status -> {
+			ingredientRepository.deleteById(id);
+			outboxService.appendIngredientDeletedEvent(id);
+			
+			return null;
+		});
+		
+		ingredientCache.evict(id);
+		ingredientVersionIndex.remove(id);
+		recipeCostIndex.evictIngredient(id);
+		lowStockService.forgetIngredient(id);
+	}
+	
+	/**
+	 * Get page of ingredients with a stock level sorted by it then id, seeking past the last row of previous page.
+	 * 
+	 * @param type Type of ingredients, or null for all of them.
+	 * @param afterPortionQuantity Quantity of portion of last row of previous page.
+	 * @param afterId Id of last row of previous page.
+	 * @param pageRequest Size of page.
+	 * @return Page of ingredients.
+	 */
+	private List<Ingredient> findPageOrderByPortionQuantity(Character type, int afterPortionQuantity, long afterId,
+			PageRequest pageRequest) {
+		return type == null
+				? ingredientRepository.findPageOrderByPortionQuantity(afterPortionQuantity, afterId, pageRequest)
+				: ingredientRepository.findPageByTypeOrderByPortionQuantity(type, afterPortionQuantity, afterId,
+						pageRequest);
+	}
+	
+	/**
+	 * Save ingredient with an outbox event of each type in a single transaction, caching it, repricing closed recipes
+	 * containing it on a price change and checking its stock once committed.
+	 * 
+	 * @param ingredient Ingredient to be saved.
+	 * @param types Types of outbox events describing the change.
+	 * @return Ingredient saved.
+	 */
+	private Ingredient saveIngredient(Ingredient ingredient, OutboxEventTypeEnum... types) {
+		Ingredient savedIngredient = new TransactionTemplate(transactionManager).execute(
+				status -> persistIngredient(ingredient, types));
+		
+		onIngredientSaved(savedIngredient, types);
+		
+		return savedIngredient;
+	}
+	
+	/**
+	 * Add to quantity of portion of ingredient, reading its current row locked and saving it with its inventory
+	 * outbox event in a single transaction, so concurrent orders never overwrite each other and its movements always
+	 * add up to its inventory. The movement is recorded once committed.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionQuantityDelta Quantity of portion added, negative to decrement inventory.
+	 * @param reason Reason of movement.
+	 * @param orderId Id of order.
+	 * @return Ingredient saved.
+	 */
+	private Ingredient addPortionQuantity(Long id, int portionQuantityDelta, InventoryMovementReasonEnum reason,
+			Long orderId) {
+		Ingredient savedIngredient = new TransactionTemplate(transactionManager).execute(status -> {
+			Ingredient ingredient = ingredientRepository.findCurrentById(id).get();
+			
+			ingredient.setPortionQuantity(ingredient.getPortionQuantity() + portionQuantityDelta);
+			
+			persistIngredient(ingredient, OutboxEventTypeEnum.INVENTORY);
+			
+			// Read on this transaction, the row is managed and so is the very instance saved.
+			return ingredient;
+		});
+		
+		onIngredientSaved(savedIngredient, OutboxEventTypeEnum.INVENTORY);
+		inventoryMovementService.recordMovement(id, portionQuantityDelta, reason, orderId);
+		
+		return savedIngredient;
+	}
+	
+	/**
+	 * Save ingredient with an outbox event of each type, within the current transaction.
+	 * 
+	 * @param ingredient Ingredient to be saved.
+	 * @param types Types of outbox events describing the change.
+	 * @return Ingredient saved.
+	 */
+	private Ingredient persistIngredient(Ingredient ingredient, OutboxEventTypeEnum... types) {
+		Ingredient savedIngredient = ingredientRepository.save(ingredient);
+		
+		for (OutboxEventTypeEnum type : types) {
+			outboxService.appendIngredientEvent(type, ingredient);
+		}
+		
+		return savedIngredient;
+	}
+	
+	/**
+	 * Cache ingredient once committed, repricing closed recipes containing it on a price change and checking its
+	 * stock.
+	 * 
+	 * @param savedIngredient Ingredient saved.
+	 * @param types Types of outbox events describing the change.
+	 */
+	private void onIngredientSaved(Ingredient savedIngredient, OutboxEventTypeEnum... types) {
+		cacheIngredient(savedIngredient);
+		
+		for (OutboxEventTypeEnum type : types) {
+			if (type == OutboxEventTypeEnum.PRICE) {
+				recipeCostIndex.updateIngredientPrice(new IngredientPrice(savedIngredient));
+			}
+		}
+		
+		lowStockService.checkStock(savedIngredient);
+	}
+	
+	/**
+	 * Compare amounts ignoring their scale.
+	 * 
+	 * @param amount Amount, possibly null.
+	 * @param otherAmount Other amount, possibly null.
+	 * @return Whether both are null or numerically equal.
+	 */
+	private static boolean isSameAmount(BigDecimal amount, BigDecimal otherAmount) {
+		return amount == null ? otherAmount == null : otherAmount != null && amount.compareTo(otherAmount) == 0;
 	}
 	
 	/*
@@ -91,116 +556,304 @@ public class IngredientServiceImpl implements IngredientService {
 	 * Flow 3) Flow 1 + Flow 2
 	 */
 	@Override
-	public BigDecimal calculateOrderPrice(Order order) {
+	public BigDecimal calculateOrderPrice(OrderPayload order) {
+		return priceOrder(new OrderPricingContext(order, dealRegistryService.getEffectiveDiscounts()), true);
+	}
+	
+	/*
+	 * Quote order price: same flows as calculating it, without decrementing ingredients inventory.
+	 * > Start from the indexed cost of closed recipe in size instead of summing its portions again.
+	 * > Subtract removed portions of closed recipe ingredients and add customized ingredients.
+	 */
+	@Override
+	public BigDecimal quoteOrderPrice(OrderPayload order) {
+		OrderPricingContext context = new OrderPricingContext(order, dealRegistryService.getEffectiveDiscounts());
+		RecipeCost recipeCost = null;
+		PizzaSizeMultiplyFactorEnum size = null;
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		long customizationIngredientId = 0;
+		Map<Long, IngredientPrice> ingredientPrices = null;
+		Set<Long> addedIds = new LinkedHashSet<Long>();
+		BigDecimal totalPrice = null;
+		
+		if (order.getClosedRecipeId() == null) {
+			return priceOrder(context, false);
+		}
+		
+		size = context.getSize();
+		
+		recipeCost = recipeCostIndex.get(order.getClosedRecipeId());
+		totalPrice = recipeCost.getCost(size);
+		
+		for (int position = 0; position < order.getCustomizationCount(); position++) {
+			customizationIngredientId = order.getCustomizationIngredientId(position);
+			
+			if (order.getCustomizationType(position) == OrderCustomizationTypeEnum.REMOVE) {
+				closedRecipeIngredient = recipeCost.getClosedRecipe().getClosedRecipeIngredientMap().get(
+						customizationIngredientId);
+				
+				// Removed portions, at most the ones of closed recipe.
+				if (closedRecipeIngredient != null) {
+					totalPrice = totalPrice.subtract(recipeCost.getPortionPrice(customizationIngredientId).multiply(
+							BigDecimal.valueOf(Math.min(context.getCustomizationPortionQuantity(position),
+									context.getPortionQuantity(closedRecipeIngredient)))));
+				}
+			} else if (context.isAddition(position)) {
+				addedIds.add(customizationIngredientId);
+			}
+		}
+		
+		if (!addedIds.isEmpty()) {
+			ingredientPrices = loadIngredientPrices(addedIds);
+			
+			for (Long addedId : addedIds) {
+				totalPrice = totalPrice.add(calculatePortionPrice(addedId, null, ingredientPrices,
+						context.getEffectiveDiscounts()).multiply(BigDecimal.valueOf(
+								context.getCustomizationPortionQuantity(order.indexOfCustomization(addedId)))));
+			}
+		}
+		
+		return totalPrice.setScale(2);
+	}
+	
+	/*
+	 * List price of closed recipes straight from recipe cost index, marking the ones not found or whose ingredients
+	 * are gone instead of failing the whole request.
+	 */
+	@Override
+	public List<RecipePrice> getRecipePrices(List<Integer> closedRecipeIds, PizzaSizeMultiplyFactorEnum size) {
+		PizzaSizeMultiplyFactorEnum[] sizes = size != null ? new PizzaSizeMultiplyFactorEnum[] { size }
+				: PizzaSizeMultiplyFactorEnum.values();
+		List<RecipePrice> recipePrices = new ArrayList<RecipePrice>(closedRecipeIds.size() * sizes.length);
+		RecipeCost recipeCost = null;
+		
+		for (Integer closedRecipeId : closedRecipeIds) {
+			recipeCost = findRecipeCost(closedRecipeId);
+			
+			for (PizzaSizeMultiplyFactorEnum pizzaSize : sizes) {
+				recipePrices.add(new RecipePrice(closedRecipeId, recipeCost != null, pizzaSize.getShortDescription(),
+						recipeCost != null ? recipeCost.getCost(pizzaSize).setScale(2) : null));
+			}
+		}
+		
+		return recipePrices;
+	}
+	
+	/**
+	 * Find indexed cost of closed recipe.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Cost of closed recipe, null when closed recipe or one of its ingredients does not exist.
+	 */
+	private RecipeCost findRecipeCost(Integer closedRecipeId) {
+		try {
+			return recipeCostIndex.get(closedRecipeId);
+		} catch (HttpClientErrorException e) {
+			if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+				return null;
+			}
+			
+			throw e;
+		} catch (NoSuchElementException e) {
+			return null;
+		}
+	}
+	
+	/**
+	 * Decrement inventory of ingredient taken by an order.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionQuantity Quantity of portion taken.
+	 * @param updateInventory Whether inventory of ingredient is decremented.
+	 * @param orderId Id of order.
+	 * @return Ingredient saved when its inventory is decremented, null otherwise.
+	 */
+	private Ingredient decrementInventory(Long id, int portionQuantity, boolean updateInventory, Long orderId) {
+		return updateInventory ? addPortionQuantity(id, -portionQuantity, InventoryMovementReasonEnum.ORDER, orderId)
+				: null;
+	}
+	
+	/**
+	 * Load pricing columns of every ingredient an order may be priced with, from cache or else in a single projection
+	 * query, so quotes never hydrate managed entities.
+	 * 
+	 * @param order Order with customized ingredients.
+	 * @param closedRecipe Closed recipe of order, null when none.
+	 * @return Prices of ingredients by id.
+	 */
+	private Map<Long, IngredientPrice> loadIngredientPrices(OrderPayload order, ClosedRecipe closedRecipe) {
+		Set<Long> ids = new LinkedHashSet<Long>();
+		
+		if (closedRecipe != null) {
+			ids.addAll(closedRecipe.getClosedRecipeIngredientMap().keySet());
+		}
+		
+		for (int position = 0; position < order.getCustomizationCount(); position++) {
+			if (order.getCustomizationType(position) == OrderCustomizationTypeEnum.ADD) {
+				ids.add(order.getCustomizationIngredientId(position));
+			}
+		}
+		
+		return loadIngredientPrices(ids);
+	}
+	
+	/**
+	 * Load pricing columns of ingredients from cache or else in a single projection query.
+	 * 
+	 * @param ids Ids of ingredients.
+	 * @return Prices of ingredients found by id.
+	 */
+	private Map<Long, IngredientPrice> loadIngredientPrices(Collection<Long> ids) {
+		Map<Long, IngredientPrice> ingredientPrices = new HashMap<Long, IngredientPrice>();
+		Set<Long> missedIds = new LinkedHashSet<Long>(ids);
+		Ingredient ingredient = null;
+		
+		for (Iterator<Long> iterator = missedIds.iterator(); iterator.hasNext();) {
+			ingredient = ingredientCache.get(iterator.next());
+			
+			if (ingredient != null) {
+				ingredientPrices.put(ingredient.getId(), new IngredientPrice(ingredient));
+				iterator.remove();
+			}
+		}
+		
+		if (!missedIds.isEmpty()) {
+			for (IngredientPrice ingredientPrice : ingredientRepository.findPricesByIdIn(missedIds)) {
+				ingredientPrices.put(ingredientPrice.getId(), ingredientPrice);
+			}
+		}
+		
+		return ingredientPrices;
+	}
+	
+	/**
+	 * Calculate price of a portion of ingredient being priced.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param ingredient Current row of ingredient when its inventory is decremented, null otherwise.
+	 * @param ingredientPrices Prices of ingredients of a quote, null when inventory is decremented.
+	 * @param effectiveDiscounts Catalog of effective discounts of active deals, taken once per order.
+	 * @return Price of a portion of ingredient with discounts.
+	 */
+	private BigDecimal calculatePortionPrice(Long id, Ingredient ingredient,
+			Map<Long, IngredientPrice> ingredientPrices, Map<Long, BigDecimal> effectiveDiscounts) {
+		IngredientPrice ingredientPrice = null;
+		
+		if (ingredient != null) {
+			return IngredientPricing.calculatePortionPrice(ingredient, effectiveDiscounts);
+		}
+		
+		ingredientPrice = ingredientPrices.get(id);
+		
+		if (ingredientPrice == null) {
+			throw new NoSuchElementException("Ingredient " + id + " not found.");
+		}
+		
+		return IngredientPricing.calculatePortionPrice(ingredientPrice, effectiveDiscounts);
+	}
+	
+	/**
+	 * Price order, optionally decrementing ingredients inventory.
+	 * 
+	 * @param context Pricing context of order with customized ingredients to be priced.
+	 * @param updateInventory Whether ingredients inventory is decremented, only prices being read otherwise.
+	 * @return Price of the order with customized ingredients.
+	 */
+	private BigDecimal priceOrder(OrderPricingContext context, boolean updateInventory) {
+		OrderPayload order = context.getOrder();
 		ClosedRecipe closedRecipe = null;
+		LongKeyedMap<ClosedRecipeIngredient> closedRecipeIngredientMap = null;
+		Long closedRecipeIngredientMapId = null;
 		ClosedRecipeIngredient closedRecipeIngredient = null;
+		Long customizationIngredientId = null;
 		Boolean ingredientRemoved = false;
-		OrderCustomization orderCustomization = null;
+		int customizationPosition = -1;
 		Ingredient ingredient = null;
 		BigDecimal ingredientPortionPrice = null;
 		Integer portionQuantityCalculated = null;
 		BigDecimal totalPrice = BigDecimal.ZERO;
+		Map<Long, IngredientPrice> ingredientPrices = null;
 		
-		// Flow 1.
 		if (order.getClosedRecipeId() != null) {
 			closedRecipe = closedRecipeClientService.getClosedRecipe(order.getClosedRecipeId());
+		}
+		
+		if (!updateInventory) {
+			ingredientPrices = loadIngredientPrices(order, closedRecipe);
+		}
+		
+		// Flow 1.
+		if (closedRecipe != null) {
+			closedRecipeIngredientMap = closedRecipe.getClosedRecipeIngredientMap();
 			
-			for (Long closedRecipeIngredientMapId : closedRecipe.getClosedRecipeIngredientMap().keySet()) {
-				closedRecipeIngredient = closedRecipe.getClosedRecipeIngredientMap().get(closedRecipeIngredientMapId);
+			// Iterate by position, without iterator nor entry allocation.
+			for (int position = 0; position < closedRecipeIngredientMap.size(); position++) {
+				closedRecipeIngredientMapId = closedRecipeIngredientMap.keyAt(position);
+				closedRecipeIngredient = closedRecipeIngredientMap.valueAt(position);
 				
 				ingredientRemoved = false;
 				
-				if (order.getOrderCustomizationMap() != null) {
-					orderCustomization = order.getOrderCustomizationMap().get(closedRecipeIngredientMapId);
-				}
+				customizationPosition = context.indexOfRemoval(closedRecipeIngredientMapId);
 				
 				// Consider removed ingredients (partial or total) on price calculation and inventory update.
-				if (orderCustomization != null && OrderCustomizationTypeEnum.REMOVE.getType().equals(
-						orderCustomization.getType().toString().toUpperCase())) {
-					if (orderCustomization.getPortionQuantity(
-							order.getSize()) < closedRecipeIngredient.getPortionQuantity(order.getSize())) {
-						ingredient = ingredientRepository.findById(closedRecipeIngredientMapId).get();
+				if (customizationPosition >= 0) {
+					if (context.getCustomizationPortionQuantity(customizationPosition) < context.getPortionQuantity(
+							closedRecipeIngredient)) {
+						// Calculate portion quantity considering pizza size.
+						portionQuantityCalculated = context.getPortionQuantity(closedRecipeIngredient)
+								- context.getCustomizationPortionQuantity(customizationPosition);
 						
-						// Calculate discount.
-						if (ingredient.getPercentageDiscount() != null
-								&& ingredient.getPercentageDiscount().compareTo(BigDecimal.ZERO) > 0) {
-							ingredientPortionPrice = ingredient.getPortionPrice().multiply(
-									BigDecimal.valueOf(100).subtract(ingredient.getPercentageDiscount()).divide(BigDecimal.valueOf(100)));
-						} else {
-							ingredientPortionPrice = ingredient.getPortionPrice();
-						}
+						// Update inventory.
+						ingredient = decrementInventory(closedRecipeIngredientMapId, portionQuantityCalculated,
+								updateInventory, order.getId());
 						
-						// Calculate portion quantity considering pizza size.
-						portionQuantityCalculated = closedRecipeIngredient.getPortionQuantity(
-								order.getSize()) - orderCustomization.getPortionQuantity(order.getSize());
+						// Calculate discount.
+						ingredientPortionPrice = calculatePortionPrice(closedRecipeIngredientMapId, ingredient,
+								ingredientPrices, context.getEffectiveDiscounts());
 						
 						// Calculate price.
 						totalPrice = totalPrice.add(ingredientPortionPrice.multiply(BigDecimal.valueOf(portionQuantityCalculated)));
-						
-						// Update inventory.
-						ingredient.setPortionQuantity(ingredient.getPortionQuantity() - portionQuantityCalculated);
-						
-						ingredientRepository.save(ingredient);
 					}
 					
 					ingredientRemoved = true;
 				}
 				
 				if (!ingredientRemoved) {
-					ingredient = ingredientRepository.findById(closedRecipeIngredientMapId).get();
+					// Calculate portion quantity considering pizza size.
+					portionQuantityCalculated = context.getPortionQuantity(closedRecipeIngredient);
 					
-					// Calculate discount.
-					if (ingredient.getPercentageDiscount() != null
-							&& ingredient.getPercentageDiscount().compareTo(BigDecimal.ZERO) > 0) {
-						ingredientPortionPrice = ingredient.getPortionPrice().multiply(
-								BigDecimal.valueOf(100).subtract(ingredient.getPercentageDiscount()).divide(BigDecimal.valueOf(100)));
-					} else {
-						ingredientPortionPrice = ingredient.getPortionPrice();
-					}
+					// Update inventory.
+					ingredient = decrementInventory(closedRecipeIngredientMapId, portionQuantityCalculated,
+							updateInventory, order.getId());
 					
-					// Calculate portion quantity considering pizza size.
-					portionQuantityCalculated = closedRecipeIngredient.getPortionQuantity(order.getSize());
+					// Calculate discount.
+					ingredientPortionPrice = calculatePortionPrice(closedRecipeIngredientMapId, ingredient,
+							ingredientPrices, context.getEffectiveDiscounts());
 					
 					// Calculate price.
 					totalPrice = totalPrice.add(ingredientPortionPrice.multiply(BigDecimal.valueOf(portionQuantityCalculated)));
-					
-					// Update inventory.
-					ingredient.setPortionQuantity(ingredient.getPortionQuantity() - portionQuantityCalculated);
-					
-					ingredientRepository.save(ingredient);
 				}
 			}
 		}
 		
 		// Flow 2.
-		if (order.getOrderCustomizationMap() != null) {
-			for (Long orderCustomizationMapId : order.getOrderCustomizationMap().keySet()) {
-				orderCustomization = order.getOrderCustomizationMap().get(orderCustomizationMapId);
+		for (int position = 0; position < order.getCustomizationCount(); position++) {
+			customizationIngredientId = order.getCustomizationIngredientId(position);
+			
+			if (context.isAddition(position)) {
+				// Calculate portion quantity considering pizza size.
+				portionQuantityCalculated = context.getCustomizationPortionQuantity(position);
 				
-				if (OrderCustomizationTypeEnum.ADD.getType().equals(
-						orderCustomization.getType().toString().toUpperCase())) {
-					ingredient = ingredientRepository.findById(orderCustomizationMapId).get();
-					
-					// Calculate discount.
-					if (ingredient.getPercentageDiscount() != null
-							&& ingredient.getPercentageDiscount().compareTo(BigDecimal.ZERO) > 0) {
-						ingredientPortionPrice = ingredient.getPortionPrice().multiply(
-								BigDecimal.valueOf(100).subtract(ingredient.getPercentageDiscount()).divide(BigDecimal.valueOf(100)));
-					} else {
-						ingredientPortionPrice = ingredient.getPortionPrice();
-					}
-					
-					// Calculate portion quantity considering pizza size.
-					portionQuantityCalculated = orderCustomization.getPortionQuantity(order.getSize());
-					
-					// Calculate price.
-					totalPrice = totalPrice.add(ingredientPortionPrice.multiply(BigDecimal.valueOf(portionQuantityCalculated)));
-					
-					// Update inventory.
-					ingredient.setPortionQuantity(ingredient.getPortionQuantity() - portionQuantityCalculated);
-					
-					ingredientRepository.save(ingredient);
-				}
+				// Update inventory.
+				ingredient = decrementInventory(customizationIngredientId, portionQuantityCalculated,
+						updateInventory, order.getId());
+				
+				// Calculate discount.
+				ingredientPortionPrice = calculatePortionPrice(customizationIngredientId, ingredient,
+						ingredientPrices, context.getEffectiveDiscounts());
+				
+				// Calculate price.
+				totalPrice = totalPrice.add(ingredientPortionPrice.multiply(BigDecimal.valueOf(portionQuantityCalculated)));
 			}
 		}
 		
@@ -218,132 +871,123 @@ public class IngredientServiceImpl implements IngredientService {
 	 * Flow 3) Flow 1 + Flow 2
 	 */
 	@Override
-	public void reverseOrderIngredients(Order order) {
+	public void reverseOrderIngredients(OrderPayload order) {
+		// Reversal never prices, so no catalog of effective discounts is taken.
+		OrderPricingContext context = new OrderPricingContext(order, Collections.<Long, BigDecimal>emptyMap());
 		ClosedRecipe closedRecipe = null;
+		LongKeyedMap<ClosedRecipeIngredient> closedRecipeIngredientMap = null;
+		Long closedRecipeIngredientMapId = null;
 		ClosedRecipeIngredient closedRecipeIngredient = null;
+		Long customizationIngredientId = null;
 		Boolean ingredientRemoved = false;
-		OrderCustomization orderCustomization = null;
-		Ingredient ingredient = null;
+		int customizationPosition = -1;
 		Integer portionQuantityCalculated = null;
 		
 		// Flow 1.
 		if (order.getClosedRecipeId() != null) {
 			closedRecipe = closedRecipeClientService.getClosedRecipe(order.getClosedRecipeId());
 			
-			for (Long closedRecipeIngredientMapId : closedRecipe.getClosedRecipeIngredientMap().keySet()) {
-				closedRecipeIngredient = closedRecipe.getClosedRecipeIngredientMap().get(closedRecipeIngredientMapId);
+			closedRecipeIngredientMap = closedRecipe.getClosedRecipeIngredientMap();
+			
+			// Iterate by position, without iterator nor entry allocation.
+			for (int position = 0; position < closedRecipeIngredientMap.size(); position++) {
+				closedRecipeIngredientMapId = closedRecipeIngredientMap.keyAt(position);
+				closedRecipeIngredient = closedRecipeIngredientMap.valueAt(position);
 				
 				ingredientRemoved = false;
 				
-				if (order.getOrderCustomizationMap() != null) {
-					orderCustomization = order.getOrderCustomizationMap().get(closedRecipeIngredientMapId);
-				}
+				customizationPosition = context.indexOfRemoval(closedRecipeIngredientMapId);
 				
 				// Consider removed ingredients (partial or total) on inventory update.
-				if (orderCustomization != null && OrderCustomizationTypeEnum.REMOVE.getType().equals(
-						orderCustomization.getType().toString().toUpperCase())) {
-					if (orderCustomization.getPortionQuantity(
-							order.getSize()) < closedRecipeIngredient.getPortionQuantity(order.getSize())) {
-						ingredient = ingredientRepository.findById(closedRecipeIngredientMapId).get();
-						
+				if (customizationPosition >= 0) {
+					if (context.getCustomizationPortionQuantity(customizationPosition) < context.getPortionQuantity(
+							closedRecipeIngredient)) {
 						// Calculate portion quantity considering pizza size.
-						portionQuantityCalculated = closedRecipeIngredient.getPortionQuantity(
-								order.getSize()) - orderCustomization.getPortionQuantity(order.getSize());
+						portionQuantityCalculated = context.getPortionQuantity(closedRecipeIngredient)
+								- context.getCustomizationPortionQuantity(customizationPosition);
 						
 						// Update inventory.
-						ingredient.setPortionQuantity(ingredient.getPortionQuantity() + portionQuantityCalculated);
-						
-						ingredientRepository.save(ingredient);
+						addPortionQuantity(closedRecipeIngredientMapId, portionQuantityCalculated,
+								InventoryMovementReasonEnum.REVERSAL, order.getId());
 					}
 					
 					ingredientRemoved = true;
 				}
 				
 				if (!ingredientRemoved) {
-					ingredient = ingredientRepository.findById(closedRecipeIngredientMapId).get();
-					
 					// Calculate portion quantity considering pizza size.
-					portionQuantityCalculated = closedRecipeIngredient.getPortionQuantity(order.getSize());
+					portionQuantityCalculated = context.getPortionQuantity(closedRecipeIngredient);
 					
 					// Update inventory.
-					ingredient.setPortionQuantity(ingredient.getPortionQuantity() + portionQuantityCalculated);
-					
-					ingredientRepository.save(ingredient);
+					addPortionQuantity(closedRecipeIngredientMapId, portionQuantityCalculated,
+							InventoryMovementReasonEnum.REVERSAL, order.getId());
 				}
 			}
 		}
 		
 		// Flow 2.
-		if (order.getOrderCustomizationMap() != null) {
-			for (Long orderCustomizationMapId : order.getOrderCustomizationMap().keySet()) {
-				orderCustomization = order.getOrderCustomizationMap().get(orderCustomizationMapId);
+		for (int position = 0; position < order.getCustomizationCount(); position++) {
+			customizationIngredientId = order.getCustomizationIngredientId(position);
+			
+			if (context.isAddition(position)) {
+				// Calculate portion quantity considering pizza size.
+				portionQuantityCalculated = context.getCustomizationPortionQuantity(position);
 				
-				if (OrderCustomizationTypeEnum.ADD.getType().equals(
-						orderCustomization.getType().toString().toUpperCase())) {
-					ingredient = ingredientRepository.findById(orderCustomizationMapId).get();
-					
-					// Calculate portion quantity considering pizza size.
-					portionQuantityCalculated = orderCustomization.getPortionQuantity(order.getSize());
-					
-					// Update inventory.
-					ingredient.setPortionQuantity(ingredient.getPortionQuantity() + portionQuantityCalculated);
-					
-					ingredientRepository.save(ingredient);
-				}
+				// Update inventory.
+				addPortionQuantity(customizationIngredientId, portionQuantityCalculated,
+						InventoryMovementReasonEnum.REVERSAL, order.getId());
 			}
 		}
 	}
 	
 	/*
-	 * Add ingredients discount.
+	 * Add ingredients discount, registering the deal so its discounts apply to the effective discount of its ingredients.
 	 */
 	@Override
-	public void addIngredientDiscount(Deal deal) {
-		DealIngredient dealIngredient = null;
-		Ingredient ingredient = null;
-		BigDecimal percentageDiscount = null;
-		
-		if (deal.getDealIngredientMap() != null) {
-			for (Long dealIngredientMapId : deal.getDealIngredientMap().keySet()) {
-				dealIngredient = deal.getDealIngredientMap().get(dealIngredientMapId);
-				
-				ingredient = ingredientRepository.findById(dealIngredientMapId).get();
-				
-				if (ingredient.getPercentageDiscount() != null) {
-					percentageDiscount = ingredient.getPercentageDiscount();
-				} else {
-					percentageDiscount = BigDecimal.ZERO;
-				}
-				
-				ingredient.setPercentageDiscount(percentageDiscount.add(
-						dealIngredient.getDiscountPercentage()));
-				
-				ingredientRepository.save(ingredient);
-			}
-		}
+	public void addIngredientDiscount(DealPayload deal) {
+		dealRegistryService.registerDeal(deal);
 	}
 	
 	/*
-	 * Delete ingredients discount.
+	 * Delete ingredients discount, unregistering the deal and the discounts it applied.
 	 */
 	@Override
-	public void deleteIngredientDiscount(Deal deal) {
-		DealIngredient dealIngredient = null;
-		Ingredient ingredient = null;
+	public void deleteIngredientDiscount(DealPayload deal) {
+		dealRegistryService.unregisterDeal(deal.getId());
+	}
+	
+	/*
+	 * Add and delete ingredients discount of several deals at once:
+	 * > Check every ingredient of added deals exists, loading them all in a single query.
+	 * > Register and unregister deals in a single transaction and a single swap of effective discounts.
+	 */
+	@Override
+	public void applyIngredientDiscounts(DealBatch dealBatch) {
+		Set<Long> ingredientIds = new HashSet<Long>();
+		Set<Long> missingIngredientIds = null;
 		
-		if (deal.getDealIngredientMap() != null) {
-			for (Long dealIngredientMapId : deal.getDealIngredientMap().keySet()) {
-				dealIngredient = deal.getDealIngredientMap().get(dealIngredientMapId);
-				
-				ingredient = ingredientRepository.findById(dealIngredientMapId).get();
-				
-				if (ingredient.getPercentageDiscount() != null && ingredient.getPercentageDiscount().compareTo(BigDecimal.ZERO) > 0) {
-					ingredient.setPercentageDiscount(ingredient.getPercentageDiscount().subtract(
-							dealIngredient.getDiscountPercentage()));
-					
-					ingredientRepository.save(ingredient);
+		if (dealBatch.getAddedDeals() != null) {
+			for (DealPayload deal : dealBatch.getAddedDeals()) {
+				for (int position = 0; position < deal.getIngredientCount(); position++) {
+					ingredientIds.add(deal.getIngredientId(position));
 				}
 			}
 		}
+		
+		if (!ingredientIds.isEmpty()) {
+			missingIngredientIds = new HashSet<Long>(ingredientIds);
+			
+			for (Ingredient ingredient : ingredientRepository.findAllById(ingredientIds)) {
+				missingIngredientIds.remove(ingredient.getId());
+			}
+			
+			if (!missingIngredientIds.isEmpty()) {
+				throw new InvalidDealException("Unknown ingredients on deals: " + missingIngredientIds);
+			}
+		}
+		
+		dealRegistryService.applyDeals(
+				dealBatch.getAddedDeals() != null ? dealBatch.getAddedDeals() : Collections.<DealPayload>emptyList(),
+				dealBatch.getRemovedDealIds() != null ? dealBatch.getRemovedDealIds() : Collections.<Integer>emptyList());
 	}
 }
\ No newline at end of file
@@ -0,0 +1,349 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pizzaordering.ingredient.data.InventoryMovementRepository;
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.entity.InventoryMovement;
+import com.pizzaordering.ingredient.service.InventoryMovementService;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.InventoryMovementReasonEnum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Implementation of inventory movement service layer interface.
+ * 
+ * Movements are offered to a lock-free queue by the request threads and drained in batches by a single writer
+ * thread, so recording one costs a queue offer and never waits on the database. The queue is bounded by a counter
+ * rather than by a lock, movements beyond its capacity being dropped and counted. A batch failing on database is
+ * retried with exponential backoff, the queue filling up meanwhile, and only dropped and logged once its attempts run
+ * out.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class InventoryMovementServiceImpl implements InventoryMovementService {
+	
+	/**
+	 * Logger of dropped movements.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(InventoryMovementServiceImpl.class);
+	
+	/**
+	 * Name of writer thread.
+	 */
+	private static final String WRITER_NAME = "inventory-movement-writer";
+	
+	/**
+	 * Time the writer waits for its thread to finish on shutdown, in milliseconds.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+	
+	/**
+	 * Repository of inventory movements.
+	 */
+	@Autowired
+	InventoryMovementRepository inventoryMovementRepository;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Maximum number of movements waiting to be written, further movements being dropped.
+	 */
+	@Value("${inventory.movement.queue-capacity:100000}")
+	private int queueCapacity;
+	
+	/**
+	 * Maximum number of movements per JDBC batch.
+	 */
+	@Value("${inventory.movement.batch-size:500}")
+	private int batchSize;
+	
+	/**
+	 * Time the writer sleeps when queue is empty, in milliseconds.
+	 */
+	@Value("${inventory.movement.flush-ms:200}")
+	private long flushMillis;
+	
+	/**
+	 * Time before retrying a failed batch the first time, in milliseconds, doubled on every further attempt.
+	 */
+	@Value("${inventory.movement.retry-ms:200}")
+	private long retryMillis;
+	
+	/**
+	 * Maximum number of attempts of writing a batch before it is dropped.
+	 */
+	@Value("${inventory.movement.max-attempts:5}")
+	private int maxAttempts;
+	
+	/**
+	 * Clock of movements.
+	 */
+	private Clock clock = Clock.systemUTC();
+	
+	/**
+	 * Movements waiting to be written.
+	 */
+	private final Queue<InventoryMovement> queue = new ConcurrentLinkedQueue<InventoryMovement>();
+	
+	/**
+	 * Number of movements waiting to be written, the size of a concurrent linked queue not being constant time.
+	 */
+	private final AtomicInteger queued = new AtomicInteger();
+	
+	/**
+	 * Whether the writer is running.
+	 */
+	private volatile boolean running;
+	
+	/**
+	 * Writer thread.
+	 */
+	private Thread writer;
+	
+	/**
+	 * Batch failed on its last attempt, waiting to be retried, or null. Only touched by the writer.
+	 */
+	private List<InventoryMovement> failedBatch;
+	
+	/**
+	 * Number of attempts of failed batch.
+	 */
+	private int failedAttempts;
+	
+	/**
+	 * Movements written.
+	 */
+	private Counter writtenCounter;
+	
+	/**
+	 * Movements dropped because the queue was full or their batch ran out of attempts.
+	 */
+	private Counter droppedCounter;
+	
+	/**
+	 * Failed attempts of writing a batch, retried later.
+	 */
+	private Counter retriedCounter;
+	
+	/**
+	 * Time of writing a batch.
+	 */
+	private Timer batchTimer;
+	
+	/**
+	 * Start writer thread and register metrics.
+	 */
+	@PostConstruct
+	public void init() {
+		Gauge.builder("inventory.movement.queued", queued, AtomicInteger::get)
+				.description("Inventory movements waiting to be written").register(meterRegistry);
+		writtenCounter = Counter.builder("inventory.movement.written")
+				.description("Inventory movements written").register(meterRegistry);
+		droppedCounter = Counter.builder("inventory.movement.dropped")
+				.description("Inventory movements dropped, queue being full or batch running out of attempts")
+				.register(meterRegistry);
+		retriedCounter = Counter.builder("inventory.movement.retried")
+				.description("Batches of inventory movements failed and retried later").register(meterRegistry);
+		batchTimer = Timer.builder("inventory.movement.batch")
+				.description("Time of writing a batch of inventory movements").register(meterRegistry);
+		
+		running = true;
+		writer = new Thread(this::run, WRITER_NAME);
+		writer.setDaemon(true);
+		writer.start();
+	}
+	
+	/**
+	 * Stop writer thread, writing movements still queued.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting for writer thread.
+	 */
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		running = false;
+		LockSupport.unpark(writer);
+		writer.join(SHUTDOWN_TIMEOUT_MILLIS);
+		
+		// Drain what the writer left behind, backing off a failed batch until it is written or dropped.
+		while (writeBatch() || failedBatch != null) {
+			if (failedBatch != null) {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(getWaitMillis()));
+			}
+		}
+	}
+	
+	/*
+	 * Record inventory movement, queued for the writer thread.
+	 */
+	@Override
+	public void recordMovement(Long ingredientId, int delta, InventoryMovementReasonEnum reason, Long orderId) {
+		if (delta == 0) {
+			return;
+		}
+		
+		if (queued.incrementAndGet() > queueCapacity) {
+			queued.decrementAndGet();
+			droppedCounter.increment();
+			
+			return;
+		}
+		
+		queue.offer(new InventoryMovement(ingredientId, delta, reason.getCode(), orderId, clock.millis()));
+		
+		// Wake the writer early once a full batch is waiting.
+		if (queued.get() == batchSize) {
+			LockSupport.unpark(writer);
+		}
+	}
+	
+	/*
+	 * Get buckets of inventory movements from database.
+	 */
+	@Override
+	public List<InventoryMovementBucket> getMovementBuckets(Long ingredientId, long from, long to,
+			InventoryMovementBucketEnum bucket) {
+		return inventoryMovementRepository.findBuckets(ingredientId, from, to, bucket.getMillis());
+	}
+	
+	/**
+	 * Loop of writer thread, writing batches while there are movements and sleeping otherwise, or until a failed batch
+	 * is due again.
+	 */
+	private void run() {
+		while (running) {
+			if (!writeBatch()) {
+				LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(getWaitMillis()));
+			}
+		}
+	}
+	
+	/**
+	 * Write the failed batch again, or a batch of queued movements. A failing batch is kept for a later attempt, and
+	 * dropped and logged once its attempts run out.
+	 * 
+	 * @return Whether a batch was written or dropped, false when there was none or it is kept to be retried.
+	 */
+	private boolean writeBatch() {
+		List<InventoryMovement> batch = failedBatch;
+		InventoryMovement inventoryMovement = null;
+		long start = 0;
+		
+		if (batch == null) {
+			batch = new ArrayList<InventoryMovement>();
+			
+			while (batch.size() < batchSize && (inventoryMovement = queue.poll()) != null) {
+				batch.add(inventoryMovement);
+			}
+			
+			if (batch.isEmpty()) {
+				return false;
+			}
+			
+			queued.addAndGet(-batch.size());
+		}
+		
+		start = System.nanoTime();
+		
+		try {
+			inventoryMovementRepository.insertMovements(batch);
+			writtenCounter.increment(batch.size());
+		} catch (RuntimeException e) {
+			// History must not stop the writer, a failed batch is retried later and dropped once out of attempts.
+			if (++failedAttempts < maxAttempts) {
+				failedBatch = batch;
+				retriedCounter.increment();
+				
+				LOGGER.warn("Batch of {} inventory movements failed on attempt {} of {}, retrying in {} ms.",
+						batch.size(), failedAttempts, maxAttempts, getWaitMillis(), e);
+				
+				return false;
+			}
+			
+			droppedCounter.increment(batch.size());
+			
+			LOGGER.error("Batch of {} inventory movements dropped after {} attempts: {}", batch.size(), failedAttempts,
+					describe(batch), e);
+		} finally {
+			batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		
+		failedBatch = null;
+		failedAttempts = 0;
+		
+		return true;
+	}
+	
+	/**
+	 * Get time the writer waits before its next attempt: the backoff of the failed batch, or the flush interval.
+	 * 
+	 * @return Time to wait, in milliseconds.
+	 */
+	private long getWaitMillis() {
+		if (failedBatch == null) {
+			return flushMillis;
+		}
+		
+		return retryMillis << Math.min(failedAttempts - 1, 20);
+	}
+	
+	/**
+	 * Describe movements of a batch for the log, one ingredient id, delta, reason, order id and moment each.
+	 * 
+	 * @param batch Batch of movements.
+	 * @return Description of movements.
+	 */
+	private static String describe(List<InventoryMovement> batch) {
+		StringBuilder builder = new StringBuilder();
+		
+		for (InventoryMovement inventoryMovement : batch) {
+			if (builder.length() > 0) {
+				builder.append(", ");
+			}
+			
+			builder.append(inventoryMovement.getIngredientId()).append(':').append(inventoryMovement.getDelta())
+					.append(':').append(inventoryMovement.getReason()).append(':')
+					.append(inventoryMovement.getOrderId()).append('@').append(inventoryMovement.getMovedAt());
+		}
+		
+		return builder.toString();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,249 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pizzaordering.ingredient.data.IngredientRepository;
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.service.LowStockService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import reactor.core.publisher.BufferOverflowStrategy;
+import reactor.core.publisher.DirectProcessor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Implementation of low stock service layer interface.
+ * 
+ * Every save of an ingredient is checked against its own reorder threshold only, a map lookup and at most one atomic
+ * insert or removal, so the table is never scanned. An ingredient is marked low once its quantity of portion falls to
+ * its threshold and only cleared once it rises above threshold plus the hysteresis margin, so a quantity hovering
+ * around the threshold raises a single alert instead of one per order. Ingredients already low are loaded once on
+ * startup, so they are reported and not alerted again after a restart.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class LowStockServiceImpl implements LowStockService {
+	
+	/**
+	 * Interface of ingredient repository layer.
+	 */
+	@Autowired
+	IngredientRepository ingredientRepository;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Margin above reorder threshold to be crossed before a low ingredient is cleared, in percent of the threshold.
+	 */
+	@Value("${inventory.low-stock.hysteresis-percent:20}")
+	private int hysteresisPercent;
+	
+	/**
+	 * Maximum number of alerts buffered per subscriber.
+	 */
+	@Value("${inventory.low-stock.buffer-size:1000}")
+	private int bufferSize;
+	
+	/**
+	 * Clock of alerts.
+	 */
+	private Clock clock = Clock.systemUTC();
+	
+	/**
+	 * Alerts of ingredients currently low on stock, by id of ingredient.
+	 */
+	private final ConcurrentHashMap<Long, LowStockAlert> lowStockAlerts = new ConcurrentHashMap<Long, LowStockAlert>();
+	
+	/**
+	 * Processor broadcasting alerts to subscribers, dropping them when there is none.
+	 */
+	private final DirectProcessor<LowStockAlert> processor = DirectProcessor.create();
+	
+	/**
+	 * Sink of processor, serializing emissions of concurrent saves.
+	 */
+	private final FluxSink<LowStockAlert> sink = processor.sink();
+	
+	/**
+	 * Ingredients crossing their reorder threshold downwards.
+	 */
+	private Counter lowCounter;
+	
+	/**
+	 * Low ingredients restocked above their hysteresis margin.
+	 */
+	private Counter restockedCounter;
+	
+	/**
+	 * Alerts dropped from the buffer of a slow subscriber.
+	 */
+	private Counter droppedCounter;
+	
+	/**
+	 * Register metrics and load ingredients already low on stock, without alerting them.
+	 */
+	@PostConstruct
+	public void init() {
+		Gauge.builder("inventory.low-stock.ingredients", lowStockAlerts, ConcurrentHashMap::size)
+				.description("Ingredients currently low on stock").register(meterRegistry);
+		lowCounter = Counter.builder("inventory.low-stock.alerts").tag("state", "low")
+				.description("Low stock alerts raised").register(meterRegistry);
+		restockedCounter = Counter.builder("inventory.low-stock.alerts").tag("state", "restocked")
+				.description("Low stock alerts raised").register(meterRegistry);
+		droppedCounter = Counter.builder("inventory.low-stock.dropped")
+				.description("Low stock alerts dropped from the buffer of a slow stream subscriber")
+				.register(meterRegistry);
+		
+		for (Ingredient ingredient : ingredientRepository.findLowStock()) {
+			lowStockAlerts.putIfAbsent(ingredient.getId(), toAlert(ingredient, true));
+		}
+	}
+	
+	/*
+	 * Check stock of ingredient:
+	 * > Mark it low and raise an alert when its quantity of portion is at or below its threshold and it was not low.
+	 * > Clear it and raise an alert when its quantity of portion is above its restock level and it was low.
+	 * > Leave it as is in between, the hysteresis band.
+	 */
+	@Override
+	public void checkStock(Ingredient ingredient) {
+		Long ingredientId = null;
+		Integer reorderThreshold = null;
+		Integer portionQuantity = null;
+		LowStockAlert lowStockAlert = null;
+		
+		if (ingredient == null || ingredient.getId() == null || ingredient.getPortionQuantity() == null) {
+			return;
+		}
+		
+		ingredientId = ingredient.getId();
+		reorderThreshold = ingredient.getReorderThreshold();
+		portionQuantity = ingredient.getPortionQuantity();
+		
+		if (reorderThreshold == null) {
+			// No longer monitored, its alert is dropped silently.
+			lowStockAlerts.remove(ingredientId);
+		} else if (portionQuantity <= reorderThreshold) {
+			if (!lowStockAlerts.containsKey(ingredientId)) {
+				lowStockAlert = toAlert(ingredient, true);
+				
+				if (lowStockAlerts.putIfAbsent(ingredientId, lowStockAlert) == null) {
+					lowCounter.increment();
+					sink.next(lowStockAlert);
+				}
+			}
+		} else if (portionQuantity > getRestockLevel(reorderThreshold) && lowStockAlerts.remove(ingredientId) != null) {
+			lowStockAlert = toAlert(ingredient, false);
+			
+			restockedCounter.increment();
+			sink.next(lowStockAlert);
+		}
+	}
+	
+	/*
+	 * Forget ingredient, raising a cleared alert without quantity when it was low so dashboards drop it.
+	 */
+	@Override
+	public void forgetIngredient(Long ingredientId) {
+		LowStockAlert lowStockAlert = lowStockAlerts.remove(ingredientId);
+		LowStockAlert clearedAlert = null;
+		
+		if (lowStockAlert != null) {
+			clearedAlert = new LowStockAlert();
+			clearedAlert.setIngredientId(ingredientId);
+			clearedAlert.setDescription(lowStockAlert.getDescription());
+			clearedAlert.setReorderThreshold(lowStockAlert.getReorderThreshold());
+			clearedAlert.setLow(false);
+			clearedAlert.setAlertedAt(clock.millis());
+			
+			sink.next(clearedAlert);
+		}
+	}
+	
+	/*
+	 * Get alerts of ingredients currently low on stock.
+	 */
+	@Override
+	public List<LowStockAlert> getLowStockAlerts() {
+		List<LowStockAlert> alerts = new ArrayList<LowStockAlert>(lowStockAlerts.values());
+		
+		alerts.sort(Comparator.comparing(LowStockAlert::getIngredientId));
+		
+		return alerts;
+	}
+	
+	/*
+	 * Subscribe to alerts, each subscriber served on its own worker from a bounded buffer, a slow one losing its
+	 * oldest alerts rather than holding back the saves.
+	 */
+	@Override
+	public Flux<LowStockAlert> streamAlerts() {
+		return Flux.defer(() -> Flux.fromIterable(getLowStockAlerts()))
+				.concatWith(processor.onBackpressureBuffer(bufferSize, lowStockAlert -> droppedCounter.increment(),
+						BufferOverflowStrategy.DROP_OLDEST))
+				.publishOn(Schedulers.elastic());
+	}
+	
+	/**
+	 * Get quantity of portion above which a low ingredient is cleared, at least a portion above its threshold.
+	 * 
+	 * @param reorderThreshold Reorder threshold.
+	 * @return Restock level.
+	 */
+	private long getRestockLevel(int reorderThreshold) {
+		return reorderThreshold + Math.max(1, (long) reorderThreshold * hysteresisPercent / 100);
+	}
+	
+	/**
+	 * Build alert of ingredient.
+	 * 
+	 * @param ingredient Ingredient as saved.
+	 * @param low Whether the ingredient is low on stock.
+	 * @return Alert.
+	 */
+	private LowStockAlert toAlert(Ingredient ingredient, boolean low) {
+		LowStockAlert lowStockAlert = new LowStockAlert();
+		
+		lowStockAlert.setIngredientId(ingredient.getId());
+		lowStockAlert.setDescription(ingredient.getDescription());
+		lowStockAlert.setPortionQuantity(ingredient.getPortionQuantity());
+		lowStockAlert.setReorderThreshold(ingredient.getReorderThreshold());
+		lowStockAlert.setLow(low);
+		lowStockAlert.setAlertedAt(clock.millis());
+		
+		return lowStockAlert;
+	}
+}
\ No newline at end of file
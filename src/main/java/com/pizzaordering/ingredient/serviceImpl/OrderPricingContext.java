@@ -0,0 +1,141 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.util.OrderCustomizationTypeEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Pricing context of an order, built once per order and reused by every flow pricing, quoting or reversing it.
+ * 
+ * Pizza size is resolved when the context is built and the catalog of effective discounts is taken once, so the flows
+ * never resolve the size again per ingredient nor read the deal registry twice for an order.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+final class OrderPricingContext {
+	
+	/**
+	 * Order with customized ingredients.
+	 */
+	private final OrderPayload order;
+	
+	/**
+	 * Pizza size of order, null when unknown.
+	 */
+	private final PizzaSizeMultiplyFactorEnum size;
+	
+	/**
+	 * Catalog of effective discounts of active deals.
+	 */
+	private final Map<Long, BigDecimal> effectiveDiscounts;
+	
+	/**
+	 * Constructor.
+	 * 
+	 * @param order Order with customized ingredients.
+	 * @param effectiveDiscounts Catalog of effective discounts of active deals.
+	 */
+	OrderPricingContext(OrderPayload order, Map<Long, BigDecimal> effectiveDiscounts) {
+		this.order = order;
+		this.size = order.getPizzaSize();
+		this.effectiveDiscounts = effectiveDiscounts;
+	}
+	
+	/**
+	 * Get order with customized ingredients.
+	 * 
+	 * @return Order with customized ingredients.
+	 */
+	OrderPayload getOrder() {
+		return order;
+	}
+	
+	/**
+	 * Get pizza size of order.
+	 * 
+	 * @return Pizza size of order.
+	 * @throws NoSuchElementException When pizza size is unknown.
+	 */
+	PizzaSizeMultiplyFactorEnum getSize() {
+		if (size == null) {
+			throw new NoSuchElementException("Pizza size " + order.getSize() + " not found.");
+		}
+		
+		return size;
+	}
+	
+	/**
+	 * Get catalog of effective discounts of active deals, taken once for the order.
+	 * 
+	 * @return Catalog of effective discounts of active deals.
+	 */
+	Map<Long, BigDecimal> getEffectiveDiscounts() {
+		return effectiveDiscounts;
+	}
+	
+	/**
+	 * Get quantity of portion of a closed recipe ingredient, proportional to pizza size.
+	 * 
+	 * @param closedRecipeIngredient Closed recipe ingredient.
+	 * @return Quantity of portion proportional to pizza size.
+	 * @throws NoSuchElementException When pizza size is unknown.
+	 */
+	int getPortionQuantity(ClosedRecipeIngredient closedRecipeIngredient) {
+		return closedRecipeIngredient.getPortionQuantity() * getSize().getMultiplyFactor();
+	}
+	
+	/**
+	 * Get quantity of portion of customization at a position, proportional to pizza size.
+	 * 
+	 * @param position Position of customization, in request order.
+	 * @return Quantity of portion proportional to pizza size.
+	 * @throws NoSuchElementException When pizza size is unknown.
+	 */
+	int getCustomizationPortionQuantity(int position) {
+		return order.getCustomizationPortionQuantity(position);
+	}
+	
+	/**
+	 * Find position of customization removing an ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @return Position of customization, -1 when ingredient is not removed.
+	 */
+	int indexOfRemoval(long ingredientId) {
+		int position = order.indexOfCustomization(ingredientId);
+		
+		if (position < 0 || order.getCustomizationType(position) != OrderCustomizationTypeEnum.REMOVE) {
+			return -1;
+		}
+		
+		return position;
+	}
+	
+	/**
+	 * Check whether customization at a position adds an ingredient.
+	 * 
+	 * @param position Position of customization, in request order.
+	 * @return Whether customization adds an ingredient.
+	 */
+	boolean isAddition(int position) {
+		return order.getCustomizationType(position) == OrderCustomizationTypeEnum.ADD;
+	}
+}
\ No newline at end of file
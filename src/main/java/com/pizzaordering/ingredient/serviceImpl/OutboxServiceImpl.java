@@ -0,0 +1,350 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.pizzaordering.ingredient.data.OutboxEventRepository;
+import com.pizzaordering.ingredient.entity.ActiveDeal;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+import com.pizzaordering.ingredient.outbox.OutboxSink;
+import com.pizzaordering.ingredient.outbox.StreamOutboxSink;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import reactor.core.publisher.Flux;
+
+/**
+ * Implementation of outbox service layer interface.
+ * 
+ * Events are appended with the change they describe, so a rolled back change never leaves an event behind and a
+ * committed one always does. A single relay thread polls the outbox oldest first, hands each batch to every sink and
+ * deletes it once all of them took it. A row committed out of id order is relayed on a later poll: no event is lost,
+ * and events of the same ingredient keep their order since each change locks its row until committed.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class OutboxServiceImpl implements OutboxService {
+	
+	/**
+	 * Logger of relay failures.
+	 */
+	private static final Logger LOGGER = LoggerFactory.getLogger(OutboxServiceImpl.class);
+	
+	/**
+	 * Name of relay thread.
+	 */
+	private static final String RELAY_NAME = "outbox-relay";
+	
+	/**
+	 * Time the relay waits for its running batch on shutdown, in milliseconds.
+	 */
+	private static final long SHUTDOWN_TIMEOUT_MILLIS = 5000;
+	
+	/**
+	 * Interface of outbox event repository layer.
+	 */
+	@Autowired
+	OutboxEventRepository outboxEventRepository;
+	
+	/**
+	 * Sinks every batch is delivered to.
+	 */
+	@Autowired
+	List<OutboxSink> outboxSinks;
+	
+	/**
+	 * In-process sink backing the change stream.
+	 */
+	@Autowired
+	StreamOutboxSink streamOutboxSink;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Entity manager of the current transaction.
+	 */
+	@PersistenceContext
+	EntityManager entityManager;
+	
+	/**
+	 * Whether this instance relays the outbox. Only one instance per database should, or batches get delivered twice.
+	 */
+	@Value("${outbox.relay.enabled:true}")
+	private boolean relayEnabled;
+	
+	/**
+	 * Time between polls of an empty or failing outbox, in milliseconds.
+	 */
+	@Value("${outbox.relay.poll-ms:100}")
+	private long pollMillis;
+	
+	/**
+	 * Maximum number of events per batch.
+	 */
+	@Value("${outbox.relay.batch-size:500}")
+	private int batchSize;
+	
+	/**
+	 * Clock of events.
+	 */
+	private Clock clock = Clock.systemUTC();
+	
+	/**
+	 * Age of oldest event waiting on last poll, in milliseconds.
+	 */
+	private volatile long lagMillis;
+	
+	/**
+	 * Relay thread.
+	 */
+	private ScheduledExecutorService relay;
+	
+	/**
+	 * Events delivered.
+	 */
+	private Counter deliveredCounter;
+	
+	/**
+	 * Batches failed on a sink.
+	 */
+	private Counter failedCounter;
+	
+	/**
+	 * Polls failed before or after delivery, such as on database.
+	 */
+	private Counter errorCounter;
+	
+	/**
+	 * Time of delivering a batch to every sink.
+	 */
+	private Timer batchTimer;
+	
+	/**
+	 * Register metrics.
+	 */
+	@PostConstruct
+	public void init() {
+		TimeGauge.builder("outbox.relay.lag", this, TimeUnit.MILLISECONDS, outboxService -> outboxService.lagMillis)
+				.description("Age of oldest outbox event waiting to be relayed").register(meterRegistry);
+		deliveredCounter = Counter.builder("outbox.relay.delivered")
+				.description("Outbox events delivered to every sink").register(meterRegistry);
+		failedCounter = Counter.builder("outbox.relay.failed")
+				.description("Outbox batches failed on a sink, retried on next poll").register(meterRegistry);
+		errorCounter = Counter.builder("outbox.relay.errors")
+				.description("Outbox polls failed, retried on next poll").register(meterRegistry);
+		batchTimer = Timer.builder("outbox.relay.batch")
+				.description("Time of delivering a batch of outbox events to every sink").register(meterRegistry);
+	}
+	
+	/**
+	 * Start relay thread when enabled, once the application is ready so the schema and its data are in place.
+	 */
+	@EventListener(ApplicationReadyEvent.class)
+	public void start() {
+		if (relayEnabled && relay == null) {
+			relay = new ScheduledThreadPoolExecutor(1, runnable -> {
+				Thread thread = new Thread(runnable, RELAY_NAME);
+				
+				thread.setDaemon(true);
+				
+				return thread;
+			});
+			relay.scheduleWithFixedDelay(this::relay, pollMillis, pollMillis, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/**
+	 * Stop relay thread, letting its running batch finish. Events left are relayed on next start.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting for relay thread.
+	 */
+	@PreDestroy
+	public void destroy() throws InterruptedException {
+		if (relay != null) {
+			relay.shutdown();
+			relay.awaitTermination(SHUTDOWN_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+		}
+	}
+	
+	/*
+	 * Append event of ingredient, carrying the columns of its type.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void appendIngredientEvent(OutboxEventTypeEnum type, Ingredient ingredient) {
+		OutboxEvent outboxEvent = new OutboxEvent(type.getCode(), ingredient.getId(), clock.millis());
+		
+		if (type == OutboxEventTypeEnum.INVENTORY) {
+			outboxEvent.setPortionQuantity(ingredient.getPortionQuantity());
+		} else if (type == OutboxEventTypeEnum.PRICE) {
+			outboxEvent.setPortionPrice(ingredient.getPortionPrice());
+		}
+		
+		append(outboxEvent);
+	}
+	
+	/*
+	 * Append deleted ingredient event.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void appendIngredientDeletedEvent(Long ingredientId) {
+		append(new OutboxEvent(OutboxEventTypeEnum.DELETE.getCode(), ingredientId, clock.millis()));
+	}
+	
+	/*
+	 * Append an added deal event per ingredient of deal.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void appendDealAddedEvents(ActiveDeal activeDeal) {
+		OutboxEvent outboxEvent = null;
+		long createdAt = clock.millis();
+		
+		for (Map.Entry<Long, BigDecimal> entry : activeDeal.getPercentageDiscountMap().entrySet()) {
+			outboxEvent = new OutboxEvent(OutboxEventTypeEnum.DEAL_ADDED.getCode(), entry.getKey(), createdAt);
+			outboxEvent.setDealId(activeDeal.getId());
+			outboxEvent.setPercentageDiscount(entry.getValue());
+			outboxEvent.setDealStartTime(activeDeal.getStartTime() != null ? activeDeal.getStartTime().toEpochMilli()
+					: null);
+			outboxEvent.setDealEndTime(activeDeal.getEndTime() != null ? activeDeal.getEndTime().toEpochMilli() : null);
+			
+			append(outboxEvent);
+		}
+	}
+	
+	/*
+	 * Append removed deal event.
+	 */
+	@Override
+	@Transactional(propagation = Propagation.MANDATORY)
+	public void appendDealRemovedEvent(Integer dealId) {
+		OutboxEvent outboxEvent = new OutboxEvent(OutboxEventTypeEnum.DEAL_REMOVED.getCode(), null, clock.millis());
+		
+		outboxEvent.setDealId(dealId);
+		
+		append(outboxEvent);
+	}
+	
+	/*
+	 * Relay oldest batch: deliver it to every sink, then delete it. A failing sink leaves the batch for the next poll.
+	 */
+	@Override
+	public int relayEvents() {
+		List<OutboxEvent> outboxEvents = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, batchSize));
+		List<Long> ids = new ArrayList<Long>(outboxEvents.size());
+		long start = 0;
+		
+		if (outboxEvents.isEmpty()) {
+			lagMillis = 0;
+			
+			return 0;
+		}
+		
+		lagMillis = clock.millis() - outboxEvents.get(0).getCreatedAt();
+		start = System.nanoTime();
+		
+		try {
+			for (OutboxSink outboxSink : outboxSinks) {
+				outboxSink.deliver(outboxEvents);
+			}
+		} catch (IOException e) {
+			failedCounter.increment();
+			
+			throw new UncheckedIOException(e);
+		} finally {
+			batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+		}
+		
+		for (OutboxEvent outboxEvent : outboxEvents) {
+			ids.add(outboxEvent.getId());
+		}
+		
+		outboxEventRepository.deleteByIdIn(ids);
+		deliveredCounter.increment(outboxEvents.size());
+		
+		return outboxEvents.size();
+	}
+	
+	/*
+	 * Stream events from the in-process sink.
+	 */
+	@Override
+	public Flux<OutboxEvent> streamEvents(Long lastEventId) {
+		return streamOutboxSink.stream(lastEventId);
+	}
+	
+	/**
+	 * Insert event after flushing the change it describes, so the row lock of the change is taken before the id of
+	 * the event is.
+	 * 
+	 * @param outboxEvent Outbox event.
+	 */
+	private void append(OutboxEvent outboxEvent) {
+		entityManager.flush();
+		outboxEventRepository.save(outboxEvent);
+	}
+	
+	/**
+	 * Relay batches until the outbox is drained or a batch fails, the next poll retrying it.
+	 */
+	private void relay() {
+		try {
+			while (relayEvents() == batchSize) {
+				// Full batch, more may be waiting.
+			}
+		} catch (RuntimeException e) {
+			// An exception would cancel the schedule, the batch stays on the outbox for the next poll.
+			errorCounter.increment();
+			
+			LOGGER.warn("Outbox relay failed, retrying on next poll.", e);
+		}
+	}
+}
\ No newline at end of file
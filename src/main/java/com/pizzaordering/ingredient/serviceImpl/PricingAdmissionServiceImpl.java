@@ -0,0 +1,179 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pizzaordering.ingredient.limiter.AdaptiveConcurrencyLimiter;
+import com.pizzaordering.ingredient.limiter.ConcurrencyLimitExceededException;
+import com.pizzaordering.ingredient.service.PricingAdmissionService;
+import com.pizzaordering.ingredient.service.PricingExecutionService;
+import com.pizzaordering.ingredient.util.PricingPriorityEnum;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Implementation of pricing admission service layer interface.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class PricingAdmissionServiceImpl implements PricingAdmissionService {
+	
+	/**
+	 * Interface of pricing execution service layer.
+	 */
+	@Autowired
+	PricingExecutionService pricingExecutionService;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Initial concurrency limit of pricing requests.
+	 */
+	@Value("${pricing.limiter.initial-limit:20}")
+	private int initialLimit;
+	
+	/**
+	 * Lower bound of concurrency limit of pricing requests.
+	 */
+	@Value("${pricing.limiter.min-limit:4}")
+	private int minLimit;
+	
+	/**
+	 * Upper bound of concurrency limit of pricing requests.
+	 */
+	@Value("${pricing.limiter.max-limit:200}")
+	private int maxLimit;
+	
+	/**
+	 * Share of concurrency limit read-only quotes are admitted under.
+	 */
+	@Value("${pricing.limiter.quote-share:0.75}")
+	private double quoteShare;
+	
+	/**
+	 * Delay a shed client is told to wait before retrying, in seconds.
+	 */
+	@Value("${pricing.limiter.retry-after-seconds:1}")
+	private int retryAfterSeconds;
+	
+	/**
+	 * Concurrency limiter of pricing requests.
+	 */
+	private AdaptiveConcurrencyLimiter limiter;
+	
+	/**
+	 * Requests shed by priority.
+	 */
+	private Map<PricingPriorityEnum, Counter> rejectedCounters;
+	
+	/**
+	 * Build limiter and its metrics.
+	 */
+	@PostConstruct
+	public void init() {
+		limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, quoteShare);
+		rejectedCounters = new EnumMap<PricingPriorityEnum, Counter>(PricingPriorityEnum.class);
+		
+		Gauge.builder("pricing.limiter.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+				.description("Concurrency limit of pricing requests").register(meterRegistry);
+		Gauge.builder("pricing.limiter.inflight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+				.description("Pricing requests in flight").register(meterRegistry);
+		
+		for (PricingPriorityEnum priority : PricingPriorityEnum.values()) {
+			rejectedCounters.put(priority, Counter.builder("pricing.limiter.rejected")
+					.tag("priority", priority.name().toLowerCase())
+					.description("Pricing requests shed by the concurrency limiter").register(meterRegistry));
+		}
+	}
+	
+	/*
+	 * Admit work:
+	 * > Shed request right away when over the limit of its priority.
+	 * > Release permit once work itself finished, skipped and rejected work counting as drops.
+	 * > Count a timeout as a drop as soon as it fires, work keeping its permit while it still holds a thread.
+	 */
+	@Override
+	public <T> CompletableFuture<T> submit(PricingPriorityEnum priority, Supplier<T> task, long deadlineMillis) {
+		return admit(priority, onFinished -> pricingExecutionService.submit(task, deadlineMillis, onFinished));
+	}
+	
+	/*
+	 * Admit write work, same as any work but submitted so a started write is never abandoned at its deadline.
+	 */
+	@Override
+	public <T> CompletableFuture<T> submitWrite(PricingPriorityEnum priority, Supplier<T> task, long deadlineMillis) {
+		return admit(priority, onFinished -> pricingExecutionService.submitWrite(task, deadlineMillis, onFinished));
+	}
+	
+	/**
+	 * Admit work under the limit of its priority.
+	 * 
+	 * @param priority Priority of request.
+	 * @param submission Submission of work to the pricing executor given the callback releasing the permit, run only
+	 * when admitted.
+	 * @return Future of result of work.
+	 */
+	private <T> CompletableFuture<T> admit(PricingPriorityEnum priority,
+			Function<Consumer<Boolean>, CompletableFuture<T>> submission) {
+		AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(priority.isSheddable());
+		CompletableFuture<T> future = null;
+		
+		if (permit == null) {
+			rejectedCounters.get(priority).increment();
+			
+			future = new CompletableFuture<T>();
+			future.completeExceptionally(new ConcurrencyLimitExceededException(
+					"Concurrency limit of " + limiter.getLimit() + " pricing requests reached."));
+			
+			return future;
+		}
+		
+		future = submission.apply(ran -> permit.release(!ran));
+		future.whenComplete((result, e) -> {
+			if (e instanceof TimeoutException) {
+				permit.drop();
+			}
+		});
+		
+		return future;
+	}
+	
+	/*
+	 * Get delay before retrying.
+	 */
+	@Override
+	public int getRetryAfterSeconds() {
+		return retryAfterSeconds;
+	}
+}
\ No newline at end of file
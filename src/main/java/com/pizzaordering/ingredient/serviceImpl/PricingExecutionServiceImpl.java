@@ -0,0 +1,304 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.pizzaordering.ingredient.routing.ReadYourWrites;
+import com.pizzaordering.ingredient.scheduling.HashedTimerWheel;
+import com.pizzaordering.ingredient.scheduling.VirtualThreads;
+import com.pizzaordering.ingredient.scheduling.WriteExpiredException;
+import com.pizzaordering.ingredient.service.PricingExecutionService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+
+/**
+ * Implementation of pricing execution service layer interface.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class PricingExecutionServiceImpl implements PricingExecutionService {
+	
+	/**
+	 * Name of executor, on its threads and metrics.
+	 */
+	private static final String EXECUTOR_NAME = "pricing";
+	
+	/**
+	 * Duration of a tick of the deadline wheel, in milliseconds.
+	 */
+	private static final long DEADLINE_TICK_MILLIS = 10;
+	
+	/**
+	 * Number of ticks of the deadline wheel.
+	 */
+	private static final int DEADLINE_TICKS_PER_WHEEL = 512;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Number of threads running pricing and inventory work.
+	 */
+	@Value("${pricing.executor.threads:32}")
+	private int threads;
+	
+	/**
+	 * Maximum number of requests waiting for a thread, further requests being rejected.
+	 */
+	@Value("${pricing.executor.queue-capacity:64}")
+	private int queueCapacity;
+	
+	/**
+	 * Whether pricing and inventory work runs on virtual threads.
+	 */
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreadsEnabled;
+	
+	/**
+	 * Executor of pricing and inventory work.
+	 */
+	private ThreadPoolExecutor executor;
+	
+	/**
+	 * Wheel expiring requests at their deadline.
+	 */
+	private HashedTimerWheel deadlineWheel;
+	
+	/**
+	 * Time requests waited for a thread.
+	 */
+	private Timer queueWaitTimer;
+	
+	/**
+	 * Requests rejected because the queue was full.
+	 */
+	private Counter rejectedCounter;
+	
+	/**
+	 * Requests whose deadline passed, before or while running.
+	 */
+	private Counter expiredCounter;
+	
+	/**
+	 * Build bounded executor and its metrics.
+	 */
+	@PostConstruct
+	public void init() {
+		// On virtual threads the pool only bounds concurrency, so threads can be raised far above a platform pool.
+		executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity),
+				VirtualThreads.newThreadFactory(EXECUTOR_NAME, virtualThreadsEnabled),
+				new ThreadPoolExecutor.AbortPolicy());
+		
+		deadlineWheel = new HashedTimerWheel(EXECUTOR_NAME + "-deadline", DEADLINE_TICK_MILLIS,
+				DEADLINE_TICKS_PER_WHEEL);
+		
+		new ExecutorServiceMetrics(executor, EXECUTOR_NAME, Tags.empty()).bindTo(meterRegistry);
+		
+		queueWaitTimer = Timer.builder("executor.queue.wait").tag("name", EXECUTOR_NAME)
+				.description("Time requests waited for a pricing thread").register(meterRegistry);
+		rejectedCounter = Counter.builder("executor.rejected").tag("name", EXECUTOR_NAME)
+				.description("Requests rejected because the pricing queue was full").register(meterRegistry);
+		expiredCounter = Counter.builder("executor.expired").tag("name", EXECUTOR_NAME)
+				.description("Requests whose deadline passed").register(meterRegistry);
+	}
+	
+	/**
+	 * Stop executor and deadline wheel.
+	 */
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+		deadlineWheel.stop();
+	}
+	
+	/*
+	 * Submit work:
+	 * > Arm deadline, failing the future when it passes.
+	 * > Queue work under read-your-writes flag of caller, failing the future right away when queue is full.
+	 * > Skip work whose deadline passed while queued.
+	 */
+	@Override
+	public <T> CompletableFuture<T> submit(Supplier<T> task, long deadlineMillis, Consumer<Boolean> onFinished) {
+		return submit(task, deadlineMillis, false, onFinished);
+	}
+	
+	/*
+	 * Submit write work:
+	 * > Arm deadline, failing the future only when it passes before work started.
+	 * > Queue work under read-your-writes flag of caller, failing the future right away when queue is full.
+	 * > Skip work whose deadline passed while queued, await work that started whatever its deadline.
+	 */
+	@Override
+	public <T> CompletableFuture<T> submitWrite(Supplier<T> task, long deadlineMillis,
+			Consumer<Boolean> onFinished) {
+		return submit(task, deadlineMillis, true, onFinished);
+	}
+	
+	/**
+	 * Submit work to the executor.
+	 * 
+	 * @param task Work to be run.
+	 * @param deadlineMillis Deadline of request, in milliseconds from now.
+	 * @param write Whether work writes, its deadline then only bounding the wait for a thread.
+	 * @param onFinished Callback told once whether work ran, null when none.
+	 * @return Future of result of work.
+	 */
+	private <T> CompletableFuture<T> submit(Supplier<T> task, long deadlineMillis, boolean write,
+			Consumer<Boolean> onFinished) {
+		CompletableFuture<T> future = new CompletableFuture<T>();
+		AtomicBoolean started = new AtomicBoolean();
+		long queuedAt = System.nanoTime();
+		HashedTimerWheel.Timeout deadline = null;
+		
+		deadline = deadlineWheel.schedule(() -> {
+			if (!write) {
+				if (future.completeExceptionally(
+						new TimeoutException("Deadline of " + deadlineMillis + " ms exceeded."))) {
+					expiredCounter.increment();
+				}
+			} else if (started.compareAndSet(false, true)) {
+				// Claimed before the work could start, so it is skipped and nothing gets written.
+				future.completeExceptionally(new WriteExpiredException(
+						"Deadline of " + deadlineMillis + " ms exceeded before write started, nothing was written."));
+				expiredCounter.increment();
+			}
+		}, deadlineMillis);
+		
+		try {
+			executor.execute(new DeadlineTask<T>(ReadYourWrites.propagate(task), future, started, deadline, queuedAt,
+					onFinished));
+		} catch (RejectedExecutionException e) {
+			deadline.cancel();
+			rejectedCounter.increment();
+			future.completeExceptionally(e);
+			finished(onFinished, false);
+		}
+		
+		return future;
+	}
+	
+	/**
+	 * Tell callback whether work ran.
+	 * 
+	 * @param onFinished Callback, null when none.
+	 * @param ran Whether work ran.
+	 */
+	private static void finished(Consumer<Boolean> onFinished, boolean ran) {
+		if (onFinished != null) {
+			onFinished.accept(ran);
+		}
+	}
+	
+	/**
+	 * Work completing a future, skipped when its future is already done or its start was claimed by its deadline.
+	 */
+	private class DeadlineTask<T> implements Runnable {
+		
+		/**
+		 * Work to be run.
+		 */
+		private final Supplier<T> task;
+		
+		/**
+		 * Future of result of work.
+		 */
+		private final CompletableFuture<T> future;
+		
+		/**
+		 * Whether work started or its deadline claimed it first.
+		 */
+		private final AtomicBoolean started;
+		
+		/**
+		 * Deadline armed on wheel.
+		 */
+		private final HashedTimerWheel.Timeout deadline;
+		
+		/**
+		 * Moment work was queued, in nanoseconds.
+		 */
+		private final long queuedAt;
+		
+		/**
+		 * Callback told once whether work ran, null when none.
+		 */
+		private final Consumer<Boolean> onFinished;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param task Work to be run.
+		 * @param future Future of result of work.
+		 * @param started Whether work started or its deadline claimed it first.
+		 * @param deadline Deadline armed on wheel.
+		 * @param queuedAt Moment work was queued, in nanoseconds.
+		 * @param onFinished Callback told once whether work ran, null when none.
+		 */
+		private DeadlineTask(Supplier<T> task, CompletableFuture<T> future, AtomicBoolean started,
+				HashedTimerWheel.Timeout deadline, long queuedAt, Consumer<Boolean> onFinished) {
+			this.task = task;
+			this.future = future;
+			this.started = started;
+			this.deadline = deadline;
+			this.queuedAt = queuedAt;
+			this.onFinished = onFinished;
+		}
+		
+		@Override
+		public void run() {
+			queueWaitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+			
+			// Nobody waits for this result anymore.
+			if (future.isDone() || !started.compareAndSet(false, true)) {
+				finished(onFinished, false);
+				
+				return;
+			}
+			
+			try {
+				future.complete(task.get());
+			} catch (RuntimeException e) {
+				future.completeExceptionally(e);
+			} finally {
+				deadline.cancel();
+				finished(onFinished, true);
+			}
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,275 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import com.pizzaordering.ingredient.cache.ClosedRecipeRefreshedEvent;
+import com.pizzaordering.ingredient.client.ClosedRecipeEndpoint;
+import com.pizzaordering.ingredient.client.ClosedRecipeEndpointBalancer;
+import com.pizzaordering.ingredient.client.LatencyTracker;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.service.ReactiveClosedRecipeClientService;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of reactive closed recipe client service layer interface.
+ * 
+ * Calls are balanced across replicas and hedged on another replica when slower than the 95th percentile of recent
+ * latencies, as the blocking client does, but run on the WebClient event loop instead of a thread per call. Closed
+ * recipes are cached as shared results, so concurrent orders of the same recipe wait on a single call.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+@Profile("reactive")
+public class ReactiveClosedRecipeClientServiceImpl implements ReactiveClosedRecipeClientService {
+	
+	/**
+	 * Percentile of recent latencies used as delay before hedging a call.
+	 */
+	private static final double HEDGE_PERCENTILE = 0.95;
+	
+	/**
+	 * Number of most recent latencies used to derive the hedge delay.
+	 */
+	private static final int LATENCY_WINDOW_SIZE = 512;
+	
+	/**
+	 * URIs of closed recipe resource replicas.
+	 */
+	@Value("${closedrecipe.resource.uris:http://localhost:8082/closedrecipes}")
+	private String[] closedRecipeResourceUris;
+	
+	/**
+	 * Lower bound of delay before hedging a slow call on another replica, in milliseconds.
+	 */
+	@Value("${closedrecipe.hedge.min-delay-ms:10}")
+	private long minHedgeDelayMillis;
+	
+	/**
+	 * Upper bound of delay before hedging a slow call on another replica, in milliseconds.
+	 */
+	@Value("${closedrecipe.hedge.max-delay-ms:200}")
+	private long maxHedgeDelayMillis;
+	
+	/**
+	 * Timeout of each call to closed recipe resource, in milliseconds.
+	 */
+	@Value("${closedrecipe.client.timeout-ms:2000}")
+	private long timeoutMillis;
+	
+	/**
+	 * Time to live of cached closed recipes, in milliseconds.
+	 */
+	@Value("${closedrecipe.cache.ttl-ms:86400000}")
+	private long cacheTimeToLiveMillis;
+	
+	/**
+	 * Builder of non-blocking HTTP client.
+	 */
+	@Autowired
+	WebClient.Builder webClientBuilder;
+	
+	/**
+	 * Publisher of closed recipe refetch events.
+	 */
+	@Autowired
+	ApplicationEventPublisher applicationEventPublisher;
+	
+	/**
+	 * Cached results of calls by id of closed recipe.
+	 */
+	private final Map<Integer, Mono<ClosedRecipe>> closedRecipes = new ConcurrentHashMap<Integer, Mono<ClosedRecipe>>();
+	
+	/**
+	 * Ids of closed recipes being refetched in background.
+	 */
+	private final Set<Integer> refreshing = ConcurrentHashMap.newKeySet();
+	
+	/**
+	 * Latencies of successful calls.
+	 */
+	private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_WINDOW_SIZE);
+	
+	/**
+	 * Non-blocking HTTP client.
+	 */
+	private WebClient webClient;
+	
+	/**
+	 * Load balancer of closed recipe resource replicas.
+	 */
+	private ClosedRecipeEndpointBalancer balancer;
+	
+	/**
+	 * Build HTTP client and load balancer of closed recipe resource replicas.
+	 */
+	@PostConstruct
+	public void init() {
+		webClient = webClientBuilder.build();
+		balancer = new ClosedRecipeEndpointBalancer(Arrays.asList(closedRecipeResourceUris));
+	}
+	
+	/*
+	 * Get closed recipe from cache, calling closed recipe resource once when not cached.
+	 */
+	@Override
+	public Mono<ClosedRecipe> getClosedRecipe(Integer closedRecipeId) {
+		return closedRecipes.computeIfAbsent(closedRecipeId, this::cachedFetch);
+	}
+	
+	/*
+	 * Invalidate cached closed recipe, refetching it in background.
+	 */
+	@Override
+	public void invalidateClosedRecipe(Integer closedRecipeId) {
+		Mono<ClosedRecipe> refreshed = null;
+		
+		if (!closedRecipes.containsKey(closedRecipeId)) {
+			// Nothing stale to be served, derived data can be dropped right away.
+			applicationEventPublisher.publishEvent(new ClosedRecipeRefreshedEvent(this, closedRecipeId));
+			
+			return;
+		}
+		
+		if (!refreshing.add(closedRecipeId)) {
+			return;
+		}
+		
+		refreshed = cachedFetch(closedRecipeId);
+		
+		swapOnSuccess(closedRecipeId, refreshed);
+	}
+	
+	/*
+	 * Invalidate cached closed recipes.
+	 */
+	@Override
+	public void invalidateClosedRecipes(List<Integer> closedRecipeIds) {
+		for (Integer closedRecipeId : closedRecipeIds) {
+			invalidateClosedRecipe(closedRecipeId);
+		}
+	}
+	
+	/**
+	 * Build shared result of a call, cached for the time to live and dropped on failure so next read retries it.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Shared result of call.
+	 */
+	private Mono<ClosedRecipe> cachedFetch(Integer closedRecipeId) {
+		AtomicReference<Mono<ClosedRecipe>> cached = new AtomicReference<Mono<ClosedRecipe>>();
+		
+		cached.set(fetch(closedRecipeId).doOnError(e -> closedRecipes.remove(closedRecipeId, cached.get()))
+				.cache(Duration.ofMillis(cacheTimeToLiveMillis)));
+		
+		return cached.get();
+	}
+	
+	/**
+	 * Serve refetched closed recipe once it arrives, keeping the stale one when refetch fails.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param refreshed Shared result of refetch.
+	 */
+	private void swapOnSuccess(Integer closedRecipeId, Mono<ClosedRecipe> refreshed) {
+		refreshed.doFinally(signal -> refreshing.remove(closedRecipeId)).subscribe(closedRecipe -> {
+			closedRecipes.put(closedRecipeId, refreshed);
+			applicationEventPublisher.publishEvent(new ClosedRecipeRefreshedEvent(this, closedRecipeId));
+		}, e -> {
+			// Keep serving stale entry, next invalidation retries the refetch.
+		});
+	}
+	
+	/**
+	 * Get closed recipe from the least loaded replica:
+	 * > Fail over once to another replica when the call fails.
+	 * > Hedge the call on another replica when it is slower than the hedge delay, first success winning.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Closed recipe gotten from service.
+	 */
+	private Mono<ClosedRecipe> fetch(Integer closedRecipeId) {
+		return Mono.defer(() -> {
+			ClosedRecipeEndpoint primaryEndpoint = balancer.choose(null);
+			Mono<ClosedRecipe> primary = call(primaryEndpoint, closedRecipeId);
+			// Subscribed at most once, whether by the fail over or by the hedge.
+			Mono<ClosedRecipe> secondary = Mono.defer(() -> call(balancer.choose(primaryEndpoint), closedRecipeId))
+					.cache();
+			
+			if (balancer.choose(primaryEndpoint) == null) {
+				return primary;
+			}
+			
+			// A failed hedge must not win over a primary still running.
+			return Mono.first(primary.onErrorResume(e -> secondary),
+					Mono.delay(Duration.ofMillis(getHedgeDelayMillis())).then(secondary)
+							.onErrorResume(e -> Mono.never()));
+		});
+	}
+	
+	/**
+	 * Call replica, recording its latency and load.
+	 * 
+	 * @param endpoint Replica to be called.
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Closed recipe gotten from replica.
+	 */
+	private Mono<ClosedRecipe> call(ClosedRecipeEndpoint endpoint, Integer closedRecipeId) {
+		return Mono.defer(() -> {
+			long start = System.nanoTime();
+			
+			endpoint.callStarted();
+			
+			return webClient.get().uri(endpoint.getUri() + "/" + closedRecipeId).retrieve()
+					.bodyToMono(ClosedRecipe.class).timeout(Duration.ofMillis(timeoutMillis))
+					.doOnSuccess(closedRecipe -> latencyTracker.record(System.nanoTime() - start))
+					// Cancelled calls still count their elapsed time, penalizing the slow replica.
+					.doFinally(signal -> endpoint.callFinished(System.nanoTime() - start));
+		});
+	}
+	
+	/**
+	 * Get current hedge delay derived from recent latencies.
+	 * 
+	 * @return Hedge delay in milliseconds.
+	 */
+	private long getHedgeDelayMillis() {
+		long percentileNanos = latencyTracker.getPercentile(HEDGE_PERCENTILE);
+		
+		if (percentileNanos < 0) {
+			return maxHedgeDelayMillis;
+		}
+		
+		return Math.max(minHedgeDelayMillis,
+				Math.min(maxHedgeDelayMillis, TimeUnit.NANOSECONDS.toMillis(percentileNanos)));
+	}
+}
\ No newline at end of file
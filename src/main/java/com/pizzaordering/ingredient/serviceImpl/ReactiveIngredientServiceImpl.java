@@ -0,0 +1,462 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Service;
+
+import com.pizzaordering.ingredient.data.ReactiveIngredientRepository;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.DealBatch;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.domain.LongKeyedMap;
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.domain.RecipePrice;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+import com.pizzaordering.ingredient.scheduling.BlockingScheduler;
+import com.pizzaordering.ingredient.service.DealRegistryService;
+import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.service.InventoryMovementService;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.service.ReactiveClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.ReactiveIngredientService;
+import com.pizzaordering.ingredient.service.RecipeAvailabilityService;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.InventoryMovementReasonEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Implementation of reactive ingredient service layer interface.
+ * 
+ * Orders are priced as a pipeline over their portions: the closed recipe comes from the non-blocking client, and
+ * ingredients from the reactive repository, whose bounded scheduler applies backpressure to the pipeline when the
+ * database falls behind. Pricing rules are the same as the blocking service layer's.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+@Profile("reactive")
+public class ReactiveIngredientServiceImpl implements ReactiveIngredientService {
+	
+	/**
+	 * Reactive repository of ingredients.
+	 */
+	@Autowired
+	ReactiveIngredientRepository reactiveIngredientRepository;
+	
+	/**
+	 * Interface of reactive closed recipe client service layer.
+	 */
+	@Autowired
+	ReactiveClosedRecipeClientService reactiveClosedRecipeClientService;
+	
+	/**
+	 * Interface of deal registry service layer.
+	 */
+	@Autowired
+	DealRegistryService dealRegistryService;
+	
+	/**
+	 * Interface of ingredient service layer, running deal operations which are blocking by nature.
+	 */
+	@Autowired
+	IngredientService ingredientService;
+	
+	/**
+	 * Scheduler of blocking calls.
+	 */
+	@Autowired
+	BlockingScheduler blockingScheduler;
+	
+	/**
+	 * Interface of inventory movement service layer.
+	 */
+	@Autowired
+	InventoryMovementService inventoryMovementService;
+	
+	/**
+	 * Interface of outbox service layer.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Interface of low stock service layer.
+	 */
+	@Autowired
+	LowStockService lowStockService;
+	
+	/**
+	 * Interface of recipe availability service layer.
+	 */
+	@Autowired
+	RecipeAvailabilityService recipeAvailabilityService;
+	
+	/**
+	 * Number of ingredients read from database per page of an export.
+	 */
+	@Value("${reactive.export.page-size:500}")
+	private int exportPageSize;
+	
+	/*
+	 * Save ingredient through blocking service layer, which writes its outbox events and records its inventory.
+	 */
+	@Override
+	public Mono<Ingredient> addIngredient(Ingredient ingredient) {
+		return blockingScheduler.call(() -> ingredientService.addIngredient(ingredient));
+	}
+	
+	/*
+	 * Get ingredient from database.
+	 */
+	@Override
+	public Mono<Ingredient> getIngredient(Long id) {
+		return reactiveIngredientRepository.findById(id);
+	}
+	
+	/*
+	 * Get ingredients in request order, loaded in a single query, marking ids not found.
+	 */
+	@Override
+	public Mono<List<IngredientLookup>> getIngredients(List<Long> ids) {
+		return reactiveIngredientRepository.findAllById(new LinkedHashSet<Long>(ids)).collectMap(Ingredient::getId)
+				.map(ingredientMap -> {
+					List<IngredientLookup> ingredientLookups = new ArrayList<IngredientLookup>(ids.size());
+					
+					for (Long id : ids) {
+						ingredientLookups.add(new IngredientLookup(id, ingredientMap.get(id)));
+					}
+					
+					return ingredientLookups;
+				});
+	}
+	
+	/*
+	 * Export ingredients page by page, next page being only read once the previous one is consumed, so a slow client
+	 * never holds a database connection.
+	 */
+	@Override
+	public Flux<Ingredient> exportIngredients(Character type) {
+		return reactiveIngredientRepository.findPageAfter(type, 0L, exportPageSize)
+				.expand(page -> page.size() < exportPageSize ? Mono.empty()
+						: reactiveIngredientRepository.findPageAfter(type, page.get(page.size() - 1).getId(),
+								exportPageSize))
+				.flatMapIterable(page -> page);
+	}
+	
+	/*
+	 * Update ingredient through blocking service layer, which writes its outbox events and records its inventory.
+	 */
+	@Override
+	public Mono<Ingredient> updateIngredient(Ingredient ingredient) {
+		return blockingScheduler.call(() -> ingredientService.updateIngredient(ingredient));
+	}
+	
+	/*
+	 * Delete ingredient through blocking service layer, which writes its outbox event.
+	 */
+	@Override
+	public Mono<Void> deleteIngredient(Long id) {
+		return blockingScheduler.run(() -> ingredientService.deleteIngredient(id));
+	}
+	
+	/*
+	 * Calculate order price:
+	 * > Derive portions of order from closed recipe and customized ingredients.
+	 * > Decrement inventory of each portion one at a time, in order, pricing it from the row just saved.
+	 * > Sum prices of portions.
+	 */
+	@Override
+	public Mono<BigDecimal> calculateOrderPrice(OrderPayload order) {
+		return Mono.defer(() -> {
+			OrderPricingContext context = new OrderPricingContext(order, dealRegistryService.getEffectiveDiscounts());
+			
+			return getPortions(context).flatMapMany(Flux::fromIterable)
+					.concatMap(portion -> reactiveIngredientRepository
+							.addPortionQuantity(portion.ingredientId, -portion.portionQuantity)
+							.doOnNext(ingredient -> inventoryMovementService.recordMovement(ingredient.getId(),
+									-portion.portionQuantity, InventoryMovementReasonEnum.ORDER, order.getId()))
+							.doOnNext(ingredientService::cacheIngredient).doOnNext(lowStockService::checkStock)
+							.map(ingredient -> portion.price(ingredient, context.getEffectiveDiscounts())))
+					.reduce(BigDecimal.ZERO, BigDecimal::add).map(totalPrice -> totalPrice.setScale(2));
+		});
+	}
+	
+	/*
+	 * Quote order price: same portions as calculating it, prices loaded in a single projection query and inventory
+	 * untouched.
+	 */
+	@Override
+	public Mono<BigDecimal> quoteOrderPrice(OrderPayload order) {
+		return Mono.defer(() -> {
+			OrderPricingContext context = new OrderPricingContext(order, dealRegistryService.getEffectiveDiscounts());
+			
+			return getPortions(context).flatMap(portions -> {
+				Set<Long> ingredientIds = new LinkedHashSet<Long>();
+				
+				for (Portion portion : portions) {
+					ingredientIds.add(portion.ingredientId);
+				}
+				
+				return reactiveIngredientRepository.findPricesById(ingredientIds).collectMap(IngredientPrice::getId)
+						.map(ingredientPrices -> {
+							BigDecimal totalPrice = BigDecimal.ZERO;
+							
+							for (Portion portion : portions) {
+								totalPrice = totalPrice.add(portion.price(ingredientPrices.get(portion.ingredientId),
+										context.getEffectiveDiscounts()));
+							}
+							
+							return totalPrice.setScale(2);
+						});
+			});
+		});
+	}
+	
+	/*
+	 * Reverse order ingredients: increment inventory of each portion one at a time, in order.
+	 */
+	@Override
+	public Mono<Void> reverseOrderIngredients(OrderPayload order) {
+		// Reversal never prices, so no catalog of effective discounts is taken.
+		OrderPricingContext context = new OrderPricingContext(order, Collections.<Long, BigDecimal>emptyMap());
+		
+		return getPortions(context).flatMapMany(Flux::fromIterable)
+				.concatMap(portion -> reactiveIngredientRepository.addPortionQuantity(portion.ingredientId,
+						portion.portionQuantity)
+						.doOnNext(ingredient -> inventoryMovementService.recordMovement(ingredient.getId(),
+								portion.portionQuantity, InventoryMovementReasonEnum.REVERSAL, order.getId()))
+						.doOnNext(ingredientService::cacheIngredient).doOnNext(lowStockService::checkStock))
+				.then();
+	}
+	
+	/*
+	 * Add ingredients discount through blocking service layer.
+	 */
+	@Override
+	public Mono<Void> addIngredientDiscount(DealPayload deal) {
+		return blockingScheduler.run(() -> ingredientService.addIngredientDiscount(deal));
+	}
+	
+	/*
+	 * Delete ingredients discount through blocking service layer.
+	 */
+	@Override
+	public Mono<Void> deleteIngredientDiscount(DealPayload deal) {
+		return blockingScheduler.run(() -> ingredientService.deleteIngredientDiscount(deal));
+	}
+	
+	/*
+	 * Add and delete ingredients discount of several deals through blocking service layer.
+	 */
+	@Override
+	public Mono<Void> applyIngredientDiscounts(DealBatch dealBatch) {
+		return blockingScheduler.run(() -> ingredientService.applyIngredientDiscounts(dealBatch));
+	}
+	
+	/*
+	 * Add up inventory movements per time bucket through blocking service layer.
+	 */
+	@Override
+	public Mono<List<InventoryMovementBucket>> getMovementBuckets(Long ingredientId, long from, long to,
+			InventoryMovementBucketEnum bucket) {
+		return blockingScheduler
+				.call(() -> inventoryMovementService.getMovementBuckets(ingredientId, from, to, bucket));
+	}
+	
+	/*
+	 * Stream changes from outbox service layer, which never blocks.
+	 */
+	@Override
+	public Flux<OutboxEvent> streamChanges(Long lastEventId) {
+		return outboxService.streamEvents(lastEventId);
+	}
+	
+	/*
+	 * Get alerts of ingredients low on stock from low stock service layer, which never blocks.
+	 */
+	@Override
+	public Mono<List<LowStockAlert>> getLowStockAlerts() {
+		return Mono.fromSupplier(lowStockService::getLowStockAlerts);
+	}
+	
+	/*
+	 * Stream low stock alerts from low stock service layer, which never blocks.
+	 */
+	@Override
+	public Flux<LowStockAlert> streamLowStockAlerts() {
+		return lowStockService.streamAlerts();
+	}
+	
+	/*
+	 * Get availability of closed recipe through blocking service layer, which may wait on closed recipe resource.
+	 */
+	@Override
+	public Mono<RecipeAvailability> getRecipeAvailability(Integer closedRecipeId, PizzaSizeMultiplyFactorEnum size) {
+		return blockingScheduler.call(() -> recipeAvailabilityService.getRecipeAvailability(closedRecipeId, size));
+	}
+	
+	/*
+	 * Get availability of several closed recipes through blocking service layer.
+	 */
+	@Override
+	public Mono<List<RecipeAvailability>> getRecipeAvailabilities(List<Integer> closedRecipeIds,
+			PizzaSizeMultiplyFactorEnum size) {
+		return blockingScheduler.call(() -> recipeAvailabilityService.getRecipeAvailabilities(closedRecipeIds, size));
+	}
+	
+	/*
+	 * List price of several closed recipes from recipe cost index of blocking service layer.
+	 */
+	@Override
+	public Mono<List<RecipePrice>> getRecipePrices(List<Integer> closedRecipeIds, PizzaSizeMultiplyFactorEnum size) {
+		return blockingScheduler.call(() -> ingredientService.getRecipePrices(closedRecipeIds, size));
+	}
+	
+	/**
+	 * Derive portions of an order, as the blocking service layer prices them:
+	 * > Flow 1) Closed recipe ingredients, less the removed portion of each one, skipped when totally removed.
+	 * > Flow 2) Added customized ingredients.
+	 * 
+	 * @param context Pricing context of order with customized ingredients.
+	 * @return Portions of order, in pricing order.
+	 */
+	private Mono<List<Portion>> getPortions(OrderPricingContext context) {
+		OrderPayload order = context.getOrder();
+		Mono<ClosedRecipe> closedRecipe = order.getClosedRecipeId() == null ? Mono.empty()
+				: reactiveClosedRecipeClientService.getClosedRecipe(order.getClosedRecipeId());
+		
+		return closedRecipe.map(recipe -> getClosedRecipePortions(context, recipe))
+				.defaultIfEmpty(new ArrayList<Portion>()).map(portions -> {
+					for (int position = 0; position < order.getCustomizationCount(); position++) {
+						if (context.isAddition(position)) {
+							portions.add(new Portion(order.getCustomizationIngredientId(position),
+									context.getCustomizationPortionQuantity(position)));
+						}
+					}
+					
+					return portions;
+				});
+	}
+	
+	/**
+	 * Derive portions of closed recipe ingredients of an order.
+	 * 
+	 * @param context Pricing context of order with customized ingredients.
+	 * @param closedRecipe Closed recipe of order.
+	 * @return Portions of closed recipe ingredients.
+	 */
+	private List<Portion> getClosedRecipePortions(OrderPricingContext context, ClosedRecipe closedRecipe) {
+		LongKeyedMap<ClosedRecipeIngredient> closedRecipeIngredientMap = closedRecipe.getClosedRecipeIngredientMap();
+		List<Portion> portions = new ArrayList<Portion>(closedRecipeIngredientMap.size());
+		long ingredientId = 0;
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		int customizationPosition = -1;
+		
+		for (int position = 0; position < closedRecipeIngredientMap.size(); position++) {
+			ingredientId = closedRecipeIngredientMap.keyAt(position);
+			closedRecipeIngredient = closedRecipeIngredientMap.valueAt(position);
+			customizationPosition = context.indexOfRemoval(ingredientId);
+			
+			if (customizationPosition >= 0) {
+				// Partially removed ingredients keep the remaining portion, totally removed ones are skipped.
+				if (context.getCustomizationPortionQuantity(customizationPosition) < context
+						.getPortionQuantity(closedRecipeIngredient)) {
+					portions.add(new Portion(ingredientId, context.getPortionQuantity(closedRecipeIngredient)
+							- context.getCustomizationPortionQuantity(customizationPosition)));
+				}
+			} else {
+				portions.add(new Portion(ingredientId, context.getPortionQuantity(closedRecipeIngredient)));
+			}
+		}
+		
+		return portions;
+	}
+	
+	/**
+	 * Portion of an ingredient taken by an order, already considering pizza size.
+	 */
+	private static class Portion {
+		
+		/**
+		 * Id of ingredient.
+		 */
+		private final Long ingredientId;
+		
+		/**
+		 * Quantity of portion.
+		 */
+		private final int portionQuantity;
+		
+		/**
+		 * Constructor.
+		 * 
+		 * @param ingredientId Id of ingredient.
+		 * @param portionQuantity Quantity of portion.
+		 */
+		private Portion(Long ingredientId, int portionQuantity) {
+			this.ingredientId = ingredientId;
+			this.portionQuantity = portionQuantity;
+		}
+		
+		/**
+		 * Price portion.
+		 * 
+		 * @param ingredient Ingredient of portion.
+		 * @param effectiveDiscounts Catalog of effective discounts of active deals, taken once per order.
+		 * @return Price of portion with discounts.
+		 */
+		private BigDecimal price(Ingredient ingredient, Map<Long, BigDecimal> effectiveDiscounts) {
+			return IngredientPricing.calculatePortionPrice(ingredient, effectiveDiscounts)
+					.multiply(BigDecimal.valueOf(portionQuantity));
+		}
+		
+		/**
+		 * Price portion from pricing columns of its ingredient.
+		 * 
+		 * @param ingredientPrice Pricing columns of ingredient of portion, null when not found.
+		 * @param effectiveDiscounts Catalog of effective discounts of active deals, taken once per order.
+		 * @return Price of portion with discounts.
+		 */
+		private BigDecimal price(IngredientPrice ingredientPrice, Map<Long, BigDecimal> effectiveDiscounts) {
+			if (ingredientPrice == null) {
+				throw new NoSuchElementException("Ingredient " + ingredientId + " not found.");
+			}
+			
+			return IngredientPricing.calculatePortionPrice(ingredientPrice, effectiveDiscounts)
+					.multiply(BigDecimal.valueOf(portionQuantity));
+		}
+	}
+}
\ No newline at end of file
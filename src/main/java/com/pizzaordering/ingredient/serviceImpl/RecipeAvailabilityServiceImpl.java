@@ -0,0 +1,256 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.scheduling.VirtualThreads;
+import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.service.RecipeAvailabilityService;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Implementation of recipe availability service layer interface.
+ * 
+ * Closed recipes come from the closed recipe cache and inventory from the ingredient cache, the database only being
+ * queried once per call for ingredients not cached. Inventory written by another instance is seen once its cached
+ * copy expires, availability being a hint for the menu while pricing an order stays the authority.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@Service
+public class RecipeAvailabilityServiceImpl implements RecipeAvailabilityService {
+	
+	/**
+	 * Name of threads getting closed recipes of a batch.
+	 */
+	private static final String EXECUTOR_NAME = "recipe-availability";
+	
+	/**
+	 * Interface of closed recipe client service layer.
+	 */
+	@Autowired
+	ClosedRecipeClientService closedRecipeClientService;
+	
+	/**
+	 * Interface of ingredient service layer, serving inventory from its cache.
+	 */
+	@Autowired
+	IngredientService ingredientService;
+	
+	/**
+	 * Number of threads getting closed recipes of a batch in parallel.
+	 */
+	@Value("${recipe.availability.threads:8}")
+	private int threads;
+	
+	/**
+	 * Whether closed recipes are gotten on virtual threads.
+	 */
+	@Value("${spring.threads.virtual.enabled:false}")
+	private boolean virtualThreadsEnabled;
+	
+	/**
+	 * Executor getting closed recipes of a batch in parallel, cache misses waiting on the closed recipe resource.
+	 */
+	private ExecutorService executor;
+	
+	/**
+	 * Start executor.
+	 */
+	@PostConstruct
+	public void init() {
+		executor = Executors.newFixedThreadPool(threads,
+				VirtualThreads.newThreadFactory(EXECUTOR_NAME, virtualThreadsEnabled));
+	}
+	
+	/**
+	 * Stop executor.
+	 */
+	@PreDestroy
+	public void destroy() {
+		executor.shutdownNow();
+	}
+	
+	/*
+	 * Get availability of closed recipe in size from cached closed recipe and inventory.
+	 */
+	@Override
+	public RecipeAvailability getRecipeAvailability(Integer closedRecipeId, PizzaSizeMultiplyFactorEnum size) {
+		ClosedRecipe closedRecipe = findClosedRecipe(closedRecipeId);
+		Map<Long, Ingredient> inventory = loadInventory(closedRecipe != null
+				? closedRecipe.getClosedRecipeIngredientMap().keySet() : Collections.<Long>emptySet());
+		
+		return calculateAvailability(closedRecipeId, closedRecipe, size, inventory);
+	}
+	
+	/*
+	 * Get availability of several closed recipes:
+	 * > Get closed recipes in parallel, so cache misses wait on the closed recipe resource together.
+	 * > Load inventory of all their ingredients at once.
+	 * > Calculate availability of each closed recipe in each size.
+	 */
+	@Override
+	public List<RecipeAvailability> getRecipeAvailabilities(List<Integer> closedRecipeIds,
+			PizzaSizeMultiplyFactorEnum size) {
+		List<CompletableFuture<ClosedRecipe>> closedRecipeFutures = new ArrayList<CompletableFuture<ClosedRecipe>>(
+				closedRecipeIds.size());
+		List<ClosedRecipe> closedRecipes = new ArrayList<ClosedRecipe>(closedRecipeIds.size());
+		Set<Long> ingredientIds = new LinkedHashSet<Long>();
+		PizzaSizeMultiplyFactorEnum[] sizes = size != null ? new PizzaSizeMultiplyFactorEnum[] { size }
+				: PizzaSizeMultiplyFactorEnum.values();
+		List<RecipeAvailability> recipeAvailabilities = new ArrayList<RecipeAvailability>(
+				closedRecipeIds.size() * sizes.length);
+		Map<Long, Ingredient> inventory = null;
+		
+		for (Integer closedRecipeId : closedRecipeIds) {
+			closedRecipeFutures.add(CompletableFuture.supplyAsync(() -> findClosedRecipe(closedRecipeId), executor));
+		}
+		
+		for (CompletableFuture<ClosedRecipe> closedRecipeFuture : closedRecipeFutures) {
+			try {
+				closedRecipes.add(closedRecipeFuture.join());
+			} catch (CompletionException e) {
+				throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+			}
+		}
+		
+		for (ClosedRecipe closedRecipe : closedRecipes) {
+			if (closedRecipe != null) {
+				ingredientIds.addAll(closedRecipe.getClosedRecipeIngredientMap().keySet());
+			}
+		}
+		
+		inventory = loadInventory(ingredientIds);
+		
+		for (int i = 0; i < closedRecipeIds.size(); i++) {
+			for (PizzaSizeMultiplyFactorEnum pizzaSize : sizes) {
+				recipeAvailabilities.add(calculateAvailability(closedRecipeIds.get(i), closedRecipes.get(i),
+						pizzaSize, inventory));
+			}
+		}
+		
+		return recipeAvailabilities;
+	}
+	
+	/**
+	 * Get closed recipe from closed recipe client service layer.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @return Closed recipe, or null when closed recipe resource does not know it.
+	 */
+	private ClosedRecipe findClosedRecipe(Integer closedRecipeId) {
+		try {
+			return closedRecipeClientService.getClosedRecipe(closedRecipeId);
+		} catch (HttpClientErrorException e) {
+			if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
+				return null;
+			}
+			
+			throw e;
+		}
+	}
+	
+	/**
+	 * Load inventory of ingredients, from cache first and else in a single query.
+	 * 
+	 * @param ingredientIds Ids of ingredients.
+	 * @return Ingredients found by id.
+	 */
+	private Map<Long, Ingredient> loadInventory(Collection<Long> ingredientIds) {
+		Map<Long, Ingredient> inventory = new HashMap<Long, Ingredient>();
+		
+		if (ingredientIds.isEmpty()) {
+			return inventory;
+		}
+		
+		for (IngredientLookup ingredientLookup : ingredientService.getIngredients(new ArrayList<Long>(ingredientIds))) {
+			if (ingredientLookup.getFound()) {
+				inventory.put(ingredientLookup.getId(), ingredientLookup.getIngredient());
+			}
+		}
+		
+		return inventory;
+	}
+	
+	/**
+	 * Calculate availability of closed recipe in size: the least, across its ingredients, of the quantity of portion
+	 * in inventory over the quantity of portion the size takes.
+	 * 
+	 * @param closedRecipeId Id of closed recipe.
+	 * @param closedRecipe Closed recipe, or null when not found.
+	 * @param size Size of pizza.
+	 * @param inventory Ingredients by id, an ingredient absent counting as out of stock.
+	 * @return Availability of closed recipe in size.
+	 */
+	private RecipeAvailability calculateAvailability(Integer closedRecipeId, ClosedRecipe closedRecipe,
+			PizzaSizeMultiplyFactorEnum size, Map<Long, Ingredient> inventory) {
+		Ingredient ingredient = null;
+		int requiredQuantity = 0;
+		int availableQuantity = 0;
+		int makeableCount = Integer.MAX_VALUE;
+		Long limitingIngredientId = null;
+		
+		if (closedRecipe == null) {
+			return new RecipeAvailability(closedRecipeId, false, size.getShortDescription(), 0, null);
+		}
+		
+		for (Map.Entry<Long, ClosedRecipeIngredient> entry : closedRecipe.getClosedRecipeIngredientMap().entrySet()) {
+			requiredQuantity = entry.getValue().getPortionQuantity() * size.getMultiplyFactor();
+			
+			if (requiredQuantity <= 0) {
+				continue;
+			}
+			
+			ingredient = inventory.get(entry.getKey());
+			availableQuantity = ingredient != null && ingredient.getPortionQuantity() != null
+					? Math.max(0, ingredient.getPortionQuantity()) : 0;
+			
+			if (availableQuantity / requiredQuantity < makeableCount) {
+				makeableCount = availableQuantity / requiredQuantity;
+				limitingIngredientId = entry.getKey();
+			}
+		}
+		
+		// A closed recipe taking no ingredient is not something the kitchen can make.
+		return new RecipeAvailability(closedRecipeId, true, size.getShortDescription(),
+				limitingIngredientId != null ? makeableCount : 0, limitingIngredientId);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,63 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.util;
+
+/**
+ * Enumeration of ingredient import format. 
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public enum IngredientImportFormatEnum {
+	
+	/**
+	 * Newline delimited JSON, one ingredient per line.
+	 */
+	NDJSON("application/x-ndjson"),
+	
+	/**
+	 * Comma separated values with a header row naming ingredient properties.
+	 */
+	CSV("text/csv");
+	
+	/**
+	 * Media type of format.
+	 */
+	private final String mediaType;
+	
+	/**
+	 * Constructor.
+	 */
+	IngredientImportFormatEnum(String mediaType) {
+		this.mediaType = mediaType;
+	}
+	
+	/**
+	 * Get media type of format.
+	 * 
+	 * @return Media type of format.
+	 */
+	public String getMediaType() {
+		return this.mediaType;
+	}
+	
+	/**
+	 * Get format of a content type, ignoring its parameters such as charset.
+	 * 
+	 * @param contentType Content type of request.
+	 * @return Format of content type, newline delimited JSON when not CSV.
+	 */
+	public static IngredientImportFormatEnum fromContentType(String contentType) {
+		return contentType != null && contentType.toLowerCase().startsWith(CSV.mediaType) ? CSV : NDJSON;
+	}
+}
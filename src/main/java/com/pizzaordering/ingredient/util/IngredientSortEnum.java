@@ -0,0 +1,32 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.util;
+
+/**
+ * Enumeration of ingredient listing sort, each one a keyset the listing pages through.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public enum IngredientSortEnum {
+	
+	/**
+	 * Sort by id.
+	 */
+	ID,
+	
+	/**
+	 * Sort by stock level, that is quantity of portion, then by id.
+	 */
+	PORTION_QUANTITY;
+}
\ No newline at end of file
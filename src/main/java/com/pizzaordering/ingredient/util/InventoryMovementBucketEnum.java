@@ -0,0 +1,60 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Enumeration of time bucket inventory movements are aggregated on, aligned on UTC epoch.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public enum InventoryMovementBucketEnum {
+	
+	/**
+	 * Bucket of a minute.
+	 */
+	MINUTE(TimeUnit.MINUTES.toMillis(1)),
+	
+	/**
+	 * Bucket of an hour.
+	 */
+	HOUR(TimeUnit.HOURS.toMillis(1)),
+	
+	/**
+	 * Bucket of a day.
+	 */
+	DAY(TimeUnit.DAYS.toMillis(1));
+	
+	/**
+	 * Length of bucket in milliseconds.
+	 */
+	private final long millis;
+	
+	/**
+	 * Constructor.
+	 */
+	InventoryMovementBucketEnum(long millis) {
+		this.millis = millis;
+	}
+	
+	/**
+	 * Get length of bucket.
+	 * 
+	 * @return Length of bucket in milliseconds.
+	 */
+	public long getMillis() {
+		return this.millis;
+	}
+}
\ No newline at end of file
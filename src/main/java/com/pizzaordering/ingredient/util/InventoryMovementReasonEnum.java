@@ -0,0 +1,63 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.util;
+
+/**
+ * Enumeration of reason of inventory movement. 
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public enum InventoryMovementReasonEnum {
+	
+	/**
+	 * Initial inventory of an added ingredient.
+	 */
+	CREATE("C"),
+	
+	/**
+	 * Portions taken by an order.
+	 */
+	ORDER("O"),
+	
+	/**
+	 * Portions given back by a reversed order.
+	 */
+	REVERSAL("R"),
+	
+	/**
+	 * Manual update of an ingredient.
+	 */
+	UPDATE("U");
+	
+	/**
+	 * Code of reason, as stored.
+	 */
+	private final String code;
+	
+	/**
+	 * Constructor.
+	 */
+	InventoryMovementReasonEnum(String code) {
+		this.code = code;
+	}
+	
+	/**
+	 * Get code of reason.
+	 * 
+	 * @return Code of reason, as stored.
+	 */
+	public String getCode() {
+		return this.code;
+	}
+}
\ No newline at end of file
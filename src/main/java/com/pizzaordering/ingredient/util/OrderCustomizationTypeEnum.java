@@ -30,6 +30,18 @@ public enum OrderCustomizationTypeEnum {
 	 */
 	REMOVE("R");
 	
+	/**
+	 * Order customization types indexed by type, in upper and lower case.
+	 */
+	private static final OrderCustomizationTypeEnum[] BY_TYPE = new OrderCustomizationTypeEnum[128];
+	
+	static {
+		for (OrderCustomizationTypeEnum typeEnum : OrderCustomizationTypeEnum.values()) {
+			BY_TYPE[Character.toUpperCase(typeEnum.type.charAt(0))] = typeEnum;
+			BY_TYPE[Character.toLowerCase(typeEnum.type.charAt(0))] = typeEnum;
+		}
+	}
+	
 	/**
 	 * Type of customization.
 	 */
@@ -50,4 +62,18 @@ public enum OrderCustomizationTypeEnum {
 	public String getType() {
 		return this.type;
 	}
+	
+	/**
+	 * Get order customization type of a type, ignoring case.
+	 * 
+	 * @param type Type of customization.
+	 * @return Order customization type, or null when unknown.
+	 */
+	public static OrderCustomizationTypeEnum fromType(Character type) {
+		if (type == null || type >= BY_TYPE.length) {
+			return null;
+		}
+		
+		return BY_TYPE[type];
+	}
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.util;
+
+/**
+ * Enumeration of outbox event type, each carrying its own subset of the event columns. 
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public enum OutboxEventTypeEnum {
+	
+	/**
+	 * Quantity of portion of an ingredient changed, carrying the new quantity.
+	 */
+	INVENTORY("I"),
+	
+	/**
+	 * Price of an ingredient changed, carrying the new price of portion and percentage of discount.
+	 */
+	PRICE("P"),
+	
+	/**
+	 * Ingredient deleted.
+	 */
+	DELETE("D"),
+	
+	/**
+	 * Deal registered, one event per ingredient of deal carrying its percentage of discount and the period of deal.
+	 */
+	DEAL_ADDED("A"),
+	
+	/**
+	 * Deal unregistered, carrying only the id of deal.
+	 */
+	DEAL_REMOVED("R");
+	
+	/**
+	 * Code of type, as stored.
+	 */
+	private final String code;
+	
+	/**
+	 * Constructor.
+	 */
+	OutboxEventTypeEnum(String code) {
+		this.code = code;
+	}
+	
+	/**
+	 * Get code of type.
+	 * 
+	 * @return Code of type, as stored.
+	 */
+	public String getCode() {
+		return this.code;
+	}
+}
\ No newline at end of file
@@ -12,7 +12,7 @@
 
 package com.pizzaordering.ingredient.util;
 
-import java.util.stream.Stream;
+import java.util.NoSuchElementException;
 
 /**
  * Enumeration of pizza size multiply factor.
@@ -37,6 +37,17 @@ public enum PizzaSizeMultiplyFactorEnum {
 	 */
 	BIG('B', 3);
 	
+	/**
+	 * Pizza sizes indexed by short description, resolved with an array read instead of a scan of values.
+	 */
+	private static final PizzaSizeMultiplyFactorEnum[] BY_SHORT_DESCRIPTION = new PizzaSizeMultiplyFactorEnum[128];
+	
+	static {
+		for (PizzaSizeMultiplyFactorEnum pizzaSizeEnum : PizzaSizeMultiplyFactorEnum.values()) {
+			BY_SHORT_DESCRIPTION[pizzaSizeEnum.shortDescription] = pizzaSizeEnum;
+		}
+	}
+	
 	/**
 	 * Short description of pizza size.
 	 */
@@ -73,15 +84,34 @@ public enum PizzaSizeMultiplyFactorEnum {
 		return this.multiplyFactor;
 	}
 	
+	/**
+	 * Get pizza size of a short description.
+	 * 
+	 * @param pizzaSizeShortDescription Short description of pizza size.
+	 * @return Pizza size, or null when unknown.
+	 */
+	public static PizzaSizeMultiplyFactorEnum fromShortDescription(Character pizzaSizeShortDescription) {
+		if (pizzaSizeShortDescription == null || pizzaSizeShortDescription >= BY_SHORT_DESCRIPTION.length) {
+			return null;
+		}
+		
+		return BY_SHORT_DESCRIPTION[pizzaSizeShortDescription];
+	}
+	
 	/**
 	 * Get multiply factor proportional to pizza size.
 	 * 
 	 * @param pizzaSizeShortDescription Short description of pizza size.
 	 * @return Multiply factor proportional to pizza size.
+	 * @throws NoSuchElementException When pizza size is unknown.
 	 */
 	public static Integer getMultiplyFactor(Character pizzaSizeShortDescription) {
-		return Stream.of(PizzaSizeMultiplyFactorEnum.values()).filter(
-				pizzaSizeEnum -> pizzaSizeEnum.getShortDescription().equals(pizzaSizeShortDescription)).map(
-						pizzaSizeEnum -> pizzaSizeEnum.getMultiplyFactor()).findAny().get();
+		PizzaSizeMultiplyFactorEnum pizzaSizeEnum = fromShortDescription(pizzaSizeShortDescription);
+		
+		if (pizzaSizeEnum == null) {
+			throw new NoSuchElementException("Pizza size " + pizzaSizeShortDescription + " not found.");
+		}
+		
+		return pizzaSizeEnum.getMultiplyFactor();
 	}
 }
\ No newline at end of file
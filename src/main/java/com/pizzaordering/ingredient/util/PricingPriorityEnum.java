@@ -0,0 +1,53 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient.util;
+
+/**
+ * Enumeration of pricing request priority, lower priorities being shed first under load. 
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public enum PricingPriorityEnum {
+	
+	/**
+	 * Checkout pricing and inventory updates, shed last.
+	 */
+	CHECKOUT(false),
+	
+	/**
+	 * Read-only price quotes, shed first.
+	 */
+	QUOTE(true);
+	
+	/**
+	 * Whether requests are shed before the others.
+	 */
+	private final boolean sheddable;
+	
+	/**
+	 * Constructor.
+	 */
+	PricingPriorityEnum(boolean sheddable) {
+		this.sheddable = sheddable;
+	}
+	
+	/**
+	 * Get whether requests are shed before the others.
+	 * 
+	 * @return Whether requests are shed before the others.
+	 */
+	public boolean isSheddable() {
+		return this.sheddable;
+	}
+}
\ No newline at end of file
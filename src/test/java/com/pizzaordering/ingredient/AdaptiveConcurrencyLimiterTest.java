@@ -0,0 +1,148 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.pizzaordering.ingredient.limiter.AdaptiveConcurrencyLimiter;
+
+/**
+ * Unit test of adaptive concurrency limiter.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class AdaptiveConcurrencyLimiterTest {
+	
+	/**
+	 * Test admission by priority:
+	 * 
+	 * > Fill a limit of 8 with sheddable requests, then with the others.
+	 * > Sheddable requests must be rejected past half of the limit, the others past the limit.
+	 */
+	@Test
+	public void tryAcquireShedsSheddableFirstTest() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(8, 1, 100, 0.5);
+		List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<AdaptiveConcurrencyLimiter.Permit>();
+		
+		for (int i = 0; i < 4; i++) {
+			permits.add(limiter.tryAcquire(true));
+		}
+		
+		assertThat(permits).doesNotContainNull();
+		assertThat(limiter.tryAcquire(true)).isNull();
+		
+		for (int i = 0; i < 4; i++) {
+			permits.add(limiter.tryAcquire(false));
+		}
+		
+		assertThat(permits).doesNotContainNull();
+		assertThat(limiter.tryAcquire(false)).isNull();
+		assertThat(limiter.getInFlight()).isEqualTo(8);
+		
+		permits.get(0).release(false);
+		permits.get(0).release(false);
+		
+		assertThat(limiter.getInFlight()).isEqualTo(7);
+	}
+	
+	/**
+	 * Test drop of a request still running:
+	 * 
+	 * > Admit a request and drop it, as when its deadline fires, then release it once it finished.
+	 * > Limit must be cut once at the drop, request counting as in flight until released.
+	 */
+	@Test
+	public void dropKeepsPermitUntilReleasedTest() {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 1, 100, 1.0);
+		AdaptiveConcurrencyLimiter.Permit permit = limiter.tryAcquire(false);
+		int droppedLimit = 0;
+		
+		permit.drop();
+		droppedLimit = limiter.getLimit();
+		
+		assertThat(droppedLimit).isLessThan(10);
+		assertThat(limiter.getInFlight()).isEqualTo(1);
+		
+		permit.drop();
+		permit.release(false);
+		
+		assertThat(limiter.getLimit()).isEqualTo(droppedLimit);
+		assertThat(limiter.getInFlight()).isZero();
+	}
+	
+	/**
+	 * Test adaptation of limit:
+	 * 
+	 * > Run saturating waves of fast requests, then of requests queueing downstream, then drop one.
+	 * > Limit must grow with fast requests, shrink once latency rises and shrink again on the drop.
+	 * 
+	 * @throws InterruptedException When interrupted while simulating latency.
+	 */
+	@Test
+	public void limitFollowsLatencyTest() throws InterruptedException {
+		AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(10, 2, 100, 1.0);
+		int grownLimit = 0;
+		int shrunkLimit = 0;
+		AdaptiveConcurrencyLimiter.Permit permit = null;
+		
+		for (int wave = 0; wave < 20; wave++) {
+			runWave(limiter, 1);
+		}
+		
+		grownLimit = limiter.getLimit();
+		
+		assertThat(grownLimit).isGreaterThan(10);
+		
+		for (int wave = 0; wave < 20; wave++) {
+			runWave(limiter, 20);
+		}
+		
+		shrunkLimit = limiter.getLimit();
+		
+		assertThat(shrunkLimit).isLessThan(grownLimit);
+		
+		permit = limiter.tryAcquire(false);
+		permit.release(true);
+		
+		assertThat(limiter.getLimit()).isLessThan(shrunkLimit);
+	}
+	
+	/**
+	 * Admit as many requests as the limit allows, wait and release them all.
+	 * 
+	 * @param limiter Limiter.
+	 * @param latencyMillis Latency of requests, in milliseconds.
+	 * @throws InterruptedException When interrupted while simulating latency.
+	 */
+	private void runWave(AdaptiveConcurrencyLimiter limiter, long latencyMillis) throws InterruptedException {
+		List<AdaptiveConcurrencyLimiter.Permit> permits = new ArrayList<AdaptiveConcurrencyLimiter.Permit>();
+		AdaptiveConcurrencyLimiter.Permit permit = null;
+		
+		while ((permit = limiter.tryAcquire(false)) != null) {
+			permits.add(permit);
+		}
+		
+		TimeUnit.MILLISECONDS.sleep(latencyMillis);
+		
+		for (AdaptiveConcurrencyLimiter.Permit admitted : permits) {
+			admitted.release(false);
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,177 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.pizzaordering.ingredient.cache.ClosedRecipeCache;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test of closed recipe cache.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ClosedRecipeCacheTest {
+	
+	/**
+	 * Test invalidation of a cached closed recipe:
+	 * 
+	 * > Load closed recipe once and invalidate it.
+	 * > Stale closed recipe must be served until the refetch runs, then the refetched one must be served.
+	 */
+	@Test
+	public void invalidateServesStaleUntilRefetchTest() {
+		AtomicInteger version = new AtomicInteger(1);
+		List<Runnable> pendingRefreshes = new ArrayList<Runnable>();
+		List<Integer> refreshedIds = new ArrayList<Integer>();
+		ClosedRecipeCache closedRecipeCache = null;
+		
+		closedRecipeCache = new ClosedRecipeCache(id -> closedRecipe(id, "Pepperoni v" + version.get()),
+				refreshedIds::add, 60000, 100, pendingRefreshes::add, new SimpleMeterRegistry());
+		
+		assertThat(closedRecipeCache.get(1).getDescription()).isEqualTo("Pepperoni v1");
+		
+		version.set(2);
+		closedRecipeCache.invalidate(1);
+		
+		// Refetch not run yet.
+		assertThat(closedRecipeCache.get(1).getDescription()).isEqualTo("Pepperoni v1");
+		assertThat(pendingRefreshes).hasSize(1);
+		assertThat(refreshedIds).isEmpty();
+		
+		pendingRefreshes.get(0).run();
+		
+		assertThat(closedRecipeCache.get(1).getDescription()).isEqualTo("Pepperoni v2");
+		assertThat(refreshedIds).containsExactly(1);
+	}
+	
+	/**
+	 * Test refetch of a closed recipe no longer known by closed recipe resource:
+	 * 
+	 * > Load closed recipe once, make the resource answer 404 and invalidate it.
+	 * > Entry must be evicted and listener notified once the refetch runs.
+	 */
+	@Test
+	public void refetchNotFoundEvictsTest() {
+		AtomicInteger status = new AtomicInteger(200);
+		List<Runnable> pendingRefreshes = new ArrayList<Runnable>();
+		List<Integer> refreshedIds = new ArrayList<Integer>();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ClosedRecipeCache closedRecipeCache = null;
+		
+		closedRecipeCache = new ClosedRecipeCache(id -> {
+			if (status.get() != 200) {
+				throw new HttpClientErrorException(HttpStatus.valueOf(status.get()));
+			}
+			
+			return closedRecipe(id, "Pepperoni");
+		}, refreshedIds::add, 60000, 100, pendingRefreshes::add, meterRegistry);
+		
+		closedRecipeCache.get(1);
+		
+		status.set(404);
+		closedRecipeCache.invalidate(1);
+		pendingRefreshes.get(0).run();
+		
+		assertThat(closedRecipeCache.size()).isEqualTo(0);
+		assertThat(refreshedIds).containsExactly(1);
+		assertThat(meterRegistry.get("closedrecipe.cache.evictions").tag("cause", "not-found").counter().count())
+				.isEqualTo(1);
+		assertThat(meterRegistry.get("closedrecipe.cache.refresh.failures").counter().count()).isEqualTo(0);
+	}
+	
+	/**
+	 * Test failed refetch of a closed recipe:
+	 * 
+	 * > Load closed recipe once, make the resource unreachable and invalidate it.
+	 * > Stale closed recipe must still be served and the failure counted.
+	 */
+	@Test
+	public void refetchFailureServesStaleTest() {
+		AtomicInteger version = new AtomicInteger(1);
+		List<Runnable> pendingRefreshes = new ArrayList<Runnable>();
+		List<Integer> refreshedIds = new ArrayList<Integer>();
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ClosedRecipeCache closedRecipeCache = null;
+		
+		closedRecipeCache = new ClosedRecipeCache(id -> {
+			if (version.get() != 1) {
+				throw new ResourceAccessException("Connection refused");
+			}
+			
+			return closedRecipe(id, "Pepperoni v1");
+		}, refreshedIds::add, 60000, 100, pendingRefreshes::add, meterRegistry);
+		
+		closedRecipeCache.get(1);
+		
+		version.set(2);
+		closedRecipeCache.invalidate(1);
+		pendingRefreshes.get(0).run();
+		
+		assertThat(closedRecipeCache.get(1).getDescription()).isEqualTo("Pepperoni v1");
+		assertThat(refreshedIds).isEmpty();
+		assertThat(meterRegistry.get("closedrecipe.cache.refresh.failures").counter().count()).isEqualTo(1);
+	}
+	
+	/**
+	 * Test maximum size of cache:
+	 * 
+	 * > Load more closed recipes than the maximum size.
+	 * > Cache must hold no more than the maximum size.
+	 */
+	@Test
+	public void maxSizeTest() {
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ClosedRecipeCache closedRecipeCache = null;
+		
+		closedRecipeCache = new ClosedRecipeCache(id -> closedRecipe(id, "Pepperoni"), id -> {
+		}, 60000, 3, Runnable::run, meterRegistry);
+		
+		for (int id = 1; id <= 10; id++) {
+			closedRecipeCache.get(id);
+		}
+		
+		assertThat(closedRecipeCache.size()).isEqualTo(3);
+		assertThat(meterRegistry.get("closedrecipe.cache.evictions").tag("cause", "size").counter().count())
+				.isEqualTo(7);
+	}
+	
+	/**
+	 * Build closed recipe.
+	 * 
+	 * @param id Id of closed recipe.
+	 * @param description Description of closed recipe.
+	 * @return Closed recipe.
+	 */
+	private ClosedRecipe closedRecipe(Integer id, String description) {
+		ClosedRecipe closedRecipe = new ClosedRecipe();
+		
+		closedRecipe.setId(id);
+		closedRecipe.setDescription(description);
+		
+		return closedRecipe;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,221 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.pizzaordering.ingredient.data.ActiveDealRepository;
+import com.pizzaordering.ingredient.domain.Deal;
+import com.pizzaordering.ingredient.domain.DealIngredient;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.entity.ActiveDeal;
+import com.pizzaordering.ingredient.service.DealRegistryService;
+import com.pizzaordering.ingredient.service.InvalidDealException;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Test of deal registry on its own in-memory database, with deals activated and deactivated by its timer wheel.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:deal-registry-test;DB_CLOSE_DELAY=-1",
+		"outbox.relay.enabled=false", "deal.scheduler.tick-ms=10", "deal.registry.refresh-ms=0" })
+public class DealRegistryServiceTest {
+	
+	/**
+	 * Id of ingredient on discount.
+	 */
+	private static final long INGREDIENT_ID = 1L;
+	
+	/**
+	 * Longest wait for a scheduled transition, in milliseconds.
+	 */
+	private static final long TRANSITION_TIMEOUT_MILLIS = 2000;
+	
+	/**
+	 * Interface of deal registry service layer.
+	 */
+	@Autowired
+	DealRegistryService dealRegistryService;
+	
+	/**
+	 * Interface of active deal repository layer, writing deals as another instance would.
+	 */
+	@Autowired
+	ActiveDealRepository activeDealRepository;
+	
+	/**
+	 * Registry of metrics.
+	 */
+	@Autowired
+	MeterRegistry meterRegistry;
+	
+	/**
+	 * Test a deal registered again for a next window once its first window ended:
+	 * 
+	 * > Register a deal starting and ending soon, wait its activation and deactivation, then register it again.
+	 * > Discount must follow each window, and the ended deal must leave the registry so its id is accepted again.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting transitions.
+	 */
+	@Test
+	public void registerAgainAfterEndTest() throws InterruptedException {
+		Instant now = Instant.now();
+		
+		// Test.
+		assertThat(dealRegistryService.registerDeal(deal(now.plusMillis(300), now.plusMillis(600)))).isTrue();
+		assertThat(dealRegistryService.getEffectiveDiscount(INGREDIENT_ID)).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(registered()).isEqualTo(1);
+		
+		awaitDiscount(BigDecimal.TEN);
+		awaitDiscount(BigDecimal.ZERO);
+		
+		assertThat(registered()).isEqualTo(0);
+		
+		now = Instant.now();
+		
+		assertThat(dealRegistryService.registerDeal(deal(null, now.plusMillis(200)))).isTrue();
+		assertThat(dealRegistryService.getEffectiveDiscount(INGREDIENT_ID)).isEqualByComparingTo(BigDecimal.TEN);
+		assertThat(dealRegistryService.registerDeal(deal(null, now.plusMillis(200)))).isFalse();
+		
+		awaitDiscount(BigDecimal.ZERO);
+		
+		assertThat(registered()).isEqualTo(0);
+	}
+	
+	/**
+	 * Test invalid deals:
+	 * 
+	 * > Register a deal already ended, one starting after it ends, and a batch repeating a deal.
+	 * > Each one must be refused as an invalid deal, leaving the registry untouched.
+	 */
+	@Test
+	public void invalidDealTest() {
+		Instant now = Instant.now();
+		
+		// Test.
+		assertThatThrownBy(() -> dealRegistryService.registerDeal(deal(null, now.minusSeconds(60))))
+				.isInstanceOf(InvalidDealException.class).hasMessageContaining("already ended");
+		assertThatThrownBy(() -> dealRegistryService.registerDeal(deal(now.plusSeconds(120), now.plusSeconds(60))))
+				.isInstanceOf(InvalidDealException.class).hasMessageContaining("must start before it ends");
+		assertThatThrownBy(() -> dealRegistryService.applyDeals(
+				Arrays.asList(deal(null, now.plusSeconds(60)), deal(null, now.plusSeconds(60))),
+				Collections.<Integer>emptyList())).isInstanceOf(InvalidDealException.class)
+						.hasMessageContaining("repeated");
+		
+		assertThat(registered()).isEqualTo(0);
+	}
+	
+	/**
+	 * Test registry refreshed from deals written by another instance:
+	 * 
+	 * > Persist a deal behind the back of the registry and refresh, change its discount and refresh, then delete it
+	 * and refresh.
+	 * > Discount must follow each refresh, and refreshing without changes must leave it as is.
+	 */
+	@Test
+	public void refreshTest() {
+		ActiveDeal activeDeal = new ActiveDeal();
+		long ingredientId = 2L;
+		
+		activeDeal.setId(8);
+		activeDeal.setDescription("Other Instance Promotion");
+		activeDeal.setPercentageDiscountMap(Collections.singletonMap(ingredientId, BigDecimal.valueOf(15)));
+		
+		// Test.
+		activeDealRepository.save(activeDeal);
+		dealRegistryService.refreshDeals();
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(ingredientId)).isEqualByComparingTo(BigDecimal.valueOf(15));
+		
+		dealRegistryService.refreshDeals();
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(ingredientId)).isEqualByComparingTo(BigDecimal.valueOf(15));
+		
+		activeDeal.setPercentageDiscountMap(Collections.singletonMap(ingredientId, BigDecimal.valueOf(5)));
+		activeDealRepository.save(activeDeal);
+		dealRegistryService.refreshDeals();
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(ingredientId)).isEqualByComparingTo(BigDecimal.valueOf(5));
+		
+		activeDealRepository.deleteById(8);
+		dealRegistryService.refreshDeals();
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(ingredientId)).isEqualByComparingTo(BigDecimal.ZERO);
+	}
+	
+	/**
+	 * Build deal with discount on one ingredient.
+	 * 
+	 * @param startTime Moment deal starts, or null.
+	 * @param endTime Moment deal ends.
+	 * @return Deal with discount on one ingredient.
+	 */
+	private DealPayload deal(Instant startTime, Instant endTime) {
+		Deal deal = new Deal();
+		DealIngredient dealIngredient = new DealIngredient();
+		
+		dealIngredient.setDiscountPercentage(BigDecimal.TEN);
+		
+		deal.setId(7);
+		deal.setDescription("Happy Hour");
+		deal.setStartTime(startTime);
+		deal.setEndTime(endTime);
+		deal.setDealIngredientMap(new HashMap<Long, DealIngredient>());
+		deal.getDealIngredientMap().put(INGREDIENT_ID, dealIngredient);
+		
+		return DealPayload.of(deal);
+	}
+	
+	/**
+	 * Wait effective discount of ingredient to reach a value through a scheduled transition.
+	 * 
+	 * @param expected Expected effective discount.
+	 * @throws InterruptedException When interrupted while waiting.
+	 */
+	private void awaitDiscount(BigDecimal expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + TRANSITION_TIMEOUT_MILLIS;
+		
+		while (dealRegistryService.getEffectiveDiscount(INGREDIENT_ID).compareTo(expected) != 0
+				&& System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(INGREDIENT_ID)).isEqualByComparingTo(expected);
+	}
+	
+	/**
+	 * Get number of registered deals from its gauge.
+	 * 
+	 * @return Number of registered deals.
+	 */
+	private double registered() {
+		return meterRegistry.get("deal.registry.registered").gauge().value();
+	}
+}
\ No newline at end of file
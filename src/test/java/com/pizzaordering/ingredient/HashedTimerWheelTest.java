@@ -0,0 +1,73 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import com.pizzaordering.ingredient.scheduling.HashedTimerWheel;
+
+/**
+ * Unit test of hashed timer wheel.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class HashedTimerWheelTest {
+	
+	/**
+	 * Test timeouts scheduled across more than one wheel round:
+	 * 
+	 * > Schedule timeouts with delays beyond a round of the wheel and cancel one of them.
+	 * > Timeouts must run in deadline order, never before their deadline, and the cancelled one must not run.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting timeouts.
+	 */
+	@Test
+	public void scheduleTest() throws InterruptedException {
+		HashedTimerWheel timerWheel = new HashedTimerWheel("test-wheel", 10, 8);
+		List<String> runs = new CopyOnWriteArrayList<String>();
+		CountDownLatch latch = new CountDownLatch(2);
+		long start = System.nanoTime();
+		HashedTimerWheel.Timeout cancelled = null;
+		
+		try {
+			timerWheel.schedule(() -> {
+				runs.add("late:" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				latch.countDown();
+			}, 200);
+			cancelled = timerWheel.schedule(() -> runs.add("cancelled"), 100);
+			timerWheel.schedule(() -> {
+				runs.add("early:" + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+				latch.countDown();
+			}, 30);
+			
+			cancelled.cancel();
+			
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(runs).hasSize(2);
+			assertThat(runs.get(0)).startsWith("early:");
+			assertThat(runs.get(1)).startsWith("late:");
+			assertThat(Long.parseLong(runs.get(0).substring("early:".length()))).isGreaterThanOrEqualTo(30);
+			assertThat(Long.parseLong(runs.get(1).substring("late:".length()))).isGreaterThanOrEqualTo(200);
+		} finally {
+			timerWheel.stop();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,224 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.pizzaordering.ingredient.client.HedgedClosedRecipeClient;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Unit test of hedged closed recipe client against local stand-in replicas of closed recipe resource.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class HedgedClosedRecipeClientTest {
+	
+	/**
+	 * Latency injected on slow replica, in milliseconds.
+	 */
+	private static final long SLOW_LATENCY_MILLIS = 1500;
+	
+	/**
+	 * Stand-in replica answering right away.
+	 */
+	private HttpServer fastServer;
+	
+	/**
+	 * Stand-in replica answering after injected latency.
+	 */
+	private HttpServer slowServer;
+	
+	/**
+	 * Calls received by slow replica.
+	 */
+	private AtomicInteger slowServerCalls = new AtomicInteger();
+	
+	/**
+	 * Calls received by fast replica.
+	 */
+	private AtomicInteger fastServerCalls = new AtomicInteger();
+	
+	/**
+	 * Start stand-in replicas.
+	 * 
+	 * @throws IOException When a replica cannot be started.
+	 */
+	@Before
+	public void startServers() throws IOException {
+		fastServer = startServer(0, fastServerCalls);
+		slowServer = startServer(SLOW_LATENCY_MILLIS, slowServerCalls);
+	}
+	
+	/**
+	 * Stop stand-in replicas.
+	 */
+	@After
+	public void stopServers() {
+		fastServer.stop(0);
+		slowServer.stop(0);
+	}
+	
+	/**
+	 * Test that calls landing on a slow replica are hedged on the fast one:
+	 * 
+	 * > Call both replicas repeatedly through the client.
+	 * > Every call must answer well before the injected latency, and the slow replica must have been hedged.
+	 */
+	@Test
+	public void getClosedRecipeHedgedTest() {
+		HedgedClosedRecipeClient client = null;
+		ClosedRecipe closedRecipe = null;
+		long start = 0;
+		long elapsedMillis = 0;
+		
+		client = new HedgedClosedRecipeClient(Arrays.asList(uri(slowServer), uri(fastServer)), 10, 50, 8, 5000);
+		
+		try {
+			for (int i = 0; i < 20; i++) {
+				start = System.nanoTime();
+				closedRecipe = client.getClosedRecipe(1);
+				elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+				
+				assertThat(closedRecipe.getId()).isEqualTo(1);
+				assertThat(closedRecipe.getClosedRecipeIngredientMap().get(2L).getPortionQuantity()).isEqualTo(5);
+				assertThat(elapsedMillis).isLessThan(SLOW_LATENCY_MILLIS / 2);
+			}
+			
+			assertThat(fastServerCalls.get()).isGreaterThan(slowServerCalls.get());
+		} finally {
+			client.shutdown();
+		}
+	}
+	
+	/**
+	 * Test that a single replica is used without hedging:
+	 * 
+	 * > Call the only replica through the client.
+	 * > Call must answer with closed recipe and no hedge must be fired.
+	 */
+	@Test
+	public void getClosedRecipeSingleReplicaTest() {
+		HedgedClosedRecipeClient client = null;
+		
+		client = new HedgedClosedRecipeClient(Arrays.asList(uri(fastServer)), 10, 50, 2, 5000);
+		
+		try {
+			assertThat(client.getClosedRecipe(1).getDescription()).isEqualTo("Pepperoni");
+			assertThat(client.getHedgeCount()).isEqualTo(0);
+		} finally {
+			client.shutdown();
+		}
+	}
+	
+	/**
+	 * Test that an unknown closed recipe is not retried on another replica:
+	 * 
+	 * > Get an unknown closed recipe through a client of two fast replicas.
+	 * > Call must fail with not found after a single call.
+	 * 
+	 * @throws IOException When other replica cannot be started.
+	 */
+	@Test
+	public void getClosedRecipeNotFoundTest() throws IOException {
+		AtomicInteger otherServerCalls = new AtomicInteger();
+		HttpServer otherServer = startServer(0, otherServerCalls);
+		HedgedClosedRecipeClient client = new HedgedClosedRecipeClient(
+				Arrays.asList(uri(fastServer), uri(otherServer)), 10, 5000, 2, 5000);
+		Throwable thrown = null;
+		
+		
+		try {
+			thrown = catchThrowable(() -> client.getClosedRecipe(2));
+			
+			assertThat(thrown).isInstanceOf(HttpClientErrorException.class);
+			assertThat(((HttpClientErrorException) thrown).getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND);
+			assertThat(fastServerCalls.get() + otherServerCalls.get()).isEqualTo(1);
+		} finally {
+			client.shutdown();
+			otherServer.stop(0);
+		}
+	}
+	
+	/**
+	 * Start stand-in replica of closed recipe resource, knowing closed recipe 1 only.
+	 * 
+	 * @param latencyMillis Latency injected before answering, in milliseconds.
+	 * @param calls Counter of calls received.
+	 * @return Stand-in replica started.
+	 * @throws IOException When replica cannot be started.
+	 */
+	private HttpServer startServer(long latencyMillis, AtomicInteger calls) throws IOException {
+		HttpServer server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+		byte[] body = ("{\"id\":1,\"description\":\"Pepperoni\",\"closedRecipeIngredientMap\":"
+				+ "{\"1\":{\"portionQuantity\":3},\"2\":{\"portionQuantity\":5}}}").getBytes(StandardCharsets.UTF_8);
+		
+		server.createContext("/closedrecipes", exchange -> {
+			calls.incrementAndGet();
+			
+			try {
+				Thread.sleep(latencyMillis);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			
+			if (!exchange.getRequestURI().getPath().endsWith("/1")) {
+				exchange.sendResponseHeaders(404, -1);
+				exchange.close();
+				
+				return;
+			}
+			
+			exchange.getResponseHeaders().add("Content-Type", "application/json");
+			exchange.sendResponseHeaders(200, body.length);
+			
+			try (OutputStream outputStream = exchange.getResponseBody()) {
+				outputStream.write(body);
+			} catch (IOException e) {
+				// Client cancelled the hedged loser.
+			}
+		});
+		server.setExecutor(Executors.newCachedThreadPool());
+		server.start();
+		
+		return server;
+	}
+	
+	/**
+	 * Get URI of stand-in replica.
+	 * 
+	 * @param server Stand-in replica.
+	 * @return URI of closed recipe resource on replica.
+	 */
+	private String uri(HttpServer server) {
+		return "http://localhost:" + server.getAddress().getPort() + "/closedrecipes";
+	}
+}
\ No newline at end of file
@@ -0,0 +1,163 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.data.IngredientImportRepository;
+import com.pizzaordering.ingredient.domain.IngredientImportReport;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.serviceImpl.IngredientImportServiceImpl;
+import com.pizzaordering.ingredient.util.IngredientImportFormatEnum;
+
+/**
+ * Benchmark of bulk ingredient import of 100k rows into an in-memory database, reported as rows per second.
+ * 
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=IngredientImportBenchmark
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IngredientImportBenchmark {
+	
+	/**
+	 * Number of rows imported per invocation.
+	 */
+	private static final int ROWS = 100000;
+	
+	/**
+	 * Number of rows per JDBC batch.
+	 */
+	@Param({ "100", "1000", "5000" })
+	public int batchSize;
+	
+	/**
+	 * Format of rows.
+	 */
+	@Param({ "NDJSON", "CSV" })
+	public IngredientImportFormatEnum format;
+	
+	/**
+	 * JDBC template of in-memory database.
+	 */
+	private JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Ingredient import service layer.
+	 */
+	private IngredientImportServiceImpl ingredientImportService;
+	
+	/**
+	 * Rows imported on each invocation.
+	 */
+	private byte[] rows;
+	
+	/**
+	 * Create ingredient table, build service layer and generate rows.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		IngredientImportRepository ingredientImportRepository = new IngredientImportRepository();
+		DriverManagerDataSource dataSource = new DriverManagerDataSource(
+				"jdbc:h2:mem:import-benchmark;DB_CLOSE_DELAY=-1");
+		StringBuilder builder = new StringBuilder();
+		
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("drop table if exists igd_ingredient");
+		jdbcTemplate.execute("create table igd_ingredient (id bigint auto_increment primary key, "
+				+ "description varchar(255), type char(1), portion_quantity int, portion_price decimal(19,2), "
+				+ "percentage_discount decimal(19,2), reorder_threshold int)");
+		
+		ReflectionTestUtils.setField(ingredientImportRepository, "jdbcTemplate", jdbcTemplate);
+		
+		ingredientImportService = new IngredientImportServiceImpl();
+		
+		ReflectionTestUtils.setField(ingredientImportService, "ingredientImportRepository", ingredientImportRepository);
+		ReflectionTestUtils.setField(ingredientImportService, "lowStockService",
+				Mockito.mock(LowStockService.class, Mockito.withSettings().stubOnly()));
+		ReflectionTestUtils.setField(ingredientImportService, "outboxService",
+				Mockito.mock(OutboxService.class, Mockito.withSettings().stubOnly()));
+		ReflectionTestUtils.setField(ingredientImportService, "transactionManager",
+				new DataSourceTransactionManager(dataSource));
+		ReflectionTestUtils.setField(ingredientImportService, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(ingredientImportService, "batchSize", batchSize);
+		ReflectionTestUtils.setField(ingredientImportService, "maxReportedErrors", 1000);
+		
+		ingredientImportService.init();
+		
+		if (format == IngredientImportFormatEnum.CSV) {
+			builder.append("description,type,portionQuantity,portionPrice,percentageDiscount\n");
+		}
+		
+		for (int i = 0; i < ROWS; i++) {
+			if (format == IngredientImportFormatEnum.CSV) {
+				builder.append("Ingredient ").append(i).append(",C,").append(i % 1000).append(",2.50,\n");
+			} else {
+				builder.append("{\"description\":\"Ingredient ").append(i).append("\",\"type\":\"C\",\"portionQuantity\":")
+						.append(i % 1000).append(",\"portionPrice\":2.50}\n");
+			}
+		}
+		
+		rows = builder.toString().getBytes(StandardCharsets.UTF_8);
+	}
+	
+	/**
+	 * Empty ingredient table so every invocation inserts into the same table size.
+	 */
+	@Setup(Level.Invocation)
+	public void truncate() {
+		jdbcTemplate.execute("truncate table igd_ingredient");
+	}
+	
+	/**
+	 * Import 100k rows.
+	 * 
+	 * @return Report of import, consumed by JMH.
+	 * @throws IOException When rows can not be read.
+	 */
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public IngredientImportReport importIngredients() throws IOException {
+		return ingredientImportService.importIngredients(new ByteArrayInputStream(rows), format);
+	}
+}
\ No newline at end of file
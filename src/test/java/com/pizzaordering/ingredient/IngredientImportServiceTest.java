@@ -0,0 +1,165 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.data.IngredientImportRepository;
+import com.pizzaordering.ingredient.domain.IngredientImportError;
+import com.pizzaordering.ingredient.domain.IngredientImportReport;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.serviceImpl.IngredientImportServiceImpl;
+import com.pizzaordering.ingredient.util.IngredientImportFormatEnum;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+/**
+ * Unit test of ingredient import service layer against an in-memory database.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientImportServiceTest {
+	
+	/**
+	 * JDBC template of in-memory database.
+	 */
+	private JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Ingredient import service layer, batches of two rows.
+	 */
+	private IngredientImportServiceImpl ingredientImportService;
+	
+	/**
+	 * Low stock service layer, checking ingredients imported.
+	 */
+	private LowStockService lowStockService;
+	
+	/**
+	 * Outbox service layer, describing ingredients imported.
+	 */
+	private OutboxService outboxService;
+	
+	/**
+	 * Create ingredient table on a fresh in-memory database and build service layer on top of it.
+	 */
+	@Before
+	public void setUp() {
+		IngredientImportRepository ingredientImportRepository = new IngredientImportRepository();
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:import-test;DB_CLOSE_DELAY=-1");
+		
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute("drop table if exists igd_ingredient");
+		jdbcTemplate.execute("create table igd_ingredient (id bigint auto_increment primary key, "
+				+ "description varchar(255), type char(1), portion_quantity int, portion_price decimal(19,2), "
+				+ "percentage_discount decimal(19,2), reorder_threshold int)");
+		
+		ReflectionTestUtils.setField(ingredientImportRepository, "jdbcTemplate", jdbcTemplate);
+		
+		lowStockService = Mockito.mock(LowStockService.class);
+		outboxService = Mockito.mock(OutboxService.class);
+		ingredientImportService = new IngredientImportServiceImpl();
+		
+		ReflectionTestUtils.setField(ingredientImportService, "ingredientImportRepository", ingredientImportRepository);
+		ReflectionTestUtils.setField(ingredientImportService, "lowStockService", lowStockService);
+		ReflectionTestUtils.setField(ingredientImportService, "outboxService", outboxService);
+		ReflectionTestUtils.setField(ingredientImportService, "transactionManager",
+				new DataSourceTransactionManager(dataSource));
+		ReflectionTestUtils.setField(ingredientImportService, "objectMapper", new ObjectMapper());
+		ReflectionTestUtils.setField(ingredientImportService, "batchSize", 2);
+		ReflectionTestUtils.setField(ingredientImportService, "maxReportedErrors", 2);
+		
+		ingredientImportService.init();
+	}
+	
+	/**
+	 * Test import of newline delimited JSON with invalid rows:
+	 * 
+	 * > Import valid rows around a malformed row, a row without type and a row sending its id.
+	 * > Valid rows must be inserted, described on outbox and their stock checked with their generated ids, every
+	 * invalid row counted and errors listed up to the maximum.
+	 * 
+	 * @throws IOException When rows can not be read.
+	 */
+	@Test
+	public void importNdjsonTest() throws IOException {
+		IngredientImportReport report = null;
+		ArgumentCaptor<Ingredient> checkedIngredients = ArgumentCaptor.forClass(Ingredient.class);
+		String rows = "{\"description\":\"Mozzarella\",\"type\":\"C\",\"portionQuantity\":100,\"portionPrice\":2.5}\n"
+				+ "{\"description\":\"Provolone\",\"type\":\n"
+				+ "{\"description\":\"Basil\",\"portionQuantity\":10,\"portionPrice\":1}\n"
+				+ "{\"id\":7,\"description\":\"Oregano\",\"type\":\"S\",\"portionQuantity\":10,\"portionPrice\":1}\n"
+				+ "{\"description\":\"Pepperoni\",\"type\":\"P\",\"portionQuantity\":50,\"portionPrice\":3,"
+				+ "\"percentageDiscount\":10}\n";
+		
+		report = ingredientImportService.importIngredients(
+				new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), IngredientImportFormatEnum.NDJSON);
+		
+		assertThat(report.getImportedCount()).isEqualTo(2L);
+		assertThat(report.getFailedCount()).isEqualTo(3L);
+		assertThat(report.getErrors()).extracting(IngredientImportError::getRowNumber).containsExactly(2L, 3L);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from igd_ingredient", Long.class)).isEqualTo(2L);
+		
+		Mockito.verify(outboxService, Mockito.times(2)).appendIngredientEvent(Mockito.eq(OutboxEventTypeEnum.INVENTORY),
+				Mockito.argThat(ingredient -> ingredient.getId() != null));
+		Mockito.verify(outboxService, Mockito.times(2)).appendIngredientEvent(Mockito.eq(OutboxEventTypeEnum.PRICE),
+				Mockito.argThat(ingredient -> ingredient.getId() != null));
+		Mockito.verify(lowStockService, Mockito.times(2)).checkStock(checkedIngredients.capture());
+		
+		assertThat(checkedIngredients.getAllValues()).extracting(Ingredient::getId).containsExactlyElementsOf(
+				jdbcTemplate.queryForList("select id from igd_ingredient order by id", Long.class));
+	}
+	
+	/**
+	 * Test import of CSV with an invalid row:
+	 * 
+	 * > Import valid rows, one without percentage discount, around a row with a non numeric quantity.
+	 * > Valid rows must be inserted across batches and the invalid row reported with its number.
+	 * 
+	 * @throws IOException When rows can not be read.
+	 */
+	@Test
+	public void importCsvTest() throws IOException {
+		IngredientImportReport report = null;
+		String rows = "description,type,portionQuantity,portionPrice,percentageDiscount\n"
+				+ "Mozzarella,C,100,2.5,\n"
+				+ "Provolone,C,lots,2.5,\n"
+				+ "Pepperoni,P,50,3,10\n"
+				+ "Ham,P,40,3,\n";
+		
+		report = ingredientImportService.importIngredients(
+				new ByteArrayInputStream(rows.getBytes(StandardCharsets.UTF_8)), IngredientImportFormatEnum.CSV);
+		
+		assertThat(report.getImportedCount()).isEqualTo(3L);
+		assertThat(report.getFailedCount()).isEqualTo(1L);
+		assertThat(report.getErrors()).extracting(IngredientImportError::getRowNumber).containsExactly(2L);
+		assertThat(jdbcTemplate.queryForObject("select percentage_discount from igd_ingredient where description = ?",
+				Double.class, "Pepperoni")).isEqualTo(10.0);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,196 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.LongKeyedMap;
+import com.pizzaordering.ingredient.domain.OrderCustomization;
+
+/**
+ * Benchmark of reading the ingredient maps of an order and its closed recipe from JSON and walking them as pricing
+ * does, into hash maps of boxed ids or into maps keyed by primitive ids, reported as time and, by the gc profiler of
+ * the benchmark profile, as bytes allocated per order (gc.alloc.rate.norm).
+ * 
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=IngredientMapBenchmark
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class IngredientMapBenchmark {
+	
+	/**
+	 * Number of ingredients of closed recipe.
+	 */
+	private static final int RECIPE_INGREDIENTS = 8;
+	
+	/**
+	 * Number of customized ingredients of order, half of them removed from closed recipe.
+	 */
+	private static final int CUSTOMIZED_INGREDIENTS = 4;
+	
+	/**
+	 * Type of maps read.
+	 */
+	@Param({ "HASH_MAP", "LONG_KEYED_MAP" })
+	public String map;
+	
+	/**
+	 * Closed recipe ingredients as JSON.
+	 */
+	private byte[] closedRecipeIngredientJson;
+	
+	/**
+	 * Order customizations as JSON.
+	 */
+	private byte[] orderCustomizationJson;
+	
+	/**
+	 * Reader of closed recipe ingredients.
+	 */
+	private ObjectReader closedRecipeIngredientReader;
+	
+	/**
+	 * Reader of order customizations.
+	 */
+	private ObjectReader orderCustomizationReader;
+	
+	/**
+	 * Build JSON of maps, with ids past the cache of boxed longs as real ids are, and their readers.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		ObjectMapper objectMapper = new ObjectMapper();
+		StringBuilder closedRecipeIngredients = new StringBuilder("{");
+		StringBuilder orderCustomizations = new StringBuilder("{");
+		
+		for (int i = 0; i < RECIPE_INGREDIENTS; i++) {
+			closedRecipeIngredients.append(i > 0 ? "," : "").append('"').append(4000 + i * 7)
+					.append("\":{\"portionQuantity\":").append(i + 1).append('}');
+		}
+		
+		for (int i = 0; i < CUSTOMIZED_INGREDIENTS; i++) {
+			orderCustomizations.append(i > 0 ? "," : "").append('"').append(4000 + i * 14).append("\":{\"type\":\"")
+					.append(i % 2 == 0 ? 'R' : 'A').append("\",\"portionQuantity\":1}");
+		}
+		
+		closedRecipeIngredientJson = closedRecipeIngredients.append('}').toString().getBytes();
+		orderCustomizationJson = orderCustomizations.append('}').toString().getBytes();
+		
+		if ("HASH_MAP".equals(map)) {
+			closedRecipeIngredientReader = objectMapper.readerFor(
+					new TypeReference<HashMap<Long, ClosedRecipeIngredient>>() {});
+			orderCustomizationReader = objectMapper.readerFor(
+					new TypeReference<HashMap<Long, OrderCustomization>>() {});
+		} else {
+			closedRecipeIngredientReader = objectMapper.readerFor(
+					new TypeReference<LongKeyedMap<ClosedRecipeIngredient>>() {});
+			orderCustomizationReader = objectMapper.readerFor(
+					new TypeReference<LongKeyedMap<OrderCustomization>>() {});
+		}
+	}
+	
+	/**
+	 * Read maps of an order and count its portions, looking each closed recipe ingredient up among customizations.
+	 * 
+	 * @return Number of portions, consumed by JMH.
+	 * @throws IOException When JSON cannot be read.
+	 */
+	@Benchmark
+	public int readAndWalk() throws IOException {
+		Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap = closedRecipeIngredientReader
+				.readValue(closedRecipeIngredientJson);
+		Map<Long, OrderCustomization> orderCustomizationMap = orderCustomizationReader
+				.readValue(orderCustomizationJson);
+		
+		return "HASH_MAP".equals(map) ? walk(closedRecipeIngredientMap, orderCustomizationMap)
+				: walk((LongKeyedMap<ClosedRecipeIngredient>) closedRecipeIngredientMap,
+						(LongKeyedMap<OrderCustomization>) orderCustomizationMap);
+	}
+	
+	/**
+	 * Count portions walking hash maps by key set, as pricing used to.
+	 * 
+	 * @param closedRecipeIngredientMap Closed recipe ingredients.
+	 * @param orderCustomizationMap Order customizations.
+	 * @return Number of portions.
+	 */
+	private int walk(Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap,
+			Map<Long, OrderCustomization> orderCustomizationMap) {
+		int portions = 0;
+		OrderCustomization orderCustomization = null;
+		
+		for (Long id : closedRecipeIngredientMap.keySet()) {
+			orderCustomization = orderCustomizationMap.get(id);
+			portions += closedRecipeIngredientMap.get(id).getPortionQuantity()
+					- (orderCustomization != null ? orderCustomization.getPortionQuantity() : 0);
+		}
+		
+		for (Long id : orderCustomizationMap.keySet()) {
+			portions += orderCustomizationMap.get(id).getType() == 'A' ? 1 : 0;
+		}
+		
+		return portions;
+	}
+	
+	/**
+	 * Count portions walking maps keyed by primitive ids by position, as pricing does.
+	 * 
+	 * @param closedRecipeIngredientMap Closed recipe ingredients.
+	 * @param orderCustomizationMap Order customizations.
+	 * @return Number of portions.
+	 */
+	private int walk(LongKeyedMap<ClosedRecipeIngredient> closedRecipeIngredientMap,
+			LongKeyedMap<OrderCustomization> orderCustomizationMap) {
+		int portions = 0;
+		OrderCustomization orderCustomization = null;
+		
+		for (int position = 0; position < closedRecipeIngredientMap.size(); position++) {
+			orderCustomization = orderCustomizationMap.get(closedRecipeIngredientMap.keyAt(position));
+			portions += closedRecipeIngredientMap.valueAt(position).getPortionQuantity()
+					- (orderCustomization != null ? orderCustomization.getPortionQuantity() : 0);
+		}
+		
+		for (int position = 0; position < orderCustomizationMap.size(); position++) {
+			portions += orderCustomizationMap.valueAt(position).getType() == 'A' ? 1 : 0;
+		}
+		
+		return portions;
+	}
+}
\ No newline at end of file
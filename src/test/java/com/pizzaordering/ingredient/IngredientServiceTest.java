@@ -15,7 +15,12 @@ package com.pizzaordering.ingredient;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -25,18 +30,28 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.context.junit4.SpringRunner;
 
+import com.pizzaordering.ingredient.data.ActiveDealRepository;
 import com.pizzaordering.ingredient.data.IngredientRepository;
 import com.pizzaordering.ingredient.domain.ClosedRecipe;
 import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
 import com.pizzaordering.ingredient.domain.Deal;
+import com.pizzaordering.ingredient.domain.DealBatch;
 import com.pizzaordering.ingredient.domain.DealIngredient;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.IngredientPage;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
 import com.pizzaordering.ingredient.domain.Order;
 import com.pizzaordering.ingredient.domain.OrderCustomization;
+import com.pizzaordering.ingredient.domain.OrderPayload;
 import com.pizzaordering.ingredient.entity.Ingredient;
 import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.DealRegistryService;
 import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.util.IngredientSortEnum;
 
 /**
  * Unit test of ingredient service layer.
@@ -45,7 +60,7 @@ import com.pizzaordering.ingredient.service.IngredientService;
  *
  */
 @RunWith(SpringRunner.class)
-@SpringBootTest
+@SpringBootTest(properties = "deal.registry.refresh-ms=0")
 public class IngredientServiceTest {
 	
 	/**
@@ -66,6 +81,18 @@ public class IngredientServiceTest {
 	@MockBean
 	IngredientRepository ingredientRepository;
 	
+	/**
+	 * Interface of active deal repository layer mocked.
+	 */
+	@MockBean
+	ActiveDealRepository activeDealRepository;
+	
+	/**
+	 * Interface of deal registry service layer.
+	 */
+	@Autowired
+	DealRegistryService dealRegistryService;
+	
 	/**
 	 * Test calculate order price method when a closed recipe is used on request without customized ingredients:
 	 * 
@@ -101,7 +128,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(closedRecipeClientService.getClosedRecipe(1)).thenReturn(closedRecipe);
 		
-		// Mock first ingredientRepository.findById(closedRecipeIngredientMapId) call.
+		// Mock first ingredientRepository.findCurrentById(closedRecipeIngredientMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
 		ingredient.setDescription("Pepperoni");
@@ -109,7 +136,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(3));
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock first ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -121,7 +148,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(closedRecipeIngredientMapId) call.
+		// Mock second ingredientRepository.findCurrentById(closedRecipeIngredientMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(2L);
 		ingredient.setDescription("Provolone");
@@ -129,7 +156,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -151,7 +178,7 @@ public class IngredientServiceTest {
 		price = BigDecimal.valueOf(33).setScale(2);
 		
 		// Test.
-		assertThat(ingredientService.calculateOrderPrice(order)).isEqualTo(price);
+		assertThat(ingredientService.calculateOrderPrice(OrderPayload.of(order))).isEqualTo(price);
 	}
 	
 	/**
@@ -168,7 +195,7 @@ public class IngredientServiceTest {
 		Map<Long, OrderCustomization> orderCustomizationMap = null;
 		BigDecimal price = null;
 		
-		// Mock first ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock first ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
 		ingredient.setDescription("Pepperoni");
@@ -176,7 +203,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(3));
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock first ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -188,7 +215,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock second ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(2L);
 		ingredient.setDescription("Provolone");
@@ -196,7 +223,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -234,7 +261,83 @@ public class IngredientServiceTest {
 		price = BigDecimal.valueOf(42).setScale(2);
 		
 		// Test.
-		assertThat(ingredientService.calculateOrderPrice(order)).isEqualTo(price);
+		assertThat(ingredientService.calculateOrderPrice(OrderPayload.of(order))).isEqualTo(price);
+	}
+	
+	/**
+	 * Test quote order price method with customized ingredients:
+	 * 
+	 * > Mock database calls of this flow.
+	 * > Quoted price must match calculated price, ignoring percentage of discount column left by former deals, prices
+	 * being loaded in a single projection query without loading entities, and inventory must be left untouched.
+	 */
+	@Test
+	public void quoteOrderPriceCustomizedIngredientsTest() {
+		Ingredient ingredient = null;
+		Order order = null;
+		OrderCustomization orderCustomization = null;
+		Map<Long, OrderCustomization> orderCustomizationMap = null;
+		List<IngredientPrice> ingredientPrices = new ArrayList<IngredientPrice>();
+		
+		// Mock ingredientRepository.findPricesByIdIn(missedIds) call, and findById(id) calls of inventory check.
+		ingredient = new Ingredient();
+		ingredient.setId(80L);
+		ingredient.setDescription("Pepperoni");
+		ingredient.setType('P');
+		ingredient.setPortionQuantity(500);
+		ingredient.setPortionPrice(BigDecimal.valueOf(3));
+		ingredient.setPercentageDiscount(BigDecimal.valueOf(20));
+		
+		ingredientPrices.add(new IngredientPrice(ingredient));
+		
+		Mockito.when(ingredientRepository.findById(80L)).thenReturn(Optional.of(ingredient));
+		
+		ingredient = new Ingredient();
+		ingredient.setId(81L);
+		ingredient.setDescription("Provolone");
+		ingredient.setType('C');
+		ingredient.setPortionQuantity(500);
+		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
+		
+		ingredientPrices.add(new IngredientPrice(ingredient));
+		
+		Mockito.when(ingredientRepository.findById(81L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findPricesByIdIn(new LinkedHashSet<Long>(Arrays.asList(80L, 81L))))
+				.thenReturn(ingredientPrices);
+		
+		// Input.
+		order = new Order();
+		order.setSize('M');
+		order.setBreadThickness('S');
+		
+		orderCustomization = new OrderCustomization();
+		orderCustomization.setType('A');
+		orderCustomization.setPortionQuantity(6);
+		
+		orderCustomizationMap = new LinkedHashMap<Long, OrderCustomization>();
+		orderCustomizationMap.put(80L, orderCustomization);
+		
+		orderCustomization = new OrderCustomization();
+		orderCustomization.setType('A');
+		orderCustomization.setPortionQuantity(2);
+		
+		orderCustomizationMap.put(81L, orderCustomization);
+		
+		order.setOrderCustomizationMap(orderCustomizationMap);
+		
+		// Test.
+		assertThat(ingredientService.quoteOrderPrice(OrderPayload.of(order))).isEqualTo(
+				BigDecimal.valueOf(42).setScale(2));
+		
+		Mockito.verify(ingredientRepository).findPricesByIdIn(new LinkedHashSet<Long>(Arrays.asList(80L, 81L)));
+		Mockito.verify(ingredientRepository, Mockito.never()).findById(Mockito.anyLong());
+		
+		assertThat(ingredientService.getIngredient(80L).getPortionQuantity()).isEqualTo(500);
+		
+		Mockito.verify(ingredientRepository, Mockito.never()).save(Mockito.any(Ingredient.class));
+		
+		ingredientService.deleteIngredient(80L);
+		ingredientService.deleteIngredient(81L);
 	}
 	
 	/**
@@ -274,7 +377,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(closedRecipeClientService.getClosedRecipe(1)).thenReturn(closedRecipe);
 		
-		// Mock first ingredientRepository.findById(closedRecipeIngredientMapId) call.
+		// Mock first ingredientRepository.findCurrentById(closedRecipeIngredientMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
 		ingredient.setDescription("Pepperoni");
@@ -282,7 +385,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(3));
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock first ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -294,7 +397,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(closedRecipeIngredientMapId) call.
+		// Mock second ingredientRepository.findCurrentById(closedRecipeIngredientMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(2L);
 		ingredient.setDescription("Provolone");
@@ -302,7 +405,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -314,7 +417,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock third ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock third ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(3L);
 		ingredient.setDescription("Tomato");
@@ -322,7 +425,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1));
 		
-		Mockito.when(ingredientRepository.findById(3L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(3L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock third ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -361,7 +464,7 @@ public class IngredientServiceTest {
 		price = BigDecimal.valueOf(39).setScale(2);
 		
 		// Test.
-		assertThat(ingredientService.calculateOrderPrice(order)).isEqualTo(price);
+		assertThat(ingredientService.calculateOrderPrice(OrderPayload.of(order))).isEqualTo(price);
 	}
 	
 	/**
@@ -398,7 +501,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(closedRecipeClientService.getClosedRecipe(1)).thenReturn(closedRecipe);
 		
-		// Mock first ingredientRepository.findById(closedRecipeIngredientMapId) call.
+		// Mock first ingredientRepository.findCurrentById(closedRecipeIngredientMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
 		ingredient.setDescription("Pepperoni");
@@ -406,7 +509,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(3));
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock first ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -418,7 +521,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(closedRecipeIngredientMapId) call.
+		// Mock second ingredientRepository.findCurrentById(closedRecipeIngredientMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(2L);
 		ingredient.setDescription("Provolone");
@@ -426,7 +529,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -445,7 +548,7 @@ public class IngredientServiceTest {
 		order.setBreadThickness('S');
 		
 		// Test.
-		ingredientService.reverseOrderIngredients(order);
+		ingredientService.reverseOrderIngredients(OrderPayload.of(order));
 	}
 	
 	/**
@@ -461,7 +564,7 @@ public class IngredientServiceTest {
 		OrderCustomization orderCustomization = null;
 		Map<Long, OrderCustomization> orderCustomizationMap = null;
 		
-		// Mock first ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock first ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
 		ingredient.setDescription("Pepperoni");
@@ -469,7 +572,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(3));
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock first ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -481,7 +584,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock second ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(2L);
 		ingredient.setDescription("Provolone");
@@ -489,7 +592,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -524,7 +627,7 @@ public class IngredientServiceTest {
 		order.setOrderCustomizationMap(orderCustomizationMap);
 		
 		// Test.
-		ingredientService.reverseOrderIngredients(order);
+		ingredientService.reverseOrderIngredients(OrderPayload.of(order));
 	}
 	
 	/**
@@ -563,7 +666,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(closedRecipeClientService.getClosedRecipe(1)).thenReturn(closedRecipe);
 		
-		// Mock first ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock first ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
 		ingredient.setDescription("Pepperoni");
@@ -571,7 +674,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(3));
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock first ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -583,7 +686,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock second ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(2L);
 		ingredient.setDescription("Provolone");
@@ -591,7 +694,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -603,7 +706,7 @@ public class IngredientServiceTest {
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock third ingredientRepository.findById(orderCustomizationMapId) call.
+		// Mock third ingredientRepository.findCurrentById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(3L);
 		ingredient.setDescription("Tomato");
@@ -611,7 +714,7 @@ public class IngredientServiceTest {
 		ingredient.setPortionQuantity(500);
 		ingredient.setPortionPrice(BigDecimal.valueOf(1));
 		
-		Mockito.when(ingredientRepository.findById(3L)).thenReturn(Optional.of(ingredient));
+		Mockito.when(ingredientRepository.findCurrentById(3L)).thenReturn(Optional.of(ingredient));
 		
 		// Mock third ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
@@ -647,142 +750,291 @@ public class IngredientServiceTest {
 		order.setOrderCustomizationMap(orderCustomizationMap);
 		
 		// Test.
-		ingredientService.calculateOrderPrice(order);
+		ingredientService.calculateOrderPrice(OrderPayload.of(order));
 	}
 	
 	/**
 	 * Test add ingredient discount method:
 	 * 
 	 * > Mock database calls of this flow.
-	 * > Test method by processing it without error.
+	 * > Test method comparing effective discount of deal ingredients with expected discount.
 	 */
 	@Test
 	public void addIngredientDiscountTest() {
+		Deal deal = null;
+		
+		// Input.
+		deal = cheesePromotionDeal();
+		
+		// Test.
+		ingredientService.addIngredientDiscount(DealPayload.of(deal));
+		
+		try {
+			assertThat(dealRegistryService.getEffectiveDiscount(1L)).isEqualByComparingTo(BigDecimal.TEN);
+			assertThat(dealRegistryService.getEffectiveDiscount(2L)).isEqualByComparingTo(BigDecimal.TEN);
+			
+			// Deal already active is not added twice.
+			ingredientService.addIngredientDiscount(DealPayload.of(deal));
+			
+			assertThat(dealRegistryService.getEffectiveDiscount(1L)).isEqualByComparingTo(BigDecimal.TEN);
+		} finally {
+			ingredientService.deleteIngredientDiscount(DealPayload.of(deal));
+		}
+	}
+	
+	/**
+	 * Test delete ingredient discount method:
+	 * 
+	 * > Mock database calls of this flow.
+	 * > Test method comparing effective discount of deal ingredients with expected discount.
+	 */
+	@Test
+	public void deleteIngredientDiscountTest() {
+		Deal deal = null;
+		
+		// Input.
+		deal = cheesePromotionDeal();
+		
+		ingredientService.addIngredientDiscount(DealPayload.of(deal));
+		
+		// Test.
+		ingredientService.deleteIngredientDiscount(DealPayload.of(deal));
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(1L)).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(dealRegistryService.getEffectiveDiscount(2L)).isEqualByComparingTo(BigDecimal.ZERO);
+	}
+	
+	/**
+	 * Test apply ingredient discounts method with a promotion rollover:
+	 * 
+	 * > Mock database calls of this flow.
+	 * > Test method comparing effective discount of deal ingredients with expected discount after each batch.
+	 */
+	@Test
+	public void applyIngredientDiscountsTest() {
 		Ingredient ingredient = null;
+		List<Ingredient> ingredients = null;
 		Deal deal = null;
+		Deal rolloverDeal = null;
 		DealIngredient dealIngredient = null;
-		Map<Long, DealIngredient> dealIngredientMap = null;
+		DealBatch dealBatch = null;
+		
+		// Mock ingredientRepository.findAllById(ingredientIds) call.
+		ingredients = new ArrayList<Ingredient>();
 		
-		// Mock first ingredientRepository.findById(orderCustomizationMapId) call.
 		ingredient = new Ingredient();
 		ingredient.setId(1L);
-		ingredient.setDescription("Pepperoni");
-		ingredient.setType('P');
-		ingredient.setPortionQuantity(500);
-		ingredient.setPortionPrice(BigDecimal.valueOf(3));
+		ingredients.add(ingredient);
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		ingredient = new Ingredient();
+		ingredient.setId(2L);
+		ingredients.add(ingredient);
 		
-		// Mock first ingredientRepository.save(ingredient) call.
+		Mockito.when(ingredientRepository.findAllById(Mockito.any())).thenReturn(ingredients);
+		
+		// Input.
+		deal = cheesePromotionDeal();
+		
+		rolloverDeal = new Deal();
+		rolloverDeal.setId(2);
+		rolloverDeal.setDescription("Provolone Promotion");
+		rolloverDeal.setDealIngredientMap(new HashMap<Long, DealIngredient>());
+		
+		dealIngredient = new DealIngredient();
+		dealIngredient.setDiscountPercentage(BigDecimal.valueOf(15));
+		
+		rolloverDeal.getDealIngredientMap().put(2L, dealIngredient);
+		
+		// Test.
+		dealBatch = new DealBatch();
+		dealBatch.setAddedDeals(Arrays.asList(DealPayload.of(deal)));
+		
+		ingredientService.applyIngredientDiscounts(dealBatch);
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(1L)).isEqualByComparingTo(BigDecimal.TEN);
+		
+		dealBatch = new DealBatch();
+		dealBatch.setAddedDeals(Arrays.asList(DealPayload.of(rolloverDeal)));
+		dealBatch.setRemovedDealIds(Arrays.asList(deal.getId()));
+		
+		ingredientService.applyIngredientDiscounts(dealBatch);
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(1L)).isEqualByComparingTo(BigDecimal.ZERO);
+		assertThat(dealRegistryService.getEffectiveDiscount(2L)).isEqualByComparingTo(BigDecimal.valueOf(15));
+		
+		ingredientService.deleteIngredientDiscount(DealPayload.of(rolloverDeal));
+		
+		assertThat(dealRegistryService.getEffectiveDiscount(2L)).isEqualByComparingTo(BigDecimal.ZERO);
+	}
+	
+	/**
+	 * Test get ingredients method with cached, missing and repeated ids:
+	 * 
+	 * > Cache one ingredient by adding it and mock a single database query for the others.
+	 * > Lookups must come back in request order, marking ids not found, and the cached id must not be queried.
+	 */
+	@Test
+	public void getIngredientsTest() {
+		Ingredient ingredient = null;
+		List<Ingredient> ingredients = null;
+		List<IngredientLookup> ingredientLookups = null;
+		
+		// Cache ingredient 90 through ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
-		ingredient.setId(1L);
-		ingredient.setDescription("Pepperoni");
-		ingredient.setType('P');
-		ingredient.setPortionQuantity(0 + 10);
-		ingredient.setPortionPrice(BigDecimal.valueOf(3));
+		ingredient.setId(90L);
+		ingredient.setDescription("Basil");
 		
 		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
 		
-		// Mock second ingredientRepository.findById(orderCustomizationMapId) call.
-		ingredient = new Ingredient();
-		ingredient.setId(2L);
-		ingredient.setDescription("Provolone");
-		ingredient.setType('C');
-		ingredient.setPortionQuantity(500);
-		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
+		ingredientService.addIngredient(ingredient);
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		// Mock ingredientRepository.findAllById(missedIds) call.
+		ingredients = new ArrayList<Ingredient>();
 		
-		// Mock second ingredientRepository.save(ingredient) call.
 		ingredient = new Ingredient();
-		ingredient.setId(2L);
-		ingredient.setDescription("Provolone");
-		ingredient.setType('C');
-		ingredient.setPortionQuantity(0 + 10);
-		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
+		ingredient.setId(91L);
+		ingredient.setDescription("Oregano");
+		ingredients.add(ingredient);
 		
-		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
+		Mockito.when(ingredientRepository.findAllById(new LinkedHashSet<Long>(Arrays.asList(91L, 92L)))).thenReturn(ingredients);
 		
-		// Input.
-		deal = new Deal();
-		deal.setDescription("Cheese Promotion");
+		// Test.
+		ingredientLookups = ingredientService.getIngredients(Arrays.asList(91L, 90L, 92L, 91L));
 		
-		dealIngredient = new DealIngredient();
-		dealIngredient.setDiscountPercentage(BigDecimal.TEN);
+		assertThat(ingredientLookups).extracting(IngredientLookup::getId).containsExactly(91L, 90L, 92L, 91L);
+		assertThat(ingredientLookups).extracting(IngredientLookup::getFound).containsExactly(true, true, false, true);
+		assertThat(ingredientLookups.get(1).getIngredient().getDescription()).isEqualTo("Basil");
 		
-		dealIngredientMap = new HashMap<Long, DealIngredient>();
-		dealIngredientMap.put(1L, dealIngredient);
+		Mockito.verify(ingredientRepository).findAllById(new LinkedHashSet<Long>(Arrays.asList(91L, 92L)));
 		
-		dealIngredient = new DealIngredient();
-		dealIngredient.setDiscountPercentage(BigDecimal.TEN);
+		ingredientService.deleteIngredient(90L);
+		ingredientService.deleteIngredient(91L);
+	}
+	
+	/**
+	 * Test get ingredient page method sorted by stock level:
+	 * 
+	 * > Mock keyset query returning one row more than the page size.
+	 * > Page must be trimmed to its size and carry the keyset of its last row, and a short page must carry none.
+	 */
+	@Test
+	public void getIngredientPageTest() {
+		Ingredient ingredient = null;
+		List<Ingredient> ingredients = null;
+		IngredientPage ingredientPage = null;
 		
-		dealIngredientMap.put(2L, dealIngredient);
+		// Mock ingredientRepository.findPageByTypeOrderByPortionQuantity(type, afterPortionQuantity, afterId, pageable) call.
+		ingredients = new ArrayList<Ingredient>();
 		
-		deal.setDealIngredientMap(dealIngredientMap);
+		for (long id = 1; id <= 3; id++) {
+			ingredient = new Ingredient();
+			ingredient.setId(id);
+			ingredient.setType('C');
+			ingredient.setPortionQuantity((int) (10 * id));
+			ingredients.add(ingredient);
+		}
+		
+		Mockito.when(ingredientRepository.findPageByTypeOrderByPortionQuantity('C', Integer.MIN_VALUE, 0L,
+				PageRequest.of(0, 3))).thenReturn(ingredients);
+		Mockito.when(ingredientRepository.findPageByTypeOrderByPortionQuantity('C', 20, 2L, PageRequest.of(0, 3)))
+				.thenReturn(ingredients.subList(2, 3));
 		
 		// Test.
-		ingredientService.addIngredientDiscount(deal);
+		ingredientPage = ingredientService.getIngredientPage('C', IngredientSortEnum.PORTION_QUANTITY, null, null, 2);
+		
+		assertThat(ingredientPage.getIngredients()).extracting(Ingredient::getId).containsExactly(1L, 2L);
+		assertThat(ingredientPage.getNextAfterId()).isEqualTo(2L);
+		assertThat(ingredientPage.getNextAfterPortionQuantity()).isEqualTo(20);
+		
+		ingredientPage = ingredientService.getIngredientPage('C', IngredientSortEnum.PORTION_QUANTITY,
+				ingredientPage.getNextAfterId(), ingredientPage.getNextAfterPortionQuantity(), 2);
+		
+		assertThat(ingredientPage.getIngredients()).extracting(Ingredient::getId).containsExactly(3L);
+		assertThat(ingredientPage.getNextAfterId()).isNull();
+		assertThat(ingredientPage.getNextAfterPortionQuantity()).isNull();
 	}
 	
 	/**
-	 * Test delete ingredient discount method:
+	 * Test get ingredient page method sorted by stock level with rows without stock level:
 	 * 
-	 * > Mock database calls of this flow.
-	 * > Test method by processing it without error.
+	 * > Mock one row without stock level more than the page size, then one less, and the rows with stock level.
+	 * > Rows without stock level must be listed first and paged by id, then followed by the lowest stock levels.
 	 */
 	@Test
-	public void deleteIngredientDiscountTest() {
+	public void getIngredientPageWithoutPortionQuantityTest() {
 		Ingredient ingredient = null;
-		Deal deal = null;
-		DealIngredient dealIngredient = null;
-		Map<Long, DealIngredient> dealIngredientMap = null;
+		List<Ingredient> ingredients = null;
+		IngredientPage ingredientPage = null;
+		
+		// Mock ingredientRepository.findByTypeAndPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc(type, afterId,
+		// pageable) and ingredientRepository.findPageByTypeOrderByPortionQuantity(type, afterPortionQuantity, afterId,
+		// pageable) calls.
+		ingredients = new ArrayList<Ingredient>();
+		
+		for (long id = 1; id <= 4; id++) {
+			ingredient = new Ingredient();
+			ingredient.setId(id);
+			ingredient.setType('V');
+			ingredient.setPortionQuantity(id <= 3 ? null : 10);
+			ingredients.add(ingredient);
+		}
+		
+		Mockito.when(ingredientRepository.findByTypeAndPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc('V', 0L,
+				PageRequest.of(0, 3))).thenReturn(ingredients.subList(0, 3));
+		Mockito.when(ingredientRepository.findByTypeAndPortionQuantityIsNullAndIdGreaterThanOrderByIdAsc('V', 2L,
+				PageRequest.of(0, 3))).thenReturn(ingredients.subList(2, 3));
+		Mockito.when(ingredientRepository.findPageByTypeOrderByPortionQuantity('V', Integer.MIN_VALUE, 0L,
+				PageRequest.of(0, 2))).thenReturn(ingredients.subList(3, 4));
 		
-		// Mock first ingredientRepository.findById(orderCustomizationMapId) call.
-		ingredient = new Ingredient();
-		ingredient.setId(1L);
-		ingredient.setDescription("Pepperoni");
-		ingredient.setType('P');
-		ingredient.setPortionQuantity(500);
-		ingredient.setPortionPrice(BigDecimal.valueOf(3));
-		ingredient.setPercentageDiscount(BigDecimal.valueOf(10));
+		// Test.
+		ingredientPage = ingredientService.getIngredientPage('V', IngredientSortEnum.PORTION_QUANTITY, null, null, 2);
 		
-		Mockito.when(ingredientRepository.findById(1L)).thenReturn(Optional.of(ingredient));
+		assertThat(ingredientPage.getIngredients()).extracting(Ingredient::getId).containsExactly(1L, 2L);
+		assertThat(ingredientPage.getNextAfterId()).isEqualTo(2L);
+		assertThat(ingredientPage.getNextAfterPortionQuantity()).isNull();
 		
-		// Mock first ingredientRepository.save(ingredient) call.
-		ingredient = new Ingredient();
-		ingredient.setId(1L);
-		ingredient.setDescription("Pepperoni");
-		ingredient.setType('P');
-		ingredient.setPortionQuantity(500);
-		ingredient.setPortionPrice(BigDecimal.valueOf(3));
-		ingredient.setPercentageDiscount(BigDecimal.valueOf(10).subtract(BigDecimal.valueOf(10)));
+		ingredientPage = ingredientService.getIngredientPage('V', IngredientSortEnum.PORTION_QUANTITY,
+				ingredientPage.getNextAfterId(), ingredientPage.getNextAfterPortionQuantity(), 2);
 		
-		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
+		assertThat(ingredientPage.getIngredients()).extracting(Ingredient::getId).containsExactly(3L, 4L);
+		assertThat(ingredientPage.getNextAfterId()).isNull();
+	}
+	
+	/**
+	 * Test export ingredients method against the database seeded on startup:
+	 * 
+	 * > Export ingredients of a type, then all of them, through the forward-only cursor.
+	 * > Rows must come back in id order, so the cursor's fetch size must be one the database accepts.
+	 */
+	@Test
+	public void exportIngredientsTest() {
+		List<Ingredient> ingredients = new ArrayList<Ingredient>();
 		
-		// Mock second ingredientRepository.findById(orderCustomizationMapId) call.
-		ingredient = new Ingredient();
-		ingredient.setId(2L);
-		ingredient.setDescription("Provolone");
-		ingredient.setType('C');
-		ingredient.setPortionQuantity(500);
-		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
-		ingredient.setPercentageDiscount(BigDecimal.valueOf(10));
+		// Test.
+		ingredientService.exportIngredients('C', ingredients::add);
 		
-		Mockito.when(ingredientRepository.findById(2L)).thenReturn(Optional.of(ingredient));
+		assertThat(ingredients).extracting(Ingredient::getDescription)
+				.containsExactly("Muzzarela Cheese", "Provolone Cheese", "Cheddar Cheese");
 		
-		// Mock second ingredientRepository.save(ingredient) call.
-		ingredient = new Ingredient();
-		ingredient.setId(2L);
-		ingredient.setDescription("Provolone");
-		ingredient.setType('C');
-		ingredient.setPortionQuantity(0 + 10);
-		ingredient.setPortionPrice(BigDecimal.valueOf(1.5));
-		ingredient.setPercentageDiscount(BigDecimal.valueOf(10).subtract(BigDecimal.valueOf(10)));
+		ingredients.clear();
+		ingredientService.exportIngredients(null, ingredients::add);
 		
-		Mockito.when(ingredientRepository.save(ingredient)).thenReturn(ingredient);
+		assertThat(ingredients).extracting(Ingredient::getId).isSorted();
+		assertThat(ingredients).extracting(Ingredient::getDescription).contains("Tomato Sauce", "Fish Protein");
+	}
+	
+	/**
+	 * Build deal with discount on two ingredients.
+	 * 
+	 * @return Deal with discount on two ingredients.
+	 */
+	private Deal cheesePromotionDeal() {
+		Deal deal = null;
+		DealIngredient dealIngredient = null;
+		Map<Long, DealIngredient> dealIngredientMap = null;
 		
-		// Input.
 		deal = new Deal();
+		deal.setId(1);
 		deal.setDescription("Cheese Promotion");
 		
 		dealIngredient = new DealIngredient();
@@ -798,7 +1050,6 @@ public class IngredientServiceTest {
 		
 		deal.setDealIngredientMap(dealIngredientMap);
 		
-		// Test.
-		ingredientService.deleteIngredientDiscount(deal);
+		return deal;
 	}
 }
\ No newline at end of file
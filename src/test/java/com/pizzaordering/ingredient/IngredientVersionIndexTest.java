@@ -0,0 +1,119 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import com.pizzaordering.ingredient.cache.IngredientVersionIndex;
+import com.pizzaordering.ingredient.domain.IngredientVersion;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Unit test of ingredient version index.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class IngredientVersionIndexTest {
+	
+	/**
+	 * Test versions recorded as an ingredient is loaded and saved:
+	 * 
+	 * > Record ingredient, record it again with same content written with another scale, then change its stock and
+	 * its reorder threshold.
+	 * > ETag and last modification must only change with content, and a removed ingredient must not be indexed.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting clock to move.
+	 */
+	@Test
+	public void recordTest() throws InterruptedException {
+		IngredientVersionIndex ingredientVersionIndex = new IngredientVersionIndex(60000);
+		IngredientVersion loaded = null;
+		IngredientVersion saved = null;
+		IngredientVersion changed = null;
+		Ingredient ingredient = null;
+		
+		loaded = ingredientVersionIndex.record(ingredient(BigDecimal.valueOf(3), 500));
+		
+		Thread.sleep(5);
+		
+		saved = ingredientVersionIndex.record(ingredient(new BigDecimal("3.00"), 500));
+		
+		assertThat(saved.getETag()).isEqualTo(loaded.getETag());
+		assertThat(saved.getLastModified()).isEqualTo(loaded.getLastModified());
+		
+		changed = ingredientVersionIndex.record(ingredient(BigDecimal.valueOf(3), 494));
+		
+		assertThat(changed.getETag()).isNotEqualTo(loaded.getETag());
+		assertThat(changed.getLastModified()).isGreaterThan(loaded.getLastModified());
+		assertThat(ingredientVersionIndex.get(1L)).isEqualTo(changed);
+		
+		Thread.sleep(5);
+		
+		ingredient = ingredient(BigDecimal.valueOf(3), 494);
+		ingredient.setReorderThreshold(50);
+		
+		assertThat(ingredientVersionIndex.record(ingredient).getETag()).isNotEqualTo(changed.getETag());
+		
+		ingredientVersionIndex.remove(1L);
+		
+		assertThat(ingredientVersionIndex.get(1L)).isNull();
+	}
+	
+	/**
+	 * Test version of a collection of ingredients:
+	 * 
+	 * > Combine the same versions in different orders and with an ingredient not found.
+	 * > Each collection must get its own ETag, and the same collection must always get the same ETag.
+	 */
+	@Test
+	public void combineTest() {
+		IngredientVersion first = new IngredientVersion(1L, "a1", 1000L);
+		IngredientVersion second = new IngredientVersion(2L, "b2", 2000L);
+		IngredientVersion combined = null;
+		
+		combined = IngredientVersionIndex.combine(Arrays.asList(first, second), null);
+		
+		assertThat(combined.getLastModified()).isEqualTo(2000L);
+		assertThat(combined.getETag())
+				.isEqualTo(IngredientVersionIndex.combine(Arrays.asList(first, second), null).getETag());
+		assertThat(combined.getETag())
+				.isNotEqualTo(IngredientVersionIndex.combine(Arrays.asList(second, first), null).getETag());
+		assertThat(combined.getETag())
+				.isNotEqualTo(IngredientVersionIndex.combine(Arrays.asList(first, second, null), null).getETag());
+	}
+	
+	/**
+	 * Build ingredient.
+	 * 
+	 * @param portionPrice Price of portion.
+	 * @param portionQuantity Quantity of portion.
+	 * @return Ingredient.
+	 */
+	private Ingredient ingredient(BigDecimal portionPrice, Integer portionQuantity) {
+		Ingredient ingredient = new Ingredient();
+		
+		ingredient.setId(1L);
+		ingredient.setDescription("Pepperoni");
+		ingredient.setType('P');
+		ingredient.setPortionQuantity(portionQuantity);
+		ingredient.setPortionPrice(portionPrice);
+		
+		return ingredient;
+	}
+}
\ No newline at end of file
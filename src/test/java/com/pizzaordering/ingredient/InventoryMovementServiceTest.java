@@ -0,0 +1,266 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pizzaordering.ingredient.data.InventoryMovementRepository;
+import com.pizzaordering.ingredient.domain.InventoryMovementBucket;
+import com.pizzaordering.ingredient.serviceImpl.InventoryMovementServiceImpl;
+import com.pizzaordering.ingredient.util.InventoryMovementBucketEnum;
+import com.pizzaordering.ingredient.util.InventoryMovementReasonEnum;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test of inventory movement history, on an embedded database.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class InventoryMovementServiceTest {
+	
+	/**
+	 * Start of first hour movements are recorded on, in milliseconds since epoch.
+	 */
+	private static final long START = 1521000000000L - 1521000000000L % TimeUnit.HOURS.toMillis(1);
+	
+	/**
+	 * Database of movements.
+	 */
+	private DriverManagerDataSource dataSource;
+	
+	/**
+	 * Registry of metrics of service.
+	 */
+	private MeterRegistry meterRegistry;
+	
+	/**
+	 * Service under test.
+	 */
+	private InventoryMovementServiceImpl inventoryMovementService;
+	
+	/**
+	 * Create movement table and start service with a small batch and queue.
+	 */
+	@Before
+	public void setUp() {
+		InventoryMovementRepository inventoryMovementRepository = new InventoryMovementRepository();
+		
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:movement;DB_CLOSE_DELAY=-1", "sa", "");
+		new JdbcTemplate(dataSource).execute("create table igd_inventory_movement (id bigint auto_increment "
+				+ "primary key, ingredient_id bigint not null, delta int not null, reason varchar(1) not null, order_id bigint, "
+				+ "moved_at bigint not null)");
+		
+		ReflectionTestUtils.setField(inventoryMovementRepository, "jdbcTemplate", new JdbcTemplate(dataSource));
+		
+		meterRegistry = new SimpleMeterRegistry();
+		inventoryMovementService = new InventoryMovementServiceImpl();
+		
+		ReflectionTestUtils.setField(inventoryMovementService, "inventoryMovementRepository",
+				inventoryMovementRepository);
+		ReflectionTestUtils.setField(inventoryMovementService, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(inventoryMovementService, "queueCapacity", 5);
+		ReflectionTestUtils.setField(inventoryMovementService, "batchSize", 2);
+		ReflectionTestUtils.setField(inventoryMovementService, "flushMillis", 10L);
+		ReflectionTestUtils.setField(inventoryMovementService, "retryMillis", 10L);
+		ReflectionTestUtils.setField(inventoryMovementService, "maxAttempts", 3);
+		
+		inventoryMovementService.init();
+	}
+	
+	/**
+	 * Drop database.
+	 */
+	@After
+	public void tearDown() {
+		new JdbcTemplate(dataSource).execute("drop all objects");
+	}
+	
+	/**
+	 * Test aggregation of recorded movements per ingredient and hour:
+	 * 
+	 * > Record orders, a reversal, a creation and a no-op movement across two hours, then stop the writer.
+	 * > Every movement but the no-op must be written, each ingredient and hour adding up to its own bucket.
+	 * 
+	 * @throws InterruptedException When interrupted while stopping the writer.
+	 */
+	@Test
+	public void movementBucketsTest() throws InterruptedException {
+		List<InventoryMovementBucket> buckets = null;
+		
+		record(START, 1L, -3, InventoryMovementReasonEnum.ORDER, 10L);
+		record(START + 1000, 1L, -2, InventoryMovementReasonEnum.ORDER, 11L);
+		record(START + 2000, 1L, 3, InventoryMovementReasonEnum.REVERSAL, 10L);
+		record(START + 3000, 1L, 0, InventoryMovementReasonEnum.ORDER, 12L);
+		record(START + TimeUnit.HOURS.toMillis(1), 1L, -4, InventoryMovementReasonEnum.ORDER, 13L);
+		
+		record(START + 4000, 2L, 500, InventoryMovementReasonEnum.CREATE, null);
+		
+		inventoryMovementService.destroy();
+		
+		buckets = inventoryMovementService.getMovementBuckets(null, START, START + TimeUnit.DAYS.toMillis(1),
+				InventoryMovementBucketEnum.HOUR);
+		
+		assertThat(buckets).hasSize(3);
+		assertBucket(buckets.get(0), 1L, START, 3, 3, 5, -2);
+		assertBucket(buckets.get(1), 1L, START + TimeUnit.HOURS.toMillis(1), 1, 0, 4, -4);
+		assertBucket(buckets.get(2), 2L, START, 1, 500, 0, 500);
+		
+		buckets = inventoryMovementService.getMovementBuckets(1L, START, START + TimeUnit.DAYS.toMillis(1),
+				InventoryMovementBucketEnum.DAY);
+		
+		assertThat(buckets).hasSize(1);
+		assertBucket(buckets.get(0), 1L, START - START % TimeUnit.DAYS.toMillis(1), 4, 3, 9, -6);
+		assertThat(meterRegistry.get("inventory.movement.written").counter().count()).isEqualTo(5);
+	}
+	
+	/**
+	 * Test recording beyond queue capacity:
+	 * 
+	 * > Fill the queue while the writer sleeps on a long flush interval, then record one more movement.
+	 * > The extra movement must be dropped and counted, the queued ones still written on stop.
+	 * 
+	 * @throws InterruptedException When interrupted while stopping the writer.
+	 */
+	@Test
+	public void dropWhenQueueFullTest() throws InterruptedException {
+		inventoryMovementService.destroy();
+		
+		ReflectionTestUtils.setField(inventoryMovementService, "batchSize", 100);
+		ReflectionTestUtils.setField(inventoryMovementService, "flushMillis", TimeUnit.MINUTES.toMillis(1));
+		
+		inventoryMovementService.init();
+		
+		// Writer must be asleep, otherwise it could drain the queue while it is being filled.
+		while (((Thread) ReflectionTestUtils.getField(inventoryMovementService, "writer"))
+				.getState() != Thread.State.TIMED_WAITING) {
+			Thread.sleep(1);
+		}
+		
+		for (int i = 0; i < 6; i++) {
+			record(START + i, 1L, -1, InventoryMovementReasonEnum.ORDER, (long) i);
+		}
+		
+		inventoryMovementService.destroy();
+		
+		assertThat(meterRegistry.get("inventory.movement.dropped").counter().count()).isEqualTo(1);
+		assertThat(new JdbcTemplate(dataSource).queryForObject("select count(*) from igd_inventory_movement",
+				Integer.class)).isEqualTo(5);
+	}
+	
+	/**
+	 * Test a batch failing while the database is unavailable:
+	 * 
+	 * > Record a movement while its table is missing, wait for a retry, then bring the table back.
+	 * > The movement must be written on a later attempt, not dropped.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting the writer.
+	 */
+	@Test
+	public void retryFailedBatchTest() throws InterruptedException {
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		
+		ReflectionTestUtils.setField(inventoryMovementService, "maxAttempts", 1000);
+		
+		jdbcTemplate.execute("alter table igd_inventory_movement rename to igd_inventory_movement_away");
+		
+		record(START, 1L, -1, InventoryMovementReasonEnum.ORDER, 10L);
+		
+		while (meterRegistry.get("inventory.movement.retried").counter().count() == 0) {
+			Thread.sleep(1);
+		}
+		
+		jdbcTemplate.execute("alter table igd_inventory_movement_away rename to igd_inventory_movement");
+		
+		inventoryMovementService.destroy();
+		
+		assertThat(meterRegistry.get("inventory.movement.dropped").counter().count()).isZero();
+		assertThat(meterRegistry.get("inventory.movement.written").counter().count()).isEqualTo(1);
+	}
+	
+	/**
+	 * Test a batch failing on every attempt:
+	 * 
+	 * > Record movements while their table is missing, then stop the writer.
+	 * > The batch must be retried until its attempts run out, then dropped and counted.
+	 * 
+	 * @throws InterruptedException When interrupted while stopping the writer.
+	 */
+	@Test
+	public void dropWhenAttemptsRunOutTest() throws InterruptedException {
+		new JdbcTemplate(dataSource).execute("drop table igd_inventory_movement");
+		
+		record(START, 1L, -1, InventoryMovementReasonEnum.ORDER, 10L);
+		record(START + 1, 1L, -1, InventoryMovementReasonEnum.ORDER, 11L);
+		
+		inventoryMovementService.destroy();
+		
+		assertThat(meterRegistry.get("inventory.movement.dropped").counter().count()).isEqualTo(2);
+		// Two attempts retried per batch, the writer may have taken the movements in one batch or two.
+		assertThat(meterRegistry.get("inventory.movement.retried").counter().count()).isIn(2.0, 4.0);
+		assertThat(meterRegistry.get("inventory.movement.written").counter().count()).isZero();
+	}
+	
+	/**
+	 * Record a movement at a fixed moment.
+	 * 
+	 * @param movedAt Moment of movement, in milliseconds since epoch.
+	 * @param ingredientId Id of ingredient.
+	 * @param delta Change of quantity of portion.
+	 * @param reason Reason of movement.
+	 * @param orderId Id of order.
+	 */
+	private void record(long movedAt, Long ingredientId, int delta, InventoryMovementReasonEnum reason,
+			Long orderId) {
+		ReflectionTestUtils.setField(inventoryMovementService, "clock",
+				Clock.fixed(Instant.ofEpochMilli(movedAt), ZoneOffset.UTC));
+		
+		inventoryMovementService.recordMovement(ingredientId, delta, reason, orderId);
+	}
+	
+	/**
+	 * Assert content of a bucket.
+	 * 
+	 * @param bucket Bucket.
+	 * @param ingredientId Expected id of ingredient.
+	 * @param bucketStart Expected start of bucket.
+	 * @param movements Expected number of movements.
+	 * @param portionsIn Expected portions put into inventory.
+	 * @param portionsOut Expected portions taken from inventory.
+	 * @param netDelta Expected net change of inventory.
+	 */
+	private void assertBucket(InventoryMovementBucket bucket, Long ingredientId, long bucketStart, long movements,
+			long portionsIn, long portionsOut, long netDelta) {
+		assertThat(bucket.getIngredientId()).isEqualTo(ingredientId);
+		assertThat(bucket.getBucketStart()).isEqualTo(bucketStart);
+		assertThat(bucket.getMovements()).isEqualTo(movements);
+		assertThat(bucket.getPortionsIn()).isEqualTo(portionsIn);
+		assertThat(bucket.getPortionsOut()).isEqualTo(portionsOut);
+		assertThat(bucket.getNetDelta()).isEqualTo(netDelta);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,88 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.domain.LongKeyedMap;
+import com.pizzaordering.ingredient.domain.Order;
+
+/**
+ * Unit test of map keyed by primitive ids.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class LongKeyedMapTest {
+	
+	/**
+	 * Test entries kept across growth and removal:
+	 * 
+	 * > Put more entries than the initial capacity, replace one and remove another.
+	 * > Every key must be found by primitive and boxed lookups, in insertion order by position.
+	 */
+	@Test
+	public void putRemoveTest() {
+		LongKeyedMap<String> map = new LongKeyedMap<String>();
+		
+		for (long key = 1000; key < 1020; key++) {
+			map.put(key, "v" + key);
+		}
+		
+		assertThat(map.put(1005L, "replaced")).isEqualTo("v1005");
+		assertThat(map.remove(1003L)).isEqualTo("v1003");
+		
+		assertThat(map).hasSize(19);
+		assertThat(map.get(1005L)).isEqualTo("replaced");
+		assertThat(map.get(Long.valueOf(1019))).isEqualTo("v1019");
+		assertThat(map.containsKey(1003L)).isFalse();
+		assertThat(map.get(1003L)).isNull();
+		assertThat(map.keyAt(3)).isEqualTo(1004L);
+		assertThat(map.valueAt(18)).isEqualTo("v1019");
+		assertThat(map.keySet()).startsWith(1000L, 1001L, 1002L, 1004L);
+	}
+	
+	/**
+	 * Test JSON mapping of the ingredient map of an order:
+	 * 
+	 * > Read an order with customized ingredients and write it back.
+	 * > Customized ingredients must be read into a map keyed by primitive ids, in request order, and written back in
+	 * that order.
+	 * 
+	 * @throws IOException When JSON cannot be mapped.
+	 */
+	@Test
+	public void jsonTest() throws IOException {
+		ObjectMapper objectMapper = new ObjectMapper();
+		String json = "{\"4624\":{\"type\":\"R\",\"portionQuantity\":1},\"1\":{\"type\":\"A\",\"portionQuantity\":2}}";
+		Order order = objectMapper.readValue("{\"id\":77,\"orderCustomizationMap\":" + json + "}", Order.class);
+		String written = null;
+		
+		assertThat(order.getOrderCustomizationMap()).isInstanceOf(LongKeyedMap.class);
+		assertThat(order.getOrderCustomizationMap().keyAt(0)).isEqualTo(4624L);
+		assertThat(order.getOrderCustomizationMap().get(1L).getType()).isEqualTo('A');
+		assertThat(order.getOrderCustomizationMap().get(1L).getPortionQuantity()).isEqualTo(2);
+		
+		written = objectMapper.writeValueAsString(order);
+		
+		assertThat(objectMapper.readTree(written).get("orderCustomizationMap").fieldNames())
+				.containsExactly("4624", "1");
+		assertThat(objectMapper.readValue(written, Order.class).getOrderCustomizationMap())
+				.isEqualTo(order.getOrderCustomizationMap());
+	}
+}
\ No newline at end of file
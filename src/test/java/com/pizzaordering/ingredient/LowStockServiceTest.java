@@ -0,0 +1,166 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pizzaordering.ingredient.data.IngredientRepository;
+import com.pizzaordering.ingredient.domain.LowStockAlert;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.serviceImpl.LowStockServiceImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import reactor.core.Disposable;
+
+/**
+ * Unit test of low stock monitor.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class LowStockServiceTest {
+	
+	/**
+	 * Test alerts raised with hysteresis:
+	 * 
+	 * > Save an ingredient of threshold 10 and margin 20% with quantities moving around its threshold.
+	 * > Only the downward crossing of 10 and the rise above 12 must raise alerts, and a late subscriber must get the
+	 *   ingredient still low first.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting alerts.
+	 */
+	@Test
+	public void hysteresisTest() throws InterruptedException {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		LowStockServiceImpl lowStockService = new LowStockServiceImpl();
+		List<LowStockAlert> alerts = new CopyOnWriteArrayList<LowStockAlert>();
+		List<LowStockAlert> lateAlerts = new CopyOnWriteArrayList<LowStockAlert>();
+		CountDownLatch latch = new CountDownLatch(3);
+		CountDownLatch lateLatch = new CountDownLatch(1);
+		Disposable subscription = null;
+		Disposable lateSubscription = null;
+		IngredientRepository ingredientRepository = Mockito.mock(IngredientRepository.class);
+		
+		Mockito.when(ingredientRepository.findLowStock()).thenReturn(Collections.emptyList());
+		
+		ReflectionTestUtils.setField(lowStockService, "ingredientRepository", ingredientRepository);
+		ReflectionTestUtils.setField(lowStockService, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(lowStockService, "hysteresisPercent", 20);
+		ReflectionTestUtils.setField(lowStockService, "bufferSize", 10);
+		lowStockService.init();
+		
+		subscription = lowStockService.streamAlerts().subscribe(alert -> {
+			alerts.add(alert);
+			latch.countDown();
+		});
+		
+		try {
+			for (int portionQuantity : new int[] { 15, 10, 8, 12, 9, 13, 11, 10 }) {
+				lowStockService.checkStock(ingredient(1L, portionQuantity, 10));
+			}
+			
+			// Not monitored, never alerting.
+			lowStockService.checkStock(ingredient(2L, 0, null));
+			
+			assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(alerts).extracting(LowStockAlert::getLow).containsExactly(true, false, true);
+			assertThat(alerts).extracting(LowStockAlert::getPortionQuantity).containsExactly(10, 13, 10);
+			assertThat(lowStockService.getLowStockAlerts()).extracting(LowStockAlert::getIngredientId)
+					.containsExactly(1L);
+			assertThat(meterRegistry.get("inventory.low-stock.alerts").tag("state", "low").counter().count())
+					.isEqualTo(2);
+			
+			lateSubscription = lowStockService.streamAlerts().subscribe(alert -> {
+				lateAlerts.add(alert);
+				lateLatch.countDown();
+			});
+			
+			assertThat(lateLatch.await(5, TimeUnit.SECONDS)).isTrue();
+			assertThat(lateAlerts.get(0).getIngredientId()).isEqualTo(1L);
+			assertThat(lateAlerts.get(0).getLow()).isTrue();
+		} finally {
+			subscription.dispose();
+			
+			if (lateSubscription != null) {
+				lateSubscription.dispose();
+			}
+		}
+	}
+	
+	/**
+	 * Test ingredients already low on stock at startup:
+	 * 
+	 * > Mock an ingredient at its threshold on database, then save it lower and finally restocked.
+	 * > It must be reported low from startup without an alert, not alerted again when saved lower, and alerted once
+	 * restocked.
+	 */
+	@Test
+	public void startupTest() {
+		MeterRegistry meterRegistry = new SimpleMeterRegistry();
+		LowStockServiceImpl lowStockService = new LowStockServiceImpl();
+		IngredientRepository ingredientRepository = Mockito.mock(IngredientRepository.class);
+		
+		// Mock ingredientRepository.findLowStock() call.
+		Mockito.when(ingredientRepository.findLowStock()).thenReturn(Arrays.asList(ingredient(3L, 10, 10)));
+		
+		ReflectionTestUtils.setField(lowStockService, "ingredientRepository", ingredientRepository);
+		ReflectionTestUtils.setField(lowStockService, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(lowStockService, "hysteresisPercent", 20);
+		ReflectionTestUtils.setField(lowStockService, "bufferSize", 10);
+		lowStockService.init();
+		
+		// Test.
+		assertThat(lowStockService.getLowStockAlerts()).extracting(LowStockAlert::getIngredientId).containsExactly(3L);
+		
+		lowStockService.checkStock(ingredient(3L, 8, 10));
+		
+		assertThat(meterRegistry.get("inventory.low-stock.alerts").tag("state", "low").counter().count()).isEqualTo(0);
+		
+		lowStockService.checkStock(ingredient(3L, 13, 10));
+		
+		assertThat(lowStockService.getLowStockAlerts()).isEmpty();
+		assertThat(meterRegistry.get("inventory.low-stock.alerts").tag("state", "restocked").counter().count())
+				.isEqualTo(1);
+	}
+	
+	/**
+	 * Build ingredient.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionQuantity Quantity of portion.
+	 * @param reorderThreshold Reorder threshold, null when not monitored.
+	 * @return Ingredient.
+	 */
+	private Ingredient ingredient(Long id, int portionQuantity, Integer reorderThreshold) {
+		Ingredient ingredient = new Ingredient();
+		
+		ingredient.setId(id);
+		ingredient.setDescription("Muzzarela Cheese");
+		ingredient.setPortionQuantity(portionQuantity);
+		ingredient.setReorderThreshold(reorderThreshold);
+		
+		return ingredient;
+	}
+}
\ No newline at end of file
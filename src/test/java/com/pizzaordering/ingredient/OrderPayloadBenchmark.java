@@ -0,0 +1,121 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.pizzaordering.ingredient.domain.Order;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+
+/**
+ * Benchmark of reading an order request from JSON into the order domain or into the order payload, reported as time
+ * and, by the gc profiler of the benchmark profile, as bytes allocated per request (gc.alloc.rate.norm), and of
+ * hashing the order read, as done when it is used as a key.
+ * 
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=OrderPayloadBenchmark
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class OrderPayloadBenchmark {
+	
+	/**
+	 * Number of customized ingredients of order.
+	 */
+	private static final int CUSTOMIZED_INGREDIENTS = 6;
+	
+	/**
+	 * Type order is read into.
+	 */
+	@Param({ "ORDER", "ORDER_PAYLOAD" })
+	public String type;
+	
+	/**
+	 * Order request as JSON.
+	 */
+	private byte[] orderJson;
+	
+	/**
+	 * Reader of order request.
+	 */
+	private ObjectReader orderReader;
+	
+	/**
+	 * Order read once, to be hashed.
+	 */
+	private Object order;
+	
+	/**
+	 * Build JSON of an order request, with ids past the cache of boxed longs as real ids are, and its reader.
+	 * 
+	 * @throws IOException When JSON cannot be read.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() throws IOException {
+		StringBuilder json = new StringBuilder("{\"id\":987654,\"closedRecipeId\":5,\"size\":\"M\",")
+				.append("\"breadThickness\":\"S\",\"orderCustomizationMap\":{");
+		
+		for (int i = 0; i < CUSTOMIZED_INGREDIENTS; i++) {
+			json.append(i > 0 ? "," : "").append('"').append(4000 + i * 14).append("\":{\"type\":\"")
+					.append(i % 2 == 0 ? 'R' : 'A').append("\",\"portionQuantity\":").append(i % 3 + 1)
+					.append(",\"observation\":null}");
+		}
+		
+		orderJson = json.append("}}").toString().getBytes();
+		orderReader = new ObjectMapper().readerFor("ORDER".equals(type) ? Order.class : OrderPayload.class);
+		order = orderReader.readValue(orderJson);
+	}
+	
+	/**
+	 * Read order request.
+	 * 
+	 * @return Order read, consumed by JMH.
+	 * @throws IOException When JSON cannot be read.
+	 */
+	@Benchmark
+	public Object read() throws IOException {
+		return orderReader.readValue(orderJson);
+	}
+	
+	/**
+	 * Hash order read.
+	 * 
+	 * @return Hash code of order, consumed by JMH.
+	 */
+	@Benchmark
+	public int hash() {
+		return order.hashCode();
+	}
+}
\ No newline at end of file
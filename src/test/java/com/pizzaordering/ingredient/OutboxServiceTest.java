@@ -0,0 +1,317 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pizzaordering.ingredient.data.OutboxEventRepository;
+import com.pizzaordering.ingredient.domain.Deal;
+import com.pizzaordering.ingredient.domain.DealIngredient;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.Order;
+import com.pizzaordering.ingredient.domain.OrderCustomization;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.entity.OutboxEvent;
+import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+/**
+ * Test of transactional outbox on its own in-memory database, relayed by hand to the stream and file sinks.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:outbox-test;DB_CLOSE_DELAY=-1",
+		"outbox.relay.enabled=false", "outbox.sink.file.path=target/outbox-test.ndjson" })
+public class OutboxServiceTest {
+	
+	/**
+	 * File of file sink.
+	 */
+	private static final Path SINK_FILE = Paths.get("target/outbox-test.ndjson");
+	
+	/**
+	 * Number of concurrent orders.
+	 */
+	private static final int ORDERS = 8;
+	
+	/**
+	 * Interface of ingredient service layer.
+	 */
+	@Autowired
+	IngredientService ingredientService;
+	
+	/**
+	 * Interface of outbox service layer.
+	 */
+	@Autowired
+	OutboxService outboxService;
+	
+	/**
+	 * Interface of outbox event repository layer.
+	 */
+	@Autowired
+	OutboxEventRepository outboxEventRepository;
+	
+	/**
+	 * Manager of transactions.
+	 */
+	@Autowired
+	PlatformTransactionManager transactionManager;
+	
+	/**
+	 * Drain outbox and file sink left by previous tests.
+	 * 
+	 * @throws IOException When file sink can not be deleted.
+	 */
+	@Before
+	public void setUp() throws IOException {
+		while (outboxService.relayEvents() > 0) {
+			// Drain.
+		}
+		
+		Files.deleteIfExists(SINK_FILE);
+	}
+	
+	/**
+	 * Test relay of ingredient and deal changes:
+	 * 
+	 * > Add an ingredient, update its price only, register and unregister a deal on it, then relay.
+	 * > Every change must be streamed and written to the file sink in order, with only the columns of its type, and
+	 * the outbox must be left empty.
+	 * 
+	 * @throws Exception When stream is not received in time or file sink can not be read.
+	 */
+	@Test
+	public void relayTest() throws Exception {
+		Ingredient ingredient = ingredient();
+		Deal deal = null;
+		CompletableFuture<List<OutboxEvent>> streamed = outboxService.streamEvents(null).take(5).collectList()
+				.toFuture();
+		List<OutboxEvent> outboxEvents = null;
+		
+		ingredient = ingredientService.addIngredient(ingredient);
+		ingredient.setPortionPrice(BigDecimal.valueOf(4));
+		ingredientService.updateIngredient(ingredient);
+		
+		deal = deal(ingredient.getId());
+		ingredientService.addIngredientDiscount(DealPayload.of(deal));
+		ingredientService.deleteIngredientDiscount(DealPayload.of(deal));
+		
+		assertThat(outboxService.relayEvents()).isEqualTo(5);
+		assertThat(outboxEventRepository.count()).isZero();
+		
+		outboxEvents = streamed.get(5, TimeUnit.SECONDS);
+		
+		assertThat(outboxEvents).extracting(OutboxEvent::getType).containsExactly(
+				OutboxEventTypeEnum.INVENTORY.getCode(), OutboxEventTypeEnum.PRICE.getCode(),
+				OutboxEventTypeEnum.PRICE.getCode(), OutboxEventTypeEnum.DEAL_ADDED.getCode(),
+				OutboxEventTypeEnum.DEAL_REMOVED.getCode());
+		assertThat(outboxEvents.get(0).getPortionQuantity()).isEqualTo(100);
+		assertThat(outboxEvents.get(0).getPortionPrice()).isNull();
+		assertThat(outboxEvents.get(2).getPortionPrice()).isEqualByComparingTo(BigDecimal.valueOf(4));
+		assertThat(outboxEvents.get(3).getIngredientId()).isEqualTo(ingredient.getId());
+		assertThat(outboxEvents.get(3).getPercentageDiscount()).isEqualByComparingTo(BigDecimal.TEN);
+		assertThat(outboxEvents.get(4).getDealId()).isEqualTo(deal.getId());
+		
+		assertThat(Files.readAllLines(SINK_FILE, StandardCharsets.UTF_8)).hasSize(5);
+	}
+	
+	/**
+	 * Test change stream resumed by a reconnecting subscriber:
+	 * 
+	 * > Add an ingredient and update its price, relay, then subscribe again with the id of the first event streamed.
+	 * > The resumed stream must replay the events relayed after it, in order, before any new one.
+	 * 
+	 * @throws Exception When stream is not received in time.
+	 */
+	@Test
+	public void resumeTest() throws Exception {
+		Ingredient ingredient = ingredient();
+		CompletableFuture<List<OutboxEvent>> streamed = outboxService.streamEvents(null).take(3).collectList()
+				.toFuture();
+		List<OutboxEvent> outboxEvents = null;
+		List<OutboxEvent> resumedEvents = null;
+		
+		ingredient = ingredientService.addIngredient(ingredient);
+		ingredient.setPortionPrice(BigDecimal.valueOf(4));
+		ingredientService.updateIngredient(ingredient);
+		
+		assertThat(outboxService.relayEvents()).isEqualTo(3);
+		
+		outboxEvents = streamed.get(5, TimeUnit.SECONDS);
+		resumedEvents = outboxService.streamEvents(outboxEvents.get(0).getId()).take(2).collectList()
+				.block(Duration.ofSeconds(5));
+		
+		assertThat(resumedEvents).extracting(OutboxEvent::getId).containsExactly(outboxEvents.get(1).getId(),
+				outboxEvents.get(2).getId());
+	}
+	
+	/**
+	 * Test inventory events of concurrent orders of the same ingredient:
+	 * 
+	 * > Take 2 portions of an ingredient from several orders at once.
+	 * > No order must overwrite another: each inventory event must carry a quantity of portion 2 below the previous
+	 * one, down to the quantity left once every order took its portions.
+	 * 
+	 * @throws Exception When an order fails or is not priced in time.
+	 */
+	@Test
+	public void concurrentOrdersTest() throws Exception {
+		Ingredient ingredient = ingredientService.addIngredient(ingredient());
+		ExecutorService executorService = Executors.newFixedThreadPool(ORDERS);
+		List<Future<BigDecimal>> prices = new ArrayList<Future<BigDecimal>>();
+		List<Integer> portionQuantities = null;
+		List<Integer> expectedPortionQuantities = new ArrayList<Integer>();
+		
+		try {
+			for (int i = 0; i < ORDERS; i++) {
+				prices.add(executorService.submit(() -> ingredientService.calculateOrderPrice(
+						OrderPayload.of(order(ingredient.getId())))));
+			}
+			
+			for (Future<BigDecimal> price : prices) {
+				price.get(10, TimeUnit.SECONDS);
+			}
+		} finally {
+			executorService.shutdown();
+		}
+		
+		portionQuantities = outboxEventRepository.findAllByOrderByIdAsc(PageRequest.of(0, 100)).stream()
+				.filter(outboxEvent -> ingredient.getId().equals(outboxEvent.getIngredientId())
+						&& OutboxEventTypeEnum.INVENTORY.getCode().equals(outboxEvent.getType()))
+				.map(OutboxEvent::getPortionQuantity).collect(Collectors.toList());
+		
+		for (int i = 0; i <= ORDERS; i++) {
+			expectedPortionQuantities.add(100 - 2 * i);
+		}
+		
+		assertThat(portionQuantities).isEqualTo(expectedPortionQuantities);
+	}
+	
+	/**
+	 * Test outbox events of a rolled back change:
+	 * 
+	 * > Append an event in a transaction rolled back, and another one out of any transaction.
+	 * > Nothing must be left to relay, and appending out of a transaction must be refused.
+	 */
+	@Test
+	public void rollbackTest() {
+		Ingredient ingredient = ingredient();
+		
+		new TransactionTemplate(transactionManager).execute(status -> {
+			outboxService.appendIngredientEvent(OutboxEventTypeEnum.INVENTORY, ingredient);
+			status.setRollbackOnly();
+			
+			return null;
+		});
+		
+		assertThatThrownBy(() -> outboxService.appendIngredientEvent(OutboxEventTypeEnum.INVENTORY, ingredient))
+				.isInstanceOf(IllegalTransactionStateException.class);
+		assertThat(outboxService.relayEvents()).isZero();
+	}
+	
+	/**
+	 * Build ingredient.
+	 * 
+	 * @return Ingredient not yet saved.
+	 */
+	private Ingredient ingredient() {
+		Ingredient ingredient = new Ingredient();
+		
+		ingredient.setDescription("Outbox Cheese");
+		ingredient.setType('C');
+		ingredient.setPortionQuantity(100);
+		ingredient.setPortionPrice(BigDecimal.valueOf(3));
+		ingredient.setPercentageDiscount(BigDecimal.ZERO);
+		
+		return ingredient;
+	}
+	
+	/**
+	 * Build medium order adding a portion of an ingredient, 2 portions once sized.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @return Order.
+	 */
+	private Order order(Long ingredientId) {
+		Order order = new Order();
+		OrderCustomization orderCustomization = new OrderCustomization();
+		Map<Long, OrderCustomization> orderCustomizationMap = new LinkedHashMap<Long, OrderCustomization>();
+		
+		orderCustomization.setType('A');
+		orderCustomization.setPortionQuantity(1);
+		orderCustomizationMap.put(ingredientId, orderCustomization);
+		
+		order.setSize('M');
+		order.setBreadThickness('S');
+		order.setOrderCustomizationMap(orderCustomizationMap);
+		
+		return order;
+	}
+	
+	/**
+	 * Build deal discounting an ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @return Deal.
+	 */
+	private Deal deal(Long ingredientId) {
+		Deal deal = new Deal();
+		DealIngredient dealIngredient = new DealIngredient();
+		Map<Long, DealIngredient> dealIngredientMap = new HashMap<Long, DealIngredient>();
+		
+		dealIngredient.setDiscountPercentage(BigDecimal.TEN);
+		dealIngredientMap.put(ingredientId, dealIngredient);
+		
+		deal.setId(44);
+		deal.setDescription("Outbox Promotion");
+		deal.setDealIngredientMap(dealIngredientMap);
+		
+		return deal;
+	}
+}
\ No newline at end of file
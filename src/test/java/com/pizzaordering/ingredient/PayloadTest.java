@@ -0,0 +1,131 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.pizzaordering.ingredient.domain.DealPayload;
+import com.pizzaordering.ingredient.domain.Order;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.util.OrderCustomizationTypeEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Unit test of order and deal payloads.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class PayloadTest {
+	
+	/**
+	 * Object mapper with Java time support, as the one of the application.
+	 */
+	private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+	
+	/**
+	 * Test JSON mapping of an order payload:
+	 * 
+	 * > Read the same order as payload and as order domain, with a lower case type, a repeated ingredient and fields
+	 * not needed for pricing.
+	 * > Payload must hold customizations in request order, the repeated ingredient overriding the first one, and be
+	 * equal to the payload built from the order domain.
+	 * 
+	 * @throws IOException When JSON cannot be mapped.
+	 */
+	@Test
+	public void orderJsonTest() throws IOException {
+		String json = "{\"id\":77,\"closedRecipeId\":5,\"size\":\"M\",\"breadThickness\":\"S\",\"price\":10.5,"
+				+ "\"orderCustomizationMap\":{\"4624\":{\"type\":\"A\",\"portionQuantity\":3},"
+				+ "\"1\":{\"type\":\"a\",\"portionQuantity\":2,\"observation\":\"well done\"},"
+				+ "\"4624\":{\"type\":\"R\",\"portionQuantity\":1}}}";
+		OrderPayload orderPayload = objectMapper.readValue(json, OrderPayload.class);
+		
+		assertThat(orderPayload.getId()).isEqualTo(77L);
+		assertThat(orderPayload.getClosedRecipeId()).isEqualTo(5);
+		assertThat(orderPayload.getSize()).isEqualTo('M');
+		assertThat(orderPayload.getCustomizationCount()).isEqualTo(2);
+		assertThat(orderPayload.getCustomizationIngredientId(0)).isEqualTo(4624L);
+		assertThat(orderPayload.getCustomizationType(0)).isEqualTo(OrderCustomizationTypeEnum.REMOVE);
+		assertThat(orderPayload.getCustomizationType(1)).isEqualTo(OrderCustomizationTypeEnum.ADD);
+		
+		// Medium size doubles portions.
+		assertThat(orderPayload.getCustomizationPortionQuantity(1)).isEqualTo(4);
+		assertThat(orderPayload.indexOfCustomization(1)).isEqualTo(1);
+		assertThat(orderPayload.indexOfCustomization(2)).isEqualTo(-1);
+		
+		assertThat(orderPayload).isEqualTo(OrderPayload.of(objectMapper.readValue(json, Order.class)));
+		assertThat(orderPayload.hashCode()).isEqualTo(OrderPayload.of(objectMapper.readValue(json, Order.class))
+				.hashCode());
+	}
+	
+	/**
+	 * Test JSON mapping of a deal payload:
+	 * 
+	 * > Read a deal with times and an ingredient without discount percentage.
+	 * > Payload must hold discounts in request order, absent percentage as null.
+	 * 
+	 * @throws IOException When JSON cannot be mapped.
+	 */
+	@Test
+	public void dealJsonTest() throws IOException {
+		DealPayload dealPayload = objectMapper.readValue("{\"id\":901,\"description\":\"d\","
+				+ "\"startTime\":\"2018-03-01T00:00:00Z\",\"dealIngredientMap\":{\"4624\":{\"discountPercentage\":50},"
+				+ "\"1\":{\"discountPercentage\":null}}}", DealPayload.class);
+		
+		assertThat(dealPayload.getId()).isEqualTo(901);
+		assertThat(dealPayload.getStartTime()).isEqualTo(Instant.parse("2018-03-01T00:00:00Z"));
+		assertThat(dealPayload.getEndTime()).isNull();
+		assertThat(dealPayload.getIngredientCount()).isEqualTo(2);
+		assertThat(dealPayload.getIngredientId(0)).isEqualTo(4624L);
+		assertThat(dealPayload.getDiscountPercentage(0)).isEqualByComparingTo(BigDecimal.valueOf(50));
+		assertThat(dealPayload.getIngredientId(1)).isEqualTo(1L);
+		assertThat(dealPayload.getDiscountPercentage(1)).isNull();
+	}
+	
+	/**
+	 * Test resolution of pizza size and customization type:
+	 * 
+	 * > Read an order of an unknown size with customizations of upper and lower case types.
+	 * > Types must be resolved ignoring case, size must resolve to none and fail only when a portion is sized.
+	 * 
+	 * @throws IOException When JSON cannot be mapped.
+	 */
+	@Test
+	public void sizeAndTypeLookupTest() throws IOException {
+		OrderPayload orderPayload = objectMapper.readValue("{\"id\":78,\"size\":\"X\",\"orderCustomizationMap\":{"
+				+ "\"1\":{\"type\":\"a\",\"portionQuantity\":1},\"2\":{\"type\":\"R\",\"portionQuantity\":1},"
+				+ "\"3\":{\"type\":\"\u00e1\",\"portionQuantity\":1}}}", OrderPayload.class);
+		
+		assertThat(orderPayload.getCustomizationType(0)).isEqualTo(OrderCustomizationTypeEnum.ADD);
+		assertThat(orderPayload.getCustomizationType(1)).isEqualTo(OrderCustomizationTypeEnum.REMOVE);
+		assertThat(orderPayload.getCustomizationType(2)).isNull();
+		assertThat(orderPayload.getPizzaSize()).isNull();
+		assertThatThrownBy(() -> orderPayload.getCustomizationPortionQuantity(0))
+				.isInstanceOf(NoSuchElementException.class);
+		
+		assertThat(PizzaSizeMultiplyFactorEnum.fromShortDescription('B')).isEqualTo(PizzaSizeMultiplyFactorEnum.BIG);
+		assertThat(PizzaSizeMultiplyFactorEnum.fromShortDescription('b')).isNull();
+		assertThat(PizzaSizeMultiplyFactorEnum.fromShortDescription(null)).isNull();
+		assertThat(PizzaSizeMultiplyFactorEnum.getMultiplyFactor('M')).isEqualTo(2);
+	}
+}
\ No newline at end of file
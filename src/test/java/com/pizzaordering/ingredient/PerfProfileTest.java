@@ -0,0 +1,82 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.pizzaordering.ingredient.controller.ClosedRecipeStandInController;
+import com.pizzaordering.ingredient.data.IngredientRepository;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+
+/**
+ * Test of seeding and closed recipe stand-in of the perf profile, on its own in-memory database.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = { "spring.datasource.url=jdbc:h2:mem:perf-test;DB_CLOSE_DELAY=-1",
+		"perf.seed.ingredients=2500", "perf.seed.recipes=10", "perf.seed.ingredients-per-recipe=6" })
+@ActiveProfiles("perf")
+public class PerfProfileTest {
+	
+	/**
+	 * Number of ingredients of import.sql.
+	 */
+	private static final int IMPORTED_INGREDIENTS = 12;
+	
+	/**
+	 * Interface of ingredient repository layer.
+	 */
+	@Autowired
+	IngredientRepository ingredientRepository;
+	
+	/**
+	 * Closed recipe stand-in.
+	 */
+	@Autowired
+	ClosedRecipeStandInController closedRecipeStandInController;
+	
+	/**
+	 * Test seeding of synthetic data:
+	 * 
+	 * > Start application under perf profile and get synthetic closed recipes.
+	 * > Synthetic ingredients must be added to the ones of import.sql, and each closed recipe must always be made of
+	 * the same existing synthetic ingredients.
+	 */
+	@Test
+	public void seedTest() {
+		ClosedRecipe closedRecipe = closedRecipeStandInController.getClosedRecipe(3);
+		
+		assertThat(ingredientRepository.count()).isEqualTo(IMPORTED_INGREDIENTS + 2500);
+		assertThat(closedRecipe.getClosedRecipeIngredientMap()).hasSize(6);
+		assertThat(closedRecipeStandInController.getClosedRecipe(3).getClosedRecipeIngredientMap())
+				.isEqualTo(closedRecipe.getClosedRecipeIngredientMap());
+		assertThat(ingredientRepository.findPricesByIdIn(closedRecipe.getClosedRecipeIngredientMap().keySet()))
+				.hasSize(6);
+		assertThat(closedRecipe.getClosedRecipeIngredientMap().keySet())
+				.allMatch(ingredientId -> ingredientId > IMPORTED_INGREDIENTS);
+		
+		assertThatThrownBy(() -> closedRecipeStandInController.getClosedRecipe(11))
+				.isInstanceOf(ResponseStatusException.class);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,216 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import com.pizzaordering.ingredient.scheduling.WriteExpiredException;
+import com.pizzaordering.ingredient.serviceImpl.PricingExecutionServiceImpl;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Unit test of pricing execution service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class PricingExecutionServiceTest {
+	
+	/**
+	 * Registry of metrics.
+	 */
+	private SimpleMeterRegistry meterRegistry;
+	
+	/**
+	 * Pricing execution service layer, one thread and one queued request.
+	 */
+	private PricingExecutionServiceImpl pricingExecutionService;
+	
+	/**
+	 * Build service layer.
+	 */
+	@Before
+	public void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		pricingExecutionService = new PricingExecutionServiceImpl();
+		
+		ReflectionTestUtils.setField(pricingExecutionService, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(pricingExecutionService, "threads", 1);
+		ReflectionTestUtils.setField(pricingExecutionService, "queueCapacity", 1);
+		
+		pricingExecutionService.init();
+	}
+	
+	/**
+	 * Stop service layer.
+	 */
+	@After
+	public void tearDown() {
+		pricingExecutionService.destroy();
+	}
+	
+	/**
+	 * Test submissions beyond the bounds of the executor:
+	 * 
+	 * > Block the only thread, queue a request with a short deadline and submit one more.
+	 * > Last request must be rejected right away, queued one must expire and never run, blocked one must complete,
+	 * each one telling once whether it ran.
+	 * 
+	 * @throws Exception When a future fails unexpectedly.
+	 */
+	@Test
+	public void submitTest() throws Exception {
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean queuedRan = new AtomicBoolean();
+		CompletableFuture<String> running = null;
+		CompletableFuture<String> queued = null;
+		CompletableFuture<String> rejected = null;
+		List<String> finished = new CopyOnWriteArrayList<String>();
+		
+		running = pricingExecutionService.submit(() -> {
+			await(release);
+			
+			return "priced";
+		}, 5000, ran -> finished.add("running:" + ran));
+		queued = pricingExecutionService.submit(() -> {
+			queuedRan.set(true);
+			
+			return "late";
+		}, 50, ran -> finished.add("queued:" + ran));
+		rejected = pricingExecutionService.submit(() -> "rejected", 5000, ran -> finished.add("rejected:" + ran));
+		
+		assertThat(rejected).isCompletedExceptionally();
+		assertThat(failureOf(rejected)).isInstanceOf(RejectedExecutionException.class);
+		assertThat(failureOf(queued)).isInstanceOf(TimeoutException.class);
+		
+		release.countDown();
+		
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("priced");
+		
+		// Let the single thread drain the queue.
+		awaitQueueDrained();
+		
+		assertThat(pricingExecutionService.submit(() -> "drained", 5000, null).get(5, TimeUnit.SECONDS))
+				.isEqualTo("drained");
+		assertThat(queuedRan.get()).isFalse();
+		assertThat(finished).containsExactly("rejected:false", "running:true", "queued:false");
+		assertThat(meterRegistry.get("executor.rejected").counter().count()).isEqualTo(1);
+		assertThat(meterRegistry.get("executor.expired").counter().count()).isEqualTo(1);
+	}
+	
+	/**
+	 * Test write submissions past their deadline:
+	 * 
+	 * > Start a write outliving its deadline, then queue a write with a short deadline behind it.
+	 * > Started write must complete with its result, queued one must expire as not written and never run.
+	 * 
+	 * @throws Exception When a future fails unexpectedly.
+	 */
+	@Test
+	public void submitWriteTest() throws Exception {
+		CountDownLatch started = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicBoolean queuedRan = new AtomicBoolean();
+		CompletableFuture<String> running = null;
+		CompletableFuture<String> queued = null;
+		
+		running = pricingExecutionService.submitWrite(() -> {
+			started.countDown();
+			await(release);
+			
+			return "written";
+		}, 50, null);
+		
+		await(started);
+		
+		queued = pricingExecutionService.submitWrite(() -> {
+			queuedRan.set(true);
+			
+			return "late";
+		}, 50, null);
+		
+		assertThat(failureOf(queued)).isInstanceOf(WriteExpiredException.class);
+		
+		// Well past its deadline, the started write is still awaited.
+		TimeUnit.MILLISECONDS.sleep(100);
+		
+		assertThat(running).isNotDone();
+		
+		release.countDown();
+		
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("written");
+		
+		awaitQueueDrained();
+		
+		assertThat(queuedRan.get()).isFalse();
+	}
+	
+	/**
+	 * Wait until the single thread took the expired request off the queue, so the queue has room again.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting.
+	 */
+	private void awaitQueueDrained() throws InterruptedException {
+		long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+		
+		while (meterRegistry.get("executor.queued").gauge().value() > 0 && System.nanoTime() < deadline) {
+			Thread.sleep(1);
+		}
+	}
+	
+	/**
+	 * Wait latch, ignoring interruption.
+	 * 
+	 * @param latch Latch.
+	 */
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+	
+	/**
+	 * Wait future to fail.
+	 * 
+	 * @param future Future expected to fail.
+	 * @return Cause of failure.
+	 * @throws Exception When future does not fail in time.
+	 */
+	private Throwable failureOf(CompletableFuture<?> future) throws Exception {
+		try {
+			future.get(5, TimeUnit.SECONDS);
+		} catch (ExecutionException e) {
+			return e.getCause();
+		}
+		
+		throw new AssertionError("Future did not fail.");
+	}
+}
\ No newline at end of file
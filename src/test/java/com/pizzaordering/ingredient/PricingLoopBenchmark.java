@@ -0,0 +1,269 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import java.util.NoSuchElementException;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.LongKeyedMap;
+import com.pizzaordering.ingredient.util.OrderCustomizationTypeEnum;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Benchmark of the pricing loop of an order with a closed recipe and customizations, resolving pizza size and
+ * customization types by scanning the enumeration values on every lookup or by array tables once per order, reported
+ * as time and, by the gc profiler of the benchmark profile, as bytes allocated per order (gc.alloc.rate.norm).
+ * 
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=PricingLoopBenchmark
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PricingLoopBenchmark {
+	
+	/**
+	 * Number of ingredients of closed recipe.
+	 */
+	private static final int RECIPE_INGREDIENTS = 8;
+	
+	/**
+	 * Number of customized ingredients of order, half of them removed from closed recipe.
+	 */
+	private static final int CUSTOMIZED_INGREDIENTS = 4;
+	
+	/**
+	 * How pizza size and customization types are resolved.
+	 */
+	@Param({ "SCAN", "TABLE" })
+	public String lookup;
+	
+	/**
+	 * Size of pizza, as received.
+	 */
+	private Character size = 'M';
+	
+	/**
+	 * Closed recipe ingredients.
+	 */
+	private LongKeyedMap<ClosedRecipeIngredient> closedRecipeIngredientMap;
+	
+	/**
+	 * Prices of a portion of each ingredient in cents, by id.
+	 */
+	private LongKeyedMap<Long> portionPrices;
+	
+	/**
+	 * Ids of customized ingredients.
+	 */
+	private long[] customizationIngredientIds;
+	
+	/**
+	 * Types of customizations, as received.
+	 */
+	private Character[] customizationTypes;
+	
+	/**
+	 * Quantities of portion of customizations, regardless of pizza size.
+	 */
+	private int[] customizationPortionQuantities;
+	
+	/**
+	 * Types of customizations resolved, reused across invocations as the payload holds them.
+	 */
+	private OrderCustomizationTypeEnum[] resolvedTypes;
+	
+	/**
+	 * Build closed recipe and customizations, with ids past the cache of boxed longs as real ids are.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		
+		closedRecipeIngredientMap = new LongKeyedMap<ClosedRecipeIngredient>(RECIPE_INGREDIENTS);
+		portionPrices = new LongKeyedMap<Long>(RECIPE_INGREDIENTS + CUSTOMIZED_INGREDIENTS);
+		customizationIngredientIds = new long[CUSTOMIZED_INGREDIENTS];
+		customizationTypes = new Character[CUSTOMIZED_INGREDIENTS];
+		customizationPortionQuantities = new int[CUSTOMIZED_INGREDIENTS];
+		resolvedTypes = new OrderCustomizationTypeEnum[CUSTOMIZED_INGREDIENTS];
+		
+		for (int i = 0; i < RECIPE_INGREDIENTS; i++) {
+			closedRecipeIngredient = new ClosedRecipeIngredient();
+			closedRecipeIngredient.setPortionQuantity(i + 2);
+			
+			closedRecipeIngredientMap.put(4000 + i * 7, closedRecipeIngredient);
+			portionPrices.put(4000 + i * 7, Long.valueOf(100 + i));
+		}
+		
+		for (int i = 0; i < CUSTOMIZED_INGREDIENTS; i++) {
+			customizationIngredientIds[i] = i % 2 == 0 ? 4000 + i * 7 : 5000 + i;
+			customizationTypes[i] = i % 2 == 0 ? 'r' : 'A';
+			customizationPortionQuantities[i] = 1;
+			
+			portionPrices.put(customizationIngredientIds[i], Long.valueOf(200 + i));
+		}
+	}
+	
+	/**
+	 * Resolve customization types of an order, then price its closed recipe ingredients less removed portions plus its
+	 * added ones, as pricing does.
+	 * 
+	 * @return Price of order in cents, consumed by JMH.
+	 */
+	@Benchmark
+	public long price() {
+		return "SCAN".equals(lookup) ? priceScanning() : priceResolved();
+	}
+	
+	/**
+	 * Price resolving each type by a scan of values and the multiply factor by a stream on every portion, as pricing
+	 * used to.
+	 * 
+	 * @return Price of order in cents.
+	 */
+	private long priceScanning() {
+		long totalPrice = 0;
+		int customizationPosition = -1;
+		int portionQuantity = 0;
+		
+		for (int position = 0; position < CUSTOMIZED_INGREDIENTS; position++) {
+			resolvedTypes[position] = scanType(customizationTypes[position]);
+		}
+		
+		for (int position = 0; position < closedRecipeIngredientMap.size(); position++) {
+			customizationPosition = indexOfCustomization(closedRecipeIngredientMap.keyAt(position));
+			portionQuantity = closedRecipeIngredientMap.valueAt(position).getPortionQuantity()
+					* streamMultiplyFactor(size);
+			
+			if (customizationPosition >= 0
+					&& resolvedTypes[customizationPosition] == OrderCustomizationTypeEnum.REMOVE) {
+				portionQuantity = Math.max(0, portionQuantity
+						- customizationPortionQuantities[customizationPosition] * streamMultiplyFactor(size));
+			}
+			
+			totalPrice += portionPrices.get(closedRecipeIngredientMap.keyAt(position)) * portionQuantity;
+		}
+		
+		for (int position = 0; position < CUSTOMIZED_INGREDIENTS; position++) {
+			if (resolvedTypes[position] == OrderCustomizationTypeEnum.ADD) {
+				totalPrice += portionPrices.get(customizationIngredientIds[position])
+						* customizationPortionQuantities[position] * streamMultiplyFactor(size);
+			}
+		}
+		
+		return totalPrice;
+	}
+	
+	/**
+	 * Price resolving each type by a table read and the multiply factor once for the order, as pricing does.
+	 * 
+	 * @return Price of order in cents.
+	 */
+	private long priceResolved() {
+		long totalPrice = 0;
+		int customizationPosition = -1;
+		int portionQuantity = 0;
+		int multiplyFactor = PizzaSizeMultiplyFactorEnum.getMultiplyFactor(size);
+		
+		for (int position = 0; position < CUSTOMIZED_INGREDIENTS; position++) {
+			resolvedTypes[position] = OrderCustomizationTypeEnum.fromType(customizationTypes[position]);
+		}
+		
+		for (int position = 0; position < closedRecipeIngredientMap.size(); position++) {
+			customizationPosition = indexOfCustomization(closedRecipeIngredientMap.keyAt(position));
+			portionQuantity = closedRecipeIngredientMap.valueAt(position).getPortionQuantity() * multiplyFactor;
+			
+			if (customizationPosition >= 0
+					&& resolvedTypes[customizationPosition] == OrderCustomizationTypeEnum.REMOVE) {
+				portionQuantity = Math.max(0,
+						portionQuantity - customizationPortionQuantities[customizationPosition] * multiplyFactor);
+			}
+			
+			totalPrice += portionPrices.get(closedRecipeIngredientMap.keyAt(position)) * portionQuantity;
+		}
+		
+		for (int position = 0; position < CUSTOMIZED_INGREDIENTS; position++) {
+			if (resolvedTypes[position] == OrderCustomizationTypeEnum.ADD) {
+				totalPrice += portionPrices.get(customizationIngredientIds[position])
+						* customizationPortionQuantities[position] * multiplyFactor;
+			}
+		}
+		
+		return totalPrice;
+	}
+	
+	/**
+	 * Find position of customization of an ingredient.
+	 * 
+	 * @param ingredientId Id of ingredient.
+	 * @return Position of customization, -1 when ingredient is not customized.
+	 */
+	private int indexOfCustomization(long ingredientId) {
+		for (int position = 0; position < CUSTOMIZED_INGREDIENTS; position++) {
+			if (customizationIngredientIds[position] == ingredientId) {
+				return position;
+			}
+		}
+		
+		return -1;
+	}
+	
+	/**
+	 * Resolve customization type by a scan of values, as it used to be.
+	 * 
+	 * @param type Type of customization.
+	 * @return Order customization type, or null when unknown.
+	 */
+	private static OrderCustomizationTypeEnum scanType(Character type) {
+		for (OrderCustomizationTypeEnum typeEnum : OrderCustomizationTypeEnum.values()) {
+			if (typeEnum.getType().charAt(0) == Character.toUpperCase(type)) {
+				return typeEnum;
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Resolve multiply factor of pizza size by a stream over values, as it used to be.
+	 * 
+	 * @param pizzaSizeShortDescription Short description of pizza size.
+	 * @return Multiply factor proportional to pizza size.
+	 * @throws NoSuchElementException When pizza size is unknown.
+	 */
+	private static int streamMultiplyFactor(Character pizzaSizeShortDescription) {
+		return Stream.of(PizzaSizeMultiplyFactorEnum.values()).filter(
+				pizzaSizeEnum -> pizzaSizeEnum.getShortDescription().equals(pizzaSizeShortDescription)).map(
+						pizzaSizeEnum -> pizzaSizeEnum.getMultiplyFactor()).findAny().get();
+	}
+}
\ No newline at end of file
@@ -0,0 +1,178 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pizzaordering.ingredient.data.IngredientRepository;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Benchmark of loading the prices of the ingredients of an order from an in-memory database, as managed entities on a
+ * read-only transaction or through the pricing projection query, reported as time and, by the gc profiler of the
+ * benchmark profile, as bytes allocated per order (gc.alloc.rate.norm).
+ * 
+ * The second-level cache is off, so both loads read the same rows from database.
+ * 
+ * Run with: mvn -P benchmark test-compile exec:exec -Dbenchmark=PricingProjectionBenchmark
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PricingProjectionBenchmark {
+	
+	/**
+	 * Number of ingredients in database.
+	 */
+	private static final int INGREDIENTS = 1000;
+	
+	/**
+	 * Number of ingredients priced per order, a closed recipe plus a few customized ingredients.
+	 */
+	private static final int INGREDIENTS_PER_ORDER = 8;
+	
+	/**
+	 * How prices are loaded.
+	 */
+	@Param({ "ENTITY", "PROJECTION" })
+	public String load;
+	
+	/**
+	 * Application context over in-memory database.
+	 */
+	private ConfigurableApplicationContext applicationContext;
+	
+	/**
+	 * Interface of ingredient repository layer.
+	 */
+	private IngredientRepository ingredientRepository;
+	
+	/**
+	 * Template of read-only transactions, as a JPA repository read runs on.
+	 */
+	private TransactionTemplate readOnlyTransactionTemplate;
+	
+	/**
+	 * Ids of ingredients of order.
+	 */
+	private List<Long> ids;
+	
+	/**
+	 * Start application without web server and fill ingredient table.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		List<Ingredient> ingredients = new ArrayList<Ingredient>();
+		Ingredient ingredient = null;
+		
+		applicationContext = new SpringApplicationBuilder(IngredientResourceApplication.class)
+				.web(WebApplicationType.NONE)
+				.run("--spring.datasource.url=jdbc:h2:mem:pricing-benchmark;DB_CLOSE_DELAY=-1",
+						"--spring.datasource.driver-class-name=org.h2.Driver",
+						"--spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+						"--spring.jpa.properties.hibernate.generate_statistics=false");
+		ingredientRepository = applicationContext.getBean(IngredientRepository.class);
+		readOnlyTransactionTemplate = new TransactionTemplate(
+				applicationContext.getBean(PlatformTransactionManager.class));
+		readOnlyTransactionTemplate.setReadOnly(true);
+		
+		for (int i = 0; i < INGREDIENTS; i++) {
+			ingredient = new Ingredient();
+			ingredient.setDescription("Ingredient " + i);
+			ingredient.setType('C');
+			ingredient.setPortionQuantity(500);
+			ingredient.setPortionPrice(BigDecimal.valueOf(2.5));
+			ingredient.setPercentageDiscount(BigDecimal.valueOf(10));
+			ingredients.add(ingredient);
+		}
+		
+		ids = new ArrayList<Long>();
+		
+		for (Ingredient savedIngredient : ingredientRepository.saveAll(ingredients)) {
+			if (ids.size() < INGREDIENTS_PER_ORDER) {
+				ids.add(savedIngredient.getId());
+			}
+		}
+	}
+	
+	/**
+	 * Stop application.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		applicationContext.close();
+	}
+	
+	/**
+	 * Load prices of ingredients of an order and add them up.
+	 * 
+	 * @return Sum of prices of a portion, consumed by JMH.
+	 */
+	@Benchmark
+	public BigDecimal loadPrices() {
+		return "ENTITY".equals(load) ? readOnlyTransactionTemplate.execute(status -> {
+			BigDecimal total = BigDecimal.ZERO;
+			
+			for (Ingredient ingredient : ingredientRepository.findAllById(ids)) {
+				total = total.add(ingredient.getPortionPrice());
+			}
+			
+			return total;
+		}) : sum(ingredientRepository.findPricesByIdIn(ids));
+	}
+	
+	/**
+	 * Add up prices of a portion.
+	 * 
+	 * @param ingredientPrices Prices of ingredients.
+	 * @return Sum of prices of a portion.
+	 */
+	private BigDecimal sum(List<IngredientPrice> ingredientPrices) {
+		BigDecimal total = BigDecimal.ZERO;
+		
+		for (IngredientPrice ingredientPrice : ingredientPrices) {
+			total = total.add(ingredientPrice.getPortionPrice());
+		}
+		
+		return total;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,305 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.InOrder;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.pizzaordering.ingredient.data.IngredientRepository;
+import com.pizzaordering.ingredient.data.ReactiveIngredientRepository;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.domain.Order;
+import com.pizzaordering.ingredient.domain.OrderCustomization;
+import com.pizzaordering.ingredient.domain.OrderPayload;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.scheduling.BlockingScheduler;
+import com.pizzaordering.ingredient.service.DealRegistryService;
+import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.service.InventoryMovementService;
+import com.pizzaordering.ingredient.service.LowStockService;
+import com.pizzaordering.ingredient.service.OutboxService;
+import com.pizzaordering.ingredient.service.ReactiveClosedRecipeClientService;
+import com.pizzaordering.ingredient.serviceImpl.ReactiveIngredientServiceImpl;
+import com.pizzaordering.ingredient.util.InventoryMovementReasonEnum;
+import com.pizzaordering.ingredient.util.OutboxEventTypeEnum;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * Unit test of reactive ingredient service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ReactiveIngredientServiceTest {
+	
+	/**
+	 * Scheduler of blocking calls, one thread.
+	 */
+	private BlockingScheduler blockingScheduler;
+	
+	/**
+	 * Interface of ingredient repository layer mocked.
+	 */
+	private IngredientRepository ingredientRepository;
+	
+	/**
+	 * Interface of inventory movement service layer mocked.
+	 */
+	private InventoryMovementService inventoryMovementService;
+	
+	/**
+	 * Interface of outbox service layer mocked.
+	 */
+	private OutboxService outboxService;
+	
+	/**
+	 * Interface of blocking ingredient service layer mocked, caching ingredients saved.
+	 */
+	private IngredientService ingredientService;
+	
+	/**
+	 * Reactive ingredient service layer.
+	 */
+	private ReactiveIngredientServiceImpl reactiveIngredientService;
+	
+	/**
+	 * Pepperoni ingredient of closed recipe.
+	 */
+	private Ingredient pepperoni;
+	
+	/**
+	 * Provolone ingredient of closed recipe, partially removed.
+	 */
+	private Ingredient provolone;
+	
+	/**
+	 * Tomato ingredient, added.
+	 */
+	private Ingredient tomato;
+	
+	/**
+	 * Build service layer over mocked database, closed recipe resource and deals.
+	 */
+	@Before
+	public void setUp() {
+		ReactiveIngredientRepository reactiveIngredientRepository = new ReactiveIngredientRepository();
+		ReactiveClosedRecipeClientService reactiveClosedRecipeClientService = Mockito.mock(
+				ReactiveClosedRecipeClientService.class);
+		DealRegistryService dealRegistryService = Mockito.mock(DealRegistryService.class);
+		
+		blockingScheduler = new BlockingScheduler();
+		ingredientRepository = Mockito.mock(IngredientRepository.class);
+		inventoryMovementService = Mockito.mock(InventoryMovementService.class);
+		outboxService = Mockito.mock(OutboxService.class);
+		ingredientService = Mockito.mock(IngredientService.class);
+		reactiveIngredientService = new ReactiveIngredientServiceImpl();
+		
+		ReflectionTestUtils.setField(blockingScheduler, "threads", 1);
+		ReflectionTestUtils.setField(blockingScheduler, "queueCapacity", 10);
+		
+		blockingScheduler.init();
+		
+		ReflectionTestUtils.setField(reactiveIngredientRepository, "ingredientRepository", ingredientRepository);
+		ReflectionTestUtils.setField(reactiveIngredientRepository, "blockingScheduler", blockingScheduler);
+		ReflectionTestUtils.setField(reactiveIngredientRepository, "outboxService", outboxService);
+		ReflectionTestUtils.setField(reactiveIngredientRepository, "transactionManager",
+				Mockito.mock(PlatformTransactionManager.class));
+		ReflectionTestUtils.setField(reactiveIngredientService, "reactiveIngredientRepository",
+				reactiveIngredientRepository);
+		ReflectionTestUtils.setField(reactiveIngredientService, "reactiveClosedRecipeClientService",
+				reactiveClosedRecipeClientService);
+		ReflectionTestUtils.setField(reactiveIngredientService, "dealRegistryService", dealRegistryService);
+		ReflectionTestUtils.setField(reactiveIngredientService, "inventoryMovementService", inventoryMovementService);
+		ReflectionTestUtils.setField(reactiveIngredientService, "ingredientService", ingredientService);
+		ReflectionTestUtils.setField(reactiveIngredientService, "lowStockService",
+				Mockito.mock(LowStockService.class));
+		
+		pepperoni = ingredient(1L, "Pepperoni", 'P', BigDecimal.valueOf(3));
+		provolone = ingredient(2L, "Provolone", 'C', BigDecimal.valueOf(1.5));
+		tomato = ingredient(3L, "Tomato", 'V', BigDecimal.valueOf(1));
+		
+		Mockito.when(reactiveClosedRecipeClientService.getClosedRecipe(1)).thenReturn(Mono.just(closedRecipe()));
+		Mockito.when(dealRegistryService.getEffectiveDiscounts()).thenReturn(new HashMap<Long, BigDecimal>());
+		Mockito.when(ingredientRepository.findCurrentById(1L)).thenReturn(Optional.of(pepperoni));
+		Mockito.when(ingredientRepository.findCurrentById(2L)).thenReturn(Optional.of(provolone));
+		Mockito.when(ingredientRepository.findCurrentById(3L)).thenReturn(Optional.of(tomato));
+		Mockito.when(ingredientRepository.findAllById(Mockito.anyIterable()))
+				.thenReturn(Arrays.asList(pepperoni, provolone, tomato));
+		Mockito.when(ingredientRepository.findPricesByIdIn(Mockito.anyCollection())).thenReturn(Arrays.asList(
+				new IngredientPrice(pepperoni), new IngredientPrice(provolone), new IngredientPrice(tomato)));
+		Mockito.when(ingredientRepository.save(Mockito.any(Ingredient.class)))
+				.thenAnswer(invocation -> invocation.getArgument(0));
+	}
+	
+	/**
+	 * Stop scheduler.
+	 */
+	@After
+	public void tearDown() {
+		blockingScheduler.destroy();
+	}
+	
+	/**
+	 * Test calculate order price method when a closed recipe is used on request with customized ingredients:
+	 * 
+	 * > Mock database and external calls of this flow.
+	 * > Price must match the blocking service layer's, and inventory must be decremented one portion at a time, in
+	 * order, each decrement being recorded as a movement, written to the outbox and cached.
+	 */
+	@Test
+	public void calculateOrderPriceClosedRecipeCustomizedIngredientsTest() {
+		InOrder inOrder = Mockito.inOrder(ingredientRepository);
+		
+		assertThat(reactiveIngredientService.calculateOrderPrice(OrderPayload.of(order())).block())
+				.isEqualTo(BigDecimal.valueOf(39).setScale(2));
+		
+		inOrder.verify(ingredientRepository).findCurrentById(1L);
+		inOrder.verify(ingredientRepository).save(pepperoni);
+		inOrder.verify(ingredientRepository).findCurrentById(2L);
+		inOrder.verify(ingredientRepository).save(provolone);
+		inOrder.verify(ingredientRepository).findCurrentById(3L);
+		inOrder.verify(ingredientRepository).save(tomato);
+		
+		assertThat(pepperoni.getPortionQuantity()).isEqualTo(500 - (3 * 2));
+		assertThat(provolone.getPortionQuantity()).isEqualTo(500 - ((5 * 2) - (2 * 2)));
+		assertThat(tomato.getPortionQuantity()).isEqualTo(500 - (6 * 2));
+		
+		Mockito.verify(inventoryMovementService).recordMovement(1L, -(3 * 2), InventoryMovementReasonEnum.ORDER, null);
+		Mockito.verify(inventoryMovementService).recordMovement(2L, -((5 * 2) - (2 * 2)),
+				InventoryMovementReasonEnum.ORDER, null);
+		Mockito.verify(inventoryMovementService).recordMovement(3L, -(6 * 2), InventoryMovementReasonEnum.ORDER, null);
+		Mockito.verify(outboxService, Mockito.times(3)).appendIngredientEvent(Mockito.eq(OutboxEventTypeEnum.INVENTORY),
+				Mockito.any(Ingredient.class));
+		Mockito.verify(ingredientService).cacheIngredient(pepperoni);
+		Mockito.verify(ingredientService).cacheIngredient(provolone);
+		Mockito.verify(ingredientService).cacheIngredient(tomato);
+	}
+	
+	/**
+	 * Test quote order price method when a closed recipe is used on request with customized ingredients:
+	 * 
+	 * > Mock database and external calls of this flow.
+	 * > Price must match calculated one, prices being loaded in a single projection query, no entity being loaded and
+	 * inventory left untouched.
+	 */
+	@Test
+	public void quoteOrderPriceClosedRecipeCustomizedIngredientsTest() {
+		assertThat(reactiveIngredientService.quoteOrderPrice(OrderPayload.of(order())).block())
+				.isEqualTo(BigDecimal.valueOf(39).setScale(2));
+		
+		Mockito.verify(ingredientRepository).findPricesByIdIn(Mockito.anyCollection());
+		Mockito.verify(ingredientRepository, Mockito.never()).findAllById(Mockito.anyIterable());
+		Mockito.verify(ingredientRepository, Mockito.never()).findById(Mockito.anyLong());
+		Mockito.verify(ingredientRepository, Mockito.never()).save(Mockito.any(Ingredient.class));
+		Mockito.verifyZeroInteractions(inventoryMovementService, outboxService);
+		
+		assertThat(pepperoni.getPortionQuantity()).isEqualTo(500);
+		assertThat(provolone.getPortionQuantity()).isEqualTo(500);
+		assertThat(tomato.getPortionQuantity()).isEqualTo(500);
+	}
+	
+	/**
+	 * Build closed recipe with pepperoni and provolone.
+	 * 
+	 * @return Closed recipe.
+	 */
+	private ClosedRecipe closedRecipe() {
+		ClosedRecipe closedRecipe = new ClosedRecipe();
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap = new HashMap<Long, ClosedRecipeIngredient>();
+		
+		closedRecipe.setId(1);
+		closedRecipe.setDescription("Pepperoni");
+		
+		closedRecipeIngredient = new ClosedRecipeIngredient();
+		closedRecipeIngredient.setPortionQuantity(3);
+		
+		closedRecipeIngredientMap.put(1L, closedRecipeIngredient);
+		
+		closedRecipeIngredient = new ClosedRecipeIngredient();
+		closedRecipeIngredient.setPortionQuantity(5);
+		
+		closedRecipeIngredientMap.put(2L, closedRecipeIngredient);
+		
+		closedRecipe.setClosedRecipeIngredientMap(closedRecipeIngredientMap);
+		
+		return closedRecipe;
+	}
+	
+	/**
+	 * Build medium order of closed recipe, adding tomato and removing part of provolone.
+	 * 
+	 * @return Order.
+	 */
+	private Order order() {
+		Order order = new Order();
+		OrderCustomization orderCustomization = null;
+		Map<Long, OrderCustomization> orderCustomizationMap = new HashMap<Long, OrderCustomization>();
+		
+		order.setClosedRecipeId(1);
+		order.setSize('M');
+		order.setBreadThickness('S');
+		
+		orderCustomization = new OrderCustomization();
+		orderCustomization.setType('A');
+		orderCustomization.setPortionQuantity(6);
+		
+		orderCustomizationMap.put(3L, orderCustomization);
+		
+		orderCustomization = new OrderCustomization();
+		orderCustomization.setType('R');
+		orderCustomization.setPortionQuantity(2);
+		
+		orderCustomizationMap.put(2L, orderCustomization);
+		
+		order.setOrderCustomizationMap(orderCustomizationMap);
+		
+		return order;
+	}
+	
+	/**
+	 * Build ingredient with 500 portions in inventory.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param description Description of ingredient.
+	 * @param type Type of ingredient.
+	 * @param portionPrice Price of a portion.
+	 * @return Ingredient.
+	 */
+	private Ingredient ingredient(Long id, String description, Character type, BigDecimal portionPrice) {
+		Ingredient ingredient = new Ingredient();
+		
+		ingredient.setId(id);
+		ingredient.setDescription(description);
+		ingredient.setType(type);
+		ingredient.setPortionQuantity(500);
+		ingredient.setPortionPrice(portionPrice);
+		
+		return ingredient;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,189 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.IngredientLookup;
+import com.pizzaordering.ingredient.domain.RecipeAvailability;
+import com.pizzaordering.ingredient.entity.Ingredient;
+import com.pizzaordering.ingredient.service.ClosedRecipeClientService;
+import com.pizzaordering.ingredient.service.IngredientService;
+import com.pizzaordering.ingredient.serviceImpl.RecipeAvailabilityServiceImpl;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Unit test of recipe availability service layer.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class RecipeAvailabilityServiceTest {
+	
+	/**
+	 * Interface of ingredient service layer mocked.
+	 */
+	private IngredientService ingredientService;
+	
+	/**
+	 * Service under test.
+	 */
+	private RecipeAvailabilityServiceImpl recipeAvailabilityService;
+	
+	/**
+	 * Build service over mocked closed recipes and inventory:
+	 * > Closed recipe 1 takes 3 portions of pepperoni, 100 in stock, and 5 of provolone, 40 in stock.
+	 * > Closed recipe 2 is not known to closed recipe resource.
+	 * > Closed recipe 3 takes an ingredient not in inventory.
+	 */
+	@Before
+	public void setUp() {
+		ClosedRecipeClientService closedRecipeClientService = Mockito.mock(ClosedRecipeClientService.class);
+		
+		ingredientService = Mockito.mock(IngredientService.class);
+		recipeAvailabilityService = new RecipeAvailabilityServiceImpl();
+		
+		ReflectionTestUtils.setField(recipeAvailabilityService, "closedRecipeClientService", closedRecipeClientService);
+		ReflectionTestUtils.setField(recipeAvailabilityService, "ingredientService", ingredientService);
+		ReflectionTestUtils.setField(recipeAvailabilityService, "threads", 2);
+		
+		recipeAvailabilityService.init();
+		
+		Mockito.when(closedRecipeClientService.getClosedRecipe(1)).thenReturn(closedRecipe(1, 1L, 3, 2L, 5));
+		Mockito.when(closedRecipeClientService.getClosedRecipe(2))
+				.thenThrow(new HttpClientErrorException(HttpStatus.NOT_FOUND));
+		Mockito.when(closedRecipeClientService.getClosedRecipe(3)).thenReturn(closedRecipe(3, 1L, 1, 9L, 1));
+		Mockito.when(ingredientService.getIngredients(ArgumentMatchers.anyList())).thenAnswer(invocation -> {
+			List<Long> ids = invocation.getArgument(0);
+			Map<Long, Ingredient> inventory = new HashMap<Long, Ingredient>();
+			
+			inventory.put(1L, ingredient(1L, 100));
+			inventory.put(2L, ingredient(2L, 40));
+			
+			return ids.stream().map(id -> new IngredientLookup(id, inventory.get(id))).collect(Collectors.toList());
+		});
+	}
+	
+	/**
+	 * Stop service.
+	 */
+	@After
+	public void tearDown() {
+		recipeAvailabilityService.destroy();
+	}
+	
+	/**
+	 * Test availability of a closed recipe:
+	 * 
+	 * > Get availability of closed recipe 1 in medium size.
+	 * > Provolone must limit it to 40 / (5 * 2) pizzas.
+	 */
+	@Test
+	public void getRecipeAvailabilityTest() {
+		RecipeAvailability recipeAvailability = recipeAvailabilityService.getRecipeAvailability(1,
+				PizzaSizeMultiplyFactorEnum.MEDIUM);
+		
+		assertThat(recipeAvailability.getFound()).isTrue();
+		assertThat(recipeAvailability.getSize()).isEqualTo('M');
+		assertThat(recipeAvailability.getMakeableCount()).isEqualTo(4);
+		assertThat(recipeAvailability.getLimitingIngredientId()).isEqualTo(2L);
+	}
+	
+	/**
+	 * Test availability of a menu:
+	 * 
+	 * > Get availability of closed recipes 1, 2 and 3 in every size.
+	 * > Closed recipe 1 must be limited by provolone in each size, 2 must be marked not found, 3 must be out of stock,
+	 *   and inventory must be loaded once for the whole menu.
+	 */
+	@Test
+	public void getRecipeAvailabilitiesTest() {
+		List<RecipeAvailability> recipeAvailabilities = recipeAvailabilityService
+				.getRecipeAvailabilities(Arrays.asList(1, 2, 3), null);
+		
+		assertThat(recipeAvailabilities).hasSize(9);
+		assertThat(recipeAvailabilities).extracting(RecipeAvailability::getClosedRecipeId)
+				.containsExactly(1, 1, 1, 2, 2, 2, 3, 3, 3);
+		assertThat(recipeAvailabilities).extracting(RecipeAvailability::getSize)
+				.containsExactly('S', 'M', 'B', 'S', 'M', 'B', 'S', 'M', 'B');
+		assertThat(recipeAvailabilities).extracting(RecipeAvailability::getMakeableCount)
+				.containsExactly(8, 4, 2, 0, 0, 0, 0, 0, 0);
+		assertThat(recipeAvailabilities.get(3).getFound()).isFalse();
+		assertThat(recipeAvailabilities.get(6).getLimitingIngredientId()).isEqualTo(9L);
+		
+		Mockito.verify(ingredientService, Mockito.times(1)).getIngredients(ArgumentMatchers.anyList());
+	}
+	
+	/**
+	 * Build closed recipe of two ingredients.
+	 * 
+	 * @param id Id of closed recipe.
+	 * @param firstIngredientId Id of first ingredient.
+	 * @param firstPortionQuantity Quantity of portion of first ingredient.
+	 * @param secondIngredientId Id of second ingredient.
+	 * @param secondPortionQuantity Quantity of portion of second ingredient.
+	 * @return Closed recipe.
+	 */
+	private ClosedRecipe closedRecipe(Integer id, Long firstIngredientId, int firstPortionQuantity,
+			Long secondIngredientId, int secondPortionQuantity) {
+		ClosedRecipe closedRecipe = new ClosedRecipe();
+		Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap = new HashMap<Long, ClosedRecipeIngredient>();
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		
+		closedRecipeIngredient = new ClosedRecipeIngredient();
+		closedRecipeIngredient.setPortionQuantity(firstPortionQuantity);
+		closedRecipeIngredientMap.put(firstIngredientId, closedRecipeIngredient);
+		
+		closedRecipeIngredient = new ClosedRecipeIngredient();
+		closedRecipeIngredient.setPortionQuantity(secondPortionQuantity);
+		closedRecipeIngredientMap.put(secondIngredientId, closedRecipeIngredient);
+		
+		closedRecipe.setId(id);
+		closedRecipe.setClosedRecipeIngredientMap(closedRecipeIngredientMap);
+		
+		return closedRecipe;
+	}
+	
+	/**
+	 * Build ingredient.
+	 * 
+	 * @param id Id of ingredient.
+	 * @param portionQuantity Quantity of portion in inventory.
+	 * @return Ingredient.
+	 */
+	private Ingredient ingredient(Long id, int portionQuantity) {
+		Ingredient ingredient = new Ingredient();
+		
+		ingredient.setId(id);
+		ingredient.setPortionQuantity(portionQuantity);
+		
+		return ingredient;
+	}
+}
\ No newline at end of file
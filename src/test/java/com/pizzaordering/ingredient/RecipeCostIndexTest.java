@@ -0,0 +1,122 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+import com.pizzaordering.ingredient.cache.RecipeCostIndex;
+import com.pizzaordering.ingredient.domain.ClosedRecipe;
+import com.pizzaordering.ingredient.domain.ClosedRecipeIngredient;
+import com.pizzaordering.ingredient.domain.IngredientPrice;
+import com.pizzaordering.ingredient.util.PizzaSizeMultiplyFactorEnum;
+
+/**
+ * Unit test of closed recipe cost index.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class RecipeCostIndexTest {
+	
+	/**
+	 * Test incremental maintenance of closed recipe costs:
+	 * 
+	 * > Index a closed recipe of two ingredients, then change the price of one and the discount of the other.
+	 * > Costs must be adjusted in every size without rebuilding the closed recipe, and a deleted ingredient must evict
+	 * it so the next read rebuilds it.
+	 */
+	@Test
+	public void incrementalUpdateTest() {
+		Map<Long, IngredientPrice> prices = new ConcurrentHashMap<Long, IngredientPrice>();
+		Map<Long, BigDecimal> discounts = new ConcurrentHashMap<Long, BigDecimal>();
+		AtomicInteger builds = new AtomicInteger();
+		RecipeCostIndex recipeCostIndex = null;
+		
+		prices.put(80L, new IngredientPrice(80L, BigDecimal.valueOf(3)));
+		prices.put(81L, new IngredientPrice(81L, BigDecimal.valueOf(1.5)));
+		
+		recipeCostIndex = new RecipeCostIndex(id -> {
+			builds.incrementAndGet();
+			
+			return closedRecipe(id);
+		}, ids -> new HashMap<Long, IngredientPrice>(prices), ingredientPrice -> ingredientPrice.getPortionPrice()
+				.multiply(BigDecimal.valueOf(100).subtract(discounts.getOrDefault(ingredientPrice.getId(),
+						BigDecimal.ZERO)).divide(BigDecimal.valueOf(100))), 60000);
+		
+		// 2 x 3 + 4 x 1.5 = 12 in small size.
+		assertThat(recipeCostIndex.get(1).getCost(PizzaSizeMultiplyFactorEnum.SMALL)).isEqualByComparingTo("12");
+		assertThat(recipeCostIndex.get(1).getCost(PizzaSizeMultiplyFactorEnum.BIG)).isEqualByComparingTo("36");
+		
+		// Price of 80 from 3 to 5: 2 x 5 + 4 x 1.5 = 16.
+		recipeCostIndex.updateIngredientPrice(new IngredientPrice(80L, BigDecimal.valueOf(5)));
+		
+		assertThat(recipeCostIndex.get(1).getCost(PizzaSizeMultiplyFactorEnum.MEDIUM)).isEqualByComparingTo("32");
+		assertThat(recipeCostIndex.get(1).getPortionPrice(80L)).isEqualByComparingTo("5");
+		
+		// Deal of 50% on 81: 2 x 5 + 4 x 0.75 = 13.
+		discounts.put(81L, BigDecimal.valueOf(50));
+		recipeCostIndex.repriceIngredients(Collections.singleton(81L));
+		
+		assertThat(recipeCostIndex.get(1).getCost(PizzaSizeMultiplyFactorEnum.SMALL)).isEqualByComparingTo("13");
+		assertThat(builds.get()).isEqualTo(1);
+		
+		// Ingredient not in closed recipe leaves it alone, a deleted one evicts it.
+		recipeCostIndex.updateIngredientPrice(new IngredientPrice(99L, BigDecimal.ONE));
+		
+		assertThat(recipeCostIndex.size()).isEqualTo(1);
+		
+		recipeCostIndex.evictIngredient(81L);
+		
+		assertThat(recipeCostIndex.size()).isEqualTo(0);
+		
+		// Rebuilt from the source prices, which never saw the price change of 80: 2 x 3 + 4 x 0.75 = 9.
+		assertThat(recipeCostIndex.get(1).getCost(PizzaSizeMultiplyFactorEnum.SMALL)).isEqualByComparingTo("9");
+		assertThat(builds.get()).isEqualTo(2);
+	}
+	
+	/**
+	 * Build closed recipe of two portions of ingredient 80 and four of ingredient 81.
+	 * 
+	 * @param id Id of closed recipe.
+	 * @return Closed recipe.
+	 */
+	private ClosedRecipe closedRecipe(Integer id) {
+		ClosedRecipe closedRecipe = new ClosedRecipe();
+		Map<Long, ClosedRecipeIngredient> closedRecipeIngredientMap = new LinkedHashMap<Long, ClosedRecipeIngredient>();
+		ClosedRecipeIngredient closedRecipeIngredient = null;
+		
+		closedRecipeIngredient = new ClosedRecipeIngredient();
+		closedRecipeIngredient.setPortionQuantity(2);
+		closedRecipeIngredientMap.put(80L, closedRecipeIngredient);
+		
+		closedRecipeIngredient = new ClosedRecipeIngredient();
+		closedRecipeIngredient.setPortionQuantity(4);
+		closedRecipeIngredientMap.put(81L, closedRecipeIngredient);
+		
+		closedRecipe.setId(id);
+		closedRecipe.setDescription("Pepperoni");
+		closedRecipe.setClosedRecipeIngredientMap(closedRecipeIngredientMap);
+		
+		return closedRecipe;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,217 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.pizzaordering.ingredient.routing.ReadYourWrites;
+import com.pizzaordering.ingredient.routing.ReplicaRoutingDataSource;
+
+/**
+ * Unit test of routing between primary database and read replicas, on two embedded databases.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class ReplicaRoutingDataSourceTest {
+	
+	/**
+	 * Query of description of the only ingredient, telling which database served it.
+	 */
+	private static final String SELECT_DESCRIPTION = "select description from igd_ingredient where id = 1";
+	
+	/**
+	 * Primary database.
+	 */
+	private DriverManagerDataSource primary;
+	
+	/**
+	 * Read replica.
+	 */
+	private DriverManagerDataSource replica;
+	
+	/**
+	 * Replica that can not be reached.
+	 */
+	private DriverManagerDataSource unreachableReplica;
+	
+	/**
+	 * Routing data source under test.
+	 */
+	private ReplicaRoutingDataSource routingDataSource;
+	
+	/**
+	 * Create primary and replica databases, each holding an ingredient described by the name of its database.
+	 */
+	@Before
+	public void setUp() {
+		primary = database("primary");
+		replica = database("replica");
+		unreachableReplica = new DriverManagerDataSource("jdbc:h2:mem:unreachable;IFEXISTS=TRUE", "sa", "");
+	}
+	
+	/**
+	 * Drop databases and stop health checks.
+	 * 
+	 * @throws IOException When routing data source can not be closed.
+	 */
+	@After
+	public void tearDown() throws IOException {
+		new JdbcTemplate(primary).execute("drop all objects");
+		new JdbcTemplate(replica).execute("drop all objects");
+		
+		if (routingDataSource != null) {
+			routingDataSource.close();
+		}
+	}
+	
+	/**
+	 * Test routing of reads and writes:
+	 * 
+	 * > Read on read-only transactions, update on a read-write transaction and read out of transaction.
+	 * > Read-only reads must be served by the healthy replica, skipping the unreachable one, writes and reads out of
+	 * a read-only transaction must go to the primary database.
+	 */
+	@Test
+	public void readOnlyTransactionReadsReplicaTest() {
+		DataSource dataSource = routedDataSource(Arrays.asList(unreachableReplica, replica));
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		
+		assertThat(routingDataSource.isHealthy(0)).isFalse();
+		assertThat(routingDataSource.isHealthy(1)).isTrue();
+		
+		assertThat(readOnlyDescription(dataSource)).isEqualTo("replica");
+		assertThat(readOnlyDescription(dataSource)).isEqualTo("replica");
+		
+		readWrite(dataSource).execute(status -> jdbcTemplate.update(
+				"update igd_ingredient set description = 'updated' where id = 1"));
+		
+		assertThat(description(new JdbcTemplate(primary))).isEqualTo("updated");
+		assertThat(description(new JdbcTemplate(replica))).isEqualTo("replica");
+		assertThat(description(jdbcTemplate)).isEqualTo("updated");
+	}
+	
+	/**
+	 * Test read-your-writes:
+	 * 
+	 * > Read on a read-only transaction with read-your-writes enabled.
+	 * > Read must be served by the primary database, and by the replica again once the flag is restored.
+	 */
+	@Test
+	public void readYourWritesReadsPrimaryTest() {
+		DataSource dataSource = routedDataSource(Arrays.asList(replica));
+		boolean previous = ReadYourWrites.set(true);
+		
+		try {
+			assertThat(readOnlyDescription(dataSource)).isEqualTo("primary");
+		} finally {
+			ReadYourWrites.set(previous);
+		}
+		
+		assertThat(readOnlyDescription(dataSource)).isEqualTo("replica");
+	}
+	
+	/**
+	 * Test fallback to primary database:
+	 * 
+	 * > Read on a read-only transaction while the only replica fails its health checks.
+	 * > Read must be served by the primary database.
+	 */
+	@Test
+	public void unhealthyReplicaFallsBackToPrimaryTest() {
+		DataSource dataSource = routedDataSource(Arrays.asList(unreachableReplica));
+		
+		routingDataSource.checkReplicas();
+		
+		assertThat(routingDataSource.isHealthy(0)).isFalse();
+		assertThat(readOnlyDescription(dataSource)).isEqualTo("primary");
+	}
+	
+	/**
+	 * Build routing data source behind a lazy connection proxy, as configured on the application.
+	 * 
+	 * @param replicas Read replicas.
+	 * @return Data source.
+	 */
+	private DataSource routedDataSource(List<DataSource> replicas) {
+		routingDataSource = new ReplicaRoutingDataSource(primary, replicas, 60000, 1);
+		
+		return new LazyConnectionDataSourceProxy(routingDataSource);
+	}
+	
+	/**
+	 * Read description of the only ingredient on a read-only transaction.
+	 * 
+	 * @param dataSource Data source.
+	 * @return Description.
+	 */
+	private String readOnlyDescription(DataSource dataSource) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+		
+		transactionTemplate.setReadOnly(true);
+		
+		return transactionTemplate.execute(status -> description(new JdbcTemplate(dataSource)));
+	}
+	
+	/**
+	 * Build template of read-write transactions.
+	 * 
+	 * @param dataSource Data source.
+	 * @return Transaction template.
+	 */
+	private TransactionTemplate readWrite(DataSource dataSource) {
+		return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+	}
+	
+	/**
+	 * Read description of the only ingredient.
+	 * 
+	 * @param jdbcTemplate JDBC template.
+	 * @return Description.
+	 */
+	private String description(JdbcTemplate jdbcTemplate) {
+		return jdbcTemplate.queryForObject(SELECT_DESCRIPTION, String.class);
+	}
+	
+	/**
+	 * Create embedded database holding an ingredient described by its name.
+	 * 
+	 * @param name Name of database.
+	 * @return Database.
+	 */
+	private DriverManagerDataSource database(String name) {
+		DriverManagerDataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1",
+				"sa", "");
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+		
+		jdbcTemplate.execute("create table igd_ingredient (id bigint primary key, description varchar(255))");
+		jdbcTemplate.update("insert into igd_ingredient (id, description) values (1, ?)", name);
+		
+		return dataSource;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,141 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.math.BigDecimal;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.SecondLevelCacheStatistics;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import com.pizzaordering.ingredient.data.IngredientRepository;
+import com.pizzaordering.ingredient.entity.Ingredient;
+
+/**
+ * Test of second-level cache of ingredients against its own in-memory database.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@RunWith(SpringRunner.class)
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:second-level-cache-test;DB_CLOSE_DELAY=-1")
+public class SecondLevelCacheTest {
+	
+	/**
+	 * Interface of ingredient repository layer.
+	 */
+	@Autowired
+	IngredientRepository ingredientRepository;
+	
+	/**
+	 * Entity manager factory.
+	 */
+	@Autowired
+	EntityManagerFactory entityManagerFactory;
+	
+	/**
+	 * JDBC template, writing rows behind the back of the persistence context.
+	 */
+	@Autowired
+	JdbcTemplate jdbcTemplate;
+	
+	/**
+	 * Test reads and writes of an ingredient through repository:
+	 * 
+	 * > Save an ingredient, read it, update it and delete it.
+	 * > Reads after the first one must be served from second-level cache with the last saved state, none once deleted.
+	 */
+	@Test
+	public void saveAndDeleteKeepCacheCurrentTest() {
+		SecondLevelCacheStatistics statistics = getStatistics();
+		Ingredient ingredient = ingredientRepository.save(ingredient("Oregano", 100));
+		long hitCount = 0;
+		
+		// First read caches the row.
+		ingredientRepository.findById(ingredient.getId());
+		
+		hitCount = statistics.getHitCount();
+		
+		assertThat(ingredientRepository.findById(ingredient.getId()).get().getPortionQuantity()).isEqualTo(100);
+		assertThat(statistics.getHitCount()).isEqualTo(hitCount + 1);
+		
+		ingredient.setPortionQuantity(90);
+		ingredientRepository.save(ingredient);
+		
+		hitCount = statistics.getHitCount();
+		
+		assertThat(ingredientRepository.findById(ingredient.getId()).get().getPortionQuantity()).isEqualTo(90);
+		assertThat(statistics.getHitCount()).isEqualTo(hitCount + 1);
+		
+		ingredientRepository.deleteById(ingredient.getId());
+		
+		hitCount = statistics.getHitCount();
+		
+		assertThat(ingredientRepository.findById(ingredient.getId()).isPresent()).isFalse();
+		assertThat(statistics.getHitCount()).isEqualTo(hitCount);
+	}
+	
+	/**
+	 * Test read of current row of an ingredient updated outside this instance:
+	 * 
+	 * > Cache an ingredient and update its row with plain JDBC.
+	 * > Cached read may be stale, current read used before inventory updates must return the row.
+	 */
+	@Test
+	public void findCurrentByIdBypassesCacheTest() {
+		Ingredient ingredient = ingredientRepository.save(ingredient("Basil", 100));
+		
+		ingredientRepository.findById(ingredient.getId());
+		
+		jdbcTemplate.update("update igd_ingredient set portion_quantity = ? where id = ?", 70, ingredient.getId());
+		
+		assertThat(ingredientRepository.findById(ingredient.getId()).get().getPortionQuantity()).isEqualTo(100);
+		assertThat(ingredientRepository.findCurrentById(ingredient.getId()).get().getPortionQuantity()).isEqualTo(70);
+	}
+	
+	/**
+	 * Get statistics of second-level cache region of ingredients.
+	 * 
+	 * @return Statistics of region.
+	 */
+	private SecondLevelCacheStatistics getStatistics() {
+		return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+				.getSecondLevelCacheStatistics(Ingredient.CACHE_REGION);
+	}
+	
+	/**
+	 * Build ingredient.
+	 * 
+	 * @param description Description of ingredient.
+	 * @param portionQuantity Quantity of portion in inventory.
+	 * @return Ingredient.
+	 */
+	private Ingredient ingredient(String description, int portionQuantity) {
+		Ingredient ingredient = new Ingredient();
+		
+		ingredient.setDescription(description);
+		ingredient.setType('V');
+		ingredient.setPortionQuantity(portionQuantity);
+		ingredient.setPortionPrice(BigDecimal.ONE);
+		
+		return ingredient;
+	}
+}
\ No newline at end of file
@@ -0,0 +1,182 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pizzaordering.ingredient.client.LatencyTracker;
+import com.pizzaordering.ingredient.scheduling.VirtualThreads;
+
+/**
+ * Load test of blocking request handling on platform and virtual threads, reported as the time to serve a burst of
+ * concurrent in-flight requests. Each request blocks as on a database or closed recipe resource call while holding a
+ * guard, then records its latency on a shared latency tracker, as the closed recipe client does.
+ * 
+ * Virtual threads need a Java 21 runtime, run with: JAVA_HOME=<jdk 21> mvn -P benchmark test-compile exec:exec
+ * -Dbenchmark=VirtualThreadLoadBenchmark
+ * 
+ * The MONITOR guard blocks inside a synchronized block, as the deal registry did, pinning the carrier thread of a
+ * virtual thread: expect it to be served at carrier parallelism, so restrict it with -p concurrency=1000.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class VirtualThreadLoadBenchmark {
+	
+	/**
+	 * Time each request blocks, in milliseconds.
+	 */
+	private static final long BLOCKING_MILLIS = 10;
+	
+	/**
+	 * Number of threads of platform pool, the default maximum of Tomcat request threads.
+	 */
+	private static final int PLATFORM_POOL_THREADS = 200;
+	
+	/**
+	 * Threads serving requests.
+	 */
+	@Param({ "PLATFORM_POOL", "PLATFORM_PER_REQUEST", "VIRTUAL" })
+	public String threads;
+	
+	/**
+	 * Guard held while a request blocks.
+	 */
+	@Param({ "REENTRANT_LOCK", "MONITOR" })
+	public String guard;
+	
+	/**
+	 * Number of concurrent in-flight requests.
+	 */
+	@Param({ "1000", "5000", "10000" })
+	public int concurrency;
+	
+	/**
+	 * Executor of requests.
+	 */
+	private ExecutorService executor;
+	
+	/**
+	 * Latency tracker shared by requests.
+	 */
+	private LatencyTracker latencyTracker;
+	
+	/**
+	 * Build executor of requests, failing when virtual threads are not supported by the running JVM.
+	 */
+	@Setup(Level.Trial)
+	public void setUp() {
+		latencyTracker = new LatencyTracker(512);
+		
+		if ("PLATFORM_POOL".equals(threads)) {
+			executor = Executors.newFixedThreadPool(PLATFORM_POOL_THREADS,
+					VirtualThreads.newThreadFactory("platform-pool", false));
+		} else if ("PLATFORM_PER_REQUEST".equals(threads)) {
+			executor = Executors.newCachedThreadPool(VirtualThreads.newThreadFactory("platform-request", false));
+		} else {
+			executor = VirtualThreads.newVirtualThreadPerTaskExecutor("virtual-request");
+		}
+	}
+	
+	/**
+	 * Stop executor of requests.
+	 */
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+	
+	/**
+	 * Serve a burst of concurrent requests, waiting all of them.
+	 * 
+	 * @throws InterruptedException When interrupted while waiting requests.
+	 */
+	@Benchmark
+	public void serveRequests() throws InterruptedException {
+		CountDownLatch latch = new CountDownLatch(concurrency);
+		boolean monitor = "MONITOR".equals(guard);
+		
+		for (int i = 0; i < concurrency; i++) {
+			executor.execute(() -> {
+				long start = System.nanoTime();
+				
+				try {
+					if (monitor) {
+						blockOnMonitor(new Object());
+					} else {
+						blockOnLock(new ReentrantLock());
+					}
+					
+					latencyTracker.record(System.nanoTime() - start);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				} finally {
+					latch.countDown();
+				}
+			});
+		}
+		
+		latch.await();
+	}
+	
+	/**
+	 * Block while holding a monitor.
+	 * 
+	 * @param guard Monitor held while blocking.
+	 * @throws InterruptedException When interrupted while blocking.
+	 */
+	private void blockOnMonitor(Object guard) throws InterruptedException {
+		synchronized (guard) {
+			Thread.sleep(BLOCKING_MILLIS);
+		}
+	}
+	
+	/**
+	 * Block while holding a lock.
+	 * 
+	 * @param guard Lock held while blocking.
+	 * @throws InterruptedException When interrupted while blocking.
+	 */
+	private void blockOnLock(ReentrantLock guard) throws InterruptedException {
+		guard.lock();
+		
+		try {
+			Thread.sleep(BLOCKING_MILLIS);
+		} finally {
+			guard.unlock();
+		}
+	}
+}
\ No newline at end of file
@@ -0,0 +1,52 @@
+/**
+ * Pizza Ordering Application
+ * 
+ * HTTP REST Microservices that handle ordering, deals and inventory
+ * 
+ * FastSpring Coding Challenge
+ * 
+ * Rafael Lima Costa
+ * March of 2018
+ * Santa Barbara, CA, USA
+ */
+package com.pizzaordering.ingredient;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.ThreadFactory;
+
+import org.junit.Test;
+
+import com.pizzaordering.ingredient.scheduling.VirtualThreads;
+
+/**
+ * Unit test of virtual threads factory.
+ * 
+ * @author Rafael Lima Costa
+ *
+ */
+public class VirtualThreadsTest {
+	
+	/**
+	 * Test threads built when virtual threads are asked for:
+	 * 
+	 * > Build factory of virtual threads and a thread from it.
+	 * > Thread must be named after the prefix, and must be a platform daemon thread on a JVM without virtual threads.
+	 */
+	@Test
+	public void newThreadFactoryTest() {
+		ThreadFactory threadFactory = VirtualThreads.newThreadFactory("test-virtual", true);
+		Thread first = threadFactory.newThread(() -> {
+		});
+		Thread second = threadFactory.newThread(() -> {
+		});
+		
+		assertThat(first.getName()).isEqualTo("test-virtual-1");
+		assertThat(second.getName()).isEqualTo("test-virtual-2");
+		assertThat(first.isDaemon()).isTrue();
+		
+		if (!VirtualThreads.isSupported()) {
+			assertThat(first.getClass()).isEqualTo(Thread.class);
+		}
+	}
+}
\ No newline at end of file